@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -98,6 +98,11 @@ public class LocalFile extends FileStore {
 		}
 	}
 
+	@Override
+	public IFileInfo[] childInfos(int options, IProgressMonitor monitor) {
+		return LocalFileNativesManager.fetchChildInfos(filePath);
+	}
+
 	@Override
 	public String[] childNames(int options, IProgressMonitor monitor) {
 		String[] names = file.list();
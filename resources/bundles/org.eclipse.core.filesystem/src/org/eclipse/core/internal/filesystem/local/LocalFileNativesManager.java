@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corporation and others.
+ * Copyright (c) 2010, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -87,6 +87,10 @@ public class LocalFileNativesManager {
 		return HANDLER.fetchFileInfo(fileName);
 	}
 
+	public static FileInfo[] fetchChildInfos(String directoryName) {
+		return HANDLER.fetchChildInfos(directoryName);
+	}
+
 	public static boolean putFileInfo(String fileName, IFileInfo info, int options) {
 		return HANDLER.putFileInfo(fileName, info, options);
 	}
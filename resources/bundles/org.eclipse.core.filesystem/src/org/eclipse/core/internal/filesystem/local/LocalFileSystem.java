@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import java.net.URI;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.provider.FileSystem;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.osgi.service.environment.Constants;
 
 /**
@@ -113,6 +114,11 @@ public class LocalFileSystem extends FileSystem {
 		return true;
 	}
 
+	@Override
+	public IFileTree fetchFileTree(IFileStore root, IProgressMonitor monitor) {
+		return new LocalFileTree(root);
+	}
+
 	@Override
 	public IFileStore fromLocalFile(File file) {
 		return new LocalFile(file);
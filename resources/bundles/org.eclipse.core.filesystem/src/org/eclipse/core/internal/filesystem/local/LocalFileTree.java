@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem.local;
+
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileTree;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A file tree for the local file system. Directories are listed lazily when
+ * their children are requested, each with a single bulk read of the names and
+ * attributes of all children. Nothing is read up front, so that shallow
+ * refreshes do not pay for a walk of the whole subtree.
+ */
+public class LocalFileTree extends FileTree {
+	private static final IFileInfo[] EMPTY_INFOS = new IFileInfo[0];
+	private static final IFileStore[] EMPTY_STORES = new IFileStore[0];
+
+	private final IFileInfo rootInfo;
+
+	/**
+	 * Creates a new file tree rooted at the given store.
+	 *
+	 * @param treeRoot the root of the tree
+	 */
+	public LocalFileTree(IFileStore treeRoot) {
+		super(treeRoot);
+		this.rootInfo = treeRoot.fetchInfo();
+	}
+
+	@Override
+	public IFileInfo[] getChildInfos(IFileStore store) {
+		try {
+			return store.childInfos(EFS.NONE, null);
+		} catch (CoreException e) {
+			//treat failure to access the directory as a non-existent directory
+			return EMPTY_INFOS;
+		}
+	}
+
+	@Override
+	public IFileStore[] getChildStores(IFileStore store) {
+		try {
+			return store.childStores(EFS.NONE, null);
+		} catch (CoreException e) {
+			return EMPTY_STORES;
+		}
+	}
+
+	@Override
+	public IFileInfo getFileInfo(IFileStore store) {
+		if (treeRoot.equals(store))
+			return rootInfo;
+		return store.fetchInfo();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.filesystem.local;
 
+import java.io.File;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.provider.FileInfo;
 
@@ -24,5 +25,26 @@ public abstract class NativeHandler {
 
 	public abstract FileInfo fetchFileInfo(String fileName);
 
+	/**
+	 * Returns the information about all children of the given directory, or an
+	 * empty array if the directory does not exist or cannot be read. Handlers that
+	 * can read the children attributes in bulk should override; this default
+	 * implementation fetches the information of each child separately.
+	 */
+	public FileInfo[] fetchChildInfos(String directoryName) {
+		String[] names = new File(directoryName).list();
+		if (names == null)
+			return new FileInfo[0];
+		FileInfo[] infos = new FileInfo[names.length];
+		for (int i = 0; i < names.length; i++) {
+			FileInfo info = fetchFileInfo(new File(directoryName, names[i]).getAbsolutePath());
+			//natives don't set the file name on all platforms
+			if (info.getName().isEmpty())
+				info.setName(names[i]);
+			infos[i] = info;
+		}
+		return infos;
+	}
+
 	public abstract boolean putFileInfo(String fileName, IFileInfo info, int options);
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2016 IBM Corporation and others.
+ * Copyright (c) 2013, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,8 +18,7 @@ package org.eclipse.core.internal.filesystem.local.nio;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.*;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.provider.FileInfo;
@@ -36,9 +35,62 @@ public class PosixHandler extends NativeHandler {
 			| EFS.ATTRIBUTE_GROUP_READ | EFS.ATTRIBUTE_GROUP_WRITE | EFS.ATTRIBUTE_GROUP_EXECUTE // group
 			| EFS.ATTRIBUTE_OTHER_READ | EFS.ATTRIBUTE_OTHER_WRITE | EFS.ATTRIBUTE_OTHER_EXECUTE; // other
 
+	/**
+	 * Reads the POSIX attributes of a file, either following symbolic links or not.
+	 */
+	@FunctionalInterface
+	private interface AttributesReader {
+		PosixFileAttributes read(boolean followLinks) throws IOException;
+	}
+
 	@Override
 	public FileInfo fetchFileInfo(String fileName) {
 		Path path = Paths.get(fileName);
+		return fetchFileInfo(path, followLinks -> readAttributes(path, followLinks));
+	}
+
+	/**
+	 * Reads the children of the directory in a single pass. Where the file system
+	 * provides a {@link SecureDirectoryStream}, the attributes of each child are
+	 * read relative to the open directory, which saves resolving the full path of
+	 * every child.
+	 */
+	@Override
+	public FileInfo[] fetchChildInfos(String directoryName) {
+		List<FileInfo> infos = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(directoryName))) {
+			if (stream instanceof SecureDirectoryStream) {
+				SecureDirectoryStream<Path> secureStream = (SecureDirectoryStream<Path>) stream;
+				for (Path child : secureStream) {
+					Path name = child.getFileName();
+					infos.add(fetchFileInfo(child, followLinks -> readAttributes(secureStream, name, child, followLinks)));
+				}
+			} else {
+				for (Path child : stream) {
+					infos.add(fetchFileInfo(child, followLinks -> readAttributes(child, followLinks)));
+				}
+			}
+		} catch (IOException | DirectoryIteratorException e) {
+			// Not a directory, or not readable: same as a directory without children.
+			return new FileInfo[0];
+		}
+		return infos.toArray(new FileInfo[infos.size()]);
+	}
+
+	private static PosixFileAttributes readAttributes(Path path, boolean followLinks) throws IOException {
+		if (followLinks)
+			return Files.readAttributes(path, PosixFileAttributes.class);
+		return Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+	}
+
+	private static PosixFileAttributes readAttributes(SecureDirectoryStream<Path> directory, Path name, Path path, boolean followLinks) throws IOException {
+		PosixFileAttributeView view = followLinks ? directory.getFileAttributeView(name, PosixFileAttributeView.class) : directory.getFileAttributeView(name, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+		if (view == null)
+			return readAttributes(path, followLinks);
+		return view.readAttributes();
+	}
+
+	private static FileInfo fetchFileInfo(Path path, AttributesReader reader) {
 		FileInfo info = new FileInfo();
 
 		// Fill in the name of the file.
@@ -50,12 +102,12 @@ public class PosixHandler extends NativeHandler {
 		info.setName(fileNamePath == null ? "" : fileNamePath.toString()); //$NON-NLS-1$
 
 		try {
-			PosixFileAttributes attrs = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+			PosixFileAttributes attrs = reader.read(false);
 
 			if (attrs.isSymbolicLink()) {
 				info.setAttribute(EFS.ATTRIBUTE_SYMLINK, true);
 				info.setStringAttribute(EFS.ATTRIBUTE_LINK_TARGET, Files.readSymbolicLink(path).toString());
-				attrs = Files.readAttributes(path, PosixFileAttributes.class);
+				attrs = reader.read(true);
 			}
 
 			info.setExists(true);
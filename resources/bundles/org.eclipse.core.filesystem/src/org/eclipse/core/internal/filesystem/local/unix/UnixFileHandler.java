@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 IBM Corporation and others.
+ * Copyright (c) 2012, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,14 +13,23 @@
  *******************************************************************************/
 package org.eclipse.core.internal.filesystem.local.unix;
 
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.provider.FileInfo;
 import org.eclipse.core.internal.filesystem.local.NativeHandler;
+import org.eclipse.core.internal.filesystem.local.nio.PosixHandler;
 
 /**
  * Native handler that delegates to UnixFileNatives
  */
 public class UnixFileHandler extends NativeHandler {
+	/**
+	 * Handler used to read directories in bulk. The natives only offer
+	 * per file calls, while NIO can stat the children relative to the
+	 * open directory.
+	 */
+	private final PosixHandler bulkHandler = new PosixHandler();
+
 	@Override
 	public int getSupportedAttributes() {
 		return UnixFileNatives.getSupportedAttributes();
@@ -31,6 +40,15 @@ public class UnixFileHandler extends NativeHandler {
 		return UnixFileNatives.fetchFileInfo(fileName);
 	}
 
+	@Override
+	public FileInfo[] fetchChildInfos(String directoryName) {
+		// NIO reads the same stat fields as the natives, except for
+		// the BSD file flags and the second-resolution timestamps
+		if ((getSupportedAttributes() & EFS.ATTRIBUTE_IMMUTABLE) != 0 || !StructStat.USE_MILLISECOND_RESOLUTION)
+			return super.fetchChildInfos(directoryName);
+		return bulkHandler.fetchChildInfos(directoryName);
+	}
+
 	@Override
 	public boolean putFileInfo(String fileName, IFileInfo info, int options) {
 		return UnixFileNatives.putFileInfo(fileName, info, options);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,7 +31,26 @@ public abstract class AbstractDataTreeNode {
 	 * Singleton indicating no children.
 	 */
 	static final AbstractDataTreeNode[] NO_CHILDREN = new AbstractDataTreeNode[0];
+
+	/**
+	 * The minimum number of children for which the children of a node are kept
+	 * in chunks, when children are added or removed one at a time.
+	 */
+	static final int CHUNK_THRESHOLD = 1024;
+
+	/**
+	 * The children sorted by name, or <code>null</code> if they are kept in
+	 * {@link #chunks}.
+	 */
 	protected AbstractDataTreeNode children[];
+
+	/**
+	 * The children of a node with many children, or <code>null</code> if they
+	 * are kept in {@link #children}. Adding a child to chunks does not copy all
+	 * children, see {@link #assembleChildrenWith(AbstractDataTreeNode, AbstractDataTreeNode, boolean)}.
+	 */
+	ChunkedNodeList chunks;
+
 	protected String name;
 
 	/* Node types for comparison */
@@ -188,22 +207,49 @@ public abstract class AbstractDataTreeNode {
 			if (this.isDelta()) {
 				// keep deletions because they still need
 				// to hide child nodes in the parent.
-				AbstractDataTreeNode[] assembledChildren = assembleWith(children, node.children, true);
-				return new DataDeltaNode(name, node.getData(), assembledChildren);
+				return assembleChildrenWith(new DataDeltaNode(name, node.getData()), node, true);
 			}
 			// This is a complete picture, so deletions
 			// wipe out the child and are no longer useful
-			AbstractDataTreeNode[] assembledChildren = assembleWith(children, node.children, false);
-			return new DataTreeNode(name, node.getData(), assembledChildren);
+			return assembleChildrenWith(new DataTreeNode(name, node.getData()), node, false);
 		}
 		if (this.isDelta()) {
-			AbstractDataTreeNode[] assembledChildren = assembleWith(children, node.children, true);
 			if (this.hasData())
-				return new DataDeltaNode(name, this.getData(), assembledChildren);
-			return new NoDataDeltaNode(name, assembledChildren);
+				return assembleChildrenWith(new DataDeltaNode(name, this.getData()), node, true);
+			return assembleChildrenWith(new NoDataDeltaNode(name), node, true);
 		}
-		AbstractDataTreeNode[] assembledChildren = assembleWith(children, node.children, false);
-		return new DataTreeNode(name, this.getData(), assembledChildren);
+		return assembleChildrenWith(new DataTreeNode(name, this.getData()), node, false);
+	}
+
+	/**
+	 * Sets the children of the given new node to the result of assembling the
+	 * receiver's children with the children of the given forward delta node,
+	 * and returns the new node.
+	 * <p>
+	 * When a few children are added to a node with many children, as when
+	 * populating a large folder, they are inserted into chunks instead of
+	 * merging the arrays. This avoids copying all children for each child added.
+	 * </p>
+	 */
+	private AbstractDataTreeNode assembleChildrenWith(AbstractDataTreeNode result, AbstractDataTreeNode node, boolean keepDeleted) {
+		AbstractDataTreeNode[] newNodes = node.getChildren();
+		int size = size();
+		if (size < CHUNK_THRESHOLD || newNodes.length * ChunkedNodeList.MAX_CHUNK_SIZE >= size) {
+			result.setChildren(assembleWith(getChildren(), newNodes, keepDeleted));
+			return result;
+		}
+		ChunkedNodeList list = chunks != null ? chunks : ChunkedNodeList.of(children);
+		for (AbstractDataTreeNode newNode : newNodes) {
+			AbstractDataTreeNode oldNode = list.get(newNode.name);
+			AbstractDataTreeNode assembled = oldNode == null ? newNode : oldNode.assembleWith(newNode);
+			if (assembled == null || (assembled.isDeleted() && !keepDeleted)) {
+				list = list.remove(newNode.name);
+			} else {
+				list = list.put(assembled);
+			}
+		}
+		result.setChildren(list);
+		return result;
 	}
 
 	/**
@@ -218,11 +264,20 @@ public abstract class AbstractDataTreeNode {
 		}
 
 		// non-leaf case
-		int childIndex = indexOfChild(key.segment(keyIndex));
-		if (childIndex >= 0) {
-			AbstractDataTreeNode copy = copy();
-			copy.children[childIndex] = children[childIndex].assembleWith(node, key, keyIndex + 1);
-			return copy;
+		if (chunks != null) {
+			AbstractDataTreeNode child = chunks.get(key.segment(keyIndex));
+			if (child != null) {
+				AbstractDataTreeNode copy = copy();
+				copy.setChildren(chunks.put(child.assembleWith(node, key, keyIndex + 1)));
+				return copy;
+			}
+		} else {
+			int childIndex = indexOfChild(key.segment(keyIndex));
+			if (childIndex >= 0) {
+				AbstractDataTreeNode copy = copy();
+				copy.children[childIndex] = children[childIndex].assembleWith(node, key, keyIndex + 1);
+				return copy;
+			}
 		}
 
 		// Child not found.  Build up NoDataDeltaNode hierarchy for rest of key
@@ -253,6 +308,9 @@ public abstract class AbstractDataTreeNode {
 	 *	name of child to retrieve
 	 */
 	AbstractDataTreeNode childAtOrNull(String localName) {
+		ChunkedNodeList list = chunks;
+		if (list != null)
+			return list.get(localName);
 		int index = indexOfChild(localName);
 		return index >= 0 ? children[index] : null;
 	}
@@ -268,7 +326,8 @@ public abstract class AbstractDataTreeNode {
 	 */
 	AbstractDataTreeNode childAtIgnoreCase(String localName) {
 		AbstractDataTreeNode result = null;
-		for (AbstractDataTreeNode element : children) {
+		ChunkedNodeList list = chunks;
+		for (AbstractDataTreeNode element : list != null ? list : Arrays.asList(children)) {
 			if (element.getName().equalsIgnoreCase(localName)) {
 				//if we find a deleted child, keep looking for a real child
 				if (element.isDeleted())
@@ -415,16 +474,21 @@ public abstract class AbstractDataTreeNode {
 	 * #replaceFrom:to:with:startingAt: method for copying children in data nodes
 	 */
 	protected void copyChildren(int from, int to, AbstractDataTreeNode otherNode, int start) {
+		AbstractDataTreeNode[] otherChildren = otherNode.getChildren();
 		int other = start;
 		for (int i = from; i <= to; i++, other++) {
-			this.children[i] = otherNode.children[other];
+			this.children[i] = otherChildren[other];
 		}
 	}
 
 	/**
-	 * Returns an array of the node's children
+	 * Returns an array of the node's children. If the children are kept in
+	 * chunks, the array is created anew.
 	 */
 	public AbstractDataTreeNode[] getChildren() {
+		ChunkedNodeList list = chunks;
+		if (list != null)
+			return list.toArray();
 		return children;
 	}
 
@@ -454,14 +518,17 @@ public abstract class AbstractDataTreeNode {
 	 * false otherwise
 	 */
 	boolean includesChild(String localName) {
-		return indexOfChild(localName) != -1;
+		return childAtOrNull(localName) != null;
 	}
 
 	/**
 	 * Returns the index of the specified child's name in the receiver.
 	 */
 	protected int indexOfChild(String localName) {
-		AbstractDataTreeNode[] nodes = this.children;
+		ChunkedNodeList list = chunks;
+		if (list != null)
+			return list.indexOf(localName);
+		AbstractDataTreeNode[] nodes = children;
 		int left = 0;
 		int right = nodes.length - 1;
 		while (left <= right) {
@@ -504,6 +571,7 @@ public abstract class AbstractDataTreeNode {
 	 * Returns the local names of the receiver's children.
 	 */
 	String[] namesOfChildren() {
+		AbstractDataTreeNode[] children = getChildren();
 		String names[] = new String[children.length];
 		/* copy child names (Reverse loop optimized) */
 		for (int i = children.length; --i >= 0;)
@@ -515,6 +583,13 @@ public abstract class AbstractDataTreeNode {
 	 * Replaces the child with the given local name.
 	 */
 	void replaceChild(String localName, DataTreeNode node) {
+		if (chunks != null) {
+			if (chunks.get(localName) == null)
+				throw new ObjectNotFoundException(NLS.bind(Messages.dtree_missingChild, localName));
+			node.setName(localName);
+			chunks = chunks.put(node);
+			return;
+		}
 		int i = indexOfChild(localName);
 		if (i >= 0) {
 			children[i] = node;
@@ -528,6 +603,19 @@ public abstract class AbstractDataTreeNode {
 	 */
 	protected void setChildren(AbstractDataTreeNode newChildren[]) {
 		children = newChildren;
+		chunks = null;
+	}
+
+	/**
+	 * Set the node's children, which are kept in chunks unless there are few.
+	 */
+	void setChildren(ChunkedNodeList newChildren) {
+		if (newChildren.size() < CHUNK_THRESHOLD / 2) {
+			setChildren(newChildren.toArray());
+		} else {
+			chunks = newChildren;
+			children = null;
+		}
 	}
 
 	/**
@@ -571,6 +659,9 @@ public abstract class AbstractDataTreeNode {
 	 * Returns the number of children of the receiver
 	 */
 	int size() {
+		ChunkedNodeList list = chunks;
+		if (list != null)
+			return list.size();
 		return children.length;
 	}
 
@@ -579,6 +670,11 @@ public abstract class AbstractDataTreeNode {
 	 */
 	public void storeStrings(StringPool set) {
 		name = set.add(name);
+		ChunkedNodeList list = chunks;
+		if (list != null) {
+			list.storeStrings(set);
+			return;
+		}
 		//copy children pointer in case of concurrent modification
 		AbstractDataTreeNode[] nodes = children;
 		if (nodes != null)
@@ -611,8 +707,8 @@ public abstract class AbstractDataTreeNode {
 	// "rightOfRoot DataTreeNode with 1 children"
 	String toShortString() {
 		return (getName() == null ? "" : getName() + " ") + this.getClass().getSimpleName() //$NON-NLS-1$ //$NON-NLS-2$
-				+ (getChildren().length == 0 ? "" //$NON-NLS-1$
-				: (" with " + getChildren().length + " children"));//$NON-NLS-1$ //$NON-NLS-2$
+				+ (size() == 0 ? "" //$NON-NLS-1$
+				: (" with " + size() + " children"));//$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	private String getChildrenString(int depth) {
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.dtree;
+
+import java.util.*;
+import org.eclipse.core.internal.utils.StringPool;
+
+/**
+ * An immutable list of nodes sorted by name, which is split into chunks. A node
+ * can be added, replaced or removed by copying a single chunk, rather than all
+ * nodes as for an array. This keeps populating a node with many children from
+ * taking quadratic time.
+ *
+ * @see AbstractDataTreeNode#CHUNK_THRESHOLD
+ */
+final class ChunkedNodeList implements Iterable<AbstractDataTreeNode> {
+	/**
+	 * The maximum number of nodes in a chunk. Larger chunks are split in two.
+	 */
+	static final int MAX_CHUNK_SIZE = 256;
+
+	private static final AbstractDataTreeNode[][] NO_CHUNKS = new AbstractDataTreeNode[0][];
+
+	/**
+	 * The non-empty chunks, each sorted by name, and all nodes of a chunk sort
+	 * before the nodes of the next one.
+	 */
+	private final AbstractDataTreeNode[][] chunks;
+	private final int size;
+
+	private ChunkedNodeList(AbstractDataTreeNode[][] chunks, int size) {
+		this.chunks = chunks;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a list of the given nodes, which must be sorted by name.
+	 */
+	static ChunkedNodeList of(AbstractDataTreeNode[] nodes) {
+		if (nodes.length == 0)
+			return new ChunkedNodeList(NO_CHUNKS, 0);
+		// leave room for insertions before chunks have to be split
+		int chunkSize = MAX_CHUNK_SIZE / 2;
+		AbstractDataTreeNode[][] chunks = new AbstractDataTreeNode[(nodes.length + chunkSize - 1) / chunkSize][];
+		for (int i = 0; i < chunks.length; i++) {
+			int from = i * chunkSize;
+			chunks[i] = Arrays.copyOfRange(nodes, from, Math.min(from + chunkSize, nodes.length));
+		}
+		return new ChunkedNodeList(chunks, nodes.length);
+	}
+
+	/**
+	 * Returns the index of the chunk which contains, or would contain, the
+	 * node with the given name.
+	 */
+	private int chunkIndex(String name) {
+		int left = 0;
+		int right = chunks.length - 1;
+		while (left < right) {
+			int mid = (left + right) >>> 1;
+			AbstractDataTreeNode[] chunk = chunks[mid];
+			if (name.compareTo(chunk[chunk.length - 1].name) > 0) {
+				left = mid + 1;
+			} else {
+				right = mid;
+			}
+		}
+		return left;
+	}
+
+	/**
+	 * Returns the index of the node with the given name in the given chunk, or
+	 * <code>-(insertion point) - 1</code> if there is no such node.
+	 */
+	private static int indexIn(AbstractDataTreeNode[] chunk, String name) {
+		int left = 0;
+		int right = chunk.length - 1;
+		while (left <= right) {
+			int mid = (left + right) >>> 1;
+			int compare = name.compareTo(chunk[mid].name);
+			if (compare < 0) {
+				right = mid - 1;
+			} else if (compare > 0) {
+				left = mid + 1;
+			} else {
+				return mid;
+			}
+		}
+		return -left - 1;
+	}
+
+	/**
+	 * Returns the node with the given name, or <code>null</code> if there is none.
+	 */
+	AbstractDataTreeNode get(String name) {
+		if (size == 0)
+			return null;
+		AbstractDataTreeNode[] chunk = chunks[chunkIndex(name)];
+		int index = indexIn(chunk, name);
+		return index >= 0 ? chunk[index] : null;
+	}
+
+	/**
+	 * Returns the index of the node with the given name among all nodes, or -1
+	 * if there is no such node.
+	 */
+	int indexOf(String name) {
+		if (size == 0)
+			return -1;
+		int chunkIndex = chunkIndex(name);
+		int index = indexIn(chunks[chunkIndex], name);
+		if (index < 0)
+			return -1;
+		for (int i = 0; i < chunkIndex; i++)
+			index += chunks[i].length;
+		return index;
+	}
+
+	/**
+	 * Returns a list in which the given node replaces the node with the same
+	 * name, or is added if there is no such node.
+	 */
+	ChunkedNodeList put(AbstractDataTreeNode node) {
+		if (size == 0)
+			return new ChunkedNodeList(new AbstractDataTreeNode[][] {{node}}, 1);
+		int chunkIndex = chunkIndex(node.name);
+		AbstractDataTreeNode[] chunk = chunks[chunkIndex];
+		int index = indexIn(chunk, node.name);
+		if (index >= 0) {
+			AbstractDataTreeNode[] newChunk = chunk.clone();
+			newChunk[index] = node;
+			return replaceChunk(chunkIndex, newChunk, size);
+		}
+		index = -index - 1;
+		AbstractDataTreeNode[] newChunk = new AbstractDataTreeNode[chunk.length + 1];
+		System.arraycopy(chunk, 0, newChunk, 0, index);
+		newChunk[index] = node;
+		System.arraycopy(chunk, index, newChunk, index + 1, chunk.length - index);
+		if (newChunk.length <= MAX_CHUNK_SIZE)
+			return replaceChunk(chunkIndex, newChunk, size + 1);
+		// split the chunk in two
+		int half = newChunk.length / 2;
+		AbstractDataTreeNode[][] newChunks = new AbstractDataTreeNode[chunks.length + 1][];
+		System.arraycopy(chunks, 0, newChunks, 0, chunkIndex);
+		newChunks[chunkIndex] = Arrays.copyOfRange(newChunk, 0, half);
+		newChunks[chunkIndex + 1] = Arrays.copyOfRange(newChunk, half, newChunk.length);
+		System.arraycopy(chunks, chunkIndex + 1, newChunks, chunkIndex + 2, chunks.length - chunkIndex - 1);
+		return new ChunkedNodeList(newChunks, size + 1);
+	}
+
+	/**
+	 * Returns a list without the node with the given name.
+	 */
+	ChunkedNodeList remove(String name) {
+		if (size == 0)
+			return this;
+		int chunkIndex = chunkIndex(name);
+		AbstractDataTreeNode[] chunk = chunks[chunkIndex];
+		int index = indexIn(chunk, name);
+		if (index < 0)
+			return this;
+		if (chunk.length == 1) {
+			AbstractDataTreeNode[][] newChunks = new AbstractDataTreeNode[chunks.length - 1][];
+			System.arraycopy(chunks, 0, newChunks, 0, chunkIndex);
+			System.arraycopy(chunks, chunkIndex + 1, newChunks, chunkIndex, chunks.length - chunkIndex - 1);
+			return new ChunkedNodeList(newChunks, size - 1);
+		}
+		AbstractDataTreeNode[] newChunk = new AbstractDataTreeNode[chunk.length - 1];
+		System.arraycopy(chunk, 0, newChunk, 0, index);
+		System.arraycopy(chunk, index + 1, newChunk, index, chunk.length - index - 1);
+		return replaceChunk(chunkIndex, newChunk, size - 1);
+	}
+
+	private ChunkedNodeList replaceChunk(int chunkIndex, AbstractDataTreeNode[] newChunk, int newSize) {
+		AbstractDataTreeNode[][] newChunks = chunks.clone();
+		newChunks[chunkIndex] = newChunk;
+		return new ChunkedNodeList(newChunks, newSize);
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an iterator over the nodes, sorted by name.
+	 */
+	@Override
+	public Iterator<AbstractDataTreeNode> iterator() {
+		return new Iterator<>() {
+			private int chunk;
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return chunk < chunks.length;
+			}
+
+			@Override
+			public AbstractDataTreeNode next() {
+				if (chunk >= chunks.length)
+					throw new NoSuchElementException();
+				AbstractDataTreeNode node = chunks[chunk][index++];
+				if (index == chunks[chunk].length) {
+					chunk++;
+					index = 0;
+				}
+				return node;
+			}
+		};
+	}
+
+	void storeStrings(StringPool set) {
+		for (AbstractDataTreeNode[] chunk : chunks)
+			for (AbstractDataTreeNode node : chunk)
+				node.storeStrings(set);
+	}
+
+	/**
+	 * Returns a new array of the nodes, sorted by name.
+	 */
+	AbstractDataTreeNode[] toArray() {
+		if (size == 0)
+			return AbstractDataTreeNode.NO_CHILDREN;
+		AbstractDataTreeNode[] result = new AbstractDataTreeNode[size];
+		int offset = 0;
+		for (AbstractDataTreeNode[] chunk : chunks) {
+			System.arraycopy(chunk, 0, result, offset, chunk.length);
+			offset += chunk.length;
+		}
+		return result;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -42,6 +42,7 @@ public class DataDeltaNode extends DataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode asBackwardDelta(DeltaDataTree myTree, DeltaDataTree parentTree, IPath key) {
+		AbstractDataTreeNode[] children = getChildren();
 		AbstractDataTreeNode[] newChildren;
 		if (children.length == 0) {
 			newChildren = NO_CHILDREN;
@@ -56,7 +57,7 @@ public class DataDeltaNode extends DataTreeNode {
 
 	@Override
 	AbstractDataTreeNode compareWithParent(IPath key, DeltaDataTree parent, IComparator comparator) {
-		AbstractDataTreeNode[] comparedChildren = compareWithParent(children, key, parent, comparator);
+		AbstractDataTreeNode[] comparedChildren = compareWithParent(getChildren(), key, parent, comparator);
 		Object oldData = parent.getData(key);
 		Object newData = data;
 		/* don't compare data of root */
@@ -74,6 +75,11 @@ public class DataDeltaNode extends DataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode copy() {
+		if (chunks != null) {
+			DataDeltaNode copy = new DataDeltaNode(name, data);
+			copy.setChildren(chunks);
+			return copy;
+		}
 		AbstractDataTreeNode[] childrenCopy;
 		if (children.length == 0) {
 			childrenCopy = NO_CHILDREN;
@@ -98,7 +104,7 @@ public class DataDeltaNode extends DataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode simplifyWithParent(IPath key, DeltaDataTree parent, IComparator comparer) {
-		AbstractDataTreeNode[] simplifiedChildren = simplifyWithParent(children, key, parent, comparer);
+		AbstractDataTreeNode[] simplifiedChildren = simplifyWithParent(getChildren(), key, parent, comparer);
 		/* don't compare root nodes */
 		if (!key.isRoot() && comparer.compare(parent.getData(key), data) == 0)
 			return new NoDataDeltaNode(name, simplifiedChildren);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,6 +72,7 @@ public class DataTreeNode extends AbstractDataTreeNode {
 			Assert.isTrue(false, Messages.dtree_reverse);
 		}
 
+		AbstractDataTreeNode[] children = getChildren();
 		int nextChild = 0;
 		for (AbstractDataTreeNode c : children) {
 			AbstractDataTreeNode child = c.asReverseComparisonNode(comparator);
@@ -94,12 +95,13 @@ public class DataTreeNode extends AbstractDataTreeNode {
 			System.arraycopy(children, 0, newChildren, 0, nextChild);
 			children = newChildren;
 		}
+		setChildren(children);
 
 		return this;
 	}
 
 	AbstractDataTreeNode compareWith(DataTreeNode other, IComparator comparator) {
-		AbstractDataTreeNode[] comparedChildren = compareWith(children, other.children, comparator);
+		AbstractDataTreeNode[] comparedChildren = compareWith(getChildren(), other.getChildren(), comparator);
 		Object oldData = data;
 		Object newData = other.data;
 
@@ -125,6 +127,11 @@ public class DataTreeNode extends AbstractDataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode copy() {
+		if (chunks != null) {
+			DataTreeNode copy = new DataTreeNode(name, data);
+			copy.setChildren(chunks);
+			return copy;
+		}
 		if (children.length > 0) {
 			AbstractDataTreeNode[] childrenCopy = new AbstractDataTreeNode[children.length];
 			System.arraycopy(children, 0, childrenCopy, 0, children.length);
@@ -144,7 +151,7 @@ public class DataTreeNode extends AbstractDataTreeNode {
 	 */
 	DataTreeNode copyWithNewChild(String localName, DataTreeNode childNode) {
 
-		AbstractDataTreeNode[] children = this.children;
+		AbstractDataTreeNode[] children = getChildren();
 		int left = 0;
 		int right = children.length - 1;
 		while (left <= right) {
@@ -291,7 +298,7 @@ public class DataTreeNode extends AbstractDataTreeNode {
 	 * Although typed as abstract nodes, the given nodes must be complete.
 	 */
 	protected static AbstractDataTreeNode forwardDeltaWithOrNullIfEqual(AbstractDataTreeNode oldNode, AbstractDataTreeNode newNode, IComparator comparer) {
-		AbstractDataTreeNode[] childDeltas = forwardDeltaWith(oldNode.children, newNode.children, comparer);
+		AbstractDataTreeNode[] childDeltas = forwardDeltaWith(oldNode.getChildren(), newNode.getChildren(), comparer);
 		Object newData = newNode.getData();
 		if (comparer.compare(oldNode.getData(), newData) == 0) {
 			if (childDeltas.length == 0) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -106,6 +106,7 @@ public class DeltaDataTree extends AbstractDataTree {
 	public DeltaDataTree asReverseComparisonTree(IComparator comparator) {
 		/* don't reverse the root node if it's the absolute root (name==null) */
 		if (rootNode.getName() == null) {
+			// the children may be a copy, if they are kept in chunks
 			AbstractDataTreeNode[] children = rootNode.getChildren();
 			int nextChild = 0;
 			for (AbstractDataTreeNode c : children) {
@@ -118,8 +119,9 @@ public class DeltaDataTree extends AbstractDataTree {
 			if (nextChild < children.length) {
 				AbstractDataTreeNode[] newChildren = new AbstractDataTreeNode[nextChild];
 				System.arraycopy(children, 0, newChildren, 0, nextChild);
-				rootNode.setChildren(newChildren);
+				children = newChildren;
 			}
+			rootNode.setChildren(children);
 		} else {
 			rootNode.asReverseComparisonNode(comparator);
 		}
@@ -486,11 +488,11 @@ public class DeltaDataTree extends AbstractDataTree {
 					break;
 				}
 				if (childNodes == null) {
-					childNodes = node.children;
+					childNodes = node.getChildren();
 				} else {
 					// Be sure to assemble(old, new) rather than (new, old).
 					// Keep deleted nodes if we haven't encountered the complete node yet.
-					childNodes = AbstractDataTreeNode.assembleWith(node.children, childNodes, !complete);
+					childNodes = AbstractDataTreeNode.assembleWith(node.getChildren(), childNodes, !complete);
 				}
 			}
 			if (complete) {
@@ -641,7 +643,7 @@ public class DeltaDataTree extends AbstractDataTree {
 	}
 
 	public boolean isEmptyDelta() {
-		return rootNode.getChildren().length == 0;
+		return rootNode.size() == 0;
 	}
 
 	/**
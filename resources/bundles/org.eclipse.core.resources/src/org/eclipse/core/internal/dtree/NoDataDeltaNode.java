@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -55,6 +55,7 @@ public class NoDataDeltaNode extends AbstractDataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode asBackwardDelta(DeltaDataTree myTree, DeltaDataTree parentTree, IPath key) {
+		AbstractDataTreeNode[] children = getChildren();
 		int numChildren = children.length;
 		if (numChildren == 0)
 			return new NoDataDeltaNode(name, NO_CHILDREN);
@@ -70,7 +71,7 @@ public class NoDataDeltaNode extends AbstractDataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode compareWithParent(IPath key, DeltaDataTree parent, IComparator comparator) {
-		AbstractDataTreeNode[] comparedChildren = compareWithParent(children, key, parent, comparator);
+		AbstractDataTreeNode[] comparedChildren = compareWithParent(getChildren(), key, parent, comparator);
 		Object oldData = parent.getData(key);
 		return new DataTreeNode(key.lastSegment(), new NodeComparison(oldData, oldData, NodeComparison.K_CHANGED, 0), comparedChildren);
 	}
@@ -81,6 +82,11 @@ public class NoDataDeltaNode extends AbstractDataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode copy() {
+		if (chunks != null) {
+			NoDataDeltaNode copy = new NoDataDeltaNode(name);
+			copy.setChildren(chunks);
+			return copy;
+		}
 		AbstractDataTreeNode[] childrenCopy;
 		if (children.length == 0) {
 			childrenCopy = NO_CHILDREN;
@@ -113,7 +119,7 @@ public class NoDataDeltaNode extends AbstractDataTreeNode {
 	 */
 	@Override
 	AbstractDataTreeNode simplifyWithParent(IPath key, DeltaDataTree parent, IComparator comparer) {
-		AbstractDataTreeNode[] simplifiedChildren = simplifyWithParent(children, key, parent, comparer);
+		AbstractDataTreeNode[] simplifiedChildren = simplifyWithParent(getChildren(), key, parent, comparer);
 		return new NoDataDeltaNode(name, simplifiedChildren);
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,9 +14,8 @@
  *******************************************************************************/
 package org.eclipse.core.internal.events;
 
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.internal.events.ResourceChangeListenerList.ListenerEntry;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.utils.Messages;
@@ -25,6 +24,8 @@ import org.eclipse.core.internal.watson.ElementTree;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 
 public class NotificationManager implements IManager, ILifecycleListener {
 	class NotifyJob extends Job {
@@ -105,6 +106,23 @@ public class NotificationManager implements IManager, ILifecycleListener {
 
 	private final ResourceChangeListenerList listeners;
 
+	/**
+	 * The pool notifying concurrent listeners, or <code>null</code> if it was not
+	 * needed yet.
+	 */
+	private volatile ForkJoinPool notificationPool;
+
+	/**
+	 * The number of threads notifying concurrent listeners. Cached, since it is
+	 * checked for every POST_CHANGE notification.
+	 */
+	private volatile int notificationParallelism = PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM_DEFAULT;
+
+	private final IPreferenceChangeListener parallelismListener = event -> {
+		if (PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM.equals(event.getKey()))
+			updateNotificationParallelism();
+	};
+
 	protected volatile boolean notificationRequested = false;
 	private final Job notifyJob;
 	private final Workspace workspace;
@@ -289,34 +307,122 @@ public class NotificationManager implements IManager, ILifecycleListener {
 		if (lockTree)
 			workspace.setTreeLocked(true);
 		try {
+			// notify the concurrent listeners on the pool, while the others are notified here
+			ForkJoinPool pool = type == IResourceChangeEvent.POST_CHANGE ? getNotificationPool() : null;
+			// listeners must not restore markers into the tree while others read it
+			if (pool != null && hasConcurrentListener(resourceListeners, type))
+				restorePendingMarkers(event.getDelta());
+			List<ForkJoinTask<?>> tasks = null;
 			for (ListenerEntry resourceListener : resourceListeners) {
 				if ((type & resourceListener.eventMask) != 0) {
 					final IResourceChangeListener listener = resourceListener.listener;
+					if (pool != null && listener instanceof IConcurrentResourceChangeListener) {
+						if (tasks == null)
+							tasks = new ArrayList<>();
+						tasks.add(pool.submit(() -> notifyConcurrently(listener, event)));
+						continue;
+					}
 					if (ResourceStats.TRACE_LISTENERS)
 						ResourceStats.startNotify(listener);
-					SafeRunner.run(new ISafeRunnable() {
-						@Override
-						public void handleException(Throwable e) {
-							// exception logged in SafeRunner#run
-						}
-
-						@Override
-						public void run() throws Exception {
-							if (Policy.DEBUG_NOTIFICATIONS)
-								Policy.debug("Notifying " + listener.getClass().getName() + " about resource change event" + event.toDebugString()); //$NON-NLS-1$ //$NON-NLS-2$
-							listener.resourceChanged(event);
-						}
-					});
+					notify(listener, event);
 					if (ResourceStats.TRACE_LISTENERS)
 						ResourceStats.endNotify();
 				}
 			}
+			// the notification is complete once all listeners are notified
+			if (tasks != null)
+				for (ForkJoinTask<?> task : tasks)
+					task.join();
 		} finally {
 			if (lockTree)
 				workspace.setTreeLocked(oldLock);
 		}
 	}
 
+	private static boolean hasConcurrentListener(ResourceChangeListenerList.ListenerEntry[] resourceListeners, int type) {
+		for (ListenerEntry resourceListener : resourceListeners)
+			if ((type & resourceListener.eventMask) != 0 && resourceListener.listener instanceof IConcurrentResourceChangeListener)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Restores the deferred markers of the projects in the given delta, which
+	 * the listeners notified concurrently are most likely to read.
+	 */
+	private void restorePendingMarkers(IResourceDelta delta) {
+		if (delta == null)
+			return;
+		MarkerManager markerManager = workspace.getMarkerManager();
+		for (IResourceDelta child : delta.getAffectedChildren())
+			markerManager.restorePending(child.getResource(), IResource.DEPTH_ZERO);
+	}
+
+	private void notify(final IResourceChangeListener listener, final ResourceChangeEvent event) {
+		SafeRunner.run(new ISafeRunnable() {
+			@Override
+			public void handleException(Throwable e) {
+				// exception logged in SafeRunner#run
+			}
+
+			@Override
+			public void run() throws Exception {
+				if (Policy.DEBUG_NOTIFICATIONS)
+					Policy.debug("Notifying " + listener.getClass().getName() + " about resource change event" + event.toDebugString()); //$NON-NLS-1$ //$NON-NLS-2$
+				listener.resourceChanged(event);
+			}
+		});
+	}
+
+	private void notifyConcurrently(IResourceChangeListener listener, ResourceChangeEvent event) {
+		long start = System.currentTimeMillis();
+		// the listener may not modify the workspace either
+		boolean oldLock = workspace.isTreeLocked();
+		if (!oldLock)
+			workspace.setTreeLockedConcurrently(true);
+		try {
+			notify(listener, event);
+		} finally {
+			if (!oldLock)
+				workspace.setTreeLockedConcurrently(false);
+		}
+		if (ResourceStats.TRACE_LISTENERS)
+			ResourceStats.notified(listener, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Returns the pool for notifying concurrent listeners, or <code>null</code>
+	 * if listeners are to be notified sequentially.
+	 */
+	private ForkJoinPool getNotificationPool() {
+		int parallelism = notificationParallelism;
+		if (parallelism <= 1)
+			return null;
+		ForkJoinPool pool = notificationPool;
+		if (pool != null && pool.getParallelism() == parallelism)
+			return pool;
+		return createNotificationPool(parallelism);
+	}
+
+	private synchronized ForkJoinPool createNotificationPool(int parallelism) {
+		if (notificationPool == null || notificationPool.getParallelism() != parallelism) {
+			//notifications already submitted to a replaced pool still complete
+			if (notificationPool != null)
+				notificationPool.shutdown();
+			// Use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
+			// potential SecurityManager, since the threads created by it get no permissions.
+			// See https://github.com/eclipse-platform/eclipse.platform/issues/294
+			notificationPool = new ForkJoinPool(parallelism, pool -> new ForkJoinWorkerThread(pool) {
+				// anonymous subclass to access protected constructor
+			}, null, false);
+		}
+		return notificationPool;
+	}
+
+	private void updateNotificationParallelism() {
+		notificationParallelism = Platform.getPreferencesService().getInt(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM, PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM_DEFAULT, null);
+	}
+
 	public void removeListener(IResourceChangeListener listener) {
 		listeners.remove(listener);
 		if (ResourceStats.TRACE_LISTENERS)
@@ -336,6 +442,12 @@ public class NotificationManager implements IManager, ILifecycleListener {
 	public void shutdown(IProgressMonitor monitor) {
 		//wipe out any existing listeners
 		listeners.clear();
+		InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES).removePreferenceChangeListener(parallelismListener);
+		synchronized (this) {
+			if (notificationPool != null)
+				notificationPool.shutdown();
+			notificationPool = null;
+		}
 	}
 
 	@Override
@@ -345,5 +457,7 @@ public class NotificationManager implements IManager, ILifecycleListener {
 		// notification manager an initial basis for comparison.
 		lastPostBuildTree = lastPostChangeTree = workspace.getElementTree();
 		workspace.addLifecycleListener(this);
+		InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES).addPreferenceChangeListener(parallelismListener);
+		updateNotificationParallelism();
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2005 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,12 +30,14 @@ public class ResourceStats {
 	public static final String EVENT_LISTENERS = ResourcesPlugin.PI_RESOURCES + "/perf/listeners"; //$NON-NLS-1$
 	public static final String EVENT_SAVE_PARTICIPANTS = ResourcesPlugin.PI_RESOURCES + "/perf/save.participants"; //$NON-NLS-1$
 	public static final String EVENT_SNAPSHOT = ResourcesPlugin.PI_RESOURCES + "/perf/snapshot"; //$NON-NLS-1$
+	public static final String EVENT_RESTORE = ResourcesPlugin.PI_RESOURCES + "/perf/restore"; //$NON-NLS-1$
 
 	//performance event enablement
 	public static boolean TRACE_BUILDERS = PerformanceStats.isEnabled(ResourceStats.EVENT_BUILDERS);
 	public static boolean TRACE_LISTENERS = PerformanceStats.isEnabled(ResourceStats.EVENT_LISTENERS);
 	public static boolean TRACE_SAVE_PARTICIPANTS = PerformanceStats.isEnabled(ResourceStats.EVENT_SAVE_PARTICIPANTS);
 	public static boolean TRACE_SNAPSHOT = PerformanceStats.isEnabled(ResourceStats.EVENT_SNAPSHOT);
+	public static boolean TRACE_RESTORE = PerformanceStats.isEnabled(ResourceStats.EVENT_RESTORE);
 
 	public static void endBuild() {
 		if (currentStats != null)
@@ -77,6 +79,30 @@ public class ResourceStats {
 			PerformanceStats.removeStats(EVENT_LISTENERS, listener.getClass().getName());
 	}
 
+	/**
+	 * Notifies the stats tool that the markers and sync info of a project, or of
+	 * the workspace root, have been restored. Projects are restored concurrently,
+	 * so this method may be called from several threads at once.
+	 */
+	public static void restored(IResource resource, long elapsed) {
+		PerformanceStats stats = PerformanceStats.getStats(EVENT_RESTORE, resource);
+		synchronized (stats) {
+			stats.addRun(elapsed, resource.getName());
+		}
+	}
+
+	/**
+	 * Notifies the stats tool that a resource change listener has been notified.
+	 * Unlike {@link #startNotify(IResourceChangeListener)}, this method may be
+	 * called for listeners which are notified concurrently.
+	 */
+	public static void notified(IResourceChangeListener listener, long elapsed) {
+		PerformanceStats stats = PerformanceStats.getStats(EVENT_LISTENERS, listener);
+		synchronized (stats) {
+			stats.addRun(elapsed, null);
+		}
+	}
+
 	public static void startBuild(IncrementalProjectBuilder builder) {
 		currentStats = PerformanceStats.getStats(EVENT_BUILDERS, builder);
 		currentStats.startRun(builder.getProject().getName());
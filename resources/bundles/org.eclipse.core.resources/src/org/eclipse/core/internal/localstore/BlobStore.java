@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,25 +13,54 @@
  *******************************************************************************/
 package org.eclipse.core.internal.localstore;
 
-import java.io.InputStream;
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
-import org.eclipse.core.internal.utils.UniversalUniqueIdentifier;
+import org.eclipse.core.internal.resources.ResourceException;
+import org.eclipse.core.internal.utils.*;
+import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.osgi.util.NLS;
 
 /**
  * Blob store which maps UUIDs to blobs on disk. The UUID is mapped
  * to a file in the file-system and the blob is the file contents. For scalability,
  * the blobs are split among 255 directories with the names 00 to FF.
+ * <p>
+ * In content-addressed mode, the UUID of a new blob is derived from a hash of
+ * its contents instead of being random, so that identical contents are stored
+ * only once. Such blobs may be shared by several history states, and must only
+ * be deleted when no state refers to them any more. Content-addressed blobs can
+ * optionally be stored compressed. Both kinds of UUIDs are told apart by their
+ * version, so blob stores may contain a mix of them.
+ * </p>
  */
 public class BlobStore {
+	/** UUID version of uncompressed content-addressed blobs (name based, as in RFC 4122) */
+	private static final int CONTENT_VERSION = 5;
+	/** UUID version of compressed content-addressed blobs */
+	private static final int COMPRESSED_CONTENT_VERSION = 6;
+	/** Suffix of blobs being written */
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
 	protected IFileStore localStore;
 
 	/** Limits the range of directories' names. */
 	protected byte mask;
 
+	/** Whether new blobs are keyed by their contents. */
+	protected boolean contentAddressed;
+
+	/** Whether new content-addressed blobs are compressed. */
+	protected boolean compress;
+
 	//private static short[] randomArray = {213, 231, 37, 85, 211, 29, 161, 175, 187, 3, 147, 246, 170, 30, 202, 183, 242, 47, 254, 189, 25, 248, 193, 2, 119, 133, 125, 12, 76, 213, 219, 79, 69, 133, 202, 80, 150, 190, 157, 190, 80, 190, 219, 150, 169, 117, 95, 10, 77, 214, 233, 70, 5, 188, 44, 91, 165, 149, 177, 93, 17, 112, 4, 41, 230, 148, 188, 107, 213, 31, 52, 60, 111, 246, 226, 121, 129, 197, 144, 248, 92, 133, 96, 116, 104, 67, 74, 144, 185, 141, 96, 34, 182, 90, 36, 217, 28, 205, 107, 52, 201, 14, 8, 1, 27, 216, 60, 35, 251, 194, 7, 156, 32, 5, 145, 29, 96, 61, 110, 145, 50, 56, 235, 239, 170, 138, 17, 211, 56, 98, 101, 126, 27, 57, 211, 144, 206, 207, 179, 111, 160, 50, 243, 69, 106, 118, 155, 159, 28, 57, 11, 175, 43, 173, 96, 181, 99, 169, 171, 156, 246, 243, 30, 198, 251, 81, 77, 92, 160, 235, 215, 187, 23, 71, 58, 247, 127, 56, 118, 132, 79, 188, 42, 188, 158, 121, 255, 65, 154, 118, 172, 217, 4, 47, 105, 204, 135, 27, 43, 90, 9, 31, 59, 115, 193, 28, 55, 101, 9, 117, 211, 112, 61, 55, 23, 235, 51, 104, 123, 138, 76, 148, 115, 119, 81, 54, 39, 46, 149, 191, 79, 16, 222, 69, 219, 136, 148, 181, 77, 250, 101, 223, 140, 194, 141, 44, 195, 217, 31, 223, 207, 149, 245, 115, 243, 183};
 	private static byte[] randomArray = {-43, -25, 37, 85, -45, 29, -95, -81, -69, 3, -109, -10, -86, 30, -54, -73, -14, 47, -2, -67, 25, -8, -63, 2, 119, -123, 125, 12, 76, -43, -37, 79, 69, -123, -54, 80, -106, -66, -99, -66, 80, -66, -37, -106, -87, 117, 95, 10, 77, -42, -23, 70, 5, -68, 44, 91, -91, -107, -79, 93, 17, 112, 4, 41, -26, -108, -68, 107, -43, 31, 52, 60, 111, -10, -30, 121, -127, -59, -112, -8, 92, -123, 96, 116, 104, 67, 74, -112, -71, -115, 96, 34, -74, 90, 36, -39, 28, -51, 107, 52, -55, 14, 8, 1, 27, -40, 60, 35, -5, -62, 7, -100, 32, 5, -111, 29, 96, 61, 110, -111, 50, 56, -21, -17, -86, -118, 17, -45, 56, 98, 101, 126, 27, 57, -45, -112, -50, -49, -77, 111, -96, 50, -13, 69, 106, 118, -101, -97, 28, 57, 11, -81, 43, -83, 96, -75, 99, -87, -85, -100, -10, -13, 30,
 			-58, -5, 81, 77, 92, -96, -21, -41, -69, 23, 71, 58, -9, 127, 56, 118, -124, 79, -68, 42, -68, -98, 121, -1, 65, -102, 118, -84, -39, 4, 47, 105, -52, -121, 27, 43, 90, 9, 31, 59, 115, -63, 28, 55, 101, 9, 117, -45, 112, 61, 55, 23, -21, 51, 104, 123, -118, 76, -108, 115, 119, 81, 54, 39, 46, -107, -65, 79, 16, -34, 69, -37, -120, -108, -75, 77, -6, 101, -33, -116, -62, -115, 44, -61, -39, 31, -33, -49, -107, -11, 115, -13, -73,};
@@ -42,14 +71,28 @@ public class BlobStore {
 	 * should be an existing valid directory.
 	 */
 	public BlobStore(IFileStore store, int limit) {
+		this(store, limit, false, false);
+	}
+
+	/**
+	 * Creates a blob store that optionally keys new blobs by their contents.
+	 * Compression only applies to content-addressed blobs.
+	 *
+	 * @see #BlobStore(IFileStore, int)
+	 */
+	public BlobStore(IFileStore store, int limit, boolean contentAddressed, boolean compress) {
 		Assert.isNotNull(store);
 		localStore = store;
 		Assert.isTrue(localStore.fetchInfo().isDirectory());
 		Assert.isTrue(limit == 256 || limit == 128 || limit == 64 || limit == 32 || limit == 16 || limit == 8 || limit == 4 || limit == 2 || limit == 1);
 		mask = (byte) (limit - 1);
+		this.contentAddressed = contentAddressed;
+		this.compress = contentAddressed && compress;
 	}
 
 	public UniversalUniqueIdentifier addBlob(IFileStore target, boolean moveContents) throws CoreException {
+		if (contentAddressed)
+			return addContentBlob(target, moveContents);
 		UniversalUniqueIdentifier uuid = new UniversalUniqueIdentifier();
 		folderFor(uuid).mkdir(EFS.NONE, null);
 		IFileStore destination = fileFor(uuid);
@@ -60,6 +103,45 @@ public class BlobStore {
 		return uuid;
 	}
 
+	/**
+	 * Adds a blob keyed by the hash of its contents. Nothing is kept if a blob
+	 * with the same contents already exists. The contents of the given file are
+	 * read only once, to hash them while they are written to a temporary blob,
+	 * or to hash them before the file is moved into the store.
+	 */
+	private UniversalUniqueIdentifier addContentBlob(IFileStore target, boolean moveContents) throws CoreException {
+		//a partially written blob must never be visible under its key, since it would not be written again
+		if (moveContents && !compress) {
+			UniversalUniqueIdentifier uuid = contentKey(target);
+			IFileStore destination = fileFor(uuid);
+			if (destination.fetchInfo().exists()) {
+				target.delete(EFS.NONE, null);
+				return uuid;
+			}
+			IFileStore folder = folderFor(uuid);
+			folder.mkdir(EFS.NONE, null);
+			IFileStore temp = folder.getChild(destination.getName() + TEMP_SUFFIX);
+			target.move(temp, EFS.OVERWRITE, null);
+			temp.move(destination, EFS.OVERWRITE, null);
+			return uuid;
+		}
+		//the key is only known once the contents are written
+		IFileStore temp = localStore.getChild(bytesToHexString(new UniversalUniqueIdentifier().toBytes()) + TEMP_SUFFIX);
+		MessageDigest digest = newDigest();
+		writeBlob(target, temp, digest);
+		UniversalUniqueIdentifier uuid = contentKey(digest);
+		IFileStore destination = fileFor(uuid);
+		if (destination.fetchInfo().exists()) {
+			temp.delete(EFS.NONE, null);
+		} else {
+			folderFor(uuid).mkdir(EFS.NONE, null);
+			temp.move(destination, EFS.OVERWRITE, null);
+		}
+		if (moveContents)
+			target.delete(EFS.NONE, null);
+		return uuid;
+	}
+
 	/**
 	 * @see UniversalUniqueIdentifier#appendByteString(StringBuilder, byte)
 	 */
@@ -87,6 +169,47 @@ public class BlobStore {
 		return buffer.toString();
 	}
 
+	/**
+	 * Returns the key of a content-addressed blob for the contents of the given
+	 * file. The key is made of the leading bytes of the SHA-256 digest of the
+	 * contents, with the version set to tell it from random UUIDs.
+	 */
+	private UniversalUniqueIdentifier contentKey(IFileStore target) throws CoreException {
+		MessageDigest digest = newDigest();
+		try (InputStream in = target.openInputStream(EFS.NONE, null)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				digest.update(buffer, 0, read);
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.localstore_couldNotRead, target.toString());
+			throw new ResourceException(IResourceStatus.FAILED_READ_LOCAL, null, message, e);
+		}
+		return contentKey(digest);
+	}
+
+	/**
+	 * Returns the key of a content-addressed blob for the contents given to the
+	 * digest.
+	 */
+	private UniversalUniqueIdentifier contentKey(MessageDigest digest) {
+		byte[] bytes = new byte[UniversalUniqueIdentifier.BYTES_SIZE];
+		System.arraycopy(digest.digest(), 0, bytes, 0, bytes.length);
+		int version = compress ? COMPRESSED_CONTENT_VERSION : CONTENT_VERSION;
+		int index = UniversalUniqueIdentifier.TIME_HIGH_AND_VERSION;
+		bytes[index] = (byte) ((bytes[index] & UniversalUniqueIdentifier.LOW_NIBBLE_MASK) | (version << UniversalUniqueIdentifier.SHIFT_NIBBLE));
+		return new UniversalUniqueIdentifier(bytes);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			//every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/**
 	 * Deletes a blobFile.
 	 */
@@ -124,7 +247,16 @@ public class BlobStore {
 
 	public InputStream getBlob(UniversalUniqueIdentifier uuid) throws CoreException {
 		IFileStore blobFile = fileFor(uuid);
-		return blobFile.openInputStream(EFS.NONE, null);
+		InputStream in = blobFile.openInputStream(EFS.NONE, null);
+		if (version(uuid) != COMPRESSED_CONTENT_VERSION)
+			return in;
+		try {
+			return new GZIPInputStream(in);
+		} catch (IOException e) {
+			FileUtil.safeClose(in);
+			String message = NLS.bind(Messages.localstore_couldNotRead, blobFile.toString());
+			throw new ResourceException(IResourceStatus.FAILED_READ_LOCAL, null, message, e);
+		}
 	}
 
 	/**
@@ -138,4 +270,36 @@ public class BlobStore {
 			hash ^= randomArray[b + 128]; // +128 makes sure the index is >0
 		return hash;
 	}
+
+	/**
+	 * Returns whether the given UUID is the key of a content-addressed blob,
+	 * which may be shared by several history states.
+	 */
+	public static boolean isContentKey(UniversalUniqueIdentifier uuid) {
+		int version = version(uuid);
+		return version == CONTENT_VERSION || version == COMPRESSED_CONTENT_VERSION;
+	}
+
+	private static int version(UniversalUniqueIdentifier uuid) {
+		byte[] bytes = uuid.toBytes();
+		return (bytes[UniversalUniqueIdentifier.TIME_HIGH_AND_VERSION] & UniversalUniqueIdentifier.HIGH_NIBBLE_MASK) >>> UniversalUniqueIdentifier.SHIFT_NIBBLE;
+	}
+
+	/**
+	 * Writes the contents of the given file to the destination, compressed if
+	 * new blobs are compressed, and passes them to the digest on the way.
+	 */
+	private void writeBlob(IFileStore source, IFileStore destination, MessageDigest digest) throws CoreException {
+		try (InputStream in = new DigestInputStream(source.openInputStream(EFS.NONE, null), digest); OutputStream out = compress ? new GZIPOutputStream(destination.openOutputStream(EFS.NONE, null)) : destination.openOutputStream(EFS.NONE, null)) {
+			in.transferTo(out);
+		} catch (IOException e) {
+			try {
+				destination.delete(EFS.NONE, null);
+			} catch (CoreException ce) {
+				//ignore, the original failure is reported
+			}
+			String message = NLS.bind(Messages.localstore_couldNotWrite, destination.toString());
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, null, message, e);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2021 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import java.util.*;
 import org.eclipse.core.internal.resources.ResourceException;
 import org.eclipse.core.internal.resources.ResourceStatus;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.Policy;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -29,6 +30,13 @@ import org.eclipse.osgi.util.NLS;
 /**
  * A bucket is a persistent dictionary having paths as keys. Values are determined
  * by subclasses.
+ * <p>
+ * By default, the whole index file of a bucket is read when it is loaded and
+ * rewritten when it is saved. Alternatively, a bucket can be stored in a
+ * {@link MappedBucketIndex}, where entries are looked up in the index file as
+ * they are requested and changes are appended to it. In that case the entries
+ * are only read completely when the bucket is visited.
+ * </p>
  *
  *  @since 3.1
  */
@@ -151,6 +159,22 @@ public abstract class Bucket {
 	 */
 	static final String INDEXES_DIR_NAME = ".indexes"; //$NON-NLS-1$
 
+	/**
+	 * The suffix added to the index file name for buckets stored in a {@link MappedBucketIndex}.
+	 */
+	static final String MAPPED_INDEX_SUFFIX = ".mapped"; //$NON-NLS-1$
+
+	/**
+	 * Whether buckets are stored in a {@link MappedBucketIndex} unless specified otherwise.
+	 */
+	private static final boolean MAPPED_INDEX_DEFAULT = Boolean.getBoolean("org.eclipse.core.resources.mappedBucketIndex"); //$NON-NLS-1$
+
+	/**
+	 * Value for entries that have been removed from this bucket, but may still be
+	 * present in the mapped index.
+	 */
+	private static final Object REMOVED = new Object();
+
 	/**
 	 * Map of the history entries in this bucket. Maps (String -&gt; byte[][] or String[][]),
 	 * where the key is the path of the object we are storing history for, and
@@ -159,6 +183,28 @@ public abstract class Bucket {
 	private final Map<String, Object> entries;
 	private SoftReference<Map<Object, Map<String, Object>>> entriesCache;
 
+	/**
+	 * Whether {@link #entries} holds all entries of this bucket. Otherwise it only
+	 * holds the changes that have not been saved to the mapped index yet.
+	 */
+	private boolean entriesComplete = true;
+
+	/**
+	 * Whether this bucket is stored in a {@link MappedBucketIndex}.
+	 */
+	private final boolean useMappedIndex;
+
+	/**
+	 * The mapped index of the loaded bucket, or <code>null</code>.
+	 */
+	private MappedBucketIndex mappedIndex;
+
+	/**
+	 * An index file in the format not used by this bucket, to be deleted once the
+	 * entries it was loaded from have been saved.
+	 */
+	private File obsoleteLocation;
+
 	/**
 	 * The file system location of this bucket index file.
 	 */
@@ -177,8 +223,18 @@ public abstract class Bucket {
 	}
 
 	public Bucket(boolean cacheEntries) {
+		this(cacheEntries, MAPPED_INDEX_DEFAULT);
+	}
+
+	/**
+	 * @param cacheEntries   whether to keep the entries of recently loaded buckets
+	 *                       in memory; ignored for mapped buckets
+	 * @param useMappedIndex whether to store this bucket in a {@link MappedBucketIndex}
+	 */
+	public Bucket(boolean cacheEntries, boolean useMappedIndex) {
 		this.entries = new HashMap<>();
-		if (cacheEntries) {
+		this.useMappedIndex = useMappedIndex;
+		if (cacheEntries && !useMappedIndex) {
 			entriesCache = new SoftReference<>(null);
 		}
 	}
@@ -194,6 +250,7 @@ public abstract class Bucket {
 	 * @exception CoreException thrown by the visitor or from a failed save
 	 */
 	public final int accept(Visitor visitor, IPath filter, int depth) throws CoreException {
+		loadAllEntries();
 		if (entries.isEmpty())
 			return Visitor.CONTINUE;
 		try {
@@ -258,6 +315,9 @@ public abstract class Bucket {
 		projectName = null;
 		location = null;
 		entries.clear();
+		entriesComplete = true;
+		mappedIndex = null;
+		obsoleteLocation = null;
 		needSaving = false;
 	}
 
@@ -265,14 +325,39 @@ public abstract class Bucket {
 	 * Returns how many entries there are in this bucket.
 	 */
 	public final int getEntryCount() {
-		return entries.size();
+		if (entriesComplete)
+			return entries.size();
+		int count = mappedIndex.size();
+		for (Map.Entry<String, Object> change : entries.entrySet()) {
+			boolean indexed = mappedIndex.get(toIndexKey(change.getKey())) != null;
+			if (change.getValue() == REMOVED) {
+				if (indexed)
+					count--;
+			} else if (!indexed)
+				count++;
+		}
+		return count;
 	}
 
 	/**
 	 * Returns the value for entry corresponding to the given path (null if none found).
 	 */
 	public final Object getEntryValue(String path) {
-		return entries.get(path);
+		Object value = entries.get(path);
+		if (entriesComplete)
+			return value;
+		if (value != null)
+			return value == REMOVED ? null : value;
+		byte[] bytes = mappedIndex.get(toIndexKey(path));
+		if (bytes == null)
+			return null;
+		try {
+			return readValue(bytes);
+		} catch (IOException | CoreException e) {
+			String message = NLS.bind(Messages.resources_readMeta, mappedIndex.getFile().getAbsolutePath());
+			Policy.log(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, message, e));
+			return null;
+		}
 	}
 
 	/**
@@ -315,6 +400,13 @@ public abstract class Bucket {
 			this.location = new File(baseLocation, getIndexFileName());
 			Map<String, Object> loadedEntries = null;
 			this.entries.clear();
+			this.entriesComplete = true;
+			this.mappedIndex = null;
+			this.obsoleteLocation = null;
+			if (useMappedIndex) {
+				loadMappedIndex();
+				return;
+			}
 			if (force) {
 				loadedEntries = loadEntries(this.location);
 			} else {
@@ -346,20 +438,53 @@ public abstract class Bucket {
 		return this.location == null ? null : this.location.getAbsolutePath();
 	}
 
+	/**
+	 * Completes the entries of a mapped bucket with the entries from the index.
+	 */
+	private void loadAllEntries() throws CoreException {
+		if (entriesComplete)
+			return;
+		Map<String, Object> changes = new HashMap<>(entries);
+		entries.clear();
+		try {
+			for (Map.Entry<String, byte[]> entry : mappedIndex.readAll().entrySet())
+				entries.put(toEntryKey(entry.getKey()), readValue(entry.getValue()));
+		} catch (IOException ioe) {
+			entries.clear();
+			entries.putAll(changes);
+			String message = NLS.bind(Messages.resources_readMeta, mappedIndex.getFile().getAbsolutePath());
+			throw new ResourceException(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, message, ioe));
+		}
+		for (Map.Entry<String, Object> change : changes.entrySet()) {
+			if (change.getValue() == REMOVED)
+				entries.remove(change.getKey());
+			else
+				entries.put(change.getKey(), change.getValue());
+		}
+		entriesComplete = true;
+	}
+
 	private Map<String, Object> loadEntries(File indexFile) throws CoreException, IOException {
 		if (!indexFile.isFile()) {
+			File mappedLocation = getMappedLocation();
+			if (mappedLocation.isFile()) {
+				// stored in the other format, convert on the next save
+				MappedBucketIndex index = new MappedBucketIndex(mappedLocation);
+				checkVersion(index.getVersion(), mappedLocation);
+				Map<String, Object> resultEntries = new HashMap<>();
+				for (Map.Entry<String, byte[]> entry : index.readAll().entrySet())
+					resultEntries.put(toEntryKey(entry.getKey()), readValue(entry.getValue()));
+				obsoleteLocation = mappedLocation;
+				needSaving = true;
+				return resultEntries;
+			}
 			return Collections.EMPTY_MAP; // remember file does not exist
 		}
 		Map<String, Object> resultEntries = new HashMap<>();
 		try (DataInputStream source = new DataInputStream(
 				new BufferedInputStream(new FileInputStream(indexFile), 8192))) {
 			int version = source.readByte();
-			if (version != getVersion()) {
-				// unknown version
-				String message = NLS.bind(Messages.resources_readMetaWrongVersion, location.getAbsolutePath(), Integer.toString(version));
-				ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, message);
-				throw new ResourceException(status);
-			}
+			checkVersion(version, indexFile);
 			int entryCount = source.readInt();
 			for (int i = 0; i < entryCount; i++) {
 				resultEntries.put(readEntryKey(source), readEntryValue(source));
@@ -368,10 +493,54 @@ public abstract class Bucket {
 		}
 	}
 
+	/**
+	 * Opens the mapped index of the bucket at the current location.
+	 */
+	private void loadMappedIndex() throws CoreException, IOException {
+		mappedIndex = new MappedBucketIndex(getMappedLocation());
+		if (mappedIndex.exists()) {
+			checkVersion(mappedIndex.getVersion(), mappedIndex.getFile());
+			entriesComplete = false;
+		} else if (location.isFile()) {
+			// stored in the other format, convert on the next save
+			entries.putAll(loadEntries(location));
+			obsoleteLocation = location;
+			needSaving = true;
+		}
+	}
+
+	private void checkVersion(int version, File indexFile) throws ResourceException {
+		if (version != getVersion()) {
+			// unknown version
+			String message = NLS.bind(Messages.resources_readMetaWrongVersion, indexFile.getAbsolutePath(), Integer.toString(version));
+			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, message);
+			throw new ResourceException(status);
+		}
+	}
+
+	private File getMappedLocation() {
+		return new File(location.getParentFile(), getIndexFileName() + MAPPED_INDEX_SUFFIX);
+	}
+
 	private String readEntryKey(DataInputStream source) throws IOException {
-		if (projectName == null)
-			return source.readUTF();
-		return IPath.SEPARATOR + projectName + source.readUTF();
+		return toEntryKey(source.readUTF());
+	}
+
+	/**
+	 * Reads an entry value stored on its own in a mapped index.
+	 */
+	private Object readValue(byte[] bytes) throws IOException, CoreException {
+		resetEntryContext();
+		return readEntryValue(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+
+	/**
+	 * Called before an entry value is read or written on its own, rather than as
+	 * part of a complete index file. Subclasses that share state between the
+	 * entries of an index file must reset it here.
+	 */
+	protected void resetEntryContext() {
+		// nothing to reset by default
 	}
 
 	/**
@@ -400,9 +569,14 @@ public abstract class Bucket {
 		}
 		if (!needSaving)
 			return;
+		if (useMappedIndex) {
+			saveMappedIndex();
+			return;
+		}
 		try {
 			if (entries.isEmpty()) {
 				needSaving = false;
+				deleteObsoleteLocation();
 				cleanUp(location);
 				return;
 			}
@@ -419,6 +593,7 @@ public abstract class Bucket {
 					writeEntryValue(destination, entry.getValue());
 				}
 			}
+			deleteObsoleteLocation();
 			needSaving = false;
 		} catch (IOException ioe) {
 			String message = NLS.bind(Messages.resources_writeMeta, location.getAbsolutePath());
@@ -427,28 +602,114 @@ public abstract class Bucket {
 		}
 	}
 
+	private void deleteObsoleteLocation() {
+		if (obsoleteLocation != null) {
+			obsoleteLocation.delete();
+			obsoleteLocation = null;
+		}
+	}
+
+	/**
+	 * Saves the changes to the mapped index by appending them, compacting the
+	 * index when its log has grown too large.
+	 */
+	private void saveMappedIndex() throws CoreException {
+		try {
+			Map<String, byte[]> changes = new HashMap<>();
+			if (entriesComplete) {
+				// the entries may have been changed in any way, compare them with the index
+				Map<String, byte[]> indexed = mappedIndex.readAll();
+				for (String key : indexed.keySet())
+					if (!entries.containsKey(toEntryKey(key)))
+						changes.put(key, null);
+				for (Map.Entry<String, Object> entry : entries.entrySet()) {
+					String key = toIndexKey(entry.getKey());
+					byte[] value = writeValue(entry.getValue());
+					if (!Arrays.equals(value, indexed.get(key)))
+						changes.put(key, value);
+				}
+			} else {
+				for (Map.Entry<String, Object> entry : entries.entrySet())
+					changes.put(toIndexKey(entry.getKey()), entry.getValue() == REMOVED ? null : writeValue(entry.getValue()));
+			}
+			if (!mappedIndex.exists()) {
+				// only the changes are written, which must not replace entries the index could not read
+				if (mappedIndex.getFile().exists())
+					throw new IOException("Bucket index could not be read: " + mappedIndex.getFile()); //$NON-NLS-1$
+				changes.values().removeIf(Objects::isNull);
+				if (!changes.isEmpty())
+					mappedIndex.write(new TreeMap<>(changes), getVersion());
+			} else if (!changes.isEmpty()) {
+				mappedIndex.append(changes);
+			}
+			// the changes are in the index now
+			if (!entriesComplete)
+				entries.clear();
+			if (mappedIndex.exists() && mappedIndex.size() > 0 && mappedIndex.needsCompaction())
+				mappedIndex.compact();
+			deleteObsoleteLocation();
+			needSaving = false;
+			if (mappedIndex.exists() && mappedIndex.size() == 0) {
+				mappedIndex.delete();
+				cleanUp(mappedIndex.getFile().getParentFile());
+			}
+		} catch (IOException ioe) {
+			String message = NLS.bind(Messages.resources_writeMeta, mappedIndex.getFile().getAbsolutePath());
+			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_WRITE_METADATA, null, message, ioe);
+			throw new ResourceException(status);
+		}
+	}
+
 	/**
 	 * Sets the value for the entry with the given path. If <code>value</code> is <code>null</code>,
 	 * removes the entry.
 	 */
 	public final void setEntryValue(String path, Object value) {
-		if (value == null)
-			entries.remove(path);
-		else
+		if (value == null) {
+			if (entriesComplete)
+				entries.remove(path);
+			else
+				entries.put(path, REMOVED);
+		} else
 			entries.put(path, value);
 		needSaving = true;
 	}
 
-	private void writeEntryKey(DataOutputStream destination, String path) throws IOException {
-		if (projectName == null) {
-			destination.writeUTF(path);
-			return;
-		}
+	/**
+	 * Returns the path for a key stored in an index file.
+	 */
+	private String toEntryKey(String key) {
+		if (projectName == null)
+			return key;
+		return IPath.SEPARATOR + projectName + key;
+	}
+
+	/**
+	 * Returns the key to store in an index file for the given path.
+	 */
+	private String toIndexKey(String path) {
+		if (projectName == null)
+			return path;
 		// omit the project name
 		int pathLength = path.length();
 		int projectLength = projectName.length();
-		String key = (pathLength == projectLength + 1) ? "" : path.substring(projectLength + 1); //$NON-NLS-1$
-		destination.writeUTF(key);
+		return (pathLength == projectLength + 1) ? "" : path.substring(projectLength + 1); //$NON-NLS-1$
+	}
+
+	private void writeEntryKey(DataOutputStream destination, String path) throws IOException {
+		destination.writeUTF(toIndexKey(path));
+	}
+
+	/**
+	 * Writes an entry value to be stored on its own in a mapped index.
+	 */
+	private byte[] writeValue(Object value) throws IOException, CoreException {
+		resetEntryContext();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream destination = new DataOutputStream(bytes);
+		writeEntryValue(destination, value);
+		destination.flush();
+		return bytes.toByteArray();
 	}
 
 	/**
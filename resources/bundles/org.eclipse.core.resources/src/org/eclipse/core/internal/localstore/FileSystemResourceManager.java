@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,8 @@ package org.eclipse.core.internal.localstore;
 import java.io.*;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.internal.refresh.RefreshManager;
@@ -48,6 +50,14 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 
 	private volatile boolean lightweightAutoRefreshEnabled;
 
+	private volatile int refreshParallelism;
+
+	/**
+	 * The pool fetching directory listings in parallel, or <code>null</code> if
+	 * it was not needed yet. Guarded by this.
+	 */
+	private ForkJoinPool listingPool;
+
 	public FileSystemResourceManager(Workspace workspace) {
 		this.workspace = workspace;
 	}
@@ -823,6 +833,39 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	public void propertyChange(PropertyChangeEvent event) {
 		if (ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH.equals(event.getProperty()))
 			lightweightAutoRefreshEnabled = Boolean.parseBoolean(event.getNewValue().toString());
+		else if (PreferenceInitializer.PREF_REFRESH_PARALLELISM.equals(event.getProperty()))
+			updateRefreshParallelism();
+	}
+
+	private void updateRefreshParallelism() {
+		refreshParallelism = Platform.getPreferencesService().getInt(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_REFRESH_PARALLELISM, PreferenceInitializer.PREF_REFRESH_PARALLELISM_DEFAULT, null);
+	}
+
+	/**
+	 * Returns the pool for fetching directory listings in parallel while the
+	 * file system is traversed, or <code>null</code> if the listings are to be
+	 * fetched sequentially.
+	 *
+	 * @see UnifiedTree#accept(IUnifiedTreeVisitor, int)
+	 */
+	ForkJoinPool getListingPool() {
+		int parallelism = refreshParallelism;
+		if (parallelism <= 1)
+			return null;
+		synchronized (this) {
+			if (listingPool == null || listingPool.getParallelism() != parallelism) {
+				//tasks already submitted to a replaced pool still complete
+				if (listingPool != null)
+					listingPool.shutdown();
+				// Use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
+				// potential SecurityManager, since the threads created by it get no permissions.
+				// See https://github.com/eclipse-platform/eclipse.platform/issues/294
+				listingPool = new ForkJoinPool(parallelism, pool -> new ForkJoinWorkerThread(pool) {
+					// anonymous subclass to access protected constructor
+				}, null, false);
+			}
+			return listingPool;
+		}
 	}
 
 	public InputStream read(IFile target, boolean force, IProgressMonitor monitor) throws CoreException {
@@ -1078,6 +1121,11 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		if (_historyStore != null)
 			_historyStore.shutdown(monitor);
 		ResourcesPlugin.getPlugin().getPluginPreferences().removePropertyChangeListener(this);
+		synchronized (this) {
+			if (listingPool != null)
+				listingPool.shutdown();
+			listingPool = null;
+		}
 	}
 
 	@Override
@@ -1085,6 +1133,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		Preferences preferences = ResourcesPlugin.getPlugin().getPluginPreferences();
 		preferences.addPropertyChangeListener(this);
 		lightweightAutoRefreshEnabled = preferences.getBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH);
+		updateRefreshParallelism();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -253,6 +253,10 @@ public class HistoryBucket extends Bucket {
 		super(false); // history is fire and forget
 	}
 
+	public HistoryBucket(boolean useMappedIndex) {
+		super(false, useMappedIndex);
+	}
+
 	public void addBlob(IPath path, UniversalUniqueIdentifier uuid, long lastModified) {
 		byte[] state = HistoryEntry.getState(uuid, lastModified);
 		String pathAsString = path.toString();
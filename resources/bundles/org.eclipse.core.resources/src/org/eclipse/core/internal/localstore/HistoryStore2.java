@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
 
 public class HistoryStore2 implements IHistoryStore {
 
@@ -69,6 +70,8 @@ public class HistoryStore2 implements IHistoryStore {
 
 	private BlobStore blobStore;
 	private Set<UniversalUniqueIdentifier> blobsToRemove = new HashSet<>();
+	/** content-addressed blobs to remove, unless another state still refers to them */
+	private Set<UniversalUniqueIdentifier> sharedBlobsToRemove = new HashSet<>();
 	final BucketTree tree;
 	private Workspace workspace;
 
@@ -80,7 +83,10 @@ public class HistoryStore2 implements IHistoryStore {
 			//ignore the failure here because there is no way to surface it.
 			//any attempt to write to the store will throw an appropriate exception
 		}
-		this.blobStore = new BlobStore(store, limit);
+		IPreferencesService preferences = Platform.getPreferencesService();
+		boolean contentAddressed = preferences.getBoolean(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_HISTORY_CONTENT_ADDRESSED, PreferenceInitializer.PREF_HISTORY_CONTENT_ADDRESSED_DEFAULT, null);
+		boolean compress = preferences.getBoolean(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_HISTORY_COMPRESS, PreferenceInitializer.PREF_HISTORY_COMPRESS_DEFAULT, null);
+		this.blobStore = new BlobStore(store, limit, contentAddressed, compress);
 		this.tree = new BucketTree(workspace, new HistoryBucket());
 	}
 
@@ -132,7 +138,7 @@ public class HistoryStore2 implements IHistoryStore {
 			if (i < maxStates && fileEntry.getTimestamp(i) >= minTimeStamp)
 				continue;
 			// "delete" the current uuid
-			blobsToRemove.add(fileEntry.getUUID(i));
+			markForRemoval(fileEntry.getUUID(i));
 			fileEntry.deleteOccurrence(i);
 		}
 	}
@@ -193,6 +199,17 @@ public class HistoryStore2 implements IHistoryStore {
 		}
 	}
 
+	/**
+	 * Remembers that the blob with the given UUID is no longer referenced by
+	 * some state. Content-addressed blobs may still be referenced by other states.
+	 */
+	private void markForRemoval(UniversalUniqueIdentifier uuid) {
+		if (BlobStore.isContentKey(uuid))
+			sharedBlobsToRemove.add(uuid);
+		else
+			blobsToRemove.add(uuid);
+	}
+
 	/*
 	 * Remove blobs from the blobStore. When the size of blobsToRemove exceeds the limit,
 	 * remove the given blobs from blobStore. If the limit is zero or negative, remove blobs
@@ -207,6 +224,36 @@ public class HistoryStore2 implements IHistoryStore {
 				Policy.debug("Time to remove " + blobsToRemove.size() + " unreferenced blobs: " + (System.currentTimeMillis() - start) + "ms."); //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
 			blobsToRemove = new HashSet<>();
 		}
+		// shared blobs need a full pass over the tree, so they are never removed incrementally
+		if (limit <= 0 && !sharedBlobsToRemove.isEmpty()) {
+			try {
+				removeUnreferencedSharedBlobs();
+			} catch (CoreException e) {
+				log(e);
+			}
+		}
+	}
+
+	/**
+	 * Removes the content-addressed blobs that were released by some state and
+	 * are not referenced by any remaining state.
+	 */
+	private void removeUnreferencedSharedBlobs() throws CoreException {
+		long start = System.currentTimeMillis();
+		final Set<UniversalUniqueIdentifier> candidates = sharedBlobsToRemove;
+		tree.accept(new Bucket.Visitor() {
+			@Override
+			public int visit(Entry fileEntry) {
+				for (int i = 0; i < fileEntry.getOccurrences(); i++)
+					// still referenced, keep it
+					candidates.remove(((HistoryEntry) fileEntry).getUUID(i));
+				return candidates.isEmpty() ? STOP : CONTINUE;
+			}
+		}, Path.ROOT, BucketTree.DEPTH_INFINITE);
+		blobStore.deleteBlobs(candidates);
+		if (Policy.DEBUG_HISTORY)
+			Policy.debug("Time to remove " + candidates.size() + " unreferenced shared blobs: " + (System.currentTimeMillis() - start) + "ms."); //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
+		sharedBlobsToRemove = new HashSet<>();
 	}
 
 	@Override
@@ -333,13 +380,12 @@ public class HistoryStore2 implements IHistoryStore {
 	@Override
 	public synchronized void remove(IPath root, IProgressMonitor monitor) {
 		try {
-			final Set<UniversalUniqueIdentifier> tmpBlobsToRemove = blobsToRemove;
 			tree.accept(new Bucket.Visitor() {
 				@Override
 				public int visit(Entry fileEntry) {
 					for (int i = 0; i < fileEntry.getOccurrences(); i++)
 						// remember we need to delete the files later
-						tmpBlobsToRemove.add(((HistoryEntry) fileEntry).getUUID(i));
+						markForRemoval(((HistoryEntry) fileEntry).getUUID(i));
 					fileEntry.delete();
 					return CONTINUE;
 				}
@@ -356,17 +402,23 @@ public class HistoryStore2 implements IHistoryStore {
 	public synchronized void removeGarbage() {
 		try {
 			final Set<UniversalUniqueIdentifier> tmpBlobsToRemove = blobsToRemove;
+			final Set<UniversalUniqueIdentifier> tmpSharedBlobsToRemove = sharedBlobsToRemove;
 			tree.accept(new Bucket.Visitor() {
 				@Override
 				public int visit(Entry fileEntry) {
-					for (int i = 0; i < fileEntry.getOccurrences(); i++)
+					for (int i = 0; i < fileEntry.getOccurrences(); i++) {
 						// remember we need to delete the files later
-						tmpBlobsToRemove.remove(((HistoryEntry) fileEntry).getUUID(i));
+						UniversalUniqueIdentifier uuid = ((HistoryEntry) fileEntry).getUUID(i);
+						tmpBlobsToRemove.remove(uuid);
+						tmpSharedBlobsToRemove.remove(uuid);
+					}
 					return CONTINUE;
 				}
 			}, Path.ROOT, BucketTree.DEPTH_INFINITE);
 			blobStore.deleteBlobs(blobsToRemove);
+			blobStore.deleteBlobs(sharedBlobsToRemove);
 			blobsToRemove = new HashSet<>();
+			sharedBlobsToRemove = new HashSet<>();
 		} catch (Exception e) {
 			String message = Messages.history_problemsCleaning;
 			ResourceStatus status = new ResourceStatus(IResourceStatus.FAILED_DELETE_LOCAL, null, message, e);
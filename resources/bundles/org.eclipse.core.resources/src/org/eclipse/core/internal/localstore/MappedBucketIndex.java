@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.localstore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * An index file for a bucket that can be searched without reading it completely.
+ * Large files are memory-mapped, so that looking up an entry only touches the
+ * pages holding the offset table and the entry itself. Files are never mapped
+ * on Windows, where a mapped file cannot be replaced or deleted.
+ * <p>
+ * The file starts with the entries sorted by key, followed by a log of changes
+ * that is appended to in place. The log is replayed when the file is opened,
+ * and the file is compacted into a sorted file again once the log gets large.
+ * Keys are strings, values are the serialized entry values.
+ * </p>
+ * <pre> {@code
+ * FILE ::= MAGIC VERSION COUNT DATA_END OFFSET* RECORD* LOG_RECORD*
+ * MAGIC ::= int
+ * VERSION ::= byte (the version of the bucket)
+ * COUNT ::= int (number of sorted records)
+ * DATA_END ::= int (position of the first log record)
+ * OFFSET ::= int (position of each sorted record, in key order)
+ * RECORD ::= KEY VALUE_LENGTH VALUE
+ * LOG_RECORD ::= CRC RECORD (VALUE_LENGTH -1 for removed entries)
+ * KEY ::= unsigned short, UTF-8 bytes
+ * }</pre>
+ */
+final class MappedBucketIndex {
+	private static final int MAGIC = 0x42494458; // "BIDX"
+	private static final int HEADER_LENGTH = 4 + 1 + 4 + 4;
+	private static final int VERSION_POSITION = 4;
+	private static final int COUNT_POSITION = 5;
+	private static final int DATA_END_POSITION = 9;
+	/** value length of removed entries in the log */
+	private static final int REMOVED = -1;
+	/** files smaller than this are read into memory rather than mapped */
+	private static final int MAP_THRESHOLD = 64 * 1024;
+	/**
+	 * Whether large files are mapped. A mapped file can neither be replaced nor
+	 * deleted on Windows until the mapping is garbage collected, so files are
+	 * always read into memory there.
+	 */
+	private static final boolean MAP_FILES = !Platform.OS_WIN32.equals(Platform.getOS());
+	/** the log is never compacted while smaller than this */
+	private static final int MIN_COMPACTION_SIZE = 16 * 1024;
+
+	private final File file;
+	/** the file contents, or <code>null</code> if the file does not exist */
+	private ByteBuffer buffer;
+	private int count;
+	private int dataEnd;
+	private int logEnd;
+	/** number of entries in the index, considering the log */
+	private int size;
+	/** position of the latest log record for each key changed in the log */
+	private final Map<String, Integer> log = new HashMap<>();
+
+	MappedBucketIndex(File file) throws IOException {
+		this.file = file;
+		read();
+	}
+
+	/**
+	 * Appends the given changes to the log. A <code>null</code> value
+	 * removes the entry with that key.
+	 */
+	void append(Map<String, byte[]> changes) throws IOException {
+		if (changes.isEmpty())
+			return;
+		Assert.isTrue(exists());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ByteArrayOutputStream record = new ByteArrayOutputStream();
+		DataOutputStream recordOutput = new DataOutputStream(record);
+		DataOutputStream output = new DataOutputStream(bytes);
+		CRC32 crc = new CRC32();
+		for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+			record.reset();
+			writeRecord(recordOutput, change.getKey(), change.getValue());
+			crc.reset();
+			crc.update(record.toByteArray());
+			output.writeInt((int) crc.getValue());
+			record.writeTo(output);
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			// anything after the end of the log is the remainder of an interrupted append
+			ByteBuffer source = ByteBuffer.wrap(bytes.toByteArray());
+			long position = logEnd;
+			while (source.hasRemaining())
+				position += channel.write(source, position);
+		}
+		read();
+	}
+
+	/**
+	 * Rewrites the file with its entries sorted and without a log.
+	 */
+	void compact() throws IOException {
+		write(new TreeMap<>(readAll()));
+	}
+
+	/**
+	 * Deletes the file. Returns whether it was deleted.
+	 */
+	boolean delete() {
+		buffer = null;
+		count = 0;
+		size = 0;
+		log.clear();
+		return file.delete();
+	}
+
+	boolean exists() {
+		return buffer != null;
+	}
+
+	/**
+	 * Returns the value for the given key, or <code>null</code> if there is none.
+	 */
+	byte[] get(String key) {
+		if (buffer == null)
+			return null;
+		Integer logPosition = log.get(key);
+		if (logPosition != null)
+			return readValue(logPosition.intValue() + 4);
+		int index = search(key);
+		return index < 0 ? null : readValue(offset(index));
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the version of the bucket stored in this file.
+	 */
+	byte getVersion() {
+		return buffer == null ? 0 : buffer.get(VERSION_POSITION);
+	}
+
+	/**
+	 * Returns whether the log has grown large compared to the sorted entries.
+	 */
+	boolean needsCompaction() {
+		int logSize = logEnd - dataEnd;
+		return logSize > MIN_COMPACTION_SIZE && logSize > (dataEnd - HEADER_LENGTH) / 2;
+	}
+
+	private int offset(int index) {
+		return buffer.getInt(HEADER_LENGTH + 4 * index);
+	}
+
+	private void read() throws IOException {
+		buffer = null;
+		count = 0;
+		size = 0;
+		dataEnd = logEnd = HEADER_LENGTH;
+		log.clear();
+		if (!file.isFile())
+			return;
+		ByteBuffer contents;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length > Integer.MAX_VALUE)
+				throw new IOException("Index file too large: " + file); //$NON-NLS-1$
+			if (MAP_FILES && length >= MAP_THRESHOLD) {
+				contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			} else {
+				contents = ByteBuffer.allocate((int) length);
+				while (contents.hasRemaining() && channel.read(contents) >= 0) {
+					// keep reading
+				}
+				contents.flip();
+			}
+		}
+		if (contents.limit() < HEADER_LENGTH || contents.getInt(0) != MAGIC)
+			throw new IOException("Not a bucket index: " + file); //$NON-NLS-1$
+		int sortedCount = contents.getInt(COUNT_POSITION);
+		int sortedEnd = contents.getInt(DATA_END_POSITION);
+		if (sortedCount < 0 || sortedEnd < HEADER_LENGTH + 4L * sortedCount || sortedEnd > contents.limit())
+			throw new IOException("Corrupt bucket index: " + file); //$NON-NLS-1$
+		buffer = contents;
+		count = sortedCount;
+		size = sortedCount;
+		dataEnd = sortedEnd;
+		// replay the log, stopping at the first incomplete record
+		int position = dataEnd;
+		int next;
+		while ((next = checkLogRecord(position)) > 0) {
+			String key = readKey(position + 4);
+			Integer previous = log.put(key, Integer.valueOf(position));
+			boolean wasPresent = previous != null ? readValueLength(previous.intValue() + 4) != REMOVED : search(key) >= 0;
+			boolean isPresent = readValueLength(position + 4) != REMOVED;
+			if (wasPresent != isPresent)
+				size += isPresent ? 1 : -1;
+			position = next;
+		}
+		logEnd = position;
+	}
+
+	/**
+	 * Returns all entries of this index.
+	 */
+	Map<String, byte[]> readAll() {
+		Map<String, byte[]> result = new HashMap<>(size * 4 / 3 + 1);
+		if (buffer == null)
+			return result;
+		for (int i = 0; i < count; i++) {
+			int offset = offset(i);
+			String key = readKey(offset);
+			if (!log.containsKey(key))
+				result.put(key, readValue(offset));
+		}
+		for (Map.Entry<String, Integer> entry : log.entrySet()) {
+			byte[] value = readValue(entry.getValue().intValue() + 4);
+			if (value != null)
+				result.put(entry.getKey(), value);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the position after the log record at the given position, or -1
+	 * if there is no complete and intact record there.
+	 */
+	private int checkLogRecord(int position) {
+		int limit = buffer.limit();
+		if (position + 4 + 2 > limit)
+			return -1;
+		int keyLength = buffer.getShort(position + 4) & 0xFFFF;
+		int valueLengthPosition = position + 4 + 2 + keyLength;
+		if (valueLengthPosition + 4 > limit)
+			return -1;
+		int valueLength = buffer.getInt(valueLengthPosition);
+		if (valueLength < REMOVED)
+			return -1;
+		long end = (long) valueLengthPosition + 4 + Math.max(valueLength, 0);
+		if (end > limit)
+			return -1;
+		ByteBuffer record = buffer.duplicate();
+		record.limit((int) end).position(position + 4);
+		CRC32 crc = new CRC32();
+		crc.update(record);
+		return (int) crc.getValue() == buffer.getInt(position) ? (int) end : -1;
+	}
+
+	private String readKey(int position) {
+		int length = buffer.getShort(position) & 0xFFFF;
+		byte[] bytes = new byte[length];
+		buffer.duplicate().position(position + 2).get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private byte[] readValue(int position) {
+		int length = readValueLength(position);
+		if (length == REMOVED)
+			return null;
+		int valuePosition = position + 2 + (buffer.getShort(position) & 0xFFFF) + 4;
+		byte[] value = new byte[length];
+		buffer.duplicate().position(valuePosition).get(value);
+		return value;
+	}
+
+	private int readValueLength(int position) {
+		return buffer.getInt(position + 2 + (buffer.getShort(position) & 0xFFFF));
+	}
+
+	/**
+	 * Searches the sorted records. Returns the index of the record with the
+	 * given key, or a negative value if there is none.
+	 */
+	private int search(String key) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = readKey(offset(middle)).compareTo(key);
+			if (comparison < 0)
+				low = middle + 1;
+			else if (comparison > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the number of entries in this index.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Replaces the contents of the file with the given entries, which must be
+	 * sorted by key.
+	 */
+	void write(SortedMap<String, byte[]> entries, byte version) throws IOException {
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream recordOutput = new DataOutputStream(records);
+		int[] offsets = new int[entries.size()];
+		int start = HEADER_LENGTH + 4 * offsets.length;
+		int i = 0;
+		for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+			offsets[i++] = start + records.size();
+			writeRecord(recordOutput, entry.getKey(), entry.getValue());
+		}
+		File parent = file.getParentFile();
+		parent.mkdirs();
+		File temp = new File(parent, file.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 8192))) {
+				output.writeInt(MAGIC);
+				output.writeByte(version);
+				output.writeInt(offsets.length);
+				output.writeInt(start + records.size());
+				for (int offset : offsets)
+					output.writeInt(offset);
+				records.writeTo(output);
+			}
+			// the old contents must no longer be used once the file is replaced
+			buffer = null;
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			temp.delete();
+			// the old file is still in place, keep using it
+			if (buffer == null) {
+				try {
+					read();
+				} catch (IOException readFailure) {
+					e.addSuppressed(readFailure);
+				}
+			}
+			throw e;
+		}
+		read();
+	}
+
+	private void write(SortedMap<String, byte[]> entries) throws IOException {
+		write(entries, getVersion());
+	}
+
+	private static void writeRecord(DataOutputStream output, String key, byte[] value) throws IOException {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		if (keyBytes.length > 0xFFFF)
+			throw new IOException("Key too long: " + key); //$NON-NLS-1$
+		output.writeShort(keyBytes.length);
+		output.write(keyBytes);
+		if (value == null) {
+			output.writeInt(REMOVED);
+			return;
+		}
+		output.writeInt(value.length);
+		output.write(value);
+	}
+}
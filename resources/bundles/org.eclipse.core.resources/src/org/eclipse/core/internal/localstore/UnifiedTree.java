@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ package org.eclipse.core.internal.localstore;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.refresh.RefreshJob;
@@ -53,12 +54,18 @@ public class UnifiedTree {
 	/** Singleton to indicate no local children */
 	private static final IResource[] NO_RESOURCES = {};
 
+	/** Maximum number of directory listings fetched ahead per worker thread */
+	private static final int PREFETCH_PER_THREAD = 256;
+
 	/**
 	 * True if the level of the children of the current node are valid according
 	 * to the requested refresh depth, false otherwise
 	 */
 	protected boolean childLevelValid;
 
+	/** the requested depth of the current traversal */
+	private int depth;
+
 	/** an IFileTree which can be used to build a unified tree*/
 	protected IFileTree fileTree;
 
@@ -66,6 +73,16 @@ public class UnifiedTree {
 	protected ArrayList<UnifiedTreeNode> freeNodes = new ArrayList<>();
 	/** tree's actual level */
 	protected int level;
+
+	/**
+	 * Pool used to fetch directory listings ahead of the traversal, or
+	 * <code>null</code> if the tree is traversed sequentially
+	 */
+	private ForkJoinPool pool;
+
+	/** number of directory listings fetched ahead and not yet consumed */
+	private int pendingLists;
+
 	/** our queue */
 	protected LinkedList<UnifiedTreeNode> queue;
 
@@ -102,9 +119,17 @@ public class UnifiedTree {
 	/**
 	 * Performs a breadth-first traversal of the unified tree, passing each
 	 * node to the provided visitor.
+	 * <p>
+	 * If the refresh parallelism preference is greater than one, the children of
+	 * directories are listed ahead of the traversal by a pool of worker threads.
+	 * The visitor and all access to the workspace tree remain on the calling
+	 * thread.
+	 * </p>
 	 */
 	public void accept(IUnifiedTreeVisitor visitor, int depth) throws CoreException {
 		Assert.isNotNull(root);
+		this.depth = depth;
+		pool = ((Workspace) root.getWorkspace()).getFileSystemManager().getListingPool();
 		initializeQueue();
 		setLevel(0, depth);
 		while (!queue.isEmpty()) {
@@ -120,6 +145,7 @@ public class UnifiedTree {
 				addNodeChildrenToQueue(node);
 			else
 				removeNodeChildrenFromQueue(node);
+			discardLocalChildren(node);
 			//allow reuse of the node, but don't let the freeNodes list grow infinitely
 			if (freeNodes.size() < 32767) {
 				//free memory-consuming elements of the node for garbage collection
@@ -240,6 +266,9 @@ public class UnifiedTree {
 		if (node.getFirstChild() == null)
 			node.setFirstChild(child);
 		addElementToQueue(child);
+		//the children of the child will be at the level after next
+		if (pool != null && child.isFolder() && child.existsInFileSystem() && isValidLevel(level + 2, depth))
+			fetchLocalChildrenAhead(child);
 	}
 
 	protected void addElementToQueue(UnifiedTreeNode target) {
@@ -350,14 +379,76 @@ public class UnifiedTree {
 		return level;
 	}
 
+	/**
+	 * Starts fetching the children of the given node in the file system on the
+	 * listing pool, unless too many listings are already pending.
+	 */
+	private void fetchLocalChildrenAhead(UnifiedTreeNode node) {
+		if (node.localChildren != null || pendingLists >= pool.getParallelism() * PREFETCH_PER_THREAD)
+			return;
+		//the store is created here because creating it accesses the workspace tree
+		final IFileStore store = node.getStore();
+		try {
+			node.localChildren = pool.submit(() -> {
+				try {
+					return fetchLocalList(store);
+				} catch (CoreException e) {
+					//treat failure to access the directory as a non-existent directory
+					return NO_CHILDREN;
+				}
+			});
+			pendingLists++;
+		} catch (RejectedExecutionException e) {
+			//the pool has been replaced, fetch the children when they are needed
+		}
+	}
+
+	/**
+	 * Discards the children of the given node fetched ahead of the traversal,
+	 * if they have not been consumed.
+	 */
+	private void discardLocalChildren(UnifiedTreeNode node) {
+		if (node.localChildren != null) {
+			node.localChildren.cancel(false);
+			node.localChildren = null;
+			pendingLists--;
+		}
+	}
+
+	/**
+	 * Returns the children of the given directory store in the file system.
+	 * This method does not access the workspace and is safe to call from
+	 * worker threads.
+	 */
+	private IFileInfo[] fetchLocalList(IFileStore store) throws CoreException {
+		if (fileTree != null && (fileTree.getTreeRoot().equals(store) || fileTree.getTreeRoot().isParentOf(store)))
+			return fileTree.getChildInfos(store);
+		return store.childInfos(EFS.NONE, null);
+	}
+
+	/**
+	 * Returns the children of the given node in the file system, waiting for
+	 * them if they are being fetched ahead of the traversal.
+	 */
+	private IFileInfo[] takeLocalList(UnifiedTreeNode node) throws CoreException {
+		Future<IFileInfo[]> pending = node.localChildren;
+		if (pending != null) {
+			node.localChildren = null;
+			pendingLists--;
+			try {
+				return pending.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException | CancellationException e) {
+				//fall through and fetch the children on this thread
+			}
+		}
+		return fetchLocalList(node.getStore());
+	}
+
 	protected IFileInfo[] getLocalList(UnifiedTreeNode node) {
 		try {
-			final IFileStore store = node.getStore();
-			IFileInfo[] list;
-			if (fileTree != null && (fileTree.getTreeRoot().equals(store) || fileTree.getTreeRoot().isParentOf(store)))
-				list = fileTree.getChildInfos(store);
-			else
-				list = store.childInfos(EFS.NONE, null);
+			IFileInfo[] list = takeLocalList(node);
 
 			if (list == null || list.length == 0)
 				return NO_CHILDREN;
@@ -387,6 +478,7 @@ public class UnifiedTree {
 			freeNodes = new ArrayList<>(100);
 		else
 			freeNodes.clear();
+		pendingLists = 0;
 		addRootToQueue();
 		addElementToQueue(levelMarker);
 	}
@@ -590,7 +682,9 @@ public class UnifiedTree {
 		if (first == null)
 			return;
 		while (true) {
-			if (first.equals(queue.pollLast()))
+			UnifiedTreeNode last = queue.pollLast();
+			discardLocalChildren(last);
+			if (first.equals(last))
 				break;
 		}
 		node.setFirstChild(null);
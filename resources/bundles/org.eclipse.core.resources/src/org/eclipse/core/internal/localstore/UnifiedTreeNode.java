@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
 package org.eclipse.core.internal.localstore;
 
 import java.util.Iterator;
+import java.util.concurrent.Future;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.resources.Resource;
 import org.eclipse.core.resources.IResource;
@@ -28,6 +29,8 @@ public class UnifiedTreeNode implements ILocalStoreConstants {
 	protected UnifiedTreeNode child;
 	protected boolean existsWorkspace;
 	protected IFileInfo fileInfo;
+	/** the children in the file system, when they are being fetched in the background */
+	protected Future<IFileInfo[]> localChildren;
 	protected IResource resource;
 	protected IFileStore store;
 	protected UnifiedTree tree;
@@ -118,6 +121,7 @@ public class UnifiedTreeNode implements ILocalStoreConstants {
 		this.resource = aResource;
 		this.store = aStore;
 		this.fileInfo = info;
+		this.localChildren = null;
 		this.existsWorkspace = existsInWorkspace;
 	}
 
@@ -130,6 +134,7 @@ public class UnifiedTreeNode implements ILocalStoreConstants {
 		this.resource = null;
 		this.store = null;
 		this.fileInfo = null;
+		this.localChildren = null;
 	}
 
 	public void setExistsWorkspace(boolean exists) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -225,6 +225,10 @@ public class PropertyBucket extends Bucket {
 		super(!Boolean.getBoolean("org.eclipse.core.PropertyCache.disable")); //$NON-NLS-1$
 	}
 
+	public PropertyBucket(boolean useMappedIndex) {
+		super(!Boolean.getBoolean("org.eclipse.core.PropertyCache.disable"), useMappedIndex); //$NON-NLS-1$
+	}
+
 	@Override
 	protected Entry createEntry(IPath path, Object value) {
 		return new PropertyEntry(path, (String[][]) value);
@@ -266,6 +270,12 @@ public class PropertyBucket extends Bucket {
 		super.load(newProjectName, baseLocation, force);
 	}
 
+	@Override
+	protected void resetEntryContext() {
+		// qualifiers are only shared between the entries of the same index file
+		qualifierIndex.clear();
+	}
+
 	@Override
 	protected Object readEntryValue(DataInputStream source) throws IOException, CoreException {
 		int length = source.readUnsignedShort();
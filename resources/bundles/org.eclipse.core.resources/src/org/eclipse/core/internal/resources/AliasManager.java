@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -109,6 +109,14 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	/**
 	 * Maintains a mapping of FileStore-&gt;IResource, such that multiple resources
 	 * mapped from the same location are tolerated.
+	 * <p>
+	 * The map also keeps track of which resources overlap, that is, of the
+	 * resources whose locations are the same as, or a parent or child of, the
+	 * location of another resource in the map. This is updated whenever a
+	 * resource is added or removed, by only looking at the locations above and
+	 * below its location, so the overlapping resources never have to be
+	 * computed from scratch.
+	 * </p>
 	 */
 	class LocationMap {
 		/**
@@ -116,38 +124,117 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 */
 		private final SortedMap<IFileStore, Object> map = new TreeMap<>(IFileStore::compareTo);
 
+		/**
+		 * The location of each resource in the map, by project.
+		 */
+		private final Map<IProject, Map<IResource, IFileStore>> locations = new HashMap<>();
+
+		/**
+		 * The number of resources in the map which overlap a resource, for the
+		 * resources that overlap any.
+		 */
+		private final Map<IResource, Integer> overlapCounts = new HashMap<>();
+
+		/**
+		 * The number of overlapping resources of each project that has any.
+		 */
+		private final Map<IProject, Integer> overlappingResourceCounts = new HashMap<>();
+
+		/**
+		 * The number of resources in the map which are not projects.
+		 */
+		private int linkCount;
+
 		/**
 		 * Adds the given resource to the map, keyed by the given location.
-		 * Returns true if a new entry was added, and false otherwise.
+		 * Returns true if a new entry was added, and false otherwise. If the
+		 * resource was in the map at a different location, it is moved.
 		 */
 		public boolean add(IFileStore location, IResource resource) {
+			IFileStore oldLocation = getLocation(resource);
+			if (oldLocation != null) {
+				if (oldLocation.equals(location))
+					return false;//duplicate
+				remove(oldLocation, resource);
+			}
+			List<IResource> overlapping = getOverlappingResources(location);
 			Object oldValue = map.get(location);
 			if (oldValue == null) {
 				map.put(location, resource);
-				return true;
-			}
-			if (oldValue instanceof IResource) {
-				if (resource.equals(oldValue))
-					return false;//duplicate
+			} else if (oldValue instanceof IResource) {
 				ArrayList<Object> newValue = new ArrayList<>(2);
 				newValue.add(oldValue);
 				newValue.add(resource);
 				map.put(location, newValue);
-				return true;
+			} else {
+				@SuppressWarnings("unchecked")
+				ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
+				list.add(resource);
 			}
-			@SuppressWarnings("unchecked")
-			ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
-			if (list.contains(resource))
-				return false;//duplicate
-			list.add(resource);
+			locations.computeIfAbsent(resource.getProject(), p -> new HashMap<>()).put(resource, location);
+			if (resource.getType() != IResource.PROJECT)
+				linkCount++;
+			for (IResource other : overlapping)
+				addOverlap(other, 1);
+			addOverlap(resource, overlapping.size());
 			return true;
 		}
 
+		/**
+		 * Records that the given number of resources overlap the given resource,
+		 * in addition to the ones recorded before.
+		 */
+		private void addOverlap(IResource resource, int count) {
+			if (count == 0)
+				return;
+			int oldCount = overlapCounts.getOrDefault(resource, 0);
+			int newCount = oldCount + count;
+			if (newCount == 0)
+				overlapCounts.remove(resource);
+			else
+				overlapCounts.put(resource, newCount);
+			int projectCount = (oldCount == 0 ? 1 : 0) - (newCount == 0 ? 1 : 0);
+			if (projectCount != 0)
+				overlappingResourceCounts.compute(resource.getProject(), (project, oldProjectCount) -> {
+					int newProjectCount = (oldProjectCount == null ? 0 : oldProjectCount) + projectCount;
+					return newProjectCount == 0 ? null : newProjectCount;
+				});
+		}
+
 		/**
 		 * Method clear.
 		 */
 		public void clear() {
 			map.clear();
+			locations.clear();
+			overlapCounts.clear();
+			overlappingResourceCounts.clear();
+			linkCount = 0;
+		}
+
+		/**
+		 * Returns the number of resources in the map which are not projects.
+		 */
+		public int getLinkCount() {
+			return linkCount;
+		}
+
+		private IFileStore getLocation(IResource resource) {
+			Map<IResource, IFileStore> projectLocations = locations.get(resource.getProject());
+			return projectLocations == null ? null : projectLocations.get(resource);
+		}
+
+		/**
+		 * Returns the resources in the map which overlap the given location.
+		 */
+		private List<IResource> getOverlappingResources(IFileStore location) {
+			List<IResource> result = new ArrayList<>();
+			// the resources at the location or below it
+			matchingPrefixDo(location, result::add);
+			// and the resources above it
+			for (IFileStore parent = location.getParent(); parent != null; parent = parent.getParent())
+				matchingResourcesDo(parent, result::add);
+			return result;
 		}
 
 		/**
@@ -200,47 +287,11 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		}
 
 		/**
-		 * Calls the given doit with the project of every resource in the map
-		 * whose location overlaps another resource in the map.
+		 * Calls the given doit with every project which has a resource in the
+		 * map whose location overlaps another resource in the map.
 		 */
 		public void overLappingResourcesDo(Consumer<IResource> doit) {
-			IFileStore previousStore = null;
-			IResource previousResource = null;
-			for (Entry<IFileStore, Object> current : map.entrySet()) {
-				//value is either single resource or List of resources
-				IFileStore currentStore = current.getKey();
-				IResource currentResource = null;
-				Object value = current.getValue();
-				if (value instanceof List) {
-					for (Object element : ((List<?>) value)) {
-						if (element instanceof IResource) {
-							doit.accept(((IResource) element).getProject());
-						}
-					}
-				} else {
-					//value is a single resource
-					currentResource = (IResource) value;
-				}
-				if (previousStore != null) {
-					//check for overlap with previous
-					//Note: previous is always shorter due to map sorting rules
-					if (previousStore.isParentOf(currentStore)) {
-						//resources will be null if they were in a list, in which case
-						//they've already been passed to the doit
-						if (previousResource != null) {
-							doit.accept(previousResource.getProject());
-							//null out previous resource so we don't call doit twice with same resource
-							previousResource = null;
-						}
-						if (currentResource != null)
-							doit.accept(currentResource.getProject());
-						//keep iterating with the same previous store because there may be more overlaps
-						continue;
-					}
-				}
-				previousStore = currentStore;
-				previousResource = currentResource;
-			}
+			overlappingResourceCounts.keySet().forEach(doit);
 		}
 
 		/**
@@ -252,18 +303,39 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 			if (oldValue == null)
 				return false;
 			if (oldValue instanceof IResource) {
-				if (resource.equals(oldValue)) {
+				if (!resource.equals(oldValue))
+					return false;
+				map.remove(location);
+			} else {
+				@SuppressWarnings("unchecked")
+				ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
+				if (!list.remove(resource))
+					return false;
+				if (list.isEmpty())
 					map.remove(location);
-					return true;
-				}
-				return false;
 			}
-			@SuppressWarnings("unchecked")
-			ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
-			boolean wasRemoved = list.remove(resource);
-			if (list.isEmpty())
-				map.remove(location);
-			return wasRemoved;
+			Map<IResource, IFileStore> projectLocations = locations.get(resource.getProject());
+			projectLocations.remove(resource);
+			if (projectLocations.isEmpty())
+				locations.remove(resource.getProject());
+			if (resource.getType() != IResource.PROJECT)
+				linkCount--;
+			List<IResource> overlapping = getOverlappingResources(location);
+			for (IResource other : overlapping)
+				addOverlap(other, -1);
+			addOverlap(resource, -overlapping.size());
+			return true;
+		}
+
+		/**
+		 * Removes the given project and all its linked resources from the map.
+		 */
+		public void removeAll(IProject project) {
+			Map<IResource, IFileStore> projectLocations = locations.get(project);
+			if (projectLocations == null)
+				return;
+			for (Entry<IResource, IFileStore> entry : new ArrayList<>(projectLocations.entrySet()))
+				remove(entry.getValue(), entry.getKey());
 		}
 	}
 
@@ -286,10 +358,11 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private final Set<IResource> changedLinks = ConcurrentHashMap.newKeySet();
 
 	/**
-	 * This flag is true when projects have been created or deleted and the
-	 * location map has not been updated accordingly.
+	 * The projects that have been created, deleted, opened, closed or changed
+	 * their description, for which the location map has not been updated
+	 * accordingly.
 	 */
-	private volatile boolean changedProjects = false;
+	private final Set<IProject> changedProjects = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * This maps IFileStore -&gt; IResource, associating a file system location with
@@ -297,14 +370,9 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 */
 	protected final LocationMap locationsMap = new LocationMap();
 	/**
-	 * The total number of resources in the workspace that are not in the default
-	 * location. This includes all linked resources, including linked resources
-	 * that don't currently have valid locations due to an undefined path variable.
-	 * This also includes projects that are not in their default location.
-	 * This value is used as a quick optimization, because a workspace with
-	 * all resources in their default locations cannot have any aliases.
+	 * The accessible projects that are not in their default location.
 	 */
-	private int nonDefaultResourceCount = 0;
+	private final Set<IProject> nonDefaultProjects = new HashSet<>();
 
 	/**
 	 * The suffix object is also used only during the computeAliases method.
@@ -329,7 +397,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		if (description == null)
 			return;
 		if (description.getLocationURI() != null)
-			nonDefaultResourceCount++;
+			nonDefaultProjects.add(project);
 		HashMap<IPath, LinkDescription> links = description.getLinks();
 		if (links == null)
 			return;
@@ -350,8 +418,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 
 	private void addToLocationsMap(IResource link, IFileStore location) {
 		if (location != null && !link.isVirtual())
-			if (locationsMap.add(location, link))
-				nonDefaultResourceCount++;
+			locationsMap.add(location, link);
 	}
 
 	/**
@@ -360,7 +427,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private void buildAliasedProjectsSet() {
 		aliasedProjects.clear();
 		//if there are no resources in non-default locations then there can't be any aliased projects
-		if (nonDefaultResourceCount <= 0)
+		if (getNonDefaultResourceCount() <= 0)
 			return;
 		//for every resource that overlaps another, marked its project as aliased
 		locationsMap.overLappingResourcesDo(aliasedProjects::add);
@@ -372,7 +439,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 */
 	private void buildLocationsMap() {
 		locationsMap.clear();
-		nonDefaultResourceCount = 0;
+		nonDefaultProjects.clear();
 		//build table of IPath (file system location) -> IResource (project or linked resource)
 		IProject[] projects = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
 		for (IProject project : projects)
@@ -403,6 +470,17 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		return false;
 	}
 
+	/**
+	 * Returns the total number of resources in the workspace that are not in
+	 * the default location. This includes all linked resources with valid
+	 * locations, and projects that are not in their default location. This
+	 * value is used as a quick optimization, because a workspace with all
+	 * resources in their default locations cannot have any aliases.
+	 */
+	private int getNonDefaultResourceCount() {
+		return locationsMap.getLinkCount() + nonDefaultProjects.size();
+	}
+
 	/**
 	 * Returns all aliases of the given resource, or null if there are none.
 	 */
@@ -428,6 +506,16 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		return resources.toArray(new IResource[0]);
 	}
 
+	/**
+	 * Returns the projects which have a location or linked resource that
+	 * overlaps the location of another project or linked resource. Pending
+	 * structural changes are processed first. Used by tests.
+	 */
+	public Set<IResource> getAliasedProjects() {
+		checkStructuralChanges();
+		return new HashSet<>(aliasedProjects);
+	}
+
 	/**
 	 * Returns all aliases of this resource, and any aliases of subtrees of this
 	 * resource.  Returns null if no aliases are found.
@@ -502,7 +590,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 
 		//now update any structure changes and check again if an update is needed
 		if (checkStructuralChanges()) {
-			noAliases &= nonDefaultResourceCount <= 0 || !aliasedProjects.contains(project);
+			noAliases &= getNonDefaultResourceCount() <= 0 || !aliasedProjects.contains(project);
 		}
 		return noAliases;
 	}
@@ -535,35 +623,20 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 
 	private void removeFromLocationsMap(IResource link, IFileStore location) {
 		if (location != null)
-			if (locationsMap.remove(location, link))
-				nonDefaultResourceCount--;
+			locationsMap.remove(location, link);
 	}
 
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
-		if (changedProjects) {
-			// no need to evaluate delta, we already know projects have changed
-			// and recomputation is necessary.
-			return;
-		}
 		final IResourceDelta delta = event.getDelta();
 		if (delta == null)
 			return;
-		//invalidate location map if there are added or removed projects.
-		if (delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED,
-				IContainer.INCLUDE_HIDDEN).length > 0) {
-			changedProjects = true;
-			return;
-		}
-
-		// invalidate location map if any project has the description changed
-		// or was closed/opened
-		IResourceDelta[] changed = delta.getAffectedChildren(IResourceDelta.CHANGED, IContainer.INCLUDE_HIDDEN);
-		for (IResourceDelta element : changed) {
-			if ((element.getFlags() & IResourceDelta.DESCRIPTION) == IResourceDelta.DESCRIPTION || (element.getFlags() & IResourceDelta.OPEN) == IResourceDelta.OPEN) {
-				changedProjects = true;
-				return;
-			}
+		//invalidate the locations of added or removed projects, and of projects
+		//that have the description changed or were closed/opened
+		IResourceDelta[] projectDeltas = delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED | IResourceDelta.CHANGED, IContainer.INCLUDE_HIDDEN);
+		for (IResourceDelta element : projectDeltas) {
+			if (element.getKind() != IResourceDelta.CHANGED || (element.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0)
+				changedProjects.add((IProject) element.getResource());
 		}
 	}
 
@@ -634,21 +707,23 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 */
 	private synchronized boolean checkStructuralChanges() {
 		boolean hadChanges = false;
-		if (changedProjects) {
-			//if a project is added or removed, just recompute the whole world
-			changedProjects = false;
-			changedLinks.clear(); // buildLocationMaps will also process links
+		// recompute the locations of changed projects and their links
+		Collection<IProject> changedProjectsSnapshot = new HashSet<>(changedProjects);
+		changedProjects.removeAll(changedProjectsSnapshot);
+		for (IProject project : changedProjectsSnapshot) {
 			hadChanges = true;
-			buildLocationsMap();
-		} else {
-			// incrementally update location map for changed links
-			Collection<IResource> changedLinksSnapshots = new HashSet<>(changedLinks);
-			changedLinks.removeAll(changedLinksSnapshots);
-			hadChanges = !changedLinksSnapshots.isEmpty();
-			for (IResource resource : changedLinksSnapshots) {
-				if (resource.isAccessible() && resource.isLinked()) {
-					addToLocationsMap(resource, ((Resource) resource).getStore());
-				}
+			locationsMap.removeAll(project);
+			nonDefaultProjects.remove(project);
+			if (project.isAccessible())
+				addToLocationsMap(project);
+		}
+		// incrementally update location map for changed links
+		Collection<IResource> changedLinksSnapshots = new HashSet<>(changedLinks);
+		changedLinks.removeAll(changedLinksSnapshots);
+		hadChanges |= !changedLinksSnapshots.isEmpty();
+		for (IResource resource : changedLinksSnapshots) {
+			if (resource.isAccessible() && resource.isLinked()) {
+				addToLocationsMap(resource, ((Resource) resource).getStore());
 			}
 		}
 		if (hadChanges) {
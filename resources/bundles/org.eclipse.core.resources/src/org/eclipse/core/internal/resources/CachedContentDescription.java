@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.io.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.content.IContentType;
+
+/**
+ * A content description which is kept in the content description cache that
+ * is saved with the workspace. Only the content type, the charset, the charset
+ * property and the byte order mark are kept. The charset property is what the
+ * describer found, or the default charset of the content type, while the
+ * charset also takes the byte order mark into account. Any other property is
+ * looked up by describing the contents of the file again, the first time such
+ * a property is requested.
+ *
+ * @see ContentDescriptionManager#getDescriptionFor(File, ResourceInfo, boolean)
+ */
+final class CachedContentDescription implements IContentDescription {
+	private static final byte[][] BYTE_ORDER_MARKS = {null, BOM_UTF_8, BOM_UTF_16BE, BOM_UTF_16LE};
+
+	private final ContentDescriptionManager manager;
+	private final IPath path;
+	private final long timestamp;
+	private final String contentTypeId;
+	private final String charset;
+	private final String charsetProperty;
+	private final byte byteOrderMark;
+	private volatile IContentDescription described;
+
+	private CachedContentDescription(ContentDescriptionManager manager, IPath path, long timestamp, String contentTypeId, String charset, String charsetProperty, byte byteOrderMark) {
+		this.manager = manager;
+		this.path = path;
+		this.timestamp = timestamp;
+		this.contentTypeId = contentTypeId;
+		this.charset = charset;
+		this.charsetProperty = charsetProperty;
+		this.byteOrderMark = byteOrderMark;
+	}
+
+	/**
+	 * Returns a cached copy of the given description of the file with the
+	 * given path.
+	 */
+	static CachedContentDescription of(ContentDescriptionManager manager, IPath path, long timestamp, IContentDescription description) {
+		Object bom = description.getProperty(BYTE_ORDER_MARK);
+		byte byteOrderMark = 0;
+		for (byte i = 1; i < BYTE_ORDER_MARKS.length; i++)
+			if (BYTE_ORDER_MARKS[i] == bom)
+				byteOrderMark = i;
+		Object charsetProperty = description.getProperty(CHARSET);
+		return new CachedContentDescription(manager, path, timestamp, description.getContentType().getId(), description.getCharset(), charsetProperty instanceof String ? (String) charsetProperty : null, byteOrderMark);
+	}
+
+	static CachedContentDescription read(ContentDescriptionManager manager, DataInput input) throws IOException {
+		IPath path = new Path(input.readUTF());
+		long timestamp = input.readLong();
+		String contentTypeId = input.readUTF();
+		String charset = readString(input);
+		String charsetProperty = readString(input);
+		byte byteOrderMark = input.readByte();
+		if (byteOrderMark < 0 || byteOrderMark >= BYTE_ORDER_MARKS.length)
+			throw new IOException("Invalid byte order mark: " + byteOrderMark); //$NON-NLS-1$
+		return new CachedContentDescription(manager, path, timestamp, contentTypeId, charset, charsetProperty, byteOrderMark);
+	}
+
+	private static String readString(DataInput input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+
+	private static void writeString(DataOutput output, String value) throws IOException {
+		output.writeBoolean(value != null);
+		if (value != null)
+			output.writeUTF(value);
+	}
+
+	void write(DataOutput output) throws IOException {
+		output.writeUTF(path.toString());
+		output.writeLong(timestamp);
+		output.writeUTF(contentTypeId);
+		writeString(output, charset);
+		writeString(output, charsetProperty);
+		output.writeByte(byteOrderMark);
+	}
+
+	IPath getPath() {
+		return path;
+	}
+
+	long getTimestamp() {
+		return timestamp;
+	}
+
+	@Override
+	public boolean isRequested(QualifiedName key) {
+		// like any description that is no longer being described
+		return false;
+	}
+
+	@Override
+	public String getCharset() {
+		return charset;
+	}
+
+	@Override
+	public IContentType getContentType() {
+		return Platform.getContentTypeManager().getContentType(contentTypeId);
+	}
+
+	@Override
+	public Object getProperty(QualifiedName key) {
+		if (CHARSET.equals(key))
+			return charsetProperty;
+		if (BYTE_ORDER_MARK.equals(key))
+			return BYTE_ORDER_MARKS[byteOrderMark];
+		IContentDescription description = described;
+		if (description == null) {
+			try {
+				description = manager.readDescription((File) manager.getWorkspace().getRoot().getFile(path));
+			} catch (CoreException e) {
+				return null;
+			}
+			if (description == null)
+				return null;
+			described = description;
+		}
+		return description.getProperty(key);
+	}
+
+	@Override
+	public void setProperty(QualifiedName key, Object value) {
+		throw new IllegalStateException();
+	}
+
+	@Override
+	public String toString() {
+		return contentTypeId + " [" + path + ']'; //$NON-NLS-1$
+	}
+}
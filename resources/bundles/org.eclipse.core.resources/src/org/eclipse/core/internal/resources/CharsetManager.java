@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2022 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,8 @@
 package org.eclipse.core.internal.resources;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.Policy;
 import org.eclipse.core.resources.*;
@@ -228,6 +230,34 @@ public class CharsetManager implements IManager {
 			}
 		}
 
+		/**
+		 * Discards the charsets resolved for the removed containers of the
+		 * given project delta, so they are not used for containers which are
+		 * created again at the same path.
+		 */
+		private void discardRemovedContainers(IResourceDelta projectDelta) {
+			IProject project = (IProject) projectDelta.getResource();
+			if (projectDelta.getKind() == IResourceDelta.REMOVED) {
+				encodingPreferencesChanged(project);
+				return;
+			}
+			ProjectCharsets charsets = projectCharsets.get(project.getName());
+			if (charsets != null && !charsets.resolvedContainers.isEmpty())
+				discardRemovedContainers(projectDelta, charsets);
+		}
+
+		private void discardRemovedContainers(IResourceDelta parent, ProjectCharsets charsets) {
+			for (IResourceDelta child : parent.getAffectedChildren(IResourceDelta.REMOVED | IResourceDelta.CHANGED)) {
+				// files are never cached
+				if (child.getResource().getType() == IResource.FILE)
+					continue;
+				if (child.getKind() == IResourceDelta.REMOVED)
+					charsets.discard(child.getFullPath());
+				else
+					discardRemovedContainers(child, charsets);
+			}
+		}
+
 		/**
 		 * For any change to the encoding file or any resource with encoding
 		 * set, just discard the cache for the corresponding project.
@@ -240,15 +270,88 @@ public class CharsetManager implements IManager {
 			IResourceDelta[] projectDeltas = delta.getAffectedChildren();
 			// process each project in the delta
 			Map<IProject, Boolean> projectsToSave = new HashMap<>();
-			for (IResourceDelta projectDelta : projectDeltas)
+			for (IResourceDelta projectDelta : projectDeltas) {
+				discardRemovedContainers(projectDelta);
 				//nothing to do if a project has been added/removed/moved
 				if (projectDelta.getKind() == IResourceDelta.CHANGED && (projectDelta.getFlags() & IResourceDelta.OPEN) == 0)
 					processEntryChanges(projectDelta, projectsToSave);
+			}
 			job.addChanges(projectsToSave);
 		}
 	}
 
+	/**
+	 * The encoding settings of a project, and the charsets that have been
+	 * resolved from them for its containers. Each resolved charset is the one
+	 * set for a container or inherited from its closest parent, or empty if the
+	 * workspace encoding applies. Files are not cached, they are resolved from
+	 * the cached charset of their parent.
+	 */
+	private static class ProjectCharsets {
+		final Preferences prefs;
+		final Preferences derivedPrefs;
+		final Map<IPath, Optional<String>> resolvedContainers = new ConcurrentHashMap<>();
+
+		ProjectCharsets(Preferences prefs, Preferences derivedPrefs) {
+			this.prefs = prefs;
+			this.derivedPrefs = derivedPrefs;
+		}
+
+		/**
+		 * Returns the charset set for the resource with the given path, or
+		 * <code>null</code>.
+		 */
+		String getExplicitCharset(IPath resourcePath) {
+			String charset = null;
+			// try to find the encoding in regular and then derived preferences
+			if (prefs != null)
+				charset = prefs.get(getKeyFor(resourcePath), null);
+			// derivedPrefs may be not null, only if #isDerivedEncodingStoredSeparately returns true
+			// so the explicit check against #isDerivedEncodingStoredSeparately is not required
+			if (charset == null && derivedPrefs != null)
+				charset = derivedPrefs.get(getKeyFor(resourcePath), null);
+			return charset;
+		}
+
+		Optional<String> resolve(IPath resourcePath) {
+			String explicit = getExplicitCharset(resourcePath);
+			if (explicit != null)
+				return Optional.of(explicit);
+			if (resourcePath.segmentCount() > 1)
+				return resolveContainer(resourcePath.removeLastSegments(1));
+			return Optional.empty();
+		}
+
+		private Optional<String> resolveContainer(IPath containerPath) {
+			Optional<String> charset = resolvedContainers.get(containerPath);
+			if (charset == null) {
+				charset = resolve(containerPath);
+				resolvedContainers.put(containerPath, charset);
+			}
+			return charset;
+		}
+
+		/**
+		 * Discards the charsets resolved for the given container and the
+		 * containers below it.
+		 */
+		void discard(IPath containerPath) {
+			resolvedContainers.keySet().removeIf(containerPath::isPrefixOf);
+		}
+	}
+
 	private static final String PROJECT_KEY = "<project>"; //$NON-NLS-1$
+	/**
+	 * The encoding settings by project name. An entry is discarded whenever the
+	 * encoding preferences of its project change.
+	 * @see #encodingPreferencesChanged(IProject)
+	 */
+	private final Map<String, ProjectCharsets> projectCharsets = new ConcurrentHashMap<>();
+	/**
+	 * Counts the changes of encoding settings, so settings which have changed
+	 * while they were looked up are not kept.
+	 */
+	private final AtomicLong encodingChanges = new AtomicLong();
 	private CharsetDeltaJob charsetListener;
 	CharsetManagerJob job;
 	private IResourceChangeListener resourceChangeListener;
@@ -285,17 +388,17 @@ public class CharsetManager implements IManager {
 	 */
 	public String getCharsetFor(IPath resourcePath, boolean recurse) {
 		Assert.isLegal(resourcePath.segmentCount() >= 1);
-		IProject project = workspace.getRoot().getProject(resourcePath.segment(0));
+		ProjectCharsets charsets = getProjectCharsets(resourcePath.segment(0));
 
-		Preferences prefs = getPreferences(project, false, false);
-		Preferences derivedPrefs = getPreferences(project, false, true);
-
-		if (prefs == null && derivedPrefs == null)
+		if (charsets.prefs == null && charsets.derivedPrefs == null)
 			// no preferences found - for performance reasons, short-circuit
 			// lookup by falling back to workspace's default setting
 			return recurse ? ResourcesPlugin.getEncoding() : null;
 
-		return internalGetCharsetFor(prefs, derivedPrefs, resourcePath, recurse);
+		if (!recurse)
+			return charsets.getExplicitCharset(resourcePath);
+		// ensure we default to the workspace encoding if none is found
+		return charsets.resolve(resourcePath).orElseGet(ResourcesPlugin::getEncoding);
 	}
 
 	static String getKeyFor(IPath resourcePath) {
@@ -336,31 +439,33 @@ public class CharsetManager implements IManager {
 		return null;
 	}
 
-	private String internalGetCharsetFor(Preferences prefs, Preferences derivedPrefs, IPath resourcePath, boolean recurse) {
-		String charset = null;
-
-		// try to find the encoding in regular and then derived preferences
-		if (prefs != null)
-			charset = prefs.get(getKeyFor(resourcePath), null);
-		// derivedPrefs may be not null, only if #isDerivedEncodingStoredSeparately returns true
-		// so the explicit check against #isDerivedEncodingStoredSeparately is not required
-		if (charset == null && derivedPrefs != null)
-			charset = derivedPrefs.get(getKeyFor(resourcePath), null);
-
-		if (!recurse)
-			return charset;
-
-		while (charset == null && resourcePath.segmentCount() > 1) {
-			resourcePath = resourcePath.removeLastSegments(1);
-			// try to find the encoding in regular and then derived preferences
-			if (prefs != null)
-				charset = prefs.get(getKeyFor(resourcePath), null);
-			if (charset == null && derivedPrefs != null)
-				charset = derivedPrefs.get(getKeyFor(resourcePath), null);
+	private ProjectCharsets getProjectCharsets(String projectName) {
+		ProjectCharsets charsets = projectCharsets.get(projectName);
+		if (charsets == null) {
+			long changes = encodingChanges.get();
+			IProject project = workspace.getRoot().getProject(projectName);
+			charsets = new ProjectCharsets(getPreferences(project, false, false), getPreferences(project, false, true));
+			// don't keep the settings of projects that don't exist
+			if (project.exists()) {
+				synchronized (projectCharsets) {
+					if (encodingChanges.get() == changes)
+						projectCharsets.putIfAbsent(projectName, charsets);
+				}
+			}
 		}
+		return charsets;
+	}
 
-		// ensure we default to the workspace encoding if none is found
-		return charset == null ? ResourcesPlugin.getEncoding() : charset;
+	/**
+	 * Discards the charsets which have been resolved from the encoding
+	 * settings of the given project. Must be called after the settings have
+	 * changed.
+	 */
+	void encodingPreferencesChanged(IProject project) {
+		synchronized (projectCharsets) {
+			encodingChanges.incrementAndGet();
+			projectCharsets.remove(project.getName());
+		}
 	}
 
 	private boolean isDerivedEncodingStoredSeparately(IProject project) {
@@ -418,6 +523,7 @@ public class CharsetManager implements IManager {
 	}
 
 	public void projectPreferencesChanged(IProject project) {
+		encodingPreferencesChanged(project);
 		charsetListener.charsetPreferencesChanged(project);
 	}
 
@@ -469,6 +575,7 @@ public class CharsetManager implements IManager {
 		workspace.removeResourceChangeListener(resourceChangeListener);
 		if (charsetListener != null)
 			charsetListener.shutdown();
+		projectCharsets.clear();
 	}
 
 	protected void splitEncodingPreferences(IProject project) {
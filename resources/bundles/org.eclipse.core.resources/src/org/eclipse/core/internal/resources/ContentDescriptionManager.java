@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2022 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,8 @@ import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.internal.events.ILifecycleListener;
 import org.eclipse.core.internal.events.LifecycleEvent;
+import org.eclipse.core.internal.localstore.SafeFileInputStream;
+import org.eclipse.core.internal.localstore.SafeFileOutputStream;
 import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.internal.watson.ElementTreeIterator;
 import org.eclipse.core.internal.watson.IElementContentVisitor;
@@ -35,7 +37,9 @@ import org.eclipse.osgi.util.NLS;
 import org.osgi.framework.Bundle;
 
 /**
- * Keeps a cache of recently read content descriptions.
+ * Keeps a cache of recently read content descriptions. The descriptions of
+ * files which could not be derived from their names alone are also saved with
+ * the workspace, so they need not be read again in the next session.
  *
  * @since 3.0
  * @see IFile#getContentDescription()
@@ -201,8 +205,25 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 
 	private static final String PT_CONTENTTYPES = "contentTypes"; //$NON-NLS-1$
 
+	private static final int SAVED_CACHE_VERSION = 1;
+
 	private Cache cache;
 
+	/**
+	 * The descriptions which are saved with the workspace, by file path. Unlike
+	 * the MRU cache, the descriptions of many more files are kept which had to
+	 * be read to be described, the least recently used ones are discarded.
+	 */
+	private Cache savedCache;
+
+	/**
+	 * The stamps of the content type settings of the projects with restored
+	 * descriptions, by project name. The descriptions of a project are discarded
+	 * before they are used if the settings have changed since they were saved.
+	 * Guarded by this.
+	 */
+	private final Map<String, Long> savedSettingsStamps = new HashMap<>();
+
 	private volatile byte cacheState;
 
 	private FlushJob flushJob;
@@ -236,6 +257,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			setCacheState(FLUSHING_CACHE);
 			// flush the MRU cache
 			cache.discardAll();
+			savedCache.discardAll();
 			SubMonitor subMonitor = SubMonitor.convert(monitor);
 			if (toClean.isEmpty()) {
 				// no project was added, must be a global flush
@@ -337,11 +359,17 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			// caching for project containing project specific settings is not supported
 			return readDescription(file);
 		if (getCacheState() == INVALID_CACHE) {
-			// discard the cache, so it can be used before the flush job starts
-			setCacheState(ABOUT_TO_FLUSH);
-			cache.discardAll();
-			// the cache is not good, flush it
-			flushJob.schedule(1000);
+			synchronized (this) {
+				// check again, another thread may have discarded the cache already
+				if (getCacheState() == INVALID_CACHE) {
+					// discard the cache, so it can be used before the flush job starts
+					setCacheState(ABOUT_TO_FLUSH);
+					cache.discardAll();
+					savedCache.discardAll();
+					// the cache is not good, flush it
+					flushJob.schedule(1000);
+				}
+			}
 		}
 		if (inSync && getCacheState() != ABOUT_TO_FLUSH) {
 			// first look for the flags in the resource info to avoid looking in the cache
@@ -365,12 +393,17 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			}
 		}
 		if (inSync) {
+			checkSavedSettings(file.getProject());
 			// tries to get a description from the cache
 			synchronized (this) {
 				Cache.Entry entry = cache.getEntry(file.getFullPath());
 				if (entry != null && entry.getTimestamp() == getTimestamp(info))
 					// there was a description in the cache, and it was up to date
 					return (IContentDescription) entry.getCached();
+				// the description may have been saved in a previous session
+				Cache.Entry saved = savedCache.getEntry(file.getFullPath());
+				if (saved != null && saved.getTimestamp() == getTimestamp(info) && ((IContentDescription) saved.getCached()).getContentType() != null)
+					return (IContentDescription) saved.getCached();
 			}
 		}
 
@@ -404,6 +437,9 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 				}
 			}
 			// we actually got a description filled by a describer (or a default description for a non-obvious type)
+			if (newDescription != null && getCacheState() != ABOUT_TO_FLUSH)
+				// only descriptions which will not be flushed are saved with the workspace
+				savedCache.addEntry(file.getFullPath(), CachedContentDescription.of(this, file.getFullPath(), getTimestamp(info), newDescription), getTimestamp(info));
 			if (entry == null)
 				// there was no entry before - create one
 				entry = cache.addEntry(file.getFullPath(), newDescription, getTimestamp(info));
@@ -416,6 +452,39 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		}
 	}
 
+	/**
+	 * Discards the restored descriptions of the given project if its content
+	 * type settings have changed since they were saved. Reads the settings, so
+	 * must not be called while synchronized.
+	 */
+	private void checkSavedSettings(IProject project) {
+		Long stamp;
+		synchronized (this) {
+			stamp = savedSettingsStamps.get(project.getName());
+		}
+		if (stamp == null)
+			return;
+		boolean changed = stamp.longValue() != ProjectContentTypes.getSettingsStamp(project.getName());
+		synchronized (this) {
+			if (savedSettingsStamps.remove(project.getName()) != null && changed)
+				discardSaved(project);
+		}
+	}
+
+	/**
+	 * Discards the descriptions of the given project which would be saved with
+	 * the workspace.
+	 */
+	private synchronized void discardSaved(IProject project) {
+		IPath projectPath = project.getFullPath();
+		for (Cache.Entry entry = savedCache.getTail(); entry != null;) {
+			Cache.Entry previous = entry.getPrevious();
+			if (projectPath.isPrefixOf(((CachedContentDescription) entry.getCached()).getPath()))
+				entry.discard();
+			entry = previous;
+		}
+	}
+
 	/**
 	 * Returns a timestamp that uniquely identifies a particular content state
 	 * of a particular resource. For use as a key in a content type cache.
@@ -441,6 +510,8 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		} catch (CoreException e) {
 			Policy.log(e.getStatus());
 		}
+		// the saved descriptions must not be restored in the next session
+		deleteSavedCache();
 		if (Policy.DEBUG_CONTENT_TYPE_CACHE)
 			Policy.debug("Invalidated cache for " + (project == null ? Path.ROOT : project.getFullPath())); //$NON-NLS-1$
 		if (flush) {
@@ -448,6 +519,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 				// discard the cache, so it can be used before the flush job starts
 				setCacheState(ABOUT_TO_FLUSH);
 				cache.discardAll();
+				savedCache.discardAll();
 			} catch (CoreException e) {
 				Policy.log(e.getStatus());
 			}
@@ -459,7 +531,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 	/**
 	 * Tries to obtain a content description for the given file.
 	 */
-	private IContentDescription readDescription(File file) throws CoreException {
+	IContentDescription readDescription(File file) throws CoreException {
 		if (Policy.DEBUG_CONTENT_TYPE)
 			Policy.debug("reading contents of " + file); //$NON-NLS-1$
 		// tries to obtain a description for this file contents
@@ -477,6 +549,127 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		}
 	}
 
+	private void deleteSavedCache() {
+		IPath location = workspace.getMetaArea().getContentDescriptionsLocation();
+		location.toFile().delete();
+		workspace.getMetaArea().getBackupLocationFor(location).toFile().delete();
+	}
+
+	Workspace getWorkspace() {
+		return workspace;
+	}
+
+	/**
+	 * Restores the descriptions which were saved with the workspace, unless
+	 * the content types may have changed since.
+	 */
+	private void restoreSavedCache() {
+		IPath location = workspace.getMetaArea().getContentDescriptionsLocation();
+		IPath tempLocation = workspace.getMetaArea().getBackupLocationFor(location);
+		if (!location.toFile().exists() && !tempLocation.toFile().exists())
+			return;
+		long start = System.currentTimeMillis();
+		List<CachedContentDescription> restored = new ArrayList<>();
+		Map<String, Long> settingsStamps = new HashMap<>();
+		try (DataInputStream input = new DataInputStream(new SafeFileInputStream(location.toOSString(), tempLocation.toOSString()))) {
+			// the content types or their settings may have changed in between
+			if (input.readInt() != SAVED_CACHE_VERSION || input.readLong() != Platform.getStateStamp() || input.readLong() != ProjectContentTypes.getWorkspaceSettingsStamp())
+				return;
+			for (int i = input.readInt(); i > 0; i--)
+				settingsStamps.put(input.readUTF(), Long.valueOf(input.readLong()));
+			for (int i = input.readInt(); i > 0; i--) {
+				CachedContentDescription description = CachedContentDescription.read(this, input);
+				restored.add(description);
+			}
+		} catch (IOException e) {
+			// the descriptions will just be read again
+			String message = NLS.bind(Messages.resources_readMeta, location);
+			Policy.log(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, message, e));
+			return;
+		}
+		// the descriptions were saved from the least recently used one
+		for (CachedContentDescription description : restored)
+			savedCache.addEntry(description.getPath(), description, description.getTimestamp());
+		savedSettingsStamps.putAll(settingsStamps);
+		if (Policy.DEBUG_CONTENT_TYPE_CACHE)
+			Policy.debug("Restored " + restored.size() + " content descriptions in " + (System.currentTimeMillis() - start) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * Saves the descriptions of the files which are still unchanged, so they
+	 * need not be read again in the next session. Must be called while the
+	 * workspace tree is saved.
+	 */
+	public void saveCache() throws CoreException {
+		// reading the content type settings may notify listeners, so do it first
+		Map<String, Long> settingsStamps = new HashMap<>();
+		for (String project : getProjectsToStamp())
+			settingsStamps.put(project, Long.valueOf(ProjectContentTypes.getSettingsStamp(project)));
+		long workspaceSettingsStamp = ProjectContentTypes.getWorkspaceSettingsStamp();
+		saveCache(settingsStamps, workspaceSettingsStamp);
+	}
+
+	/**
+	 * Returns the names of the projects with descriptions to save, whose content
+	 * type settings were not saved with the descriptions restored for them.
+	 */
+	private synchronized Set<String> getProjectsToStamp() {
+		Set<String> projects = new HashSet<>();
+		if (getCacheState() != USED_CACHE)
+			return projects;
+		for (Cache.Entry entry = savedCache.getTail(); entry != null; entry = entry.getPrevious()) {
+			String project = ((CachedContentDescription) entry.getCached()).getPath().segment(0);
+			if (!savedSettingsStamps.containsKey(project))
+				projects.add(project);
+		}
+		return projects;
+	}
+
+	private synchronized void saveCache(Map<String, Long> settingsStamps, long workspaceSettingsStamp) throws CoreException {
+		if (getCacheState() != USED_CACHE) {
+			deleteSavedCache();
+			return;
+		}
+		long start = System.currentTimeMillis();
+		// the settings of projects whose restored descriptions were not used yet are still unchecked
+		settingsStamps.putAll(savedSettingsStamps);
+		List<CachedContentDescription> toSave = new ArrayList<>((int) savedCache.size());
+		// save the least recently used description first, so the order is kept when restored
+		for (Cache.Entry entry = savedCache.getTail(); entry != null;) {
+			Cache.Entry previous = entry.getPrevious();
+			CachedContentDescription description = (CachedContentDescription) entry.getCached();
+			ResourceInfo info = workspace.getResourceInfo(description.getPath(), false, false);
+			if (info != null && info.getType() == IResource.FILE && getTimestamp(info) == description.getTimestamp()) {
+				// descriptions added meanwhile are saved in the next session
+				if (settingsStamps.containsKey(description.getPath().segment(0)))
+					toSave.add(description);
+			} else
+				// the file has changed or is gone
+				entry.discard();
+			entry = previous;
+		}
+		IPath location = workspace.getMetaArea().getContentDescriptionsLocation();
+		IPath tempLocation = workspace.getMetaArea().getBackupLocationFor(location);
+		try (DataOutputStream output = new DataOutputStream(new SafeFileOutputStream(location.toOSString(), tempLocation.toOSString()))) {
+			output.writeInt(SAVED_CACHE_VERSION);
+			output.writeLong(Platform.getStateStamp());
+			output.writeLong(workspaceSettingsStamp);
+			output.writeInt(settingsStamps.size());
+			for (Map.Entry<String, Long> stamp : settingsStamps.entrySet()) {
+				output.writeUTF(stamp.getKey());
+				output.writeLong(stamp.getValue().longValue());
+			}
+			output.writeInt(toSave.size());
+			for (CachedContentDescription description : toSave)
+				description.write(output);
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.resources_writeWorkspaceMeta, location);
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, Path.ROOT, message, e);
+		}
+		if (Policy.DEBUG_CONTENT_TYPE_CACHE)
+			Policy.debug("Saved " + toSave.size() + " content descriptions in " + (System.currentTimeMillis() - start) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
 	/**
 	 * @see IRegistryChangeListener#registryChanged(IRegistryChangeEvent)
 	 */
@@ -530,6 +723,8 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			registry.removeRegistryChangeListener(this);
 		cache.dispose();
 		cache = null;
+		savedCache.dispose();
+		savedCache = null;
 		flushJob.cancel();
 		flushJob = null;
 		projectContentTypes = null;
@@ -538,6 +733,9 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 	@Override
 	public void startup(IProgressMonitor monitor) throws CoreException {
 		cache = new Cache(100, 1000, 0.1);
+		// the maximum number of descriptions kept to be saved with the workspace
+		int savedCacheSize = Platform.getPreferencesService().getInt(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_SAVED_CONTENT_DESCRIPTIONS, PreferenceInitializer.PREF_SAVED_CONTENT_DESCRIPTIONS_DEFAULT, null);
+		savedCache = new Cache(100, Math.max(100, savedCacheSize), 0.1);
 		projectContentTypes = new ProjectContentTypes(workspace);
 		getCacheState();
 		if (cacheState == FLUSHING_CACHE || cacheState == ABOUT_TO_FLUSH)
@@ -547,6 +745,8 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		// the cache is stale (plug-ins that might be contributing content types were added/removed)
 		if (getCacheTimestamp() != Platform.getStateStamp())
 			invalidateCache(false, null);
+		if (getCacheState() == USED_CACHE)
+			restoreSavedCache();
 		// register a lifecycle listener
 		workspace.addLifecycleListener(this);
 		// register a content type change listener
@@ -559,5 +759,11 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 		if (Policy.DEBUG_CONTENT_TYPE)
 			Policy.debug("Project preferences changed for " + project); //$NON-NLS-1$
 		projectContentTypes.contentTypePreferencesChanged(project);
+		// the saved descriptions were described with the old settings
+		synchronized (this) {
+			savedSettingsStamps.remove(project.getName());
+			if (savedCache != null)
+				discardSaved(project);
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -34,6 +34,7 @@ import org.eclipse.osgi.util.NLS;
 
 public class LocalMetaArea implements ICoreConstants {
 	/* package */static final String F_BACKUP_FILE_EXTENSION = ".bak"; //$NON-NLS-1$
+	/* package */static final String F_CONTENT_DESCRIPTIONS = ".contentDescriptions"; //$NON-NLS-1$
 	/* package */static final String F_DESCRIPTION = ".workspace"; //$NON-NLS-1$
 
 	/* package */static final String F_HISTORY_STORE = ".history"; //$NON-NLS-1$
@@ -49,6 +50,7 @@ public class LocalMetaArea implements ICoreConstants {
 	/* package */static final String F_SNAP_EXTENSION = "snap"; //$NON-NLS-1$
 	/* package */static final String F_SYNCINFO = ".syncinfo"; //$NON-NLS-1$
 	/* package */static final String F_TREE = ".tree"; //$NON-NLS-1$
+	/* package */static final String F_TREE_BASE = ".treebase"; //$NON-NLS-1$
 	/* package */static final String URI_PREFIX = "URI//"; //$NON-NLS-1$
 	/* package */static final String F_METADATA = ".metadata"; //$NON-NLS-1$
 
@@ -116,6 +118,14 @@ public class LocalMetaArea implements ICoreConstants {
 		return file.removeLastSegments(1).append(file.lastSegment() + F_BACKUP_FILE_EXTENSION);
 	}
 
+	/**
+	 * Returns the path of the file in which to save the cache of content
+	 * descriptions of the workspace.
+	 */
+	public IPath getContentDescriptionsLocation() {
+		return metaAreaLocation.append(F_ROOT).append(F_CONTENT_DESCRIPTIONS);
+	}
+
 	public IPath getHistoryStoreLocation() {
 		return metaAreaLocation.append(F_HISTORY_STORE);
 	}
@@ -267,6 +277,15 @@ public class LocalMetaArea implements ICoreConstants {
 		return projectMetaLocation.toFile().exists();
 	}
 
+	/**
+	 * Returns the names of the projects which have a meta area. The meta area
+	 * of a project is created with the project, and deleted with it.
+	 */
+	public String[] getSavedProjectNames() {
+		String[] names = projectMetaLocation.toFile().list((dir, name) -> new java.io.File(dir, name).isDirectory());
+		return names == null ? new String[0] : names;
+	}
+
 	/**
 	 * Returns the local file system location in which the meta data for the
 	 * resource with the given path is stored.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.core.internal.utils.IStringPoolParticipant;
 import org.eclipse.core.internal.utils.StringPool;
+import org.eclipse.core.resources.IMarker;
 
 /**
  * A specialized Map<String,Object> implementation that is optimized for a small
@@ -32,12 +33,202 @@ import org.eclipse.core.internal.utils.StringPool;
 // or non interned keys via the iterator if not a specific entrySet is implemented.
 public class MarkerAttributeMap implements IStringPoolParticipant {
 	// This implementation is a copy on write map.
-	private final AtomicReference<Map<String, Object>> mapRef;
+	private final AtomicReference<CompactMap> mapRef;
 
 	// Typically contains 9 keys:
 	// "severity","sourceId","charStart","charEnd","arguments","id","message","lineNumber","categoryId"
 	protected static final int DEFAULT_SIZE = 9;
 
+	/**
+	 * An immutable map which keeps the integer values of the well known
+	 * attributes unboxed, and all other entries in two parallel arrays. It
+	 * needs a fraction of the memory of a HashMap, which matters since there
+	 * may be millions of markers.
+	 */
+	static final class CompactMap extends AbstractMap<String, Object> {
+		private static final String[] NO_KEYS = new String[0];
+		private static final Object[] NO_VALUES = new Object[0];
+		static final CompactMap EMPTY = new CompactMap(NO_KEYS, NO_VALUES, 0, new int[4]);
+
+		/** the keys of the slots, in slot order */
+		private static final String[] SLOT_KEYS = {IMarker.SEVERITY, IMarker.LINE_NUMBER, IMarker.CHAR_START, IMarker.CHAR_END};
+
+		private final String[] keys;
+		private final Object[] values;
+		/** bit i is set if slot i holds a value */
+		private final byte slotMask;
+		private final int severity;
+		private final int lineNumber;
+		private final int charStart;
+		private final int charEnd;
+
+		private CompactMap(String[] keys, Object[] values, int slotMask, int[] slots) {
+			this.keys = keys;
+			this.values = values;
+			this.slotMask = (byte) slotMask;
+			this.severity = slots[0];
+			this.lineNumber = slots[1];
+			this.charStart = slots[2];
+			this.charEnd = slots[3];
+		}
+
+		/**
+		 * Returns a compact copy of the given map, which must neither contain null
+		 * keys nor null values.
+		 */
+		static CompactMap of(Map<String, Object> map) {
+			if (map.isEmpty())
+				return EMPTY;
+			int[] slots = new int[SLOT_KEYS.length];
+			int mask = 0;
+			String[] keys = new String[map.size()];
+			Object[] values = new Object[map.size()];
+			int count = 0;
+			for (Entry<String, Object> e : map.entrySet()) {
+				int slot = slotIndex(e.getKey());
+				if (slot >= 0 && e.getValue() instanceof Integer) {
+					slots[slot] = ((Integer) e.getValue()).intValue();
+					mask |= 1 << slot;
+				} else {
+					keys[count] = e.getKey();
+					values[count] = e.getValue();
+					count++;
+				}
+			}
+			if (count == 0)
+				return new CompactMap(NO_KEYS, NO_VALUES, mask, slots);
+			if (count < keys.length) {
+				keys = Arrays.copyOf(keys, count);
+				values = Arrays.copyOf(values, count);
+			}
+			return new CompactMap(keys, values, mask, slots);
+		}
+
+		private static int slotIndex(Object key) {
+			if (!(key instanceof String))
+				return -1;
+			switch ((String) key) {
+				case IMarker.SEVERITY :
+					return 0;
+				case IMarker.LINE_NUMBER :
+					return 1;
+				case IMarker.CHAR_START :
+					return 2;
+				case IMarker.CHAR_END :
+					return 3;
+				default :
+					return -1;
+			}
+		}
+
+		private int slot(int index) {
+			switch (index) {
+				case 0 :
+					return severity;
+				case 1 :
+					return lineNumber;
+				case 2 :
+					return charStart;
+				default :
+					return charEnd;
+			}
+		}
+
+		private boolean hasSlot(int index) {
+			return (slotMask & (1 << index)) != 0;
+		}
+
+		@Override
+		public Object get(Object key) {
+			int slot = slotIndex(key);
+			if (slot >= 0 && hasSlot(slot))
+				return Integer.valueOf(slot(slot));
+			for (int i = 0; i < keys.length; i++)
+				if (keys[i].equals(key))
+					return values[i];
+			return null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return Integer.bitCount(slotMask & 0xFF) + keys.length;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return slotMask == 0 && keys.length == 0;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new Iterator<>() {
+						private int slot = nextSlot(0);
+						private int index = 0;
+
+						private int nextSlot(int from) {
+							while (from < SLOT_KEYS.length && !hasSlot(from))
+								from++;
+							return from;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return slot < SLOT_KEYS.length || index < keys.length;
+						}
+
+						@Override
+						public Entry<String, Object> next() {
+							if (slot < SLOT_KEYS.length) {
+								Entry<String, Object> entry = new SimpleImmutableEntry<>(SLOT_KEYS[slot], Integer.valueOf(slot(slot)));
+								slot = nextSlot(slot + 1);
+								return entry;
+							}
+							if (index >= keys.length)
+								throw new NoSuchElementException();
+							Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+							index++;
+							return entry;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return CompactMap.this.size();
+				}
+			};
+		}
+
+		/**
+		 * Returns a copy of this map whose string values are shared through the
+		 * given pool, or this map if there are no string values.
+		 */
+		CompactMap shareStrings(StringPool set) {
+			Object[] shared = null;
+			for (int i = 0; i < values.length; i++) {
+				Object o = values[i];
+				if (o instanceof String) {
+					if (shared == null)
+						shared = values.clone();
+					shared[i] = set.add((String) o);
+				} else if (o instanceof IStringPoolParticipant) {
+					((IStringPoolParticipant) o).shareStrings(set);
+				}
+			}
+			if (shared == null)
+				return this;
+			return new CompactMap(keys, shared, slotMask, new int[] {severity, lineNumber, charStart, charEnd});
+		}
+	}
+
 	/**
 	 * Creates a new marker attribute map of default size
 	 */
@@ -53,7 +244,7 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 	 */
 	public MarkerAttributeMap(int initialCapacity) {
 		// ignore initialCapacity - a copy on write datastructure will be copied anyway.
-		mapRef = new AtomicReference<>(Map.of());
+		mapRef = new AtomicReference<>(CompactMap.EMPTY);
 	}
 
 	/**
@@ -61,7 +252,8 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 	 * contain null keys or null values, or keys that are not interned.
 	 */
 	public MarkerAttributeMap(MarkerAttributeMap m) {
-		mapRef = new AtomicReference<>(copy(m.getMap()));
+		// the compact map is immutable and can be shared
+		mapRef = new AtomicReference<>(m.getMap());
 	}
 
 	/**
@@ -80,10 +272,10 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 		mapRef.set(copy(map, validate));
 	}
 
-	private Map<String, Object> copy(Map<String, ? extends Object> map, boolean validate) {
+	private CompactMap copy(Map<String, ? extends Object> map, boolean validate) {
 		Map<String, Object> target = new HashMap<>();
 		putAll(target, map, validate);
-		return target;
+		return CompactMap.of(target);
 	}
 
 	/**
@@ -94,7 +286,7 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 		mapRef.getAndUpdate(old -> {
 			Map<String, Object> copy = copy(old);
 			putAll(copy, map, validate);
-			return copy;
+			return CompactMap.of(copy);
 		});
 	}
 
@@ -119,7 +311,7 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 		return new HashMap<>(map);
 	}
 
-	private Map<String, Object> getMap() {
+	private CompactMap getMap() {
 		return mapRef.get();
 	}
 
@@ -143,21 +335,14 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 		mapRef.getAndUpdate(map -> {
 			Map<String, Object> m = copy(map);
 			m.put(k.intern(), value);
-			return m;
+			return CompactMap.of(m);
 		});
 	}
 
 	@Override
 	public void shareStrings(StringPool set) {
 		// don't share keys because they are already interned
-		for (java.util.Map.Entry<String, Object> e : getMap().entrySet()) {
-			Object o = e.getValue();
-			if (o instanceof String) {
-				e.setValue(set.add((String) o));
-			} else if (o instanceof IStringPoolParticipant) {
-				((IStringPoolParticipant) o).shareStrings(set);
-			}
-		}
+		mapRef.getAndUpdate(map -> map.shareStrings(set));
 	}
 
 	/** @see java.util.Map#isEmpty **/
@@ -167,7 +352,14 @@ public class MarkerAttributeMap implements IStringPoolParticipant {
 
 	/** @see java.util.Map#remove **/
 	public Object remove(Object key) {
-		return getMap().remove(key);
+		CompactMap old = mapRef.getAndUpdate(map -> {
+			if (!map.containsKey(key))
+				return map;
+			Map<String, Object> m = copy(map);
+			m.remove(key);
+			return CompactMap.of(m);
+		});
+		return old.get(key);
 	}
 
 	/** @see java.util.Map#get **/
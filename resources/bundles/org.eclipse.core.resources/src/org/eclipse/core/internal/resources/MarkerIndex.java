@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * An index of the resources which have markers, by marker type. It allows to
+ * find the markers of a type in a subtree without visiting all resources of
+ * the subtree.
+ * <p>
+ * Entries are only added, so the index may contain resources which no longer
+ * have markers of a type, but it never misses a resource which has. Once too
+ * many stale entries have been found, the index should be rebuilt.
+ * </p>
+ */
+class MarkerIndex {
+	/**
+	 * Orders paths segment by segment, so the descendants of a path directly
+	 * follow it.
+	 */
+	static final Comparator<IPath> PATH_ORDER = (p1, p2) -> {
+		int count1 = p1.segmentCount();
+		int count2 = p2.segmentCount();
+		int count = Math.min(count1, count2);
+		for (int i = 0; i < count; i++) {
+			int result = p1.segment(i).compareTo(p2.segment(i));
+			if (result != 0)
+				return result;
+		}
+		return count1 - count2;
+	};
+
+	/** the minimum number of stale entries before the index is considered stale */
+	private static final int MIN_STALE = 1000;
+
+	private final Map<String, NavigableSet<IPath>> resourcesByType = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicInteger staleCount = new AtomicInteger();
+	private volatile boolean complete;
+
+	/**
+	 * Records that the resource with the given path has a marker of the given type.
+	 */
+	void add(String type, IPath path) {
+		if (resourcesByType.computeIfAbsent(type, t -> new ConcurrentSkipListSet<>(PATH_ORDER)).add(path))
+			size.incrementAndGet();
+	}
+
+	/**
+	 * Returns the paths of the resources in the subtree of the given root which
+	 * may have markers of a type accepted by the given filter.
+	 */
+	NavigableSet<IPath> getResources(IPath root, Predicate<String> typeFilter) {
+		NavigableSet<IPath> result = new TreeSet<>(PATH_ORDER);
+		for (Entry<String, NavigableSet<IPath>> entry : resourcesByType.entrySet()) {
+			if (!typeFilter.test(entry.getKey()))
+				continue;
+			for (IPath path : entry.getValue().tailSet(root, true)) {
+				if (!root.isPrefixOf(path))
+					break;
+				result.add(path);
+			}
+		}
+		return result;
+	}
+
+	boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Returns whether so many stale entries have been found that the index
+	 * should be rebuilt.
+	 */
+	boolean isStale() {
+		int stale = staleCount.get();
+		return stale > MIN_STALE && stale > size.get();
+	}
+
+	void setComplete() {
+		complete = true;
+	}
+
+	/**
+	 * Records that a resource returned by {@link #getResources(IPath, Predicate)}
+	 * did not have markers of the requested types.
+	 */
+	void staleEntryFound() {
+		staleCount.incrementAndGet();
+	}
+}
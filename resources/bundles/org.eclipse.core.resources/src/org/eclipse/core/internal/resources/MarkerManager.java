@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,7 +17,9 @@ package org.eclipse.core.internal.resources;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import org.eclipse.core.internal.localstore.SafeChunkyInputStream;
 import org.eclipse.core.internal.localstore.SafeFileInputStream;
 import org.eclipse.core.internal.utils.Messages;
@@ -25,6 +27,7 @@ import org.eclipse.core.internal.utils.Policy;
 import org.eclipse.core.internal.watson.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.osgi.util.NLS;
 
 /**
@@ -40,6 +43,24 @@ public class MarkerManager implements IManager {
 	protected volatile Map<IPath, MarkerSet> currentDeltas = null;
 	protected final MarkerDeltaManager deltaManager = new MarkerDeltaManager();
 
+	/**
+	 * The names of the projects whose markers have not yet been restored.
+	 * Their markers are restored by the restore job once the workspace is open.
+	 */
+	private final Set<String> pendingRestores = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Restores the markers of the pending projects in the background.
+	 */
+	private final MarkerRestoreJob restoreJob;
+
+	/**
+	 * The index of the resources with markers by marker type, or <code>null</code>
+	 * if it has to be rebuilt. It is built on demand by the first deep search.
+	 */
+	private volatile MarkerIndex index;
+	private final Object indexLock = new Object();
+
 	protected final Workspace workspace;
 	protected final MarkerWriter writer = new MarkerWriter(this);
 
@@ -48,6 +69,7 @@ public class MarkerManager implements IManager {
 	 */
 	public MarkerManager(Workspace workspace) {
 		this.workspace = workspace;
+		this.restoreJob = new MarkerRestoreJob(this, workspace);
 	}
 
 	/**
@@ -56,6 +78,7 @@ public class MarkerManager implements IManager {
 	 * @see IResource#createMarker(String)
 	 */
 	public void add(IResource resource, MarkerInfo newMarker) throws CoreException {
+		restorePending(resource, IResource.DEPTH_ZERO);
 		Resource target = (Resource) resource;
 		ResourceInfo info = workspace.getResourceInfo(target.getFullPath(), false, false);
 		target.checkExists(target.getFlags(info), false);
@@ -226,6 +249,14 @@ public class MarkerManager implements IManager {
 		if (currentDeltas == null)
 			currentDeltas = deltaManager.newGeneration(change);
 		IPath path = resource.getFullPath();
+		MarkerIndex currentIndex = index;
+		if (currentIndex != null) {
+			for (IMarkerSetElement element : changes) {
+				MarkerDelta delta = (MarkerDelta) element;
+				if (delta.getKind() != IResourceDelta.REMOVED)
+					currentIndex.add(delta.getType(), path);
+			}
+		}
 		MarkerSet previousChanges = currentDeltas.get(path);
 		MarkerSet result = MarkerDelta.merge(previousChanges, changes);
 		if (result.size() == 0)
@@ -249,6 +280,7 @@ public class MarkerManager implements IManager {
 	 * Returns the marker with the given id or <code>null</code> if none is found.
 	 */
 	public MarkerInfo findMarkerInfo(IResource resource, long id) {
+		restorePending(resource, IResource.DEPTH_ZERO);
 		ResourceInfo info = workspace.getResourceInfo(resource.getFullPath(), false, false);
 		if (info == null)
 			return null;
@@ -279,9 +311,10 @@ public class MarkerManager implements IManager {
 	 */
 	public void doFindMarkers(IResource target, ArrayList<IMarker> result, final String type,
 			final boolean includeSubtypes, int depth) {
-		// optimize the deep searches with an element tree visitor
+		restorePending(target, depth);
+		// optimize the deep searches with the marker index
 		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE)
-			visitorFindMarkers(target.getFullPath(), result, type, includeSubtypes);
+			indexedFindMarkers(target.getFullPath(), result, type, includeSubtypes);
 		else
 			recursiveFindMarkers(target.getFullPath(), result, type, includeSubtypes, depth);
 	}
@@ -291,12 +324,63 @@ public class MarkerManager implements IManager {
 	 * option to search the target's children.
 	 */
 	public int findMaxProblemSeverity(IResource target, String type, boolean includeSubtypes, int depth) {
-		// optimize the deep searches with an element tree visitor
+		restorePending(target, depth);
+		// optimize the deep searches with the marker index
 		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE)
-			return visitorFindMaxSeverity(target.getFullPath(), type, includeSubtypes);
+			return indexedFindMaxSeverity(target.getFullPath(), type, includeSubtypes);
 		return recursiveFindMaxSeverity(target.getFullPath(), type, includeSubtypes, depth);
 	}
 
+	/**
+	 * Returns the marker index, after building it if needed.
+	 */
+	private MarkerIndex getIndex() {
+		MarkerIndex current = index;
+		if (current != null && current.isComplete())
+			return current;
+		synchronized (indexLock) {
+			current = index;
+			if (current != null && current.isComplete())
+				return current;
+			// install the index first, so it also records markers added while it is built
+			MarkerIndex newIndex = new MarkerIndex();
+			index = newIndex;
+			IElementContentVisitor visitor = (tree, requestor, elementContents) -> {
+				ResourceInfo info = (ResourceInfo) elementContents;
+				if (info == null)
+					return false;
+				MarkerSet markers = info.getMarkers(false);
+				if (markers != null) {
+					IPath path = requestor.requestPath();
+					for (IMarkerSetElement element : markers.elements())
+						newIndex.add(((MarkerInfo) element).getType(), path);
+				}
+				return true;
+			};
+			new ElementTreeIterator(workspace.getElementTree(), Path.ROOT).iterate(visitor);
+			newIndex.setComplete();
+			return newIndex;
+		}
+	}
+
+	/**
+	 * Returns a filter which accepts the marker types matching the given type.
+	 */
+	private Predicate<String> getTypeFilter(String type, boolean includeSubtypes) {
+		if (type == null)
+			return t -> true;
+		if (includeSubtypes)
+			return t -> cache.isSubtype(t, type);
+		return type::equals;
+	}
+
+	/**
+	 * Forgets the marker index, because markers were set without marker deltas.
+	 */
+	private void invalidateIndex() {
+		index = null;
+	}
+
 	public long getChangeId() {
 		return changeId.get();
 	}
@@ -506,6 +590,7 @@ public class MarkerManager implements IManager {
 	 * <code>null</code> is a wildcard.
 	 */
 	public void removeMarkers(IResource target, final String type, final boolean includeSubtypes, int depth) {
+		restorePending(target, depth);
 		if (depth == IResource.DEPTH_INFINITE && target.getType() != IResource.FILE)
 			visitorRemoveMarkers(target.getFullPath(), type, includeSubtypes);
 		else
@@ -520,13 +605,173 @@ public class MarkerManager implements IManager {
 		deltaManager.resetDeltas(startId);
 	}
 
+	/**
+	 * Returns whether the markers of the given project have not yet been restored.
+	 * While this is the case, the markers file of the project is still up to date
+	 * and must neither be saved nor snapshot.
+	 */
+	public boolean isRestorePending(IResource resource) {
+		return !pendingRestores.isEmpty() && resource.getType() == IResource.PROJECT && pendingRestores.contains(resource.getName());
+	}
+
+	/**
+	 * Defers restoring the markers of the given project until the workspace is
+	 * open, when they are restored in the background. Returns <code>false</code>
+	 * if the markers cannot be deferred because a marker snapshot is waiting to
+	 * be applied.
+	 *
+	 * @see #scheduleRestore()
+	 */
+	public boolean deferRestore(IProject project) {
+		if (workspace.getMetaArea().getMarkersSnapshotLocationFor(project).toFile().exists())
+			return false;
+		pendingRestores.add(project.getName());
+		return true;
+	}
+
 	public void restore(IResource resource, boolean generateDeltas, IProgressMonitor monitor) throws CoreException {
+		// the restored markers replace any pending ones
+		if (resource.getType() == IResource.PROJECT)
+			pendingRestores.remove(resource.getName());
 		// first try and load the last saved file, then apply the snapshots
 		restoreFromSave(resource, generateDeltas);
 		restoreFromSnap(resource);
+		invalidateIndex();
+	}
+
+	/**
+	 * Returns the name of a project whose markers have not been restored yet,
+	 * or <code>null</code> if there is none.
+	 */
+	String nextPendingRestore() {
+		Iterator<String> names = pendingRestores.iterator();
+		return names.hasNext() ? names.next() : null;
+	}
+
+	/**
+	 * Ensures that the deferred markers of the projects which contain the given
+	 * resource, or its children to the given depth, are restored.
+	 * <p>
+	 * A thread running a workspace operation, or notifying listeners on behalf of
+	 * one, restores the markers itself. Any other thread restores the markers of
+	 * just the projects needed in a workspace operation of its own. So reading
+	 * markers which are not restored yet, for instance in the UI thread right
+	 * after startup, blocks like beginning an operation would, but does not wait
+	 * for the markers of other projects. Pending syncExecs are serviced while
+	 * waiting.
+	 * </p>
+	 */
+	public void restorePending(IResource resource, int depth) {
+		if (pendingRestores.isEmpty())
+			return;
+		if (resource.getType() != IResource.ROOT) {
+			restorePending(resource.getProject());
+			return;
+		}
+		if (depth == IResource.DEPTH_ZERO)
+			return;
+		for (String name : pendingRestores.toArray(new String[0]))
+			restorePending(workspace.getRoot().getProject(name));
+	}
+
+	private void restorePending(IProject project) {
+		if (!pendingRestores.contains(project.getName()))
+			return;
+		// before the workspace is open, the markers cannot be restored yet
+		if (!workspace.isOpen())
+			return;
+		try {
+			if (workspace.getWorkManager().isLockAlreadyAcquired()) {
+				restorePendingLocked(project);
+				return;
+			}
+		} catch (CoreException e) {
+			// the workspace is shut down
+			return;
+		}
+		// a concurrent listener cannot wait for the notifying operation, the
+		// projects in the delta were restored before it was notified
+		if (workspace.isTreeLocked())
+			return;
+		restorePending(project, null);
+	}
+
+	/**
+	 * Restores the deferred markers of the given project in a workspace operation.
+	 * The restored markers are set on copies of the infos in the current tree
+	 * rather than on infos shared with older trees.
+	 */
+	void restorePending(IProject project, IProgressMonitor monitor) {
+		final ISchedulingRule rule = workspace.getRuleFactory().markerRule(project);
+		try {
+			workspace.prepareOperation(rule, monitor);
+			workspace.beginOperation(true);
+			restorePendingLocked(project);
+		} catch (CoreException e) {
+			Policy.log(e.getStatus());
+		} finally {
+			try {
+				workspace.endOperation(rule, false);
+			} catch (CoreException e) {
+				Policy.log(e.getStatus());
+			}
+		}
+	}
+
+	/**
+	 * Starts restoring the deferred markers in the background, once the
+	 * workspace is open.
+	 */
+	public void scheduleRestore() {
+		if (!pendingRestores.isEmpty())
+			restoreJob.schedule();
+	}
+
+	private void restorePendingLocked(IProject project) {
+		synchronized (pendingRestores) {
+			// check again, another thread may have restored the markers meanwhile
+			if (!pendingRestores.contains(project.getName()))
+				return;
+			long start = System.currentTimeMillis();
+			try {
+				if (project.isAccessible())
+					restoreFromSave(project, false, true);
+			} catch (CoreException e) {
+				Policy.log(e.getStatus());
+			} finally {
+				// only remove once restored, so concurrent readers wait for the markers
+				pendingRestores.remove(project.getName());
+				invalidateIndex();
+			}
+			if (Policy.DEBUG_RESTORE_MARKERS)
+				Policy.debug("Restore Markers for " + project.getFullPath() + " on demand: " + countMarkers(project) + " markers, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						+ (System.currentTimeMillis() - start) + "ms (" + pendingRestores.size() + " projects pending)"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Returns the number of markers on the given resource and its children.
+	 */
+	private int countMarkers(IResource resource) {
+		int[] count = new int[1];
+		IElementContentVisitor visitor = (tree, requestor, elementContents) -> {
+			ResourceInfo info = (ResourceInfo) elementContents;
+			if (info == null)
+				return false;
+			MarkerSet markers = info.getMarkers(false);
+			if (markers != null)
+				count[0] += markers.size();
+			return true;
+		};
+		new ElementTreeIterator(workspace.getElementTree(), resource.getFullPath()).iterate(visitor);
+		return count[0];
 	}
 
 	protected void restoreFromSave(IResource resource, boolean generateDeltas) throws CoreException {
+		restoreFromSave(resource, generateDeltas, false);
+	}
+
+	private void restoreFromSave(IResource resource, boolean generateDeltas, boolean copyInfos) throws CoreException {
 		IPath sourceLocation = workspace.getMetaArea().getMarkersLocationFor(resource);
 		IPath tempLocation = workspace.getMetaArea().getBackupLocationFor(sourceLocation);
 		java.io.File sourceFile = new java.io.File(sourceLocation.toOSString());
@@ -535,7 +780,7 @@ public class MarkerManager implements IManager {
 			return;
 		try (DataInputStream input = new DataInputStream(
 				new SafeFileInputStream(sourceLocation.toOSString(), tempLocation.toOSString()))) {
-			MarkerReader reader = new MarkerReader(workspace);
+			MarkerReader reader = new MarkerReader(workspace, copyInfos);
 			reader.read(input, generateDeltas);
 		} catch (Exception e) {
 			// don't let runtime exceptions such as ArrayIndexOutOfBounds prevent startup
@@ -568,7 +813,8 @@ public class MarkerManager implements IManager {
 
 	@Override
 	public void shutdown(IProgressMonitor monitor) {
-		// do nothing
+		// the markers files of the pending projects are still up to date
+		restoreJob.cancel();
 	}
 
 	public void snap(ResourceInfo info, IPathRequestor requestor, DataOutputStream output) throws IOException {
@@ -583,56 +829,49 @@ public class MarkerManager implements IManager {
 	/**
 	 * Adds the markers for a subtree of resources to the list.
 	 */
-	private void visitorFindMarkers(IPath path, final ArrayList<IMarker> list, final String type,
+	private void indexedFindMarkers(IPath path, final ArrayList<IMarker> list, final String type,
 			final boolean includeSubtypes) {
-		IElementContentVisitor visitor = (tree, requestor, elementContents) -> {
-			ResourceInfo info = (ResourceInfo) elementContents;
-			if (info == null)
-				return false;
-			MarkerSet markers = info.getMarkers(false);
-
+		MarkerIndex currentIndex = getIndex();
+		for (IPath child : currentIndex.getResources(path, getTypeFilter(type, includeSubtypes))) {
+			ResourceInfo info = workspace.getResourceInfo(child, false, false);
+			MarkerSet markers = info == null ? null : info.getMarkers(false);
+			IMarkerSetElement[] matching = null;
 			// add the matching markers for this resource
 			if (markers != null) {
-				IMarkerSetElement[] matching;
 				if (type == null)
 					matching = markers.elements();
 				else
 					matching = basicFindMatching(markers, type, includeSubtypes);
-				buildMarkers(matching, requestor.requestPath(), info.getType(), list);
 			}
-			return true;
-		};
-		new ElementTreeIterator(workspace.getElementTree(), path).iterate(visitor);
+			if (matching == null || matching.length == 0)
+				currentIndex.staleEntryFound();
+			else
+				buildMarkers(matching, child, info.getType(), list);
+		}
+		if (currentIndex.isStale())
+			invalidateIndex();
 	}
 
 	/**
 	 * Finds the max severity across problem markers for a subtree of resources.
 	 */
-	private int visitorFindMaxSeverity(IPath path, final String type, final boolean includeSubtypes) {
-		class MaxSeverityVisitor implements IElementContentVisitor {
-			int max = -1;
-
-			@Override
-			public boolean visitElement(ElementTree tree, IPathRequestor requestor, Object elementContents) {
-				// bail if an earlier sibling already hit the max
-				if (max >= IMarker.SEVERITY_ERROR) {
-					return false;
-				}
-				ResourceInfo info = (ResourceInfo) elementContents;
-				if (info == null)
-					return false;
-				MarkerSet markers = info.getMarkers(false);
-
-				// add the matching markers for this resource
-				if (markers != null) {
-					max = Math.max(max, basicFindMaxSeverity(markers, type, includeSubtypes));
-				}
-				return max < IMarker.SEVERITY_ERROR;
-			}
+	private int indexedFindMaxSeverity(IPath path, final String type, final boolean includeSubtypes) {
+		MarkerIndex currentIndex = getIndex();
+		int max = -1;
+		for (IPath child : currentIndex.getResources(path, getTypeFilter(type, includeSubtypes))) {
+			ResourceInfo info = workspace.getResourceInfo(child, false, false);
+			MarkerSet markers = info == null ? null : info.getMarkers(false);
+			int severity = markers == null ? -1 : basicFindMaxSeverity(markers, type, includeSubtypes);
+			if (severity < 0)
+				currentIndex.staleEntryFound();
+			max = Math.max(max, severity);
+			// bail if we already hit the max
+			if (max >= IMarker.SEVERITY_ERROR)
+				break;
 		}
-		MaxSeverityVisitor visitor = new MaxSeverityVisitor();
-		new ElementTreeIterator(workspace.getElementTree(), path).iterate(visitor);
-		return visitor.max;
+		if (currentIndex.isStale())
+			invalidateIndex();
+		return max;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.osgi.util.NLS;
 
 /**
@@ -27,25 +28,50 @@ import org.eclipse.osgi.util.NLS;
 public class MarkerReader {
 	protected Workspace workspace;
 
+	/**
+	 * Whether the infos the markers are restored to must be copied first,
+	 * because they may be shared with older trees.
+	 */
+	private boolean copyInfos;
+
 	public MarkerReader(Workspace workspace) {
 		super();
 		this.workspace = workspace;
 	}
 
+	public MarkerReader(Workspace workspace, boolean copyInfos) {
+		this(workspace);
+		this.copyInfos = copyInfos;
+	}
+
+	/**
+	 * Returns the info to restore the markers of the resource with the given
+	 * path to, or <code>null</code> if the resource does not exist.
+	 */
+	protected ResourceInfo getResourceInfo(IPath path) {
+		return workspace.getResourceInfo(path, false, copyInfos);
+	}
+
 	/**
 	 * Returns the appropriate reader for the given version.
 	 */
 	protected MarkerReader getReader(int formatVersion) throws IOException {
+		MarkerReader reader;
 		switch (formatVersion) {
 			case 1 :
-				return new MarkerReader_1(workspace);
+				reader = new MarkerReader_1(workspace);
+				break;
 			case 2 :
-				return new MarkerReader_2(workspace);
+				reader = new MarkerReader_2(workspace);
+				break;
 			case 3 :
-				return new MarkerReader_3(workspace);
+				reader = new MarkerReader_3(workspace);
+				break;
 			default :
 				throw new IOException(NLS.bind(Messages.resources_format, formatVersion));
 		}
+		reader.copyInfos = copyInfos;
+		return reader;
 	}
 
 	public void read(DataInputStream input, boolean generateDeltas) throws IOException, CoreException {
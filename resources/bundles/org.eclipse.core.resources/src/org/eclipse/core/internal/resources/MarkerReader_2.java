@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -78,7 +78,7 @@ public class MarkerReader_2 extends MarkerReader {
 				// if the resource doesn't exist then return. ensure we do this after
 				// reading the markers from the file so we don't get into an
 				// inconsistent state.
-				ResourceInfo info = workspace.getResourceInfo(path, false, false);
+				ResourceInfo info = getResourceInfo(path);
 				if (info == null)
 					continue;
 				info.setMarkers(markers);
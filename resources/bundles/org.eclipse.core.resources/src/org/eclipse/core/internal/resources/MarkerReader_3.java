@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ package org.eclipse.core.internal.resources;
 import java.io.*;
 import java.util.*;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
@@ -39,6 +40,12 @@ public class MarkerReader_3 extends MarkerReader {
 	public static final byte ATTRIBUTE_INTEGER = 2;
 	public static final byte ATTRIBUTE_STRING = 3;
 
+	/**
+	 * Shares the string values of the markers read by this reader, such as the
+	 * messages of markers reporting the same problem.
+	 */
+	private final StringPool strings = new StringPool();
+
 	public MarkerReader_3(Workspace workspace) {
 		super(workspace);
 	}
@@ -79,7 +86,7 @@ public class MarkerReader_3 extends MarkerReader {
 				// if the resource doesn't exist then return. ensure we do this after
 				// reading the markers from the file so we don't get into an
 				// inconsistent state.
-				ResourceInfo info = workspace.getResourceInfo(path, false, false);
+				ResourceInfo info = getResourceInfo(path);
 				if (info == null)
 					continue;
 				info.setMarkers(markers);
@@ -118,7 +125,7 @@ public class MarkerReader_3 extends MarkerReader {
 					value = Boolean.valueOf(input.readBoolean());
 					break;
 				case ATTRIBUTE_STRING :
-					value = input.readUTF();
+					value = strings.add(input.readUTF());
 					break;
 				case ATTRIBUTE_NULL :
 					// do nothing
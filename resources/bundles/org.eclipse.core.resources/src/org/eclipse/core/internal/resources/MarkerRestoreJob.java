@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Restores the markers of the projects whose restore was deferred on startup.
+ * Each project is restored in its own workspace operation, so running
+ * operations are not held up for long.
+ *
+ * @see MarkerManager#deferRestore(IProject)
+ */
+class MarkerRestoreJob extends Job {
+
+	private final MarkerManager markerManager;
+	private final Workspace workspace;
+
+	MarkerRestoreJob(MarkerManager markerManager, Workspace workspace) {
+		super(Messages.resources_restoringMarkers);
+		this.markerManager = markerManager;
+		this.workspace = workspace;
+		setSystem(true);
+	}
+
+	@Override
+	public boolean belongsTo(Object family) {
+		return family == MarkerRestoreJob.class;
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		try {
+			String project;
+			while ((project = markerManager.nextPendingRestore()) != null) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				if (!workspace.isOpen())
+					return Status.OK_STATUS;
+				IProject handle = workspace.getRoot().getProject(project);
+				markerManager.restorePending(handle, monitor);
+				// the failure is logged, the markers stay pending rather than being lost
+				if (markerManager.isRestorePending(handle))
+					return Status.OK_STATUS;
+			}
+			return Status.OK_STATUS;
+		} catch (OperationCanceledException e) {
+			return Status.CANCEL_STATUS;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.*;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
 
@@ -39,6 +40,12 @@ public class MarkerSnapshotReader_2 extends MarkerSnapshotReader {
 	public static final byte ATTRIBUTE_INTEGER = 2;
 	public static final byte ATTRIBUTE_STRING = 3;
 
+	/**
+	 * Shares the string values of the markers read by this reader, such as the
+	 * messages of markers reporting the same problem.
+	 */
+	private final StringPool strings = new StringPool();
+
 	public MarkerSnapshotReader_2(Workspace workspace) {
 		super(workspace);
 	}
@@ -100,7 +107,7 @@ public class MarkerSnapshotReader_2 extends MarkerSnapshotReader {
 					value = Boolean.valueOf(input.readBoolean());
 					break;
 				case ATTRIBUTE_STRING :
-					value = input.readUTF();
+					value = strings.add(input.readUTF());
 					break;
 				case ATTRIBUTE_NULL :
 					// do nothing
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,6 +27,14 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 	// internal preference keys
 	public static final String PREF_OPERATIONS_PER_SNAPSHOT = "snapshots.operations"; //$NON-NLS-1$
 	public static final String PREF_DELTA_EXPIRATION = "delta.expiration"; //$NON-NLS-1$
+	public static final String PREF_REFRESH_PARALLELISM = "refresh.parallelism"; //$NON-NLS-1$
+	public static final String PREF_HISTORY_CONTENT_ADDRESSED = "history.contentAddressed"; //$NON-NLS-1$
+	public static final String PREF_HISTORY_COMPRESS = "history.compress"; //$NON-NLS-1$
+	public static final String PREF_INCREMENTAL_SAVE = "save.incremental"; //$NON-NLS-1$
+	public static final String PREF_LAZY_MARKERS = "markers.lazy"; //$NON-NLS-1$
+	public static final String PREF_NOTIFICATION_PARALLELISM = "notification.parallelism"; //$NON-NLS-1$
+	public static final String PREF_TREE_COLLAPSE_LAYERS = "tree.collapse.layers"; //$NON-NLS-1$
+	public static final String PREF_SAVED_CONTENT_DESCRIPTIONS = "contentDescriptions.saved"; //$NON-NLS-1$
 
 	// DEFAULTS
 	public static final boolean PREF_AUTO_REFRESH_DEFAULT = false;
@@ -45,6 +53,14 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 	public static final boolean PREF_KEEP_DERIVED_STATE_DEFAULT = false;
 	public static final int PREF_MAX_FILE_STATES_DEFAULT = 50;
 	public static final long PREF_DELTA_EXPIRATION_DEFAULT = 30 * 24 * 3600 * 1000l; // 30 days
+	public static final int PREF_REFRESH_PARALLELISM_DEFAULT = 1; // sequential
+	public static final boolean PREF_HISTORY_CONTENT_ADDRESSED_DEFAULT = false;
+	public static final boolean PREF_HISTORY_COMPRESS_DEFAULT = false;
+	public static final boolean PREF_INCREMENTAL_SAVE_DEFAULT = false;
+	public static final boolean PREF_LAZY_MARKERS_DEFAULT = false;
+	public static final int PREF_NOTIFICATION_PARALLELISM_DEFAULT = 1; // sequential
+	public static final int PREF_TREE_COLLAPSE_LAYERS_DEFAULT = 500; // 0 disables collapsing in the background
+	public static final int PREF_SAVED_CONTENT_DESCRIPTIONS_DEFAULT = 100000;
 	/**
 	 * Default setting for {@value ResourcesPlugin#PREF_MISSING_NATURE_MARKER_SEVERITY}.
 	 *
@@ -94,17 +110,27 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 		node.putLong(ResourcesPlugin.PREF_MAX_FILE_STATE_SIZE, PREF_MAX_FILE_STATE_SIZE_DEFAULT);
 		node.putInt(ResourcesPlugin.PREF_MAX_FILE_STATES, PREF_MAX_FILE_STATES_DEFAULT);
 		node.putBoolean(ResourcesPlugin.PREF_KEEP_DERIVED_STATE, PREF_KEEP_DERIVED_STATE_DEFAULT);
+		node.putBoolean(PREF_HISTORY_CONTENT_ADDRESSED, PREF_HISTORY_CONTENT_ADDRESSED_DEFAULT);
+		node.putBoolean(PREF_HISTORY_COMPRESS, PREF_HISTORY_COMPRESS_DEFAULT);
 
 		// save manager defaults
 		node.putLong(ResourcesPlugin.PREF_SNAPSHOT_INTERVAL, PREF_SNAPSHOT_INTERVAL_DEFAULT);
 		node.putInt(PREF_OPERATIONS_PER_SNAPSHOT, PREF_OPERATIONS_PER_SNAPSHOT_DEFAULT);
 		node.putLong(PREF_DELTA_EXPIRATION, PREF_DELTA_EXPIRATION_DEFAULT);
+		node.putBoolean(PREF_INCREMENTAL_SAVE, PREF_INCREMENTAL_SAVE_DEFAULT);
+		node.putBoolean(PREF_LAZY_MARKERS, PREF_LAZY_MARKERS_DEFAULT);
+		node.putInt(PREF_NOTIFICATION_PARALLELISM, PREF_NOTIFICATION_PARALLELISM_DEFAULT);
+		node.putInt(PREF_TREE_COLLAPSE_LAYERS, PREF_TREE_COLLAPSE_LAYERS_DEFAULT);
+		node.putInt(PREF_SAVED_CONTENT_DESCRIPTIONS, PREF_SAVED_CONTENT_DESCRIPTIONS_DEFAULT);
 
 		// encoding defaults
 		node.put(ResourcesPlugin.PREF_ENCODING, PREF_ENCODING_DEFAULT);
 
 		// parallel builds defaults
 		node.putInt(ResourcesPlugin.PREF_MAX_CONCURRENT_BUILDS, PREF_MAX_CONCURRENT_BUILDS_DEFAULT);
+
+		// refresh defaults
+		node.putInt(PREF_REFRESH_PARALLELISM, PREF_REFRESH_PARALLELISM_DEFAULT);
 	}
 
 }
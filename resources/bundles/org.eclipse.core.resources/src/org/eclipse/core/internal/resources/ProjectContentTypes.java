@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -127,6 +127,51 @@ public class ProjectContentTypes {
 		return false;
 	}
 
+	/**
+	 * Returns a stamp of the content type settings of the workspace, which
+	 * changes whenever the settings change.
+	 */
+	static long getWorkspaceSettingsStamp() {
+		try {
+			Preferences node = InstanceScope.INSTANCE.getNode(Platform.PI_RUNTIME);
+			if (node.nodeExists(CONTENT_TYPE_PREF_NODE))
+				return getStamp(node.node(CONTENT_TYPE_PREF_NODE));
+		} catch (BackingStoreException | IllegalStateException e) {
+			// the settings cannot be read, treat them as changed
+			return -1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns a stamp of the content type settings of the given project, which
+	 * changes whenever the settings change, or <code>0</code> if the project does
+	 * not have its own settings.
+	 */
+	static long getSettingsStamp(String projectName) {
+		if (!usesContentTypePreferences(projectName))
+			return 0;
+		try {
+			return getStamp(PROJECT_SCOPE.node(projectName).node(Platform.PI_RUNTIME).node(CONTENT_TYPE_PREF_NODE));
+		} catch (BackingStoreException | IllegalStateException | IllegalArgumentException e) {
+			// the settings cannot be read, treat them as changed
+			return -1;
+		}
+	}
+
+	private static long getStamp(Preferences node) throws BackingStoreException {
+		long stamp = 1;
+		String[] keys = node.keys();
+		Arrays.sort(keys);
+		for (String key : keys)
+			stamp = 31 * (31 * stamp + key.hashCode()) + Objects.hashCode(node.get(key, null));
+		String[] children = node.childrenNames();
+		Arrays.sort(children);
+		for (String child : children)
+			stamp = 31 * (31 * stamp + child.hashCode()) + getStamp(node.node(child));
+		return stamp;
+	}
+
 	public ProjectContentTypes(Workspace workspace) {
 		this.workspace = workspace;
 		// keep cache small
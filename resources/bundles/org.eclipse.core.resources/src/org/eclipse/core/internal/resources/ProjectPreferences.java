@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2022 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -193,6 +193,18 @@ public class ProjectPreferences extends EclipsePreferences {
 		return result;
 	}
 
+	/**
+	 * Lets the charset manager discard the charsets it has resolved from the
+	 * encoding settings, if this node may contain any.
+	 */
+	private void encodingPreferencesChanged() {
+		if (project == null || !(PREFS_REGULAR_QUALIFIER.equals(qualifier) || PREFS_DERIVED_QUALIFIER.equals(qualifier)))
+			return;
+		CharsetManager charsetManager = getWorkspace().getCharsetManager();
+		if (charsetManager != null)
+			charsetManager.encodingPreferencesChanged(project);
+	}
+
 	private static void preferencesChanged(IProject project) {
 		Workspace workspace = (Workspace) project.getWorkspace();
 		workspace.getCharsetManager().projectPreferencesChanged(project);
@@ -400,6 +412,7 @@ public class ProjectPreferences extends EclipsePreferences {
 		checkRemoved();
 		silentLoad();
 		super.clear();
+		encodingPreferencesChanged();
 	}
 
 	/*
@@ -518,7 +531,9 @@ public class ProjectPreferences extends EclipsePreferences {
 					charsetManager.mergeEncodingPreferences(project);
 			}
 		}
-		return super.internalPut(key, newValue);
+		String oldValue = super.internalPut(key, newValue);
+		encodingPreferencesChanged();
+		return oldValue;
 	}
 
 	private void initialize() {
@@ -634,6 +649,7 @@ public class ProjectPreferences extends EclipsePreferences {
 		checkRemoved();
 		silentLoad();
 		super.remove(key);
+		encodingPreferencesChanged();
 		if ((segmentCount == 3) && PREFS_REGULAR_QUALIFIER.equals(qualifier) && (project != null)) {
 			if (ResourcesPlugin.PREF_SEPARATE_DERIVED_ENCODINGS.equals(key)) {
 				CharsetManager charsetManager = getWorkspace().getCharsetManager();
@@ -645,6 +661,12 @@ public class ProjectPreferences extends EclipsePreferences {
 		}
 	}
 
+	@Override
+	public void removeNode() throws BackingStoreException {
+		super.removeNode();
+		encodingPreferencesChanged();
+	}
+
 	@Override
 	protected void save() throws BackingStoreException {
 		final IFile fileInWorkspace = getFile();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -37,11 +37,12 @@ import org.eclipse.core.internal.watson.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.resources.team.IMoveDeleteHook;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.IHierarchicalRule;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.osgi.util.NLS;
 
-public abstract class Resource extends PlatformObject implements IResource, ICoreConstants, Cloneable, IPathRequestor {
+public abstract class Resource extends PlatformObject implements IResource, IHierarchicalRule, ICoreConstants, Cloneable, IPathRequestor {
 	final IPath path;
 	final Workspace workspace;
 
@@ -1186,6 +1187,16 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 		return workspace.getResourceInfo(getFullPath(), phantom, mutable);
 	}
 
+	@Override
+	public Object getRuleDomain() {
+		return workspace;
+	}
+
+	@Override
+	public IPath getRulePath() {
+		return path;
+	}
+
 	@Override
 	public Object getSessionProperty(QualifiedName key) throws CoreException {
 		ResourceInfo info = checkAccessibleAndLocal(DEPTH_ZERO);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,13 +27,16 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.zip.*;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.dtree.DeltaDataTree;
 import org.eclipse.core.internal.events.*;
 import org.eclipse.core.internal.localstore.*;
 import org.eclipse.core.internal.utils.*;
@@ -42,6 +45,8 @@ import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.osgi.util.NLS;
 
 public class SaveManager implements IElementInfoFlattener, IManager, IStringPoolParticipant {
@@ -138,11 +143,96 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	private static final String DEBUG_PROJECT_SAVE = "Save on project "; //$NON-NLS-1$
 	private static final String DEBUG_SNAPSHOT = "Snapshot: "; //$NON-NLS-1$
 	private static final int TREE_BUFFER_SIZE = 1024 * 64;//64KB buffer
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	/**
+	 * The number of deltas in the snapshot file after which the next snapshot
+	 * replaces them with a single delta.
+	 */
+	private static final int MAX_SNAPSHOT_DELTAS = 16;
+
+	/**
+	 * With incremental saves, a new tree base is written once the saved workspace
+	 * tree exceeds this fraction of the size of the current tree base.
+	 */
+	private static final double TREE_BASE_COMPACTION_RATIO = 0.5;
+
+	/**
+	 * A complete workspace tree saved in a tree base file. With incremental saves,
+	 * the workspace tree file only holds the delta between the workspace tree and
+	 * the tree base.
+	 */
+	private static final class TreeBase {
+		final ElementTree tree;
+		final String fileName;
+
+		TreeBase(ElementTree tree, String fileName) {
+			this.tree = tree;
+			this.fileName = fileName;
+		}
+	}
+
+	/**
+	 * The tree base of the saved workspace tree, or <code>null</code> if the
+	 * workspace tree is saved completely.
+	 */
+	private volatile TreeBase treeBase;
+
+	/**
+	 * A tree base that has been written by the compaction job, but not been
+	 * used by a save yet.
+	 */
+	private volatile TreeBase pendingTreeBase;
+
+	/**
+	 * Held while a tree base file is published, and while unused tree base files
+	 * are removed, so that a newly written tree base is never removed before the
+	 * next save adopts it.
+	 */
+	private final Object treeBaseLock = new Object();
+
+	/**
+	 * Whether the workspace tree was restored from an older tree base than the
+	 * one it was saved against, so that the snapshots do not apply to it.
+	 */
+	private boolean restoredFromOlderTreeBase;
+
+	private final TreeCompactionJob compactionJob;
+
+	/**
+	 * Collapses the trees in the background, see {@link #treeLayerAdded()}.
+	 */
+	private final TreeCollapseJob collapseJob;
+
+	/**
+	 * The number of layers added to the workspace tree since the trees were
+	 * last collapsed.
+	 */
+	private final AtomicInteger layerCount = new AtomicInteger();
+
+	/**
+	 * The number of layers after which the trees are collapsed in the background,
+	 * or 0 if they are not. Cached, since it is checked for every new layer.
+	 */
+	private volatile int collapseLayers = PreferenceInitializer.PREF_TREE_COLLAPSE_LAYERS_DEFAULT;
+
+	private final IPreferenceChangeListener collapseLayersListener = event -> {
+		if (PreferenceInitializer.PREF_TREE_COLLAPSE_LAYERS.equals(event.getKey()))
+			updateCollapseLayers();
+	};
+
+	/**
+	 * The tree the deltas in the snapshot file are based on, and their number.
+	 */
+	private ElementTree snapBase;
+	private int snapDeltaCount;
 
 	public SaveManager(Workspace workspace) {
 		this.workspace = workspace;
 		this.masterTable = new MasterTable();
 		this.snapshotJob = new DelayedSnapshotJob(this, workspace);
+		this.compactionJob = new TreeCompactionJob(this);
+		this.collapseJob = new TreeCollapseJob(this, workspace);
 		snapshotRequested = false;
 		snapshotRequestor = null;
 		saveParticipants = Collections.synchronizedMap(new HashMap<>(10));
@@ -279,14 +369,24 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	 * and removes references to any other trees.
 	 */
 	protected void collapseTrees(Map<String, SaveContext> contexts) throws CoreException {
-		//collect trees we're interested in
-
 		//forget saved trees, if they are not used by registered participants
 		synchronized (savedStates) {
 			for (SaveContext context : contexts.values()) {
 				forgetSavedTree(context.getPluginId());
 			}
 		}
+		collapseTrees();
+	}
+
+	/**
+	 * Collapses the chain of trees between the trees the workspace keeps, so
+	 * each of them is a delta on the next newer one. Lookups in old trees then
+	 * walk fewer layers, and the layers in between can be garbage collected.
+	 * Must be called while no operation reads the trees.
+	 */
+	protected void collapseTrees() throws CoreException {
+		layerCount.set(0);
+		//collect trees we're interested in
 
 		//trees for plugin saved states
 		ArrayList<ElementTree> trees = new ArrayList<>();
@@ -298,6 +398,14 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			}
 		}
 
+		//trees the saved workspace tree is computed against
+		TreeBase base = treeBase;
+		if (base != null)
+			trees.add(base.tree);
+		base = pendingTreeBase;
+		if (base != null)
+			trees.add(base.tree);
+
 		//trees for builders
 		IProject[] projects = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
 		for (IProject project : projects) {
@@ -328,8 +436,48 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		// We will be able to GC the layers at a later time.
 		if (sorted == null)
 			return;
+		int depth = 0;
+		long lookupCost = 0;
+		if (Policy.DEBUG_SAVE_TREE) {
+			depth = getChainDepth(sorted);
+			lookupCost = getLookupCost(sorted);
+		}
+		long start = System.currentTimeMillis();
 		for (int i = 1; i < sorted.length; i++)
 			sorted[i].collapseTo(sorted[i - 1]);
+		if (Policy.DEBUG_SAVE_TREE)
+			Policy.debug("Collapsed " + sorted.length + " trees, delta chain depth " + depth + " -> " + getChainDepth(sorted) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ ", project lookup " + lookupCost + " -> " + getLookupCost(sorted) + "ns: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	/**
+	 * Returns the average time in nanoseconds to look up a project in one of the
+	 * given trees.
+	 */
+	private long getLookupCost(ElementTree[] trees) {
+		IProject[] projects = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
+		if (projects.length == 0)
+			return 0;
+		long start = System.nanoTime();
+		for (ElementTree tree : trees)
+			for (IProject project : projects)
+				tree.includes(project.getFullPath());
+		return (System.nanoTime() - start) / ((long) trees.length * projects.length);
+	}
+
+	/**
+	 * Returns the maximum number of layers a lookup in one of the given trees
+	 * walks.
+	 */
+	private static int getChainDepth(ElementTree[] trees) {
+		int max = 0;
+		for (ElementTree tree : trees) {
+			int depth = 0;
+			for (DeltaDataTree layer = tree.getDataTree(); layer.getParent() != null; layer = layer.getParent())
+				depth++;
+			max = Math.max(max, depth);
+		}
+		return max;
 	}
 
 	protected void commit(Map<String, SaveContext> contexts) throws CoreException {
@@ -500,6 +648,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		// otherwise ensuing snapshot deltas may be based on an incorrect tree (see bug 12575).
 		lastSnap = workspace.getElementTree();
 		lastSnap.immutable();
+		snapBase = lastSnap;
+		snapDeltaCount = 0;
 		workspace.newWorkingTree();
 		operationCount = 0;
 		// Delete the snapshot files, if any.
@@ -635,6 +785,24 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		if (candidates != null)
 			removeFiles(target, candidates, valuables);
 
+		// tree bases, including partially written ones unless the compaction job is still writing
+		synchronized (treeBaseLock) {
+			List<String> bases = new ArrayList<>(3);
+			for (TreeBase base : new TreeBase[] {treeBase, pendingTreeBase})
+				if (base != null)
+					bases.add(base.fileName);
+			boolean compacting = compactionJob.isCompacting();
+			FilenameFilter baseFilter = (dir, name) -> name.endsWith(LocalMetaArea.F_TREE_BASE) || (!compacting && name.endsWith(LocalMetaArea.F_TREE_BASE + TEMP_SUFFIX));
+			candidates = target.list(baseFilter);
+			if (candidates != null) {
+				// the newest tree base is kept, restoring falls back to it if the one in use is lost
+				String newest = getNewestTreeBase(candidates);
+				if (newest != null)
+					bases.add(newest);
+				removeFiles(target, candidates, bases);
+			}
+		}
+
 		// projects
 		IProject[] projects = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
 		for (IProject project : projects) {
@@ -716,16 +884,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 
 				// tolerate failure for non-critical information
 				// if startup fails, the entire workspace is shot
-				try {
-					restoreMarkers(workspace.getRoot(), false, Policy.subMonitorFor(monitor, 10));
-				} catch (CoreException e) {
-					problems.merge(e.getStatus());
-				}
-				try {
-					restoreSyncInfo(workspace.getRoot(), Policy.subMonitorFor(monitor, 10));
-				} catch (CoreException e) {
-					problems.merge(e.getStatus());
-				}
+				restoreMarkersAndSyncInfo(problems, Policy.subMonitorFor(monitor, 20));
 				// restore meta info last because it might close a project if its description is not readable
 				restoreMetaInfo(problems, Policy.subMonitorFor(monitor, 10));
 				IProject[] roots = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
@@ -743,6 +902,98 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			Policy.debug("Restore workspace: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	/**
+	 * Restores the markers and sync info of the workspace root and of all its
+	 * accessible projects. The projects are restored concurrently, since each of
+	 * them is stored in its own files and only changes the infos of its own resources.
+	 * Failures are added to the given status rather than aborting the restore.
+	 */
+	protected void restoreMarkersAndSyncInfo(MultiStatus problems, IProgressMonitor monitor) {
+		long start = System.currentTimeMillis();
+		monitor = Policy.monitorFor(monitor);
+		try {
+			monitor.beginTask("", 2); //$NON-NLS-1$
+			IWorkspaceRoot root = workspace.getRoot();
+			IStatus status = restoreMarkersAndSyncInfo(root, false);
+			if (status != null)
+				problems.merge(status);
+			monitor.worked(1);
+			IProject[] projects = root.getProjects(IContainer.INCLUDE_HIDDEN);
+			boolean lazyMarkers = isLazyMarkers();
+			// Never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock.
+			// Also use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
+			// potential SecurityManager, since the threads created by it get no permissions.
+			// See https://github.com/eclipse-platform/eclipse.platform/issues/294
+			ForkJoinPool forkJoinPool = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism(),
+					pool -> new ForkJoinWorkerThread(pool) {
+						// anonymous subclass to access protected constructor
+					}, null, false);
+			IStatus[] stats;
+			try {
+				stats = forkJoinPool.submit(() -> Arrays.stream(projects).parallel() //
+						.filter(IProject::isAccessible) //
+						.map(project -> restoreMarkersAndSyncInfo(project, lazyMarkers)) //
+						.filter(Objects::nonNull).toArray(IStatus[]::new)).get();
+			} catch (InterruptedException | ExecutionException e) {
+				stats = new IStatus[] {new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, null, Messages.resources_startupProblems, e)};
+			} finally {
+				forkJoinPool.shutdown();
+			}
+			for (IStatus projectStatus : stats)
+				problems.merge(projectStatus);
+			monitor.worked(1);
+		} finally {
+			monitor.done();
+		}
+		if (Policy.DEBUG_RESTORE_MARKERS || Policy.DEBUG_RESTORE_SYNCINFO)
+			Policy.debug("Restore Markers and SyncInfo for workspace: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private boolean isLazyMarkers() {
+		return Platform.getPreferencesService().getBoolean(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_LAZY_MARKERS, PreferenceInitializer.PREF_LAZY_MARKERS_DEFAULT, null);
+	}
+
+	/**
+	 * Restores the markers and sync info of the given workspace root or project,
+	 * but not those of the projects of the workspace root. If <code>lazyMarkers</code>
+	 * is set, the markers of a project are restored in the background once the
+	 * workspace is open.
+	 * @return the status of the failures, or <code>null</code>
+	 */
+	private IStatus restoreMarkersAndSyncInfo(IResource resource, boolean lazyMarkers) {
+		long start = System.currentTimeMillis();
+		MultiStatus result = null;
+		try {
+			MarkerManager markerManager = workspace.getMarkerManager();
+			if (!lazyMarkers || !markerManager.deferRestore((IProject) resource))
+				markerManager.restore(resource, false, null);
+		} catch (CoreException e) {
+			result = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_READ_METADATA, Messages.resources_startupProblems, null);
+			result.merge(e.getStatus());
+		}
+		long markersTime = System.currentTimeMillis() - start;
+		try {
+			((Synchronizer) workspace.getSynchronizer()).restore(resource, null);
+		} catch (CoreException e) {
+			if (result == null)
+				result = new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_READ_METADATA, Messages.resources_startupProblems, null);
+			result.merge(e.getStatus());
+		}
+		long time = System.currentTimeMillis() - start;
+		if (Policy.DEBUG_RESTORE_MARKERS) {
+			if (workspace.getMarkerManager().isRestorePending(resource)) {
+				long size = workspace.getMetaArea().getMarkersLocationFor(resource).toFile().length();
+				Policy.debug("Deferred restoring Markers for " + resource.getFullPath() + ": " + size + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			} else
+				Policy.debug("Restore Markers for " + resource.getFullPath() + ": " + markersTime + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		if (Policy.DEBUG_RESTORE_SYNCINFO)
+			Policy.debug("Restore SyncInfo for " + resource.getFullPath() + ": " + (time - markersTime) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if (ResourceStats.TRACE_RESTORE)
+			ResourceStats.restored(resource, time);
+		return result;
+	}
+
 	/**
 	 * Restores the contents of this project.  Throw
 	 * an exception if the project could not be restored.
@@ -939,6 +1190,11 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			IPath snapLocation = workspace.getMetaArea().getSnapshotLocationFor(workspace.getRoot());
 			java.io.File localFile = snapLocation.toFile();
 
+			if (restoredFromOlderTreeBase) {
+				// the snapshots are deltas on the lost tree, the workspace is refreshed instead
+				initSnap(Policy.subMonitorFor(monitor, Policy.totalWork / 2));
+				return;
+			}
 			if (!localFile.exists()) {
 				// The snapshot corresponding to the current tree version doesn't exist.
 				// Try the legacy non-versioned snapshot, but ignore it if it is older than
@@ -958,6 +1214,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				/* Read each of the snapshots and lay them on top of the current tree.*/
 				ElementTree complete = workspace.getElementTree();
 				complete.immutable();
+				snapBase = complete;
+				snapDeltaCount = 0;
 				try (
 					DataInputStream input = new DataInputStream(new SafeChunkyInputStream(localFile));
 				) {
@@ -1091,6 +1349,80 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		return true;
 	}
 
+	/**
+	 * Reads the tree base with the given name, which the workspace tree file
+	 * being restored is a delta on. Subsequent saves compute their delta against
+	 * this tree base, until a new one is written.
+	 */
+	ElementTree restoreTreeBase(String fileName) throws IOException {
+		long start = System.currentTimeMillis();
+		IPath location = getTreeBaseLocation(fileName);
+		ElementTree tree;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(location.toFile()), TREE_BUFFER_SIZE))) {
+			int version = input.readInt();
+			if (version != ICoreConstants.WORKSPACE_TREE_VERSION_3)
+				throw new IOException(NLS.bind(Messages.resources_format, version));
+			tree = new ElementTreeReader(this).readTree(input);
+		}
+		tree.immutable();
+		treeBase = new TreeBase(tree, fileName);
+		pendingTreeBase = null;
+		if (Policy.DEBUG_RESTORE_TREE)
+			Policy.debug("Restore tree base " + fileName + ": " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return tree;
+	}
+
+	/**
+	 * Returns whether the tree base file with the given name exists.
+	 */
+	boolean hasTreeBase(String fileName) {
+		return getTreeBaseLocation(fileName).toFile().isFile();
+	}
+
+	/**
+	 * Reads the newest tree base file that exists, for restoring the workspace tree
+	 * when the tree base it was saved against is missing. The snapshots are not
+	 * restored on top of the returned tree, since they are deltas on the lost tree.
+	 *
+	 * @param missingBase the name of the missing tree base file
+	 * @return the tree read, or <code>null</code> if there is no tree base file
+	 */
+	ElementTree restoreNewestTreeBase(String missingBase) throws IOException {
+		java.io.File target = workspace.getMetaArea().getTreeLocationFor(workspace.getRoot(), false).toFile().getParentFile();
+		String newest = getNewestTreeBase(target.list((dir, name) -> name.endsWith(LocalMetaArea.F_TREE_BASE)));
+		if (newest == null)
+			return null;
+		ElementTree tree = restoreTreeBase(newest);
+		restoredFromOlderTreeBase = true;
+		Policy.log(IStatus.ERROR, NLS.bind(Messages.resources_readWorkspaceTreeBase, missingBase, newest), null);
+		return tree;
+	}
+
+	/**
+	 * Returns the tree base file with the highest sequence number among the
+	 * given file names, or <code>null</code> if there is none.
+	 */
+	private static String getNewestTreeBase(String[] names) {
+		if (names == null)
+			return null;
+		String newest = null;
+		long newestNumber = -1;
+		for (String name : names) {
+			if (!name.endsWith(LocalMetaArea.F_TREE_BASE))
+				continue;
+			try {
+				long number = Long.parseLong(name.substring(0, name.length() - LocalMetaArea.F_TREE_BASE.length()));
+				if (number > newestNumber) {
+					newest = name;
+					newestNumber = number;
+				}
+			} catch (NumberFormatException e) {
+				// not written by this save manager
+			}
+		}
+		return newest;
+	}
+
 	/**
 	 * Restores a tree saved as a refresh snapshot to a specified URI.
 	 * @return <code>true</code> if the snapshot exists, <code>false</code> otherwise.
@@ -1175,6 +1507,12 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 						case ISaveContext.FULL_SAVE :
 							// save the complete tree and remember all of the required saved states
 							saveTree(contexts, Policy.subMonitorFor(monitor, 1));
+							// save the content descriptions which are valid for the saved tree
+							try {
+								workspace.getContentDescriptionManager().saveCache();
+							} catch (CoreException e) {
+								warnings.merge(e.getStatus());
+							}
 							// reset the snapshot state.
 							initSnap(null);
 							snapshotRequestor = null;
@@ -1389,20 +1727,120 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	protected void saveTree(Map<String, SaveContext> contexts, IProgressMonitor monitor) throws CoreException {
 		long start = System.currentTimeMillis();
 		IPath treeLocation = workspace.getMetaArea().getTreeLocationFor(workspace.getRoot(), true);
+		boolean incremental = isIncrementalSave();
+		TreeBase base = getTreeBaseForSave(incremental);
+		ElementTree current = workspace.getElementTree();
 		try {
 			IPath tempLocation = workspace.getMetaArea().getBackupLocationFor(treeLocation);
 			try (
 				DataOutputStream output = new DataOutputStream(new SafeFileOutputStream(treeLocation.toOSString(), tempLocation.toOSString()));
 			) {
-				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
-				writeTree(computeStatesToSave(contexts, workspace.getElementTree()), output, monitor);
+				if (base == null) {
+					output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
+					writeTree(computeStatesToSave(contexts, current), output, monitor);
+				} else {
+					output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_3);
+					output.writeUTF(base.fileName);
+					writeTree(computeStatesToSave(contexts, current), base.tree, output, monitor);
+				}
 			}
 		} catch (Exception e) {
 			String msg = NLS.bind(Messages.resources_writeWorkspaceMeta, treeLocation);
 			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, Path.ROOT, msg, e);
 		}
+		if (incremental)
+			compactTreeIfNeeded(current, treeLocation, base);
+		if (Policy.DEBUG_SAVE_TREE)
+			Policy.debug("Save Workspace Tree" + (base == null ? "" : " (incremental)") + ": " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
+	/**
+	 * Returns whether the workspace tree is saved as a delta on a tree base.
+	 */
+	private boolean isIncrementalSave() {
+		return Platform.getPreferencesService().getBoolean(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_INCREMENTAL_SAVE, PreferenceInitializer.PREF_INCREMENTAL_SAVE_DEFAULT, null);
+	}
+
+	/**
+	 * Returns the tree base to save the workspace tree against, adopting the one
+	 * written by the compaction job if there is one.
+	 */
+	private TreeBase getTreeBaseForSave(boolean incremental) {
+		if (!incremental) {
+			compactionJob.cancel();
+			pendingTreeBase = null;
+			treeBase = null;
+			return null;
+		}
+		TreeBase pending = pendingTreeBase;
+		if (pending != null) {
+			pendingTreeBase = null;
+			treeBase = pending;
+		}
+		return treeBase;
+	}
+
+	private IPath getTreeBaseLocation(String fileName) {
+		return workspace.getMetaArea().getTreeLocationFor(workspace.getRoot(), false).removeLastSegments(1).append(fileName);
+	}
+
+	/**
+	 * Schedules writing a new tree base if there is none yet, or if the saved
+	 * delta on the current one has grown too large.
+	 */
+	private void compactTreeIfNeeded(ElementTree current, IPath treeLocation, TreeBase base) {
+		if (base != null) {
+			long baseLength = getTreeBaseLocation(base.fileName).toFile().length();
+			if (treeLocation.toFile().length() <= baseLength * TREE_BASE_COMPACTION_RATIO)
+				return;
+		}
+		if (compactionJob.isCompacting())
+			return;
+		// take the complete copy now, the tree is reorganized by subsequent operations;
+		// it only copies the root node, the tree base is written in the background
+		String fileName = treeLocation.removeFileExtension().lastSegment() + LocalMetaArea.F_TREE_BASE;
+		compactionJob.compact(current, current.copyComplete(), fileName);
+	}
+
+	/**
+	 * Writes a tree base. Once written, the next save of the workspace tree will
+	 * save the delta against this tree base.
+	 *
+	 * @param tree the immutable tree that subsequent saves will compute their delta against
+	 * @param completeTree a complete copy of the tree to write
+	 * @param fileName the name of the tree base file
+	 * @see TreeCompactionJob
+	 */
+	void writeTreeBase(ElementTree tree, ElementTree completeTree, String fileName, IProgressMonitor monitor) throws CoreException {
+		long start = System.currentTimeMillis();
+		java.io.File target = getTreeBaseLocation(fileName).toFile();
+		java.io.File temp = new java.io.File(target.getPath() + TEMP_SUFFIX);
+		try {
+			OutputStream fileOutput = new FileOutputStream(temp) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					if (monitor.isCanceled())
+						throw new OperationCanceledException();
+					super.write(b, off, len);
+				}
+			};
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput, TREE_BUFFER_SIZE))) {
+				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_3);
+				new ElementTreeWriter(this).writeTree(completeTree, Path.ROOT, ElementTreeWriter.D_INFINITE, output);
+			}
+			synchronized (treeBaseLock) {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				pendingTreeBase = new TreeBase(tree, fileName);
+			}
+		} catch (IOException | OperationCanceledException e) {
+			temp.delete();
+			if (e instanceof OperationCanceledException)
+				throw (OperationCanceledException) e;
+			String msg = NLS.bind(Messages.resources_writeWorkspaceMeta, target);
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, Path.ROOT, msg, e);
+		}
 		if (Policy.DEBUG_SAVE_TREE)
-			Policy.debug("Save Workspace Tree: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			Policy.debug("Save tree base " + fileName + ": " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	}
 
 	/**
@@ -1432,6 +1870,15 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			snapshotJob.run(SubMonitor.convert(monitor));
 		// cancel the snapshot job
 		snapshotJob.cancel();
+		InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES).removePreferenceChangeListener(collapseLayersListener);
+		collapseJob.cancel();
+		// a tree base being written would be adopted by the next save only
+		compactionJob.cancel();
+		try {
+			compactionJob.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 	/**
@@ -1467,6 +1914,29 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		}
 	}
 
+	/**
+	 * Notes that a layer has been added to the workspace tree, and collapses the
+	 * trees in the background once too many layers have been added since they
+	 * were last collapsed. Snapshots collapse the trees as well, but they may be
+	 * rare if operations do not change the tree.
+	 */
+	public void treeLayerAdded() {
+		int limit = collapseLayers;
+		if (limit > 0 && layerCount.incrementAndGet() >= limit && collapseJob.getState() == Job.NONE)
+			collapseJob.schedule();
+	}
+
+	private void updateCollapseLayers() {
+		collapseLayers = Platform.getPreferencesService().getInt(ResourcesPlugin.PI_RESOURCES, PreferenceInitializer.PREF_TREE_COLLAPSE_LAYERS, PreferenceInitializer.PREF_TREE_COLLAPSE_LAYERS_DEFAULT, null);
+	}
+
+	/**
+	 * Blocks until trees being collapsed in the background are collapsed.
+	 */
+	void waitForCollapse() throws InterruptedException {
+		collapseJob.join();
+	}
+
 	/**
 	 * Performs a snapshot of the workspace tree.
 	 */
@@ -1484,16 +1954,26 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			IPath snapPath = workspace.getMetaArea().getSnapshotLocationFor(workspace.getRoot());
 			ElementTreeWriter writer = new ElementTreeWriter(this);
 			java.io.File localFile = snapPath.toFile();
+			// replace a long chain of deltas by a single delta on the tree they are based on
+			boolean compact = snapBase != null && snapDeltaCount >= MAX_SNAPSHOT_DELTAS;
+			java.io.File target = compact ? new java.io.File(localFile.getPath() + TEMP_SUFFIX) : localFile;
 			try {
-				SafeChunkyOutputStream safeStream = new SafeChunkyOutputStream(localFile);
+				if (compact)
+					Files.deleteIfExists(target.toPath());
+				SafeChunkyOutputStream safeStream = new SafeChunkyOutputStream(target);
 				try (DataOutputStream out = new DataOutputStream(safeStream);) {
 					out.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
 					writeWorkspaceFields(out, subMonitor);
-					writer.writeDelta(tree, lastSnap, Path.ROOT, ElementTreeWriter.D_INFINITE, out,
+					writer.writeDelta(tree, compact ? snapBase : lastSnap, Path.ROOT, ElementTreeWriter.D_INFINITE, out,
 							ResourceComparator.getSaveComparator());
 					safeStream.succeed();
 					out.close();
 				}
+				if (compact) {
+					Files.move(target.toPath(), localFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					snapDeltaCount = 0;
+				}
+				snapDeltaCount++;
 			} catch (IOException e) {
 				message = NLS.bind(Messages.resources_writeWorkspaceMeta, localFile.getAbsolutePath());
 				throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, Path.ROOT, message, e);
@@ -1584,6 +2064,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 
 	@Override
 	public void startup(IProgressMonitor monitor) throws CoreException {
+		InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES).addPreferenceChangeListener(collapseLayersListener);
+		updateCollapseLayers();
 		restore(monitor);
 		java.io.File table = workspace.getMetaArea().getSafeTableLocationFor(ResourcesPlugin.PI_RESOURCES).toFile();
 		if (!table.exists())
@@ -1686,7 +2168,9 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 
 		// Create the output streams
 		try {
-			o1 = new DataOutputStream(new SafeFileOutputStream(markersLocation.toOSString(), markersTempLocation.toOSString()));
+			// the markers file is still up to date if its markers have not been restored yet
+			if (!markerManager.isRestorePending(root))
+				o1 = new DataOutputStream(new SafeFileOutputStream(markersLocation.toOSString(), markersTempLocation.toOSString()));
 			// we don't store the sync info for the workspace root so don't create
 			// an empty file
 			if (root.getType() != IResource.ROOT)
@@ -1713,7 +2197,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				try {
 					// save the markers
 					long start = System.currentTimeMillis();
-					markerManager.save(info, requestor, markersOutput, writtenTypes);
+					if (markersOutput != null)
+						markerManager.save(info, requestor, markersOutput, writtenTypes);
 					long markerSaveTime = System.currentTimeMillis() - start;
 					saveTimes[0] += markerSaveTime;
 					persistMarkers += markerSaveTime;
@@ -1744,14 +2229,16 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				Policy.debug("Save Markers for " + root.getFullPath() + ": " + saveTimes[0] + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			if (Policy.DEBUG_SAVE_SYNCINFO)
 				Policy.debug("Save SyncInfo for " + root.getFullPath() + ": " + saveTimes[1] + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			removeGarbage(markersOutput, markersLocation, markersTempLocation);
+			if (markersOutput != null) {
+				removeGarbage(markersOutput, markersLocation, markersTempLocation);
+				markersOutput.close();
+			}
 			// if we have the workspace root the output stream will be null and we
 			// don't have to perform cleanup code
 			if (syncInfoOutput != null) {
 				removeGarbage(syncInfoOutput, syncInfoLocation, syncInfoTempLocation);
 				syncInfoOutput.close();
 			}
-			markersOutput.close();
 		} catch (IOException e) {
 			message = NLS.bind(Messages.resources_writeMeta, root.getFullPath());
 			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, root.getFullPath(), message, e);
@@ -1819,8 +2306,11 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 
 		// Create the output streams
 		try {
-			safeMarkerStream = new SafeChunkyOutputStream(markersLocation.toFile());
-			o1 = new DataOutputStream(safeMarkerStream);
+			// markers which have not been restored yet have not changed either
+			if (!markerManager.isRestorePending(root)) {
+				safeMarkerStream = new SafeChunkyOutputStream(markersLocation.toFile());
+				o1 = new DataOutputStream(safeMarkerStream);
+			}
 			// we don't store the sync info for the workspace root so don't create
 			// an empty file
 			if (root.getType() != IResource.ROOT) {
@@ -1835,7 +2325,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 
 		final DataOutputStream markersOutput = o1;
 		final DataOutputStream syncInfoOutput = o2;
-		int markerFileSize = markersOutput.size();
+		int markerFileSize = markersOutput == null ? -1 : markersOutput.size();
 		int syncInfoFileSize = safeSyncInfoStream == null ? -1 : syncInfoOutput.size();
 		// The following 2 piece array will hold a running total of the times
 		// taken to save markers and syncInfo respectively.  This will cut down
@@ -1849,7 +2339,8 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				try {
 					// save the markers
 					long start = System.currentTimeMillis();
-					markerManager.snap(info, requestor, markersOutput);
+					if (markersOutput != null)
+						markerManager.snap(info, requestor, markersOutput);
 					long markerSnapTime = System.currentTimeMillis() - start;
 					snapTimes[0] += markerSnapTime;
 					persistMarkers += markerSnapTime;
@@ -1880,13 +2371,15 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				Policy.debug("Snap Markers for " + root.getFullPath() + ": " + snapTimes[0] + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			if (Policy.DEBUG_SAVE_SYNCINFO)
 				Policy.debug("Snap SyncInfo for " + root.getFullPath() + ": " + snapTimes[1] + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			if (markerFileSize != markersOutput.size())
-				safeMarkerStream.succeed();
+			if (safeMarkerStream != null) {
+				if (markerFileSize != markersOutput.size())
+					safeMarkerStream.succeed();
+				markersOutput.close();
+			}
 			if (safeSyncInfoStream != null && syncInfoFileSize != syncInfoOutput.size()) {
 				safeSyncInfoStream.succeed();
 				syncInfoOutput.close();
 			}
-			markersOutput.close();
 		} catch (IOException e) {
 			message = NLS.bind(Messages.resources_writeMeta, root.getFullPath());
 			throw new ResourceException(IResourceStatus.FAILED_WRITE_METADATA, root.getFullPath(), message, e);
@@ -2006,6 +2499,18 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	 */
 	protected void writeTree(Map<String, ElementTree> statesToSave, DataOutputStream output, IProgressMonitor monitor)
 			throws IOException, CoreException {
+		writeTree(statesToSave, null, output, monitor);
+	}
+
+	/**
+	 * Writes the workspace tree like {@link #writeTree(Map, DataOutputStream, IProgressMonitor)},
+	 * except that the current workspace tree is written as a delta on the given
+	 * base tree if it is not <code>null</code>.
+	 *
+	 * @see WorkspaceTreeReader_3
+	 */
+	protected void writeTree(Map<String, ElementTree> statesToSave, ElementTree baseTree, DataOutputStream output, IProgressMonitor monitor)
+			throws IOException, CoreException {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, 10);
 		boolean wasImmutable = false;
 		try {
@@ -2054,8 +2559,12 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			/* save the forest! */
 			ElementTreeWriter writer = new ElementTreeWriter(this);
 			ElementTree[] treesToSave = trees.toArray(new ElementTree[trees.size()]);
-			writer.writeDeltaChain(treesToSave, Path.ROOT, ElementTreeWriter.D_INFINITE, output,
-					ResourceComparator.getSaveComparator());
+			if (baseTree == null)
+				writer.writeDeltaChain(treesToSave, Path.ROOT, ElementTreeWriter.D_INFINITE, output,
+						ResourceComparator.getSaveComparator());
+			else
+				writer.writeDeltaChain(treesToSave, baseTree, Path.ROOT, ElementTreeWriter.D_INFINITE, output,
+						ResourceComparator.getSaveComparator());
 			subMonitor.worked(4);
 
 			// Since 3.7: Save the additional builders info
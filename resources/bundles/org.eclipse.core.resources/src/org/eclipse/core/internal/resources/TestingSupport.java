@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2005 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -43,6 +43,19 @@ public class TestingSupport {
 		}
 	}
 
+	/**
+	 * Blocks the calling thread until trees being collapsed in the background are collapsed.
+	 * @since 3.19
+	 */
+	public static void waitForTreeCollapse() {
+		try {
+			((Workspace) ResourcesPlugin.getWorkspace()).getSaveManager().waitForCollapse();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+			throw new RuntimeException("Interrupted while waiting for tree collapse"); //$NON-NLS-1$
+		}
+	}
+
 	/*
 	 * Class cannot be instantiated.
 	 */
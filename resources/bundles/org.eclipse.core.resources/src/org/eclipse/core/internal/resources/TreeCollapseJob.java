@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Collapses the chain of element trees between the trees the workspace keeps,
+ * once many layers have been added to it since it was last collapsed.
+ * <p>
+ * The trees are only collapsed while no operation runs, so no builder or
+ * listener may be reading them.
+ * </p>
+ * @see SaveManager#collapseTrees()
+ */
+class TreeCollapseJob extends Job {
+
+	private final SaveManager saveManager;
+	private final Workspace workspace;
+
+	TreeCollapseJob(SaveManager saveManager, Workspace workspace) {
+		super(Messages.resources_collapsingTrees);
+		this.saveManager = saveManager;
+		this.workspace = workspace;
+		setRule(workspace.getRoot());
+		setSystem(true);
+		setPriority(Job.DECORATE);
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		if (monitor.isCanceled())
+			return Status.CANCEL_STATUS;
+		if (!workspace.isOpen())
+			return Status.OK_STATUS;
+		ISchedulingRule rule = workspace.getRoot();
+		try {
+			try {
+				workspace.prepareOperation(rule, monitor);
+				workspace.beginOperation(false);
+				saveManager.collapseTrees();
+			} finally {
+				workspace.endOperation(rule, false);
+			}
+			return Status.OK_STATUS;
+		} catch (OperationCanceledException e) {
+			return Status.CANCEL_STATUS;
+		} catch (CoreException e) {
+			return e.getStatus();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Writes a new tree base for incremental workspace saves, without blocking
+ * workspace operations.
+ * @see SaveManager#writeTreeBase(ElementTree, ElementTree, String, IProgressMonitor)
+ */
+class TreeCompactionJob extends Job {
+
+	private final SaveManager saveManager;
+	private ElementTree tree;
+	private ElementTree completeTree;
+	private String fileName;
+
+	TreeCompactionJob(SaveManager saveManager) {
+		super(Messages.resources_compactingTree);
+		this.saveManager = saveManager;
+		setSystem(true);
+		setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Schedules this job to write the given tree to a tree base file with the
+	 * given name, unless this job is already scheduled or running.
+	 *
+	 * @param newTree the immutable tree that future saves are computed against
+	 * @param newCompleteTree a complete copy of <code>newTree</code> to write
+	 * @param newFileName the name of the tree base file
+	 */
+	synchronized void compact(ElementTree newTree, ElementTree newCompleteTree, String newFileName) {
+		if (getState() != Job.NONE)
+			return;
+		this.tree = newTree;
+		this.completeTree = newCompleteTree;
+		this.fileName = newFileName;
+		schedule();
+	}
+
+	/**
+	 * Whether {@link #compact(ElementTree, ElementTree, String)} would ignore a request.
+	 */
+	boolean isCompacting() {
+		return getState() != Job.NONE;
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		ElementTree newTree;
+		ElementTree newCompleteTree;
+		String newFileName;
+		synchronized (this) {
+			newTree = tree;
+			newCompleteTree = completeTree;
+			newFileName = fileName;
+			tree = completeTree = null;
+		}
+		try {
+			saveManager.writeTreeBase(newTree, newCompleteTree, newFileName, monitor);
+			return Status.OK_STATUS;
+		} catch (OperationCanceledException e) {
+			return Status.CANCEL_STATUS;
+		} catch (CoreException e) {
+			return e.getStatus();
+		}
+	}
+}
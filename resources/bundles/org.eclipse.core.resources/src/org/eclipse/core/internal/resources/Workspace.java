@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
@@ -189,6 +190,12 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 */
 	protected volatile Thread treeLocked = null;
 
+	/**
+	 * The threads notifying concurrent listeners on behalf of the thread that
+	 * locked the tree. The tree is locked for them as well.
+	 */
+	private final Set<Thread> treeLockedConcurrently = ConcurrentHashMap.newKeySet();
+
 	/**
 	 * The currently installed file modification validator.
 	 */
@@ -1981,7 +1988,8 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 
 	@Override
 	public boolean isTreeLocked() {
-		return treeLocked == Thread.currentThread();
+		Thread current = Thread.currentThread();
+		return treeLocked == current || (!treeLockedConcurrently.isEmpty() && treeLockedConcurrently.contains(current));
 	}
 
 	/**
@@ -2108,6 +2116,8 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 
 	/* package */
 	void move(Resource source, IPath destination, int depth, int updateFlags, boolean keepSyncInfo) throws CoreException {
+		// deferred markers are stored by path, so restore them before the paths change
+		markerManager.restorePending(source, depth);
 		// overlay the tree at the destination path, preserving any important info
 		// in any already existing resource information
 		copyTree(source, destination, depth, updateFlags, keepSyncInfo, true, source.getType() == IResource.PROJECT);
@@ -2179,12 +2189,16 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 * modifications to the tree.
 	 */
 	public ElementTree newWorkingTree() {
+		ElementTree result;
 		// synchronized for atomic swap. Should have already synchronized by
 		// getWorkManager().checkIn/checkout, but it's not guaranteed
 		synchronized (this) {
 			tree = tree.newEmptyDelta();
-			return tree;
+			result = tree;
 		}
+		if (saveManager != null)
+			saveManager.treeLayerAdded();
+		return result;
 	}
 
 	/**
@@ -2255,6 +2269,7 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		// restart the notification manager so it is initialized with the right tree
 		notificationManager.startup(null);
 		openFlag = true;
+		markerManager.scheduleRestore();
 		if (crashed || refreshRequested()) {
 			try {
 				refreshManager.refresh(getRoot());
@@ -2471,6 +2486,17 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		treeLocked = locked ? Thread.currentThread() : null;
 	}
 
+	/**
+	 * Locks or unlocks the tree for the current thread, while it notifies a
+	 * listener on behalf of the thread that locked the tree.
+	 */
+	public void setTreeLockedConcurrently(boolean locked) {
+		if (locked)
+			treeLockedConcurrently.add(Thread.currentThread());
+		else
+			treeLockedConcurrently.remove(Thread.currentThread());
+	}
+
 	/**
 	 * Shuts down the workspace managers.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -56,6 +56,10 @@ public abstract class WorkspaceTreeReader {
 				w = new WorkspaceTreeReader_2(workspace);
 				w.renameProjectNode = renameProjectNode;
 				return w;
+			case ICoreConstants.WORKSPACE_TREE_VERSION_3 :
+				w = new WorkspaceTreeReader_3(workspace);
+				w.renameProjectNode = renameProjectNode;
+				return w;
 			default :
 				// Unknown tree version - fail to read the tree
 				String msg = NLS.bind(Messages.resources_format, version);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -236,7 +236,7 @@ public class WorkspaceTreeReader_1 extends WorkspaceTreeReader {
 				//have the existing project name (path to import into) take precedence over what we read
 				newProjectName = root.segment(0);
 			}
-			ElementTree[] trees = treeReader.readDeltaChain(input, newProjectName);
+			ElementTree[] trees = readDeltaChain(treeReader, input, newProjectName);
 			monitor.worked(3);
 			if (root.isRoot()) {
 				//Don't need to link because we're reading the whole workspace.
@@ -255,6 +255,13 @@ public class WorkspaceTreeReader_1 extends WorkspaceTreeReader {
 		}
 	}
 
+	/**
+	 * Reads the chain of trees that is linked to the workspace tree.
+	 */
+	protected ElementTree[] readDeltaChain(ElementTreeReader treeReader, DataInputStream input, String newProjectName) throws IOException {
+		return treeReader.readDeltaChain(input, newProjectName);
+	}
+
 	protected void readWorkspaceFields(DataInputStream input, IProgressMonitor monitor) throws IOException, CoreException {
 		monitor = Policy.monitorFor(monitor);
 		try {
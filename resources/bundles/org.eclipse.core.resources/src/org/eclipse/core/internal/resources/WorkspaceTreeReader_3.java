@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.io.*;
+import java.util.*;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.Policy;
+import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.internal.watson.ElementTreeReader;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Reads version 3 of the workspace tree file format.
+ * <p>
+ * This version is identical to version 2, except that the workspace tree
+ * file starts with the name of a tree base file, and that the newest tree
+ * of the chain is stored as a delta on the tree in that file rather than
+ * as a complete tree. Only the workspace tree file uses this version, project
+ * tree files and snapshots are still written in version 2.
+ * </p>
+ * @see SaveManager#saveTree(java.util.Map, IProgressMonitor)
+ */
+public class WorkspaceTreeReader_3 extends WorkspaceTreeReader_2 {
+
+	private ElementTree baseTree;
+
+	public WorkspaceTreeReader_3(Workspace workspace) {
+		super(workspace);
+	}
+
+	@Override
+	protected int getVersion() {
+		return ICoreConstants.WORKSPACE_TREE_VERSION_3;
+	}
+
+	@Override
+	protected ElementTree[] readDeltaChain(ElementTreeReader treeReader, DataInputStream input, String newProjectName) throws IOException {
+		if (baseTree == null)
+			return super.readDeltaChain(treeReader, input, newProjectName);
+		return treeReader.readDeltaChain(input, baseTree);
+	}
+
+	/**
+	 * Reads the tree base before reading the rest of the workspace tree.
+	 */
+	@Override
+	public void readTree(DataInputStream input, IProgressMonitor monitor) throws CoreException {
+		SaveManager saveManager = workspace.getSaveManager();
+		try {
+			String baseName = input.readUTF();
+			if (!saveManager.hasTreeBase(baseName)) {
+				readNewestTreeBase(input, baseName);
+				return;
+			}
+			baseTree = saveManager.restoreTreeBase(baseName);
+		} catch (IOException e) {
+			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, null, Messages.resources_readProjectTree, e);
+		}
+		super.readTree(input, monitor);
+	}
+
+	/**
+	 * Restores the workspace tree from the newest tree base that exists, since
+	 * the saved tree is a delta on a tree base that is missing. The workspace is
+	 * refreshed on startup to catch up with the changes since that tree base was
+	 * written. The plug-ins keep their saved states, but the trees of their
+	 * saved states and of the builders are lost, so they get no deltas and
+	 * full builds. Projects created since the tree base was written are added
+	 * back closed.
+	 */
+	private void readNewestTreeBase(DataInputStream input, String missingBase) throws IOException, CoreException {
+		readWorkspaceFields(input, null);
+		HashMap<String, SavedState> savedStates = new HashMap<>(20);
+		readPluginsSavedStates(input, savedStates, new ArrayList<>(), null);
+		SaveManager saveManager = workspace.getSaveManager();
+		ElementTree newestBase = saveManager.restoreNewestTreeBase(missingBase);
+		if (newestBase == null)
+			throw new FileNotFoundException(missingBase);
+		saveManager.setPluginsSavedState(savedStates);
+		ElementTree newTree = newestBase.newEmptyDelta();
+		newTree.setTreeData(workspace.tree.getTreeData());
+		workspace.tree = newTree;
+		restoreMissingProjects(missingBase);
+		workspace.setCrashed(true);
+	}
+
+	/**
+	 * Adds the projects which have a meta area, but are missing from the
+	 * restored workspace tree, to the tree as closed projects. Their descriptions
+	 * are restored like those of any other closed project.
+	 */
+	private void restoreMissingProjects(String missingBase) throws CoreException {
+		List<String> restored = new ArrayList<>();
+		IWorkspaceRoot root = workspace.getRoot();
+		for (String name : workspace.getMetaArea().getSavedProjectNames()) {
+			if (!workspace.validateName(name, IResource.PROJECT).isOK())
+				continue;
+			IProject project = root.getProject(name);
+			if (workspace.getResourceInfo(project.getFullPath(), true, false) != null)
+				continue;
+			workspace.createResource(project, false);
+			restored.add(name);
+		}
+		if (!restored.isEmpty())
+			Policy.log(IStatus.ERROR, NLS.bind(Messages.resources_restoredClosedProjects, missingBase, String.join(", ", restored)), null); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources.refresh.linux;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.Policy;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.resources.refresh.IRefreshMonitor;
+import org.eclipse.core.resources.refresh.IRefreshResult;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+import org.osgi.framework.Bundle;
+
+/**
+ * A monitor that works on Linux platforms. Uses a <code>WatchService</code>
+ * (backed by inotify) with one watch per directory of the monitored trees.
+ * Notifications are coalesced into batches and reported as refresh requests
+ * on the smallest affected resources, so the refresh job never has to walk
+ * unchanged subtrees.
+ * <p>
+ * If the tree cannot be fully registered (typically because the
+ * <code>fs.inotify.max_user_watches</code> limit has been reached),
+ * the resource is rejected and the monitor manager falls back to polling.
+ * </p>
+ */
+class LinuxMonitor extends Job implements IRefreshMonitor {
+	/**
+	 * The delay between invocations of the monitor job.
+	 */
+	private static final long RESCHEDULE_DELAY = 100;
+	/**
+	 * The time to wait for the first notification of a batch.
+	 */
+	private static final long WAIT_TIMEOUT = 1000;
+	/**
+	 * The quiet period after which a batch of notifications is considered complete.
+	 */
+	private static final long COALESCE_DELAY = 50;
+	/**
+	 * The maximum number of changed paths collected before a batch is reported.
+	 */
+	private static final int MAX_BATCH_SIZE = 10000;
+	private static final String DEBUG_PREFIX = "LinuxRefreshMonitor: "; //$NON-NLS-1$
+	private static final WatchEvent.Kind<?>[] EVENT_KINDS = {ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY};
+
+	/**
+	 * Any errors that have occurred
+	 */
+	protected MultiStatus errors;
+	protected final IRefreshResult refreshResult;
+	/**
+	 * The watch service, or <code>null</code> if nothing is monitored.
+	 * This field and the maps below are guarded by <code>this</code>.
+	 */
+	private WatchService watchService;
+	private final Map<WatchKey, Path> keyToDirectory = new HashMap<>();
+	private final Map<Path, WatchKey> directoryToKey = new HashMap<>();
+	/**
+	 * Mapping of monitored resources to their file system location.
+	 */
+	private final Map<IResource, Path> roots = new HashMap<>();
+
+	/*
+	 * Creates a new monitor. @param result A result that will receive refresh
+	 * callbacks and error notifications
+	 */
+	public LinuxMonitor(IRefreshResult result) {
+		super(Messages.LM_jobName);
+		this.refreshResult = result;
+		setPriority(Job.DECORATE);
+		setSystem(true);
+	}
+
+	/**
+	 * Logs an exception
+	 */
+	protected synchronized void addException(String message) {
+		if (errors == null) {
+			String msg = Messages.WM_errors;
+			errors = new MultiStatus(ResourcesPlugin.PI_RESOURCES, 1, msg, null);
+		}
+		errors.add(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, 1, message, null));
+	}
+
+	/**
+	 * Adds a resource to be monitored by this native monitor
+	 */
+	public boolean monitor(IResource resource) {
+		IPath location = resource.getLocation();
+		if (location == null) {
+			// cannot monitor remotely managed containers
+			return false;
+		}
+		Path root = location.toFile().toPath();
+		synchronized (this) {
+			try {
+				if (watchService == null)
+					watchService = FileSystems.getDefault().newWatchService();
+				registerTree(root);
+			} catch (IOException | RuntimeException e) {
+				// most likely out of inotify watches, it will fall back to polling
+				unregisterTree(root);
+				if (Policy.DEBUG_AUTO_REFRESH)
+					Policy.debug(DEBUG_PREFIX + " failed to monitor: " + resource + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+				return false;
+			}
+			roots.put(resource, root);
+		}
+		//make sure the job is running
+		schedule();
+		if (Policy.DEBUG_AUTO_REFRESH)
+			Policy.debug(DEBUG_PREFIX + " added monitor for: " + resource); //$NON-NLS-1$
+		return true;
+	}
+
+	/**
+	 * Registers a watch on the given directory and all directories below it.
+	 * Must be called while holding the monitor lock.
+	 */
+	private void registerTree(Path start) throws IOException {
+		Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				try {
+					register(dir);
+				} catch (AccessDeniedException | NoSuchFileException e) {
+					// nothing to watch, the refresh will report the problem if any
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exc) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void register(Path directory) throws IOException {
+		WatchKey key = directoryToKey.get(directory);
+		if (key != null && key.isValid())
+			return;
+		key = directory.register(watchService, EVENT_KINDS);
+		keyToDirectory.put(key, directory);
+		directoryToKey.put(directory, key);
+	}
+
+	/**
+	 * Removes the watches on the given directory and all directories below it,
+	 * unless they are still needed for another monitored resource. Must be called
+	 * while holding the monitor lock.
+	 */
+	private void unregisterTree(Path start) {
+		for (Iterator<Map.Entry<Path, WatchKey>> it = directoryToKey.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Path, WatchKey> entry = it.next();
+			Path directory = entry.getKey();
+			if (directory.startsWith(start) && !isMonitored(directory)) {
+				WatchKey key = entry.getValue();
+				key.cancel();
+				keyToDirectory.remove(key);
+				it.remove();
+			}
+		}
+	}
+
+	private boolean isMonitored(Path directory) {
+		for (Path root : roots.values()) {
+			if (directory.startsWith(root))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		WatchService service;
+		synchronized (this) {
+			service = watchService;
+		}
+		if (service == null)
+			return Status.OK_STATUS;
+		long start = -System.currentTimeMillis();
+		if (Policy.DEBUG_AUTO_REFRESH)
+			Policy.debug(DEBUG_PREFIX + "job started."); //$NON-NLS-1$
+		try {
+			Set<Path> changed = new HashSet<>();
+			Set<Path> overflowed = new HashSet<>();
+			WatchKey key = service.poll(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+			// collect notifications until things calm down, so that bursts of changes
+			// (builds, checkouts) result in a single batch of refresh requests
+			while (key != null && !monitor.isCanceled()) {
+				processEvents(key, changed, overflowed);
+				if (changed.size() + overflowed.size() >= MAX_BATCH_SIZE)
+					break;
+				key = service.poll(COALESCE_DELAY, TimeUnit.MILLISECONDS);
+			}
+			postRefreshRequests(changed, overflowed);
+		} catch (InterruptedException e) {
+			// fall through and reschedule
+		} catch (ClosedWatchServiceException e) {
+			// monitoring has been stopped
+			return Status.OK_STATUS;
+		} finally {
+			start += System.currentTimeMillis();
+			if (Policy.DEBUG_AUTO_REFRESH)
+				Policy.debug(DEBUG_PREFIX + "job finished in: " + start + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		final Bundle bundle = Platform.getBundle(ResourcesPlugin.PI_RESOURCES);
+		//if the bundle is null then the framework has shutdown - just bail out completely (bug 98219)
+		if (bundle == null)
+			return Status.OK_STATUS;
+		//don't reschedule the job if the resources plugin has been shut down
+		if (bundle.getState() == Bundle.ACTIVE && !monitor.isCanceled() && shouldRun())
+			schedule(RESCHEDULE_DELAY);
+		MultiStatus result;
+		synchronized (this) {
+			result = errors;
+			errors = null;
+		}
+		//just log native refresh failures
+		if (result != null && !result.isOK())
+			ResourcesPlugin.getPlugin().getLog().log(result);
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Collects the paths reported by the given key, and starts watching
+	 * directories that have been created in the meantime.
+	 */
+	private void processEvents(WatchKey key, Set<Path> changed, Set<Path> overflowed) {
+		Path directory;
+		synchronized (this) {
+			directory = keyToDirectory.get(key);
+		}
+		List<WatchEvent<?>> events = key.pollEvents();
+		if (directory != null) {
+			for (WatchEvent<?> event : events) {
+				WatchEvent.Kind<?> kind = event.kind();
+				if (kind == OVERFLOW) {
+					// notifications have been lost, do a full refresh of this directory
+					overflowed.add(directory);
+					continue;
+				}
+				Path child = directory.resolve((Path) event.context());
+				if (kind == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+					synchronized (this) {
+						try {
+							if (isMonitored(child))
+								registerTree(child);
+						} catch (IOException e) {
+							addException(NLS.bind(Messages.LM_errRegister, child, e.getMessage()));
+						}
+					}
+				}
+				changed.add(child);
+			}
+		}
+		if (!key.reset()) {
+			// the directory is gone or no longer accessible
+			synchronized (this) {
+				keyToDirectory.remove(key);
+				if (directory != null)
+					directoryToKey.remove(directory, key);
+			}
+		}
+	}
+
+	/**
+	 * Reports the given changes to the refresh result. Changes that the workspace
+	 * already knows about are skipped, and changes below another reported
+	 * resource are folded into the request for that resource.
+	 */
+	private void postRefreshRequests(Set<Path> changed, Set<Path> overflowed) {
+		if (changed.isEmpty() && overflowed.isEmpty())
+			return;
+		List<IResource> requests = new ArrayList<>();
+		for (Path path : overflowed) {
+			IResource resource = findResource(path);
+			if (resource != null)
+				requests.add(resource);
+		}
+		for (Path path : changed) {
+			IResource resource = findResource(path);
+			//notifications also occur for changes made within the workspace
+			if (resource != null && !resource.isSynchronized(IResource.DEPTH_ZERO))
+				requests.add(resource);
+		}
+		requests.sort(Comparator.comparingInt(r -> r.getFullPath().segmentCount()));
+		Set<IPath> requested = new HashSet<>();
+		for (IResource resource : requests) {
+			IPath path = resource.getFullPath();
+			if (!isCovered(path, requested) && requested.add(path))
+				refreshResult.refresh(resource);
+		}
+		if (Policy.DEBUG_AUTO_REFRESH)
+			Policy.debug(DEBUG_PREFIX + "reported " + requested.size() + " refresh requests for " + (changed.size() + overflowed.size()) + " changes."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * Returns whether a refresh of one of the ancestors of the given path was
+	 * already requested. The paths are absolute, and removing the last segment
+	 * of the root path yields the root path again, so the walk stops at the
+	 * first path without segments.
+	 */
+	private static boolean isCovered(IPath path, Set<IPath> requested) {
+		for (IPath parent = path.removeLastSegments(1); parent.segmentCount() > 0; parent = parent.removeLastSegments(1)) {
+			if (requested.contains(parent))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the resource corresponding to the given location in the most specific
+	 * monitored root, or <code>null</code> if the location is no longer monitored.
+	 */
+	private IResource findResource(Path path) {
+		IResource root = null;
+		Path rootLocation = null;
+		synchronized (this) {
+			for (Map.Entry<IResource, Path> entry : roots.entrySet()) {
+				Path location = entry.getValue();
+				if (path.startsWith(location) && (rootLocation == null || location.getNameCount() > rootLocation.getNameCount())) {
+					root = entry.getKey();
+					rootLocation = location;
+				}
+			}
+		}
+		if (root == null)
+			return null;
+		String relative = rootLocation.relativize(path).toString();
+		if (relative.isEmpty())
+			return root;
+		IContainer container = (IContainer) root;
+		IPath relativePath = org.eclipse.core.runtime.Path.fromOSString(relative);
+		IResource member = container.findMember(relativePath);
+		if (member != null)
+			return member;
+		if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+			return container.getFolder(relativePath);
+		return container.getFile(relativePath);
+	}
+
+	@Override
+	public synchronized boolean shouldRun() {
+		return !roots.isEmpty();
+	}
+
+	@Override
+	public void unmonitor(IResource resource) {
+		synchronized (this) {
+			if (resource == null) {
+				// resource == null means stop monitoring all resources
+				roots.clear();
+				keyToDirectory.clear();
+				directoryToKey.clear();
+				if (watchService != null) {
+					try {
+						watchService.close();
+					} catch (IOException e) {
+						addException(NLS.bind(Messages.LM_errClose, e.getMessage()));
+					}
+					watchService = null;
+				}
+			} else {
+				Path root = roots.remove(resource);
+				if (root != null)
+					unregisterTree(root);
+			}
+		}
+		//stop the job if there is nothing left to monitor
+		if (!shouldRun())
+			cancel();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -167,6 +167,8 @@ public class Messages extends NLS {
 	public static String resources_charsetUpdating;
 	public static String resources_closing_0;
 	public static String resources_closing_1;
+	public static String resources_collapsingTrees;
+	public static String resources_compactingTree;
 	public static String resources_copyDestNotSub;
 	public static String resources_copying;
 	public static String resources_copying_0;
@@ -268,11 +270,14 @@ public class Messages extends NLS {
 	public static String resources_readWorkspaceMetaValue;
 	public static String resources_readWorkspaceSnap;
 	public static String resources_readWorkspaceTree;
+	public static String resources_readWorkspaceTreeBase;
 	public static String resources_refreshing;
 	public static String resources_refreshingRoot;
 	public static String resources_resetMarkers;
 	public static String resources_resetSync;
 	public static String resources_resourcePath;
+	public static String resources_restoredClosedProjects;
+	public static String resources_restoringMarkers;
 	public static String resources_saveOp;
 	public static String resources_saveProblem;
 	public static String resources_saveWarnings;
@@ -333,6 +338,11 @@ public class Messages extends NLS {
 	public static String WM_nativeErr;
 	public static String WM_mutexAbandoned;
 
+	// auto-refresh linux
+	public static String LM_errClose;
+	public static String LM_errRegister;
+	public static String LM_jobName;
+
 	public static String updateUnknownNatureMarkers;
 
 	static {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -111,11 +111,22 @@ public class ElementTree {
 	/** synchronized access **/
 	private volatile ChildIDsCache childIDsCache = null;
 
-	/** synchronized access **/
-	private volatile DataTreeLookup lookupCache = null;
+	/**
+	 * The number of entries of the lookup caches, a power of two.
+	 */
+	private static final int LOOKUP_CACHE_SIZE = 16;
+
+	/**
+	 * Caches recent lookups by path, so alternating lookups of a few paths do
+	 * not walk the delta chain each time. Lookups are hashed to a single entry,
+	 * and a lookup replaces the entry it hashes to. Created on demand, and
+	 * discarded when a lookup result may have changed.
+	 * synchronized access
+	 */
+	private DataTreeLookup[] lookupCache = null;
 
 	/** synchronized access **/
-	private volatile DataTreeLookup lookupCacheIgnoreCase = null;
+	private DataTreeLookup[] lookupCacheIgnoreCase = null;
 
 	private final static AtomicInteger treeCounter = new AtomicInteger();
 	private final int treeStamp;
@@ -184,6 +195,27 @@ public class ElementTree {
 		return this;
 	}
 
+	/**
+	 * Returns a complete tree with the same content as this tree. Unlike this
+	 * tree, the returned tree is not part of a delta chain, so it is not affected
+	 * when the delta chain is reorganized later on. This tree must be immutable.
+	 * <p>
+	 * The delta chain is first rerooted at this tree, like {@link #immutable()}
+	 * does, so only the children of the root node need to be copied. The nodes
+	 * below are shared, since the nodes of immutable trees never change.
+	 * </p>
+	 */
+	public synchronized ElementTree copyComplete() {
+		Assert.isTrue(isImmutable());
+		if (tree.getParent() != null) {
+			lookupCache = lookupCacheIgnoreCase = null;
+			tree.reroot();
+		}
+		ElementTree result = new ElementTree(new DeltaDataTree(tree.copyCompleteSubtree(Path.ROOT)));
+		result.tree.immutable();
+		return result;
+	}
+
 	/**
 	 * Creates the indicated element and sets its element info.
 	 * The parent element must be present, otherwise an IllegalArgumentException
@@ -208,9 +240,10 @@ public class ElementTree {
 		} catch (ObjectNotFoundException e) {
 			throw createElementNotFoundException(parent);
 		}
-		// Set the lookup to be this newly created object.
-		lookupCache = DataTreeLookup.newLookup(key, true, data, true);
-		lookupCacheIgnoreCase = null;
+		// Any children of a replaced element are gone, so clear the lookup cache
+		// and add this newly created object.
+		lookupCache = lookupCacheIgnoreCase = null;
+		cacheLookup(DataTreeLookup.newLookup(key, true, data, true));
 	}
 
 	/**
@@ -274,6 +307,67 @@ public class ElementTree {
 		}
 	}
 
+	/**
+	 * Returns the index of the lookup cache entry for the given key.
+	 */
+	private static int cacheIndex(IPath key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (LOOKUP_CACHE_SIZE - 1);
+	}
+
+	/**
+	 * Returns whether the given cached lookup is a lookup of the given key.
+	 */
+	private static boolean isLookupOf(DataTreeLookup lookup, IPath key) {
+		return lookup != null && (lookup.key == key || lookup.key.equals(key));
+	}
+
+	/**
+	 * Adds the given lookup to the lookup cache.
+	 */
+	private void cacheLookup(DataTreeLookup lookup) {
+		if (lookupCache == null)
+			lookupCache = new DataTreeLookup[LOOKUP_CACHE_SIZE];
+		lookupCache[cacheIndex(lookup.key)] = lookup;
+	}
+
+	/**
+	 * Removes the lookup of the given key from the lookup cache, if it is cached.
+	 */
+	private void uncacheLookup(IPath key) {
+		if (lookupCache != null) {
+			int index = cacheIndex(key);
+			if (isLookupOf(lookupCache[index], key))
+				lookupCache[index] = null;
+		}
+	}
+
+	/**
+	 * Looks up the given key in the tree, using the lookup cache.
+	 */
+	private DataTreeLookup lookup(IPath key) {
+		if (lookupCache == null)
+			lookupCache = new DataTreeLookup[LOOKUP_CACHE_SIZE];
+		int index = cacheIndex(key);
+		DataTreeLookup lookup = lookupCache[index];
+		if (!isLookupOf(lookup, key))
+			lookupCache[index] = lookup = tree.lookup(key);
+		return lookup;
+	}
+
+	/**
+	 * Looks up the given key in the tree ignoring case, using the lookup cache.
+	 */
+	private DataTreeLookup lookupIgnoreCase(IPath key) {
+		if (lookupCacheIgnoreCase == null)
+			lookupCacheIgnoreCase = new DataTreeLookup[LOOKUP_CACHE_SIZE];
+		int index = cacheIndex(key);
+		DataTreeLookup lookup = lookupCacheIgnoreCase[index];
+		if (!isLookupOf(lookup, key))
+			lookupCacheIgnoreCase[index] = lookup = tree.lookupIgnoreCase(key);
+		return lookup;
+	}
+
 	private IllegalArgumentException createElementNotFoundException(IPath key) {
 		return new IllegalArgumentException(NLS.bind(Messages.watson_elementNotFound, key));
 	}
@@ -382,9 +476,7 @@ public class ElementTree {
 		/* don't allow modification of the implicit root */
 		if (key.isRoot())
 			return null;
-		DataTreeLookup lookup = lookupCache; // Grab it in case it's replaced concurrently.
-		if (lookup == null || lookup.key != key)
-			lookupCache = lookup = tree.lookup(key);
+		DataTreeLookup lookup = lookup(key);
 		if (lookup.isPresent)
 			return lookup.data;
 		throw createElementNotFoundException(key);
@@ -398,9 +490,7 @@ public class ElementTree {
 		/* don't allow modification of the implicit root */
 		if (key.isRoot())
 			return null;
-		DataTreeLookup lookup = lookupCacheIgnoreCase; // Grab it in case it's replaced concurrently.
-		if (lookup == null || lookup.key != key)
-			lookupCacheIgnoreCase = lookup = tree.lookupIgnoreCase(key);
+		DataTreeLookup lookup = lookupIgnoreCase(key);
 		if (lookup.isPresent)
 			return lookup.data;
 		throw createElementNotFoundException(key);
@@ -539,11 +629,7 @@ public class ElementTree {
 	 * key, false otherwise.
 	 */
 	public synchronized boolean includes(IPath key) {
-		DataTreeLookup lookup = lookupCache; // Grab it in case it's replaced concurrently.
-		if (lookup == null || lookup.key != key) {
-			lookupCache = lookup = tree.lookup(key);
-		}
-		return lookup.isPresent;
+		return lookup(key).isPresent;
 	}
 
 	/**
@@ -551,11 +637,7 @@ public class ElementTree {
 	 * key, ignoring the case of the key, and false otherwise.
 	 */
 	public synchronized boolean includesIgnoreCase(IPath key) {
-		DataTreeLookup lookup = lookupCacheIgnoreCase; // Grab it in case it's replaced concurrently.
-		if (lookup == null || lookup.key != key) {
-			lookupCacheIgnoreCase = lookup = tree.lookupIgnoreCase(key);
-		}
-		return lookup.isPresent;
+		return lookupIgnoreCase(key).isPresent;
 	}
 
 	/**
@@ -647,10 +729,7 @@ public class ElementTree {
 		/* don't allow modification of the implicit root */
 		if (key.isRoot())
 			return null;
-		DataTreeLookup lookup = lookupCache; // Grab it in case it's replaced concurrently.
-		if (lookup == null || lookup.key != key) {
-			lookupCache = lookup = tree.lookup(key);
-		}
+		DataTreeLookup lookup = lookup(key);
 		if (lookup.isPresent) {
 			if (lookup.foundInFirstDelta)
 				return lookup.data;
@@ -663,7 +742,9 @@ public class ElementTree {
 				try {
 					Object newData = oldData.clone();
 					tree.setData(key, newData);
-					lookupCache = lookupCacheIgnoreCase = null;
+					// only the data of this element has changed
+					lookupCacheIgnoreCase = null;
+					cacheLookup(DataTreeLookup.newLookup(key, true, newData, true));
 					return newData;
 				} catch (ObjectNotFoundException e) {
 					throw createElementNotFoundException(key);
@@ -687,9 +768,10 @@ public class ElementTree {
 			return;
 
 		Assert.isNotNull(key);
-		// Clear the lookup cache, in case the element being modified is the same
-		// as for the last lookup.
-		lookupCache = lookupCacheIgnoreCase = null;
+		// Only the data of this element changes, so only forget its lookup.
+		// Lookups ignoring case may have found it by another key.
+		uncacheLookup(key);
+		lookupCacheIgnoreCase = null;
 		try {
 			tree.setData(key, data);
 		} catch (ObjectNotFoundException e) {
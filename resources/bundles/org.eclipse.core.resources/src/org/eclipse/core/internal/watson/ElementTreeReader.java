@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -115,6 +115,21 @@ public class ElementTreeReader {
 		return realReader.readDeltaChain(input, newProjectName);
 	}
 
+	/**
+	 * Reads a chain of ElementTrees written relative to a base tree from the given
+	 * input stream.
+	 * @param input the input stream to read from.
+	 * @param baseTree the tree the first tree in the chain was written as a delta on.
+	 * @return A chain of ElementTrees, where the first tree in the list is a delta
+	 * on the base tree, and all other trees are deltas on the previous tree in the list.
+	 * @see ElementTreeWriter#writeDeltaChain(ElementTree[], ElementTree, IPath, int, DataOutput, IElementComparator)
+	 */
+	public ElementTree[] readDeltaChain(DataInput input, ElementTree baseTree) throws IOException {
+		/* Dispatch to the appropriate reader. */
+		ElementTreeReader realReader = getReader(readNumber(input));
+		return realReader.readDeltaChain(input, baseTree);
+	}
+
 	/**
 	 * Reads an integer stored in compact format.  Numbers between
 	 * 0 and 254 inclusive occupy 1 byte; other numbers occupy 5 bytes,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -92,6 +92,31 @@ import org.eclipse.core.internal.dtree.DeltaDataTree;
 		return results;
 	}
 
+	@Override
+	public ElementTree[] readDeltaChain(DataInput input, ElementTree baseTree) throws IOException {
+		/* read the number of trees */
+		int treeCount = readNumber(input);
+		ElementTree[] results = new ElementTree[treeCount];
+
+		if (treeCount <= 0) {
+			return results;
+		}
+
+		/* read the sort order */
+		int[] order = new int[treeCount];
+		for (int i = 0; i < treeCount; i++) {
+			order[i] = readNumber(input);
+		}
+
+		/* reconstitute the newest tree from the base tree, and the remaining trees from their written deltas */
+		results[order[0]] = super.readDelta(baseTree, input);
+		for (int i = 1; i < treeCount; i++) {
+			results[order[i]] = super.readDelta(results[order[i - 1]], input);
+		}
+
+		return results;
+	}
+
 	@Override
 	public ElementTree readTree(DataInput input, String newProjectName) throws IOException {
 
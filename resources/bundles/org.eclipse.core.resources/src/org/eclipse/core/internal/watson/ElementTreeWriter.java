@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -172,6 +172,43 @@ public class ElementTreeWriter {
 		}
 	}
 
+	/**
+	 * Writes an array of ElementTrees to the given output stream, where the newest
+	 * tree is written as a delta on a base tree rather than as a complete tree.
+	 * The base tree must be available when the chain is read again.
+	 * @param trees A chain of ElementTrees, where each tree is a delta on
+	 * the previous tree in the list.
+	 * @param baseTree The tree the newest tree of the chain is written as a delta on.
+	 * @param path The path of the subtree to write.  All nodes on the path above
+	 *  the subtree are represented as empty nodes.
+	 * @param depth The depth of the subtree to write.  A depth of zero writes a
+	 *  single node, and a depth of D_INFINITE writes the whole subtree.
+	 * @param output The stream to write the subtree to.
+	 * @see ElementTreeReader#readDeltaChain(DataInput, ElementTree)
+	 */
+	public void writeDeltaChain(ElementTree[] trees, ElementTree baseTree, IPath path, int depth, DataOutput output, IElementComparator comparator) throws IOException {
+		/* Write the format version number */
+		writeNumber(CURRENT_FORMAT, output);
+
+		/* Write the number of trees */
+		int treeCount = trees.length;
+		writeNumber(treeCount, output);
+
+		if (treeCount <= 0) {
+			return;
+		}
+
+		ElementTree[] sortedTrees = writeSortedTrees(trees, output);
+
+		/* Write the newest tree as a delta on the base tree */
+		writeDelta(sortedTrees[0], baseTree, path, depth, output, comparator);
+
+		/* Write the deltas for each of the remaining trees */
+		for (int i = 1; i < treeCount; i++) {
+			writeDelta(sortedTrees[i], sortedTrees[i - 1], path, depth, output, comparator);
+		}
+	}
+
 	/**
 	 * Writes an integer in a compact format biased towards
 	 * small non-negative numbers. Numbers between
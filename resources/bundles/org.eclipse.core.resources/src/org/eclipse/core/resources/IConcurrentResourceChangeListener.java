@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.resources;
+
+/**
+ * A resource change listener which may be notified of
+ * {@link IResourceChangeEvent#POST_CHANGE} events concurrently with other
+ * listeners.
+ * <p>
+ * By implementing this interface, a listener declares that it is thread safe,
+ * and that it only reads the resource delta and the workspace while it is
+ * notified. The listener is notified in a thread other than the one that
+ * modified the workspace, so it must neither modify the workspace, nor run
+ * workspace operations, nor wait for other jobs or threads which do so.
+ * Otherwise the notification may deadlock.
+ * </p>
+ * <p>
+ * Listeners are only notified concurrently if the workspace is configured
+ * to do so. In any case the notification completes before the operation
+ * which caused it ends. Listeners of other event types are notified as
+ * usual.
+ * </p>
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ *
+ * @see IResourceChangeListener
+ * @since 3.19
+ */
+public interface IConcurrentResourceChangeListener extends IResourceChangeListener {
+	// marker interface
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2023 IBM Corporation and others.
+ *  Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -395,6 +395,38 @@ public class FileStoreTest extends LocalStoreTest {
 		assertEquals("1.0", 1, target.fetchInfo().getLength());
 	}
 
+	/**
+	 * Tests that the bulk child infos of a local directory match the infos
+	 * fetched for each child individually.
+	 */
+	public void testChildInfos() throws Exception {
+		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
+		IFileStore temp = createDir(root.toString(), true);
+		createFile(temp.getChild("a.txt"), "content");
+		createFile(temp.getChild("b.txt"), "");
+		createDir(temp.getChild("folder"), true);
+		boolean links = canCreateSymLinks();
+		if (links) {
+			createSymLink(temp.toLocalFile(EFS.NONE, getMonitor()), "link", "a.txt", false);
+		}
+
+		IFileInfo[] infos = temp.childInfos(EFS.NONE, null);
+		assertEquals("1.0", links ? 4 : 3, infos.length);
+		for (IFileInfo info : infos) {
+			IFileInfo expected = temp.getChild(info.getName()).fetchInfo();
+			String name = info.getName();
+			assertEquals("2.0." + name, expected.exists(), info.exists());
+			assertEquals("2.1." + name, expected.isDirectory(), info.isDirectory());
+			assertEquals("2.2." + name, expected.getLength(), info.getLength());
+			assertEquals("2.3." + name, expected.getLastModified(), info.getLastModified());
+			assertEquals("2.4." + name, expected.getAttribute(EFS.ATTRIBUTE_SYMLINK), info.getAttribute(EFS.ATTRIBUTE_SYMLINK));
+			assertEquals("2.5." + name, expected.getStringAttribute(EFS.ATTRIBUTE_LINK_TARGET), info.getStringAttribute(EFS.ATTRIBUTE_LINK_TARGET));
+		}
+
+		// a missing directory has no children
+		assertEquals("3.0", 0, temp.getChild("missing").childInfos(EFS.NONE, null).length);
+	}
+
 	public void testGetStat() throws CoreException {
 		/* evaluate test environment */
 		IPath root = getWorkspace().getRoot().getLocation().append("" + new Date().getTime());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,6 @@ import org.junit.runners.Suite;
  * affects the contents on disk, all aliases need to be updated.
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ BasicAliasTest.class, SyncAliasTest.class })
+@Suite.SuiteClasses({ BasicAliasTest.class, LocationMapTest.class, SyncAliasTest.class })
 public class AllAliasTests {
 }
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.alias;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.eclipse.core.internal.resources.AliasManager;
+import org.eclipse.core.internal.resources.Folder;
+import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests that the overlapping locations, which the alias manager keeps track of
+ * as links and projects are added and removed, are the expected ones after
+ * each change.
+ */
+public class LocationMapTest extends ResourceTest {
+	private IProject p1;
+	private IProject p2;
+	private IPath location;
+	private IPath nestedLocation;
+
+	private AliasManager getAliasManager() {
+		return ((Workspace) getWorkspace()).getAliasManager();
+	}
+
+	private void assertAliasedProjects(String message, IProject... expected) {
+		assertEquals(message, new HashSet<>(Arrays.asList(expected)), getAliasManager().getAliasedProjects());
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		p1 = root.getProject("P1");
+		p2 = root.getProject("P2");
+		ensureExistsInWorkspace(new IResource[] {p1, p2}, true);
+		location = getRandomLocation();
+		nestedLocation = location.append("nested");
+		nestedLocation.toFile().mkdirs();
+		deleteOnTearDown(location);
+	}
+
+	public void testNestedLinks() throws CoreException {
+		IFolder link1 = p1.getFolder("link1");
+		IFolder link2 = p2.getFolder("link2");
+		IFolder link3 = p1.getFolder("link3");
+		assertAliasedProjects("1.0");
+
+		link1.createLink(location, IResource.NONE, getMonitor());
+		assertAliasedProjects("2.0");
+
+		link2.createLink(nestedLocation, IResource.NONE, getMonitor());
+		assertAliasedProjects("3.0", p1, p2);
+		IResource[] aliases = getAliasManager().computeAliases(link2, ((Folder) link2).getStore());
+		assertNotNull("3.1", aliases);
+		assertTrue("3.2", Arrays.asList(aliases).contains(link1.getFolder("nested")));
+
+		link3.createLink(nestedLocation, IResource.NONE, getMonitor());
+		assertAliasedProjects("4.0", p1, p2);
+
+		link2.delete(IResource.NONE, getMonitor());
+		assertAliasedProjects("5.0", p1);
+
+		link1.delete(IResource.NONE, getMonitor());
+		assertAliasedProjects("6.0");
+
+		link3.delete(IResource.NONE, getMonitor());
+		assertAliasedProjects("7.0");
+	}
+
+	public void testMoveLink() throws CoreException {
+		IFolder link1 = p1.getFolder("link1");
+		IFolder link2 = p2.getFolder("link2");
+		link1.createLink(location, IResource.NONE, getMonitor());
+		link2.createLink(nestedLocation, IResource.NONE, getMonitor());
+		assertAliasedProjects("1.0", p1, p2);
+
+		// move within the project
+		IFolder moved = p2.getFolder("moved");
+		link2.move(moved.getFullPath(), IResource.SHALLOW, getMonitor());
+		assertTrue("2.0", moved.isLinked());
+		assertAliasedProjects("2.1", p1, p2);
+		IResource[] aliases = getAliasManager().computeAliases(moved, ((Folder) moved).getStore());
+		assertNotNull("2.2", aliases);
+		assertTrue("2.3", Arrays.asList(aliases).contains(link1.getFolder("nested")));
+
+		// move to the other project, so both links are in the same project
+		IFolder movedToP2 = p2.getFolder("link1");
+		link1.move(movedToP2.getFullPath(), IResource.SHALLOW, getMonitor());
+		assertTrue("3.0", movedToP2.isLinked());
+		assertAliasedProjects("3.1", p2);
+
+		moved.delete(IResource.NONE, getMonitor());
+		assertAliasedProjects("4.0");
+	}
+
+	public void testDeleteProject() throws CoreException {
+		IFolder link1 = p1.getFolder("link1");
+		IFolder link2 = p2.getFolder("link2");
+		IFolder link3 = p2.getFolder("link3");
+		link1.createLink(location, IResource.NONE, getMonitor());
+		link2.createLink(nestedLocation, IResource.NONE, getMonitor());
+		link3.createLink(nestedLocation, IResource.NONE, getMonitor());
+		assertAliasedProjects("1.0", p1, p2);
+
+		p2.delete(true, getMonitor());
+		assertAliasedProjects("2.0");
+
+		ensureExistsInWorkspace(p2, true);
+		assertAliasedProjects("3.0");
+		link2.createLink(nestedLocation, IResource.NONE, getMonitor());
+		assertAliasedProjects("3.1", p1, p2);
+
+		p1.close(getMonitor());
+		assertAliasedProjects("4.0");
+		p1.open(getMonitor());
+		assertAliasedProjects("4.1", p1, p2);
+	}
+
+	public void testRecreateLink() throws CoreException {
+		IFolder link1 = p1.getFolder("link1");
+		IFolder link2 = p2.getFolder("link2");
+		link1.createLink(location, IResource.NONE, getMonitor());
+		for (int i = 0; i < 3; i++) {
+			link2.createLink(nestedLocation, IResource.NONE, getMonitor());
+			assertAliasedProjects("1." + i, p1, p2);
+			link2.delete(IResource.NONE, getMonitor());
+			assertAliasedProjects("2." + i);
+		}
+		// re-create the link at the same location as the other link
+		link2.createLink(location, IResource.NONE, getMonitor());
+		assertAliasedProjects("3.0", p1, p2);
+		link2.delete(IResource.NONE, getMonitor());
+		link2.createLink(location, IResource.REPLACE, getMonitor());
+		assertAliasedProjects("3.1", p1, p2);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.*;
 import org.eclipse.core.internal.dtree.*;
 import org.eclipse.core.internal.watson.DefaultElementComparator;
 import org.eclipse.core.runtime.IPath;
@@ -1056,6 +1057,65 @@ public class DeltaDataTreeTest {
 
 	}
 
+	/**
+	 * Tests adding, changing and deleting the children of a node with so many
+	 * children that they are kept in chunks.
+	 */
+	@Test
+	public void testManyChildren() {
+		int count = 5000;
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			names.add("child" + i);
+		}
+		Collections.shuffle(names, new Random(4711));
+		tree.immutable();
+		DeltaDataTree delta = tree.newEmptyDeltaTree();
+		SortedMap<String, Object> expected = new TreeMap<>();
+		for (String name : new String[] {"one", "two", "three"}) {
+			expected.put(name, null);
+		}
+		for (String name : names) {
+			delta.createChild(leftKey, name, name);
+			expected.put(name, name);
+		}
+		for (int i = 0; i < count; i += 2) {
+			delta.deleteChild(leftKey, names.get(i));
+			expected.remove(names.get(i));
+		}
+		for (int i = 1; i < count; i += 2) {
+			delta.setData(leftKey.append(names.get(i)), "changed");
+			expected.put(names.get(i), "changed");
+		}
+		assertChildren(delta, expected);
+		assertTree(tree);
+		assertEquals(3, tree.getNamesOfChildren(leftKey).length);
+		for (int i = 0; i < 10; i++) {
+			String name = names.get(i);
+			DataTreeLookup lookup = delta.lookupIgnoreCase(leftKey.append(name.toUpperCase()));
+			assertEquals(name, i % 2 != 0, lookup.isPresent);
+			if (lookup.isPresent)
+				assertEquals(name, "changed", lookup.data);
+		}
+
+		delta.immutable();
+		delta.reroot();
+		assertChildren(delta, expected);
+		assertTree(tree);
+		assertEquals(3, tree.getNamesOfChildren(leftKey).length);
+
+		DeltaDataTree comparison = tree.compareWith(delta, DefaultElementComparator.getComparator());
+		assertEquals(expected.size() - 3, comparison.getNamesOfChildren(leftKey).length);
+	}
+
+	private void assertChildren(DeltaDataTree actual, SortedMap<String, Object> expected) {
+		assertEquals(new ArrayList<>(expected.keySet()), Arrays.asList(actual.getNamesOfChildren(leftKey)));
+		for (Map.Entry<String, Object> entry : expected.entrySet()) {
+			assertTrue(entry.getKey(), actual.includes(leftKey.append(entry.getKey())));
+			assertEquals(entry.getKey(), entry.getValue(), actual.getData(leftKey.append(entry.getKey())));
+		}
+	}
+
 	/**
 	 * Tests that the setUp() method is doing what it should
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -171,4 +171,56 @@ public class BlobStoreTest extends LocalStoreTest {
 		}
 		assertTrue("2.5", compareContent(getContents(content), input));
 	}
+
+	public void testContentAddressed() throws CoreException {
+		/* initialize common objects */
+		IFileStore root = createStore();
+		BlobStore store = new BlobStore(root, 64, true, false);
+		String content = "nothing important........tnatropmi gnihton";
+
+		/* identical contents are stored once */
+		IFileStore target = root.getChild("target");
+		createFile(target, content);
+		UniversalUniqueIdentifier uuid1 = store.addBlob(target, false);
+		assertTrue("1.1", target.fetchInfo().exists());
+		assertTrue("1.2", BlobStore.isContentKey(uuid1));
+		UniversalUniqueIdentifier uuid2 = store.addBlob(target, true);
+		assertEquals("1.3", uuid1, uuid2);
+		assertTrue("1.4", !target.fetchInfo().exists());
+		assertTrue("1.5", compareContent(getContents(content), store.getBlob(uuid1)));
+		for (String name : root.childNames(EFS.NONE, null))
+			assertTrue("1.6." + name, !name.endsWith(".tmp"));
+
+		/* different contents get a different key */
+		createFile(target, content + "!");
+		UniversalUniqueIdentifier uuid3 = store.addBlob(target, true);
+		assertTrue("2.1", !uuid1.equals(uuid3));
+		assertTrue("2.2", compareContent(getContents(content + "!"), store.getBlob(uuid3)));
+
+		/* random keys are not content keys */
+		assertTrue("3.1", !BlobStore.isContentKey(new UniversalUniqueIdentifier()));
+	}
+
+	public void testContentAddressedCompressed() throws CoreException {
+		/* initialize common objects */
+		IFileStore root = createStore();
+		BlobStore store = new BlobStore(root, 64, true, true);
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++)
+			content.append("nothing important........tnatropmi gnihton");
+
+		IFileStore target = root.getChild("target");
+		createFile(target, content.toString());
+		UniversalUniqueIdentifier uuid = store.addBlob(target, true);
+		assertTrue("1.1", BlobStore.isContentKey(uuid));
+		assertTrue("1.2", store.fileFor(uuid).fetchInfo().getLength() < content.length());
+		assertTrue("1.3", compareContent(getContents(content.toString()), store.getBlob(uuid)));
+
+		/* blobs stored without compression remain readable */
+		BlobStore plain = new BlobStore(root, 64, true, false);
+		createFile(target, content.toString());
+		UniversalUniqueIdentifier plainUuid = plain.addBlob(target, true);
+		assertTrue("2.1", !uuid.equals(plainUuid));
+		assertTrue("2.2", compareContent(getContents(content.toString()), store.getBlob(plainUuid)));
+	}
 }
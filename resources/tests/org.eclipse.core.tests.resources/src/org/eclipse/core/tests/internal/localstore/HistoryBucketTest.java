@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.tests.internal.localstore;
 
+import java.io.File;
 import org.eclipse.core.internal.localstore.Bucket.Entry;
 import org.eclipse.core.internal.localstore.HistoryBucket;
 import org.eclipse.core.internal.utils.UniversalUniqueIdentifier;
@@ -132,6 +133,153 @@ public class HistoryBucketTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * Tests buckets stored in a mapped index, including the conversion from and
+	 * to the regular index format.
+	 */
+	public void testMappedIndex() throws CoreException {
+		IPath baseLocation = getRandomLocation();
+		try {
+			IPath location = baseLocation.append("location");
+			HistoryBucket legacy = new HistoryBucket(false);
+			legacy.load("foo", location.toFile());
+			IPath path1 = new Path("/foo/bar");
+			UniversalUniqueIdentifier uuid1 = new UniversalUniqueIdentifier();
+			legacy.addBlob(path1, uuid1, 1);
+			legacy.save();
+
+			// the regular index is converted on the next save
+			HistoryBucket mapped = new HistoryBucket(true);
+			mapped.load("foo", location.toFile());
+			assertEquals("1.0", 1, mapped.getEntryCount());
+			assertEquals("1.1", uuid1, mapped.getEntry(path1).getUUID(0));
+			IPath path2 = new Path("/foo/baz");
+			UniversalUniqueIdentifier uuid2 = new UniversalUniqueIdentifier();
+			mapped.addBlob(path2, uuid2, 2);
+			mapped.save();
+			assertFalse("1.2", location.append("history.index").toFile().exists());
+			assertTrue("1.3", location.append("history.index.mapped").toFile().exists());
+
+			// changes are appended to the index
+			mapped.load("foo", location.toFile(), true);
+			assertEquals("2.0", 2, mapped.getEntryCount());
+			for (int i = 0; i < 500; i++)
+				mapped.addBlob(path2, new UniversalUniqueIdentifier(), i + 3);
+			mapped.save();
+			mapped.load("foo", location.toFile(), true);
+			assertEquals("2.1", 2, mapped.getEntryCount());
+			assertEquals("2.2", 501, mapped.getEntry(path2).getOccurrences());
+			assertEquals("2.3", uuid1, mapped.getEntry(path1).getUUID(0));
+
+			// removed entries are not visible, neither before nor after saving
+			mapped.accept(new HistoryBucket.Visitor() {
+				@Override
+				public int visit(Entry fileEntry) {
+					fileEntry.delete();
+					return CONTINUE;
+				}
+			}, path2, 0);
+			assertNull("3.0", mapped.getEntry(path2));
+			mapped.load("foo", location.toFile(), true);
+			assertEquals("3.1", 1, mapped.getEntryCount());
+			assertNull("3.2", mapped.getEntry(path2));
+
+			// the mapped index is converted back on the next save
+			legacy.load("foo", location.toFile(), true);
+			assertEquals("4.0", 1, legacy.getEntryCount());
+			assertEquals("4.1", uuid1, legacy.getEntry(path1).getUUID(0));
+			legacy.addBlob(path2, uuid2, 2);
+			legacy.save();
+			assertTrue("4.2", location.append("history.index").toFile().exists());
+			assertFalse("4.3", location.append("history.index.mapped").toFile().exists());
+		} finally {
+			ensureDoesNotExistInFileSystem(baseLocation.toFile());
+		}
+	}
+
+	/**
+	 * Tests that a mapped index which is large enough to be memory-mapped can
+	 * be compacted, which replaces the index file, and converted to the
+	 * regular format, which deletes it. Neither works on Windows while the file
+	 * is mapped.
+	 */
+	public void testLargeMappedIndex() throws CoreException {
+		final int PATH_COUNT = 2000;
+		IPath baseLocation = getRandomLocation();
+		try {
+			IPath location = baseLocation.append("location");
+			File mappedFile = location.append("history.index.mapped").toFile();
+			HistoryBucket mapped = new HistoryBucket(true);
+			mapped.load("foo", location.toFile());
+			for (int i = 0; i < PATH_COUNT; i++)
+				mapped.addBlob(new Path("/foo/file" + i), new UniversalUniqueIdentifier(), i);
+			mapped.save();
+			assertTrue("1.0", mappedFile.length() > 64 * 1024);
+
+			// a log as large as the sorted entries is compacted into a new file
+			mapped.load("foo", location.toFile(), true);
+			for (int i = 0; i < PATH_COUNT; i++)
+				mapped.addBlob(new Path("/foo/file" + i), new UniversalUniqueIdentifier(), PATH_COUNT + i);
+			mapped.save();
+			mapped.load("foo", location.toFile(), true);
+			assertEquals("2.0", PATH_COUNT, mapped.getEntryCount());
+			assertEquals("2.1", 2, mapped.getEntry(new Path("/foo/file0")).getOccurrences());
+
+			// the mapped index is deleted when it is converted back
+			HistoryBucket legacy = new HistoryBucket(false);
+			legacy.load("foo", location.toFile());
+			assertEquals("3.0", PATH_COUNT, legacy.getEntryCount());
+			legacy.addBlob(new Path("/foo/other"), new UniversalUniqueIdentifier(), 0);
+			legacy.save();
+			assertFalse("3.1", mappedFile.exists());
+			assertTrue("3.2", location.append("history.index").toFile().exists());
+		} finally {
+			ensureDoesNotExistInFileSystem(baseLocation.toFile());
+		}
+	}
+
+	/**
+	 * Tests that no entries are lost when the mapped index cannot be compacted
+	 * because its replacement cannot be written.
+	 */
+	public void testMappedIndexWriteFailure() throws CoreException {
+		final int PATH_COUNT = 2000;
+		IPath baseLocation = getRandomLocation();
+		try {
+			IPath location = baseLocation.append("location");
+			HistoryBucket mapped = new HistoryBucket(true);
+			mapped.load("foo", location.toFile());
+			for (int i = 0; i < PATH_COUNT; i++)
+				mapped.addBlob(new Path("/foo/file" + i), new UniversalUniqueIdentifier(), i);
+			mapped.save();
+
+			// a directory in place of the temporary file makes the compaction fail
+			File temp = location.append("history.index.mapped.tmp").toFile();
+			assertTrue("1.0", temp.mkdir());
+			mapped.load("foo", location.toFile(), true);
+			for (int i = 0; i < PATH_COUNT; i++)
+				mapped.addBlob(new Path("/foo/file" + i), new UniversalUniqueIdentifier(), PATH_COUNT + i);
+			try {
+				mapped.save();
+				fail("1.1");
+			} catch (CoreException e) {
+				// expected
+			}
+			temp.delete();
+			assertEquals("1.2", PATH_COUNT, mapped.getEntryCount());
+			assertEquals("1.3", 2, mapped.getEntry(new Path("/foo/file0")).getOccurrences());
+
+			// later saves keep all entries
+			mapped.addBlob(new Path("/foo/other"), new UniversalUniqueIdentifier(), 0);
+			mapped.save();
+			mapped.load("foo", location.toFile(), true);
+			assertEquals("2.0", PATH_COUNT + 1, mapped.getEntryCount());
+			assertEquals("2.1", 2, mapped.getEntry(new Path("/foo/file" + (PATH_COUNT - 1))).getOccurrences());
+		} finally {
+			ensureDoesNotExistInFileSystem(baseLocation.toFile());
+		}
+	}
+
 	/**
 	 * This test does not cause any data to be written.
 	 */
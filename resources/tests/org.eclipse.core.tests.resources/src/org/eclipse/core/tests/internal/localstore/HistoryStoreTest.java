@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,13 +16,17 @@ package org.eclipse.core.tests.internal.localstore;
 
 import java.io.*;
 import java.util.*;
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.filesystem.provider.FileInfo;
+import org.eclipse.core.internal.localstore.HistoryStore2;
 import org.eclipse.core.internal.localstore.IHistoryStore;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.utils.UniversalUniqueIdentifier;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.core.tests.resources.ResourceTest;
 
 /**
@@ -2063,4 +2067,43 @@ public class HistoryStoreTest extends ResourceTest {
 			fail("9.3", e);
 		}
 	}
+
+	/**
+	 * Tests that states with identical contents share a blob in content-addressed
+	 * mode, and that the blob is only removed with the last state referring to it.
+	 */
+	public void testContentAddressedStates() throws CoreException {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		IFileStore location = getTempStore();
+		location.mkdir(EFS.NONE, getMonitor());
+		HistoryStore2 store;
+		prefs.putBoolean(PreferenceInitializer.PREF_HISTORY_CONTENT_ADDRESSED, true);
+		try {
+			store = new HistoryStore2((Workspace) getWorkspace(), location, 256);
+		} finally {
+			prefs.remove(PreferenceInitializer.PREF_HISTORY_CONTENT_ADDRESSED);
+		}
+		String projectName = getUniqueString();
+		IPath path1 = new Path("/" + projectName + "/file1.txt");
+		IPath path2 = new Path("/" + projectName + "/file2.txt");
+		IFileStore source = getTempStore();
+		createFileInFileSystem(source, getContents("content"));
+		try {
+			FileState state1 = (FileState) store.addState(path1, source, source.fetchInfo(), false);
+			FileState state2 = (FileState) store.addState(path2, source, source.fetchInfo(), false);
+			assertEquals("1.0", state1.getUUID(), state2.getUUID());
+			assertTrue("1.1", compareContent(getContents("content"), state2.getContents()));
+
+			// the blob is still referenced by the second state
+			store.remove(path1, getMonitor());
+			store.removeGarbage();
+			assertTrue("2.0", state2.exists());
+
+			store.remove(path2, getMonitor());
+			store.removeGarbage();
+			assertTrue("3.0", !state2.exists());
+		} finally {
+			store.shutdown(getMonitor());
+		}
+	}
 }
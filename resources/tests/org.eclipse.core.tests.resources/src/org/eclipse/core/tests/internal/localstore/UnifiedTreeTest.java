@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -21,11 +21,14 @@ import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.internal.localstore.IUnifiedTreeVisitor;
 import org.eclipse.core.internal.localstore.UnifiedTree;
+import org.eclipse.core.internal.resources.PreferenceInitializer;
 import org.eclipse.core.internal.resources.Resource;
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 
 public class UnifiedTreeTest extends LocalStoreTest {
 	protected static int limit = 10;
@@ -132,6 +135,34 @@ public class UnifiedTreeTest extends LocalStoreTest {
 		assertTrue("2.0", set.isEmpty());
 	}
 
+	/**
+	 * Same as {@link #testTraverseMechanismInFolder()}, with directory listings
+	 * fetched by worker threads.
+	 */
+	public void testTraverseMechanismInFolderInParallel() throws Throwable {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		prefs.putInt(PreferenceInitializer.PREF_REFRESH_PARALLELISM, 4);
+		try {
+			testTraverseMechanismInFolder();
+		} finally {
+			prefs.remove(PreferenceInitializer.PREF_REFRESH_PARALLELISM);
+		}
+	}
+
+	/**
+	 * Same as {@link #testTraverseMechanismInFolderSkippingSomeChildren()}, with
+	 * directory listings fetched by worker threads.
+	 */
+	public void testTraverseMechanismInFolderSkippingSomeChildrenInParallel() throws Throwable {
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		prefs.putInt(PreferenceInitializer.PREF_REFRESH_PARALLELISM, 4);
+		try {
+			testTraverseMechanismInFolderSkippingSomeChildren();
+		} finally {
+			prefs.remove(PreferenceInitializer.PREF_REFRESH_PARALLELISM);
+		}
+	}
+
 	/**
 	 * Creates some resources in the file system and some in the workspace. After that,
 	 * makes sure the visitor is going to walk through some of them.
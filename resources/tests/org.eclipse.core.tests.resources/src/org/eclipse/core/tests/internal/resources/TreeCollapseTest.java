@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.resources;
+
+import org.eclipse.core.internal.resources.PreferenceInitializer;
+import org.eclipse.core.internal.resources.TestingSupport;
+import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.internal.builders.EmptyDeltaBuilder;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests collapsing the workspace trees in the background once many layers
+ * have been added to the workspace tree.
+ */
+public class TreeCollapseTest extends ResourceTest {
+
+	/**
+	 * Returns the number of layers a lookup in the given tree walks.
+	 */
+	private static int getChainDepth(ElementTree tree) {
+		int depth = 0;
+		for (ElementTree layer = tree; layer != null; layer = layer.getParent())
+			depth++;
+		return depth;
+	}
+
+	public void testCollapseInBackground() throws Exception {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		preferences.putInt(PreferenceInitializer.PREF_TREE_COLLAPSE_LAYERS, 10);
+		boolean autoBuilding = getWorkspace().isAutoBuilding();
+		try {
+			setAutoBuilding(false);
+			IProject project = getWorkspace().getRoot().getProject(getUniqueString());
+			ensureExistsInWorkspace(project, true);
+			// the tree of the last build is kept, so the newer layers are collapsed onto it
+			IProjectDescription description = project.getDescription();
+			ICommand command = description.newCommand();
+			command.setBuilderName(EmptyDeltaBuilder.BUILDER_NAME);
+			description.setBuildSpec(new ICommand[] {command});
+			project.setDescription(description, getMonitor());
+			project.build(IncrementalProjectBuilder.FULL_BUILD, getMonitor());
+
+			Workspace workspace = (Workspace) getWorkspace();
+			ElementTree oldTree = workspace.getElementTree();
+			IFile[] files = new IFile[50];
+			ElementTree newTree;
+			int depth;
+			// keep the collapse job from running until all layers are added
+			ISchedulingRule rule = getWorkspace().getRoot();
+			Job.getJobManager().beginRule(rule, getMonitor());
+			try {
+				for (int i = 0; i < files.length; i++) {
+					files[i] = project.getFile("file" + i);
+					ensureExistsInWorkspace(files[i], true);
+				}
+				newTree = workspace.getElementTree();
+				depth = getChainDepth(newTree);
+			} finally {
+				Job.getJobManager().endRule(rule);
+			}
+			TestingSupport.waitForTreeCollapse();
+			int collapsedDepth = getChainDepth(newTree);
+			assertTrue("1.0 " + depth + " -> " + collapsedDepth, collapsedDepth <= depth - files.length / 2);
+			for (IFile file : files) {
+				assertTrue("1.1 " + file, file.exists());
+				assertFalse("1.2 " + file, oldTree.includes(file.getFullPath()));
+				assertTrue("1.3 " + file, newTree.includes(file.getFullPath()));
+			}
+			assertTrue("1.4", oldTree.includes(project.getFullPath()));
+			// the workspace can still be saved after collapsing
+			getWorkspace().save(false, getMonitor());
+			for (IFile file : files)
+				assertTrue("2.0 " + file, file.exists());
+		} finally {
+			setAutoBuilding(autoBuilding);
+			preferences.remove(PreferenceInitializer.PREF_TREE_COLLAPSE_LAYERS);
+		}
+	}
+}
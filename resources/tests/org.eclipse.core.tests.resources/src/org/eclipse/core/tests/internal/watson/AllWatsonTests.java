@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,8 +18,10 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-		DeltaChainFlatteningTest.class, DeltaFlatteningTest.class, ElementTreeDeltaChainTest.class,
-		ElementTreeIteratorTest.class, ElementTreeHasChangesTest.class, TreeFlatteningTest.class
+		BaseDeltaChainFlatteningTest.class, DeltaChainFlatteningTest.class, DeltaFlatteningTest.class,
+		ElementTreeDeltaChainTest.class, ElementTreeIteratorTest.class, ElementTreeHasChangesTest.class,
+		ElementTreeLookupTest.class,
+		TreeFlatteningTest.class
 })
 public class AllWatsonTests {
 
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.watson;
+
+import java.io.*;
+import org.eclipse.core.internal.watson.*;
+
+/**
+ * Tests the reading and writing of delta chains where the newest tree is
+ * written as a delta on a base tree, as done for incremental workspace saves.
+ */
+public class BaseDeltaChainFlatteningTest extends DeltaChainFlatteningTest {
+
+	@Override
+	public Object doRead(ElementTreeReader reader, DataInputStream input) throws IOException {
+		return reader.readDeltaChain(input, fTree);
+	}
+
+	@Override
+	public void doWrite(ElementTreeWriter writer, DataOutputStream output) throws IOException {
+		writer.writeDeltaChain(fDeltaChain, fTree, fSubtreePath, fDepth, output, DefaultElementComparator.getComparator());
+	}
+}
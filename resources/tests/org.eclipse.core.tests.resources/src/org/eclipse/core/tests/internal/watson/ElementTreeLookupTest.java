@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.watson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the lookups of an {@link ElementTree} reflect the changes of the
+ * tree, while recent lookups are cached.
+ */
+public class ElementTreeLookupTest implements IPathConstants {
+	private ElementTree tree;
+
+	@Before
+	public void setUp() {
+		tree = new ElementTree();
+		for (IPath path : new IPath[] {solution, project1, project2, file1, folder1, folder2, file2, folder3, folder4, file3}) {
+			tree.createElement(path, path.lastSegment());
+		}
+	}
+
+	/**
+	 * Tests alternating lookups of equal but not identical paths.
+	 */
+	@Test
+	public void testAlternatingLookups() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals("file1", tree.getElementData(new Path(file1.toString())));
+			assertEquals("file3", tree.getElementData(new Path(file3.toString())));
+			assertTrue(tree.includes(new Path(folder4.toString())));
+			assertFalse(tree.includes(folder4.append("missing")));
+		}
+	}
+
+	@Test
+	public void testSetElementData() {
+		assertEquals("file1", tree.getElementData(file1));
+		assertEquals("file2", tree.getElementData(file2));
+		tree.setElementData(file1, "changed");
+		assertEquals("changed", tree.getElementData(file1));
+		assertEquals("file2", tree.getElementData(file2));
+		assertEquals("changed", tree.getElementDataIgnoreCase(new Path(file1.toString().toUpperCase())));
+	}
+
+	@Test
+	public void testDeleteElement() {
+		assertTrue(tree.includes(file2));
+		assertTrue(tree.includes(file3));
+		assertTrue(tree.includesIgnoreCase(new Path(file3.toString().toUpperCase())));
+		tree.deleteElement(folder1);
+		assertFalse(tree.includes(file2));
+		assertFalse(tree.includes(file3));
+		assertFalse(tree.includesIgnoreCase(new Path(file3.toString().toUpperCase())));
+		assertTrue(tree.includes(file1));
+	}
+
+	@Test
+	public void testCreateElement() {
+		assertTrue(tree.includes(file3));
+		// replacing an element removes its children
+		tree.createElement(folder3, "replaced");
+		assertEquals("replaced", tree.getElementData(folder3));
+		assertFalse(tree.includes(file3));
+	}
+
+	@Test
+	public void testNewEmptyDelta() {
+		assertEquals("file1", tree.getElementData(file1));
+		ElementTree newTree = tree.newEmptyDelta();
+		newTree.setElementData(file1, "changed");
+		assertEquals("file1", tree.getElementData(file1));
+		assertEquals("changed", newTree.getElementData(file1));
+		assertTrue(tree.includes(file3));
+		newTree.deleteElement(file3);
+		assertTrue(tree.includes(file3));
+		assertFalse(newTree.includes(file3));
+	}
+}
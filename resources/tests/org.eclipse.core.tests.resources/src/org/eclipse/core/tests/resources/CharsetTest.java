@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2022 IBM Corporation and others.
+ *  Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -1285,6 +1285,60 @@ public class CharsetTest extends ResourceTest {
 
 	}
 
+	/**
+	 * Tests that the charset inherited from a deleted folder is not used when a
+	 * folder is created again at the same path.
+	 */
+	public void testRecreatedFolder() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject("MyProject");
+		IFolder folder = project.getFolder("folder");
+		IFolder subfolder = folder.getFolder("subfolder");
+		IFile file = subfolder.getFile("file.txt");
+		ensureExistsInWorkspace(new IResource[] {project, folder, subfolder, file}, true);
+		try {
+			project.setDefaultCharset("BAR", getMonitor());
+			folder.setDefaultCharset("FOO", getMonitor());
+			assertEquals("1.0", "FOO", file.getCharset());
+			assertEquals("1.1", "FOO", subfolder.getDefaultCharset());
+
+			folder.delete(true, getMonitor());
+			ensureExistsInWorkspace(new IResource[] {folder, subfolder, file}, true);
+			assertEquals("2.0", "BAR", file.getCharset());
+			assertEquals("2.1", "BAR", subfolder.getDefaultCharset());
+
+			IFolder destination = project.getFolder("destination");
+			subfolder.move(destination.getFullPath(), true, getMonitor());
+			ensureExistsInWorkspace(new IResource[] {subfolder, file}, true);
+			subfolder.setDefaultCharset("ZOO", getMonitor());
+			assertEquals("3.0", "ZOO", file.getCharset());
+			assertEquals("3.1", "BAR", destination.getFile("file.txt").getCharset());
+		} finally {
+			clearAllEncodings(project);
+		}
+	}
+
+	/**
+	 * Tests that charsets reflect changes of the encoding preferences, even if
+	 * the preferences have not been flushed.
+	 */
+	public void testUnflushedPreferenceChanges() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject("MyProject");
+		IFolder folder = project.getFolder("folder");
+		ensureExistsInWorkspace(new IResource[] {project, folder}, true);
+		try {
+			project.setDefaultCharset("BAR", getMonitor());
+			assertEquals("1.0", "BAR", folder.getDefaultCharset());
+			org.osgi.service.prefs.Preferences encodings = new ProjectScope(project).getNode(ResourcesPlugin.PI_RESOURCES).node(ResourcesPlugin.PREF_ENCODING);
+			encodings.put("folder", "FOO");
+			assertEquals("2.0", "FOO", folder.getDefaultCharset());
+			assertEquals("2.1", "BAR", project.getDefaultCharset());
+			encodings.remove("folder");
+			assertEquals("3.0", "BAR", folder.getDefaultCharset());
+		} finally {
+			clearAllEncodings(project);
+		}
+	}
+
 	/**
 	 * Moves a project and ensures the charsets are preserved.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2012 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -126,6 +126,40 @@ public class ContentDescriptionManagerTest extends ResourceTest {
 		assertNull("5.4", description2);
 	}
 
+	/**
+	 * Ensures descriptions can be read while the cache is about to be flushed,
+	 * also for files which have no content type.
+	 */
+	public void testDescriptionAboutToFlush() throws CoreException {
+		IWorkspace workspace = getWorkspace();
+		ContentDescriptionManager manager = ((Workspace) workspace).getContentDescriptionManager();
+		IProject project = workspace.getRoot().getProject("MyProject");
+		IFile xmlFile = project.getFile("file.xml");
+		IFile unrelatedFile = project.getFile("file." + getName());
+		ensureExistsInWorkspace(xmlFile, getContents(CharsetTest.SAMPLE_XML_ISO_8859_1_ENCODING));
+		ensureExistsInWorkspace(unrelatedFile, "");
+		waitForCacheFlush();
+		assertNotNull("0.1", getDescription("0.2", xmlFile));
+		assertEquals("0.3", ContentDescriptionManager.USED_CACHE, manager.getCacheState());
+		// keep the flush job from running until we are done
+		Job.getJobManager().beginRule(workspace.getRoot(), getMonitor());
+		try {
+			manager.invalidateCache(true, null);
+			assertEquals("1.0", ContentDescriptionManager.ABOUT_TO_FLUSH, manager.getCacheState());
+			assertNull("1.1", getDescription("1.2", unrelatedFile));
+			IContentDescription description = getDescription("1.3", xmlFile);
+			assertNotNull("1.4", description);
+			assertEquals("1.5", "ISO-8859-1", description.getCharset());
+			assertEquals("1.6", ContentDescriptionManager.ABOUT_TO_FLUSH, manager.getCacheState());
+		} finally {
+			Job.getJobManager().endRule(workspace.getRoot());
+		}
+		waitForCacheFlush();
+		assertEquals("2.0", ContentDescriptionManager.EMPTY_CACHE, manager.getCacheState());
+		assertNull("2.1", getDescription("2.2", unrelatedFile));
+		assertEquals("2.3", "ISO-8859-1", getDescription("2.4", xmlFile).getCharset());
+	}
+
 	public void testBug94516() {
 		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
 		IContentType text = contentTypeManager.getContentType("org.eclipse.core.runtime.text");
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,12 +18,18 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
+import org.eclipse.core.internal.resources.PreferenceInitializer;
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.osgi.framework.*;
 import org.osgi.service.log.*;
 
@@ -1817,4 +1823,77 @@ public class IResourceChangeListenerTest extends ResourceTest {
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Tests that concurrent listeners are notified concurrently, and that the
+	 * notification is complete when the operation ends.
+	 */
+	public void testConcurrentListeners() throws Exception {
+		final int count = 3;
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		preferences.putInt(PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM, count + 1);
+		CountDownLatch allStarted = new CountDownLatch(count);
+		AtomicInteger notified = new AtomicInteger();
+		IResourceChangeListener[] listeners = new IResourceChangeListener[count];
+		for (int i = 0; i < count; i++) {
+			listeners[i] = (IConcurrentResourceChangeListener) event -> {
+				allStarted.countDown();
+				try {
+					// only returns in time if all listeners are notified at once
+					if (allStarted.await(30, TimeUnit.SECONDS))
+						notified.incrementAndGet();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			};
+		}
+		try {
+			for (IResourceChangeListener listener : listeners)
+				getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+			IFile file = project1.getFile(getUniqueString());
+			verifier.addExpectedChange(file, IResourceDelta.ADDED, 0);
+			file.create(getRandomContents(), true, getMonitor());
+			assertEquals("1.0", count, notified.get());
+			assertDelta();
+		} finally {
+			for (IResourceChangeListener listener : listeners)
+				getWorkspace().removeResourceChangeListener(listener);
+			preferences.remove(PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM);
+		}
+	}
+
+	/**
+	 * Tests that concurrent listeners cannot modify the workspace, although
+	 * they do not run in the thread that locked the tree.
+	 */
+	public void testConcurrentListenerCannotModify() throws Exception {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		preferences.putInt(PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM, 2);
+		IFolder folder = project1.getFolder(getUniqueString());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		IResourceChangeListener listener = (IConcurrentResourceChangeListener) event -> {
+			if (folder.exists())
+				return;
+			try {
+				folder.create(true, true, getMonitor());
+				failure.set(new AssertionError("Modified the workspace from a concurrent listener"));
+			} catch (CoreException e) {
+				if (e.getStatus().getCode() != IResourceStatus.WORKSPACE_LOCKED)
+					failure.set(e);
+			}
+		};
+		try {
+			getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+			IFile file = project1.getFile(getUniqueString());
+			verifier.addExpectedChange(file, IResourceDelta.ADDED, 0);
+			file.create(getRandomContents(), true, getMonitor());
+			assertDelta();
+			if (failure.get() != null)
+				fail("1.0", failure.get());
+			assertFalse("2.0", folder.exists());
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+			preferences.remove(PreferenceInitializer.PREF_NOTIFICATION_PARALLELISM);
+		}
+	}
+}
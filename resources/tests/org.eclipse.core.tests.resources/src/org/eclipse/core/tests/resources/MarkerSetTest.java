@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,9 +14,14 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources;
 
-import java.util.Arrays;
-import java.util.Map;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.eclipse.core.internal.resources.*;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.resources.IMarker;
 
 public class MarkerSetTest extends ResourceTest {
@@ -151,4 +156,88 @@ public class MarkerSetTest extends ResourceTest {
 		map2.put(null, 1); // allowed for clients using IMarker.getAttributes()
 		map2.put("0", null);// allowed for clients
 	}
+
+	public void testMarkerAttributeMapSlots() {
+		MarkerAttributeMap map = new MarkerAttributeMap();
+		map.put(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		map.put(IMarker.LINE_NUMBER, 100000);
+		map.put(IMarker.CHAR_START, "not an integer");
+		map.put(IMarker.MESSAGE, "message");
+		assertEquals("1.0", 4, map.size());
+		assertEquals("1.1", IMarker.SEVERITY_ERROR, map.get(IMarker.SEVERITY));
+		assertEquals("1.2", 100000, map.get(IMarker.LINE_NUMBER));
+		assertEquals("1.3", "not an integer", map.get(IMarker.CHAR_START));
+		assertNull("1.4", map.get(IMarker.CHAR_END));
+		Map<String, Object> copy = map.toMap();
+		assertEquals("2.0", 4, copy.size());
+		assertEquals("2.1", 100000, copy.get(IMarker.LINE_NUMBER));
+		assertEquals("2.2", "message", copy.get(IMarker.MESSAGE));
+
+		MarkerAttributeMap clone = new MarkerAttributeMap(map);
+		assertEquals("3.0", 100000, map.remove(IMarker.LINE_NUMBER));
+		assertNull("3.1", map.remove(IMarker.LINE_NUMBER));
+		assertNull("3.2", map.get(IMarker.LINE_NUMBER));
+		assertEquals("3.3", 3, map.size());
+		// copies are not affected
+		assertEquals("3.4", 100000, clone.get(IMarker.LINE_NUMBER));
+		assertEquals("3.5", 4, clone.size());
+	}
+
+	/**
+	 * Checks in a class histogram of the heap that the attributes of many
+	 * markers neither retain boxed integers, nor hash map entries, nor a copy
+	 * of equal messages per marker.
+	 */
+	public void testMarkerAttributeMapFootprint() throws Exception {
+		Map<String, Long> before = getClassHistogram();
+		if (before == null) {
+			// no diagnostic commands on this VM
+			return;
+		}
+		int count = 20000;
+		MarkerInfo[] infos = new MarkerInfo[count];
+		StringPool pool = new StringPool();
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> attributes = new HashMap<>();
+			attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+			attributes.put(IMarker.LINE_NUMBER, 1000 + i);
+			attributes.put(IMarker.CHAR_START, 100000 + i);
+			attributes.put(IMarker.CHAR_END, 100010 + i);
+			attributes.put(IMarker.MESSAGE, "The value of the local variable " + (i % 10) + " is not used");
+			infos[i] = new MarkerInfo(attributes, true, IMarker.PROBLEM, i);
+			infos[i].shareStrings(pool);
+		}
+		Map<String, Long> after = getClassHistogram();
+		assertTrue("1.0", growth(before, after, "java.lang.Integer") < count);
+		assertTrue("1.1", growth(before, after, "java.util.HashMap$Node") < count);
+		assertTrue("1.2", growth(before, after, "java.lang.String") < count);
+		for (MarkerInfo info : infos) {
+			assertEquals("2.0", IMarker.SEVERITY_ERROR, info.getAttribute(IMarker.SEVERITY));
+		}
+	}
+
+	private static long growth(Map<String, Long> before, Map<String, Long> after, String className) {
+		return after.getOrDefault(className, 0L) - before.getOrDefault(className, 0L);
+	}
+
+	/**
+	 * Returns the number of live instances per class name, or <code>null</code>
+	 * if the VM cannot provide a class histogram.
+	 */
+	private static Map<String, Long> getClassHistogram() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("com.sun.management:type=DiagnosticCommand");
+		if (!server.isRegistered(name)) {
+			return null;
+		}
+		// forces a full GC, so only live instances are counted
+		String histogram = (String) server.invoke(name, "gcClassHistogram", new Object[] {null}, new String[] {String[].class.getName()});
+		Map<String, Long> result = new HashMap<>();
+		Pattern line = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+\\d+\\s+(\\S+)", Pattern.MULTILINE);
+		Matcher matcher = line.matcher(histogram);
+		while (matcher.find()) {
+			result.merge(matcher.group(2), Long.valueOf(matcher.group(1)), Long::sum);
+		}
+		return result;
+	}
 }
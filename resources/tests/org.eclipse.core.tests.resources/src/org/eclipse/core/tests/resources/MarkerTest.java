@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -909,6 +909,54 @@ public class MarkerTest extends ResourceTest {
 
 	}
 
+	/**
+	 * Tests deep searches for markers in subtrees, while markers are added,
+	 * removed and moved.
+	 */
+	public void testFindMarkersInSubtree() throws CoreException {
+		final IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject project = root.getProject("testFindMarkersInSubtree");
+		IFolder folder = project.getFolder("top");
+		// a sibling whose name starts with the name of the folder
+		IFolder sibling = project.getFolder("top2");
+		IFile topFile = folder.getFile("a.txt");
+		IFile subFile = folder.getFolder("sub").getFile("b.txt");
+		IFile siblingFile = sibling.getFile("c.txt");
+		ensureExistsInWorkspace(new IResource[] {project, folder, sibling, topFile, subFile, siblingFile}, true);
+
+		IMarker problem = topFile.createMarker(IMarker.PROBLEM);
+		IMarker task = subFile.createMarker(IMarker.TASK);
+		IMarker siblingProblem = siblingFile.createMarker(IMarker.PROBLEM);
+		assertEquals("1.0", new IMarker[] {problem, task}, folder.findMarkers(null, true, IResource.DEPTH_INFINITE));
+		assertEquals("1.1", new IMarker[] {problem, task}, folder.findMarkers(IMarker.MARKER, true, IResource.DEPTH_INFINITE));
+		assertEquals("1.2", new IMarker[0], folder.findMarkers(IMarker.MARKER, false, IResource.DEPTH_INFINITE));
+		assertEquals("1.3", new IMarker[] {problem, siblingProblem}, project.findMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE));
+		assertEquals("1.4", new IMarker[] {siblingProblem}, sibling.findMarkers(IMarker.PROBLEM, false, IResource.DEPTH_INFINITE));
+
+		// markers added after the first search
+		IMarker subProblem = subFile.createMarker(IMarker.PROBLEM);
+		subProblem.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+		assertEquals("2.0", new IMarker[] {problem, subProblem}, folder.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("2.1", IMarker.SEVERITY_WARNING, folder.getFolder("sub").findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		subProblem.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		assertEquals("2.2", IMarker.SEVERITY_ERROR, root.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("2.3", -1, sibling.findMaxProblemSeverity(IMarker.TASK, true, IResource.DEPTH_INFINITE));
+
+		// removed markers
+		subProblem.delete();
+		topFile.delete(true, getMonitor());
+		assertEquals("3.0", new IMarker[0], folder.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertEquals("3.1", -1, folder.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+
+		// moved markers
+		IFolder destination = sibling.getFolder("moved");
+		folder.move(destination.getFullPath(), true, getMonitor());
+		IMarker[] found = sibling.findMarkers(IMarker.TASK, true, IResource.DEPTH_INFINITE);
+		assertEquals("4.0", 1, found.length);
+		assertEquals("4.1", destination.getFolder("sub").getFile("b.txt"), found[0].getResource());
+		assertEquals("4.2", new IMarker[0], project.getFolder("top").findMarkers(null, true, IResource.DEPTH_INFINITE));
+	}
+
 	/**
 	 * Tests public API method IMarker#isSubTypeOf
 	 */
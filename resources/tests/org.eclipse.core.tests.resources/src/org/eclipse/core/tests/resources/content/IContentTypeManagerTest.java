@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2018 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
 package org.eclipse.core.tests.resources.content;
 
 import static org.eclipse.core.tests.resources.AutomatedResourceTests.PI_RESOURCES_TESTS;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -438,6 +439,43 @@ public class IContentTypeManagerTest extends ContentTypeTest {
 	/**
 	 * See bug 90218.
 	 */
+	/**
+	 * Tests that running content describers concurrently finds the same content
+	 * types as running them one after the other.
+	 */
+	@Test
+	public void testConcurrentDescribers() throws IOException {
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		ContentTypeManager manager = ContentTypeManager.getInstance();
+		String large = MINIMAL_XML + "<!--" + "x".repeat(0x20000) + "-->";
+		String[] contents = {MINIMAL_XML, XML_UTF_8, XML_ROOT_ELEMENT_NS_MATCH1, XML_ROOT_ELEMENT_NS_WILDCARD, "some text", "", large};
+		String[] fileNames = {null, "foo.xml", "foo.txt", "test.samplebin2"};
+		boolean wasConcurrent = manager.isConcurrentDescribers();
+		try {
+			for (String content : contents) {
+				for (String fileName : fileNames) {
+					manager.setConcurrentDescribers(false);
+					IContentType[] expectedBinary = contentTypeManager.findContentTypesFor(getInputStream(content, StandardCharsets.UTF_8), fileName);
+					IContentDescription expectedText = contentTypeManager.getDescriptionFor(getReader(content), fileName, IContentDescription.ALL);
+					manager.setConcurrentDescribers(true);
+					IContentType[] actualBinary = contentTypeManager.findContentTypesFor(getInputStream(content, StandardCharsets.UTF_8), fileName);
+					IContentDescription actualText = contentTypeManager.getDescriptionFor(getReader(content), fileName, IContentDescription.ALL);
+					String message = content.substring(0, Math.min(content.length(), 40)) + " / " + fileName;
+					assertArrayEquals(message + ".1", expectedBinary, actualBinary);
+					if (expectedText == null) {
+						assertNull(message + ".2", actualText);
+					} else {
+						assertNotNull(message + ".3", actualText);
+						assertEquals(message + ".4", expectedText.getContentType(), actualText.getContentType());
+						assertEquals(message + ".5", expectedText.getCharset(), actualText.getCharset());
+					}
+				}
+			}
+		} finally {
+			manager.setConcurrentDescribers(wasConcurrent);
+		}
+	}
+
 	@Test
 	public void testContentAndNameMatching() throws IOException /* not really */ {
 		IContentTypeManager manager = Platform.getContentTypeManager();
@@ -1216,6 +1254,37 @@ public class IContentTypeManagerTest extends ContentTypeTest {
 		}
 	}
 
+	/**
+	 * Tests that the content types found by name reflect changes to the file
+	 * specs, even after the same names have been looked up before.
+	 */
+	@Test
+	public void testNameLookupAfterFileSpecChanges() throws CoreException {
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType text = contentTypeManager.getContentType(IContentTypeManager.CT_TEXT);
+		assertFalse("1.0", contains(contentTypeManager.findContentTypesFor("foo.ext_lookup"), text));
+		assertFalse("1.1", contains(contentTypeManager.findContentTypesFor("lookup.name"), text));
+		assertFalse("1.2", contains(contentTypeManager.findContentTypesFor("aLookupPattern"), text));
+		text.addFileSpec("ext_lookup", IContentType.FILE_EXTENSION_SPEC);
+		text.addFileSpec("lookup.name", IContentType.FILE_NAME_SPEC);
+		text.addFileSpec("*LookupPattern", IContentType.FILE_PATTERN_SPEC);
+		try {
+			assertTrue("2.0", contains(contentTypeManager.findContentTypesFor("foo.ext_lookup"), text));
+			assertTrue("2.1", contains(contentTypeManager.findContentTypesFor("bar.EXT_LOOKUP"), text));
+			assertTrue("2.2", contains(contentTypeManager.findContentTypesFor("lookup.name"), text));
+			assertTrue("2.3", contains(contentTypeManager.findContentTypesFor("LOOKUP.NAME"), text));
+			assertTrue("2.4", contains(contentTypeManager.findContentTypesFor("aLookupPattern"), text));
+			assertFalse("2.5", contains(contentTypeManager.findContentTypesFor("aLookupPattern.other"), text));
+		} finally {
+			text.removeFileSpec("ext_lookup", IContentType.FILE_EXTENSION_SPEC);
+			text.removeFileSpec("lookup.name", IContentType.FILE_NAME_SPEC);
+			text.removeFileSpec("*LookupPattern", IContentType.FILE_PATTERN_SPEC);
+		}
+		assertFalse("3.0", contains(contentTypeManager.findContentTypesFor("foo.ext_lookup"), text));
+		assertFalse("3.1", contains(contentTypeManager.findContentTypesFor("lookup.name"), text));
+		assertFalse("3.2", contains(contentTypeManager.findContentTypesFor("aLookupPattern"), text));
+	}
+
 	@Test
 	public void testNoExtensionAssociation() {
 		// TODO use a IContentTypeMatcher instead
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,9 @@
 package org.eclipse.core.tests.resources.content;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.*;
 import org.eclipse.core.internal.content.LazyInputStream;
@@ -59,6 +61,39 @@ public class LazyInputStreamTest {
 
 	private final static int[] VARIOUS_INTS = {0xFF, 0xFE, 0xA0, 0x7F, 0x70, 0x10, 0x00};
 
+	@Test
+	public void testPreloadAndShare() throws IOException {
+		OpenLazyInputStream stream = new OpenLazyInputStream(new ByteArrayInputStream(DATA.getBytes()), 7);
+		assertFalse("1.0", stream.preload(14));
+		assertEquals("1.1", 14, stream.getBufferSize());
+		assertTrue("1.2", stream.preload(100));
+		assertEquals("1.3", DATA.length(), stream.getBufferSize());
+		assertEquals("1.4", 0, stream.getOffset());
+		LazyInputStream shared = stream.share();
+		byte[] buffer = new byte[DATA.length()];
+		assertEquals("2.0", DATA.length(), shared.read(buffer));
+		assertEquals("2.1", DATA, new String(buffer));
+		assertEquals("2.2", -1, shared.read());
+		assertEquals("2.3", 0, stream.getOffset());
+		stream.close();
+		// the end of the contents is found even if it falls on the end of a block
+		stream = new OpenLazyInputStream(new ByteArrayInputStream(DATA.getBytes(), 0, 28), 7);
+		assertTrue("3.0", stream.preload(100));
+		assertEquals("3.1", 28, stream.getBufferSize());
+		stream.close();
+		// blocks are filled even if the underlying stream returns less than requested
+		stream = new OpenLazyInputStream(new FilterInputStream(new ByteArrayInputStream(DATA.getBytes())) {
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				return super.read(b, off, Math.min(len, 1));
+			}
+		}, 7);
+		assertTrue("4.0", stream.preload(100));
+		stream.read(buffer);
+		assertEquals("4.1", DATA, new String(buffer));
+		stream.close();
+	}
+
 	@Test
 	public void testReadSingleByte() throws IOException {
 		ByteArrayInputStream underlying = new ByteArrayInputStream(DATA.getBytes());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -58,6 +58,39 @@ public class LazyReaderTest {
 
 	private final static String DATA = "012345678901234567890123456789";
 
+	@Test
+	public void testPreloadAndShare() throws IOException {
+		OpenLazyReader reader = new OpenLazyReader(new CharArrayReader(DATA.toCharArray()), 7);
+		assertFalse("1.0", reader.preload(14));
+		assertEquals("1.1", 14, reader.getBufferSize());
+		assertTrue("1.2", reader.preload(100));
+		assertEquals("1.3", DATA.length(), reader.getBufferSize());
+		assertEquals("1.4", 0, reader.getOffset());
+		LazyReader shared = reader.share();
+		char[] buffer = new char[DATA.length()];
+		assertEquals("2.0", DATA.length(), shared.read(buffer));
+		assertEquals("2.1", DATA, new String(buffer));
+		assertEquals("2.2", -1, shared.read());
+		assertEquals("2.3", 0, reader.getOffset());
+		reader.close();
+		// the end of the contents is found even if it falls on the end of a block
+		reader = new OpenLazyReader(new CharArrayReader(DATA.toCharArray(), 0, 28), 7);
+		assertTrue("3.0", reader.preload(100));
+		assertEquals("3.1", 28, reader.getBufferSize());
+		reader.close();
+		// blocks are filled even if the underlying reader returns less than requested
+		reader = new OpenLazyReader(new FilterReader(new CharArrayReader(DATA.toCharArray())) {
+			@Override
+			public int read(char[] c, int off, int len) throws IOException {
+				return super.read(c, off, Math.min(len, 1));
+			}
+		}, 7);
+		assertTrue("4.0", reader.preload(100));
+		reader.read(buffer);
+		assertEquals("4.1", DATA, new String(buffer));
+		reader.close();
+	}
+
 	@Test
 	public void testReadSingleChar() throws IOException {
 		CharArrayReader underlying = new CharArrayReader(DATA.toCharArray());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,12 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.perf;
 
+import java.net.URI;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
-import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.*;
 import org.eclipse.core.tests.harness.PerformanceTestRunner;
 import org.eclipse.core.tests.resources.ResourceTest;
 
@@ -54,4 +58,68 @@ public class BenchMiscWorkspace extends ResourceTest {
 		}.run(this, 10, 1000);
 
 	}
+
+	/**
+	 * Benchmarks looking up the infos of a few resources alternately, as
+	 * builders do.
+	 */
+	public void testGetResourceInfo() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject("testGetResourceInfo");
+		final String[] paths = new String[8];
+		for (int i = 0; i < paths.length; i++) {
+			IFile file = project.getFolder("folder" + i).getFolder("src").getFile("File" + i + ".java");
+			ensureExistsInWorkspace(file, true);
+			paths[i] = file.getFullPath().toString();
+		}
+		final Workspace workspace = (Workspace) getWorkspace();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < 10000; i++) {
+					// new paths, as resources and their paths are created anew by clients
+					IPath path = new Path(paths[i % paths.length]);
+					assertNotNull(workspace.getResourceInfo(path, false, false));
+				}
+			}
+		}.run(this, 10, 100);
+		project.delete(true, getMonitor());
+	}
+
+	/**
+	 * Benchmarks linking and unlinking a folder, and closing and opening a
+	 * project, in a workspace with thousands of linked folders, which all
+	 * change the locations the workspace has to check for aliases.
+	 */
+	public void testManyLinkedFolders() throws CoreException {
+		final IProject project = getWorkspace().getRoot().getProject("testManyLinkedFolders");
+		final IProject other = getWorkspace().getRoot().getProject("testManyLinkedFoldersOther");
+		ensureExistsInWorkspace(new IResource[] {project, other}, true);
+		final IFileStore root = getTempStore();
+		root.mkdir(EFS.NONE, getMonitor());
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			for (int i = 0; i < 5000; i++) {
+				IFileStore target = root.getChild("target" + i);
+				target.mkdir(EFS.NONE, null);
+				project.getFolder("link" + i).createLink(target.toURI(), IResource.NONE, null);
+			}
+		}, getMonitor());
+		final IFolder link = project.getFolder("link");
+		// overlaps one of the other links
+		final URI target = root.getChild("target0").getChild("child").toURI();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				try {
+					link.createLink(target, IResource.ALLOW_MISSING_LOCAL, null);
+					link.delete(IResource.NONE, null);
+					other.close(null);
+					other.open(null);
+				} catch (CoreException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 10, 20);
+		project.delete(true, getMonitor());
+		other.delete(true, getMonitor());
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -14,7 +14,7 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.perf;
 
-import java.io.ByteArrayInputStream;
+import java.io.*;
 import java.net.URI;
 import java.util.Random;
 import org.eclipse.core.resources.*;
@@ -249,6 +249,46 @@ public class WorkspacePerformanceTest extends ResourceTest {
 		runner.run(this, REPEATS, 1);
 	}
 
+	/**
+	 * Benchmark test of refreshing a single folder which directly contains
+	 * many files that only exist on disk.
+	 */
+	public void testRefreshLargeFolder() {
+		PerformanceTestRunner runner = new PerformanceTestRunner() {
+			@Override
+			protected void setUp() throws CoreException {
+				testProject.create(getMonitor());
+				testProject.open(getMonitor());
+				File folder = testFolder.getLocation().toFile();
+				folder.mkdirs();
+				try {
+					for (int i = 0; i < 50000; i++) {
+						new File(folder, createString(10) + i).createNewFile();
+					}
+				} catch (IOException e) {
+					fail("Failed to create files in testRefreshLargeFolder", e);
+				}
+				waitForBackgroundActivity();
+			}
+
+			@Override
+			protected void tearDown() throws CoreException {
+				testProject.delete(IResource.FORCE, null);
+			}
+
+			@Override
+			protected void test() {
+				try {
+					testProject.refreshLocal(IResource.DEPTH_INFINITE, null);
+				} catch (CoreException e) {
+					fail("Failed to refresh during testRefreshLargeFolder", e);
+				}
+			}
+		};
+		runner.setFingerprintName("Refresh Large Folder");
+		runner.run(this, REPEATS, 1);
+	}
+
 	public void testCloseOpenProject() {
 		// 8 minutes total test time, 400 msec test execution time (*3 inner loops)
 		new PerformanceTestRunner() {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2012 IBM Corporation and others.
+ *  Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,6 @@ import org.junit.runners.Suite;
  * Runs all tests in this package.
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ RefreshProviderTest.class, RefreshJobTest.class })
+@Suite.SuiteClasses({ RefreshProviderTest.class, RefreshJobTest.class, LinuxRefreshProviderTest.class })
 public class AllRefreshTests {
 }
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.refresh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import org.eclipse.core.internal.resources.refresh.linux.LinuxRefreshProvider;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.resources.refresh.IRefreshMonitor;
+import org.eclipse.core.resources.refresh.IRefreshResult;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests the native refresh provider used on Linux. The provider is installed
+ * directly, with auto-refresh turned off, so the polling monitor cannot report
+ * the changes instead.
+ */
+public class LinuxRefreshProviderTest extends ResourceTest {
+
+	private static final long TIMEOUT = 10000;
+
+	private boolean originalRefreshSetting;
+
+	/**
+	 * Records the resources the monitor asks to refresh.
+	 */
+	private static class RecordingRefreshResult implements IRefreshResult {
+		private final List<IResource> refreshed = new ArrayList<>();
+		private final List<IResource> failed = new ArrayList<>();
+
+		@Override
+		public synchronized void monitorFailed(IRefreshMonitor monitor, IResource resource) {
+			failed.add(resource);
+		}
+
+		@Override
+		public synchronized void refresh(IResource resource) {
+			refreshed.add(resource);
+		}
+
+		synchronized List<IResource> getFailed() {
+			return new ArrayList<>(failed);
+		}
+
+		/**
+		 * Returns whether a refresh of the given resource, or of one of its
+		 * ancestors within the given scope, was requested, and forgets all
+		 * requests.
+		 */
+		synchronized boolean takeRefreshOf(IResource resource, IResource scope) {
+			boolean found = false;
+			for (IResource requested : refreshed)
+				if (requested.getFullPath().isPrefixOf(resource.getFullPath()) && scope.getFullPath().isPrefixOf(requested.getFullPath()))
+					found = true;
+			refreshed.clear();
+			return found;
+		}
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		//turn off autorefresh, so that only the installed monitor reports changes
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		originalRefreshSetting = prefs.getBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, false);
+		prefs.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, false);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		prefs.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, originalRefreshSetting);
+	}
+
+	/**
+	 * Tests that files created and deleted outside of the workspace, including
+	 * in folders created after the monitor was installed, are reported by the
+	 * WatchService based monitor. The changes within the new folder can only
+	 * be reported if the folder was watched as soon as it was created.
+	 */
+	public void testExternalChanges() throws Exception {
+		if (!Platform.OS_LINUX.equals(Platform.getOS()))
+			return;
+		IProject project = getWorkspace().getRoot().getProject(getUniqueString());
+		ensureExistsInWorkspace(project, true);
+
+		RecordingRefreshResult result = new RecordingRefreshResult();
+		IRefreshMonitor monitor = new LinuxRefreshProvider().installMonitor(project, result, getMonitor());
+		assertNotNull("1.0", monitor);
+		assertEquals("1.1", "LinuxMonitor", monitor.getClass().getSimpleName());
+		try {
+			IFolder folder = project.getFolder("folder");
+			Files.createDirectory(toPath(folder));
+			assertTrue("2.0", waitForRefreshOf(result, folder, project));
+
+			IFile file = folder.getFile("file.txt");
+			Files.writeString(toPath(file), "content");
+			assertTrue("3.0", waitForRefreshOf(result, file, folder));
+
+			Files.delete(toPath(file));
+			assertTrue("4.0", waitForRefreshOf(result, file, folder));
+			assertEquals("5.0", Collections.emptyList(), result.getFailed());
+		} finally {
+			monitor.unmonitor(null);
+		}
+	}
+
+	/**
+	 * Tests changes in a folder that the workspace already knows about, so that
+	 * neither the folder nor the project is asked to refresh. Checking whether
+	 * such a change is covered by an earlier request walks up to the workspace
+	 * root, and the monitor must still report the changes that follow.
+	 */
+	public void testChangeBelowUnrequestedParent() throws Exception {
+		if (!Platform.OS_LINUX.equals(Platform.getOS()))
+			return;
+		IProject project = getWorkspace().getRoot().getProject(getUniqueString());
+		IFolder folder = project.getFolder("folder");
+		ensureExistsInWorkspace(folder, true);
+
+		RecordingRefreshResult result = new RecordingRefreshResult();
+		IRefreshMonitor monitor = new LinuxRefreshProvider().installMonitor(project, result, getMonitor());
+		assertNotNull("1.0", monitor);
+		try {
+			IFile first = folder.getFile("first.txt");
+			Files.writeString(toPath(first), "content");
+			assertTrue("2.0", waitForRefreshOf(result, first, folder));
+
+			IFile second = folder.getFile("second.txt");
+			Files.writeString(toPath(second), "content");
+			assertTrue("3.0", waitForRefreshOf(result, second, folder));
+			assertEquals("4.0", Collections.emptyList(), result.getFailed());
+		} finally {
+			monitor.unmonitor(null);
+		}
+	}
+
+	private static Path toPath(IResource resource) {
+		return resource.getLocation().toFile().toPath();
+	}
+
+	private boolean waitForRefreshOf(RecordingRefreshResult result, IResource resource, IResource scope) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (System.currentTimeMillis() < end) {
+			if (result.takeRefreshOf(resource, scope))
+				return true;
+			Thread.sleep(50);
+		}
+		return result.takeRefreshOf(resource, scope);
+	}
+}
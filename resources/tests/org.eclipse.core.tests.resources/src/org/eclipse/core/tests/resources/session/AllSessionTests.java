@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,8 +22,8 @@ import org.junit.runners.Suite;
 		TestSaveWithClosedProject.class, TestSnapSaveSnap.class, TestBug6995.class,
 		TestInterestingProjectPersistence.class, TestBuilderDeltaSerialization.class, Test1GALH44.class,
 		TestMissingBuilder.class, TestClosedProjectLocation.class, FindDeletedMembersTest.class, TestBug20127.class,
-		TestBug12575.class, WorkspaceDescriptionTest.class, TestBug30015.class,
-		TestMasterTableCleanup.class,
+		TestBug12575.class, WorkspaceDescriptionTest.class, TestBug30015.class, TestIncrementalSave.class, TestTreeBaseCrash.class, TestLazyMarkers.class,
+		TestSavedContentDescriptions.class, TestMasterTableCleanup.class,
 		ProjectPreferenceSessionTest.class, TestBug113943.class, TestCreateLinkedResourceInHiddenProject.class,
 		Bug_266907.class, TestBug297635.class, TestBug323833.class,
 		org.eclipse.core.tests.resources.regression.TestMultipleBuildersOfSameType.class,
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.io.*;
+import java.nio.file.Files;
+import junit.framework.Test;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.resources.AutomatedResourceTests;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+
+/**
+ * Tests saving the workspace tree as a delta on a tree base, then crashing
+ * after a chain of snapshots long enough to be compacted, and recovering.
+ * Finally tests restoring the workspace when the tree base is lost.
+ */
+public class TestIncrementalSave extends WorkspaceSerializationTest {
+
+	private static final long TIMEOUT = 30000;
+
+	private IFolder getFolder(int i) {
+		return getWorkspace().getRoot().getProject(PROJECT).getFolder(FOLDER + i);
+	}
+
+	private File getTreeLocation() {
+		return ResourcesPlugin.getPlugin().getStateLocation().append(".root").toFile();
+	}
+
+	private String[] listTreeBases() {
+		return getTreeLocation().list((dir, name) -> name.endsWith(".treebase"));
+	}
+
+	/**
+	 * Returns the name of the tree base the newest workspace tree file was
+	 * saved against.
+	 */
+	private String readUsedTreeBase() throws IOException {
+		File newest = null;
+		long newestNumber = -1;
+		for (File file : getTreeLocation().listFiles((dir, name) -> name.matches("\\d+\\.tree"))) {
+			long number = Long.parseLong(file.getName().substring(0, file.getName().length() - ".tree".length()));
+			if (number > newestNumber) {
+				newest = file;
+				newestNumber = number;
+			}
+		}
+		assertNotNull("no workspace tree file", newest);
+		try (DataInputStream input = new DataInputStream(new FileInputStream(newest))) {
+			assertEquals("not saved incrementally", 3, input.readInt());
+			return input.readUTF();
+		}
+	}
+
+	public void test1() throws Exception {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		preferences.putBoolean("save.incremental", true);
+		preferences.flush();
+
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		project.create(getMonitor());
+		project.open(getMonitor());
+		getFolder(0).create(true, true, getMonitor());
+
+		// the first save is complete and schedules writing the tree base
+		workspace.save(true, getMonitor());
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (listTreeBases().length == 0 && System.currentTimeMillis() < end)
+			Thread.sleep(100);
+		assertEquals("1.0", 1, listTreeBases().length);
+
+		// saved as a delta on the tree base
+		getFolder(1).create(true, true, getMonitor());
+		workspace.save(true, getMonitor());
+	}
+
+	public void test2() throws Exception {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		assertTrue("1.0", project.isOpen());
+		assertExistsInWorkspace("1.1", new IResource[] {getFolder(0), getFolder(1)});
+
+		// more snapshots than are kept as separate deltas
+		for (int i = 2; i < 40; i++) {
+			getFolder(i).create(true, true, getMonitor());
+			workspace.save(false, getMonitor());
+		}
+		getFolder(0).delete(true, getMonitor());
+		IFile file = getFolder(1).getFile(FILE);
+		file.create(new ByteArrayInputStream("Test bytes".getBytes()), true, getMonitor());
+		workspace.save(false, getMonitor());
+
+		//exit without saving
+	}
+
+	public void test3() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		assertTrue("1.0", project.isOpen());
+		assertDoesNotExistInWorkspace("1.1", getFolder(0));
+		for (int i = 1; i < 40; i++)
+			assertExistsInWorkspace("1.2." + i, getFolder(i));
+		assertExistsInWorkspace("1.3", getFolder(1).getFile(FILE));
+		workspace.save(true, getMonitor());
+	}
+
+	public void test4() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		assertTrue("1.0", project.isOpen());
+		assertEquals("1.1", 39, project.members().length - 1); // .project
+		assertExistsInWorkspace("1.2", getFolder(1).getFile(FILE));
+
+		// a project which is only in the delta on the tree base
+		IProject project2 = getWorkspace().getRoot().getProject(PROJECT + 2);
+		project2.create(getMonitor());
+		project2.open(getMonitor());
+		project2.getFile(FILE).create(new ByteArrayInputStream("Test bytes".getBytes()), true, getMonitor());
+		workspace.save(true, getMonitor());
+
+		// lose the tree base, but keep its contents as the newest tree base
+		String usedBase = readUsedTreeBase();
+		File treeLocation = getTreeLocation();
+		Files.copy(new File(treeLocation, usedBase).toPath(), new File(treeLocation, Long.MAX_VALUE + ".treebase").toPath());
+		Files.delete(new File(treeLocation, usedBase).toPath());
+	}
+
+	public void test5() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		assertTrue("1.0", project.isOpen());
+		// the project created after the tree base is not lost, but closed
+		IProject project2 = getWorkspace().getRoot().getProject(PROJECT + 2);
+		assertTrue("2.0", project2.exists());
+		assertFalse("2.1", project2.isOpen());
+		project2.open(getMonitor());
+		assertExistsInWorkspace("2.2", project2.getFile(FILE));
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedResourceTests.PI_RESOURCES_TESTS, TestIncrementalSave.class);
+	}
+}
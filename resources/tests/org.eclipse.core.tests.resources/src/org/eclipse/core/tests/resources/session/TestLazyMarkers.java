@@ -0,0 +1,118 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.io.ByteArrayInputStream;
+import junit.framework.Test;
+import org.eclipse.core.internal.resources.MarkerManager;
+import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.resources.AutomatedResourceTests;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+
+/**
+ * Tests that markers which are restored in the background survive snapshots,
+ * saves and moves of the resources they are attached to.
+ */
+@SuppressWarnings("restriction")
+public class TestLazyMarkers extends WorkspaceSerializationTest {
+
+	private IFile getFile(String name) {
+		return getWorkspace().getRoot().getProject(PROJECT).getFolder(FOLDER).getFile(name);
+	}
+
+	private void assertMarkers(String message, IResource resource, int expected) throws CoreException {
+		IMarker[] markers = resource.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_ZERO);
+		assertEquals(message + ".0", expected, markers.length);
+		for (IMarker marker : markers)
+			assertEquals(message + ".1", IMarker.SEVERITY_ERROR, marker.getAttribute(IMarker.SEVERITY, -1));
+	}
+
+	public void test1() throws Exception {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		preferences.putBoolean("markers.lazy", true);
+		preferences.flush();
+
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		project.create(getMonitor());
+		project.open(getMonitor());
+		project.getFolder(FOLDER).create(true, true, getMonitor());
+		IFile file = getFile(FILE);
+		file.create(new ByteArrayInputStream("Test bytes".getBytes()), true, getMonitor());
+		for (int i = 0; i < 2; i++) {
+			IMarker marker = file.createMarker(IMarker.PROBLEM);
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		}
+		workspace.save(true, getMonitor());
+	}
+
+	public void test2() throws CoreException {
+		// neither a snapshot nor a save may lose the markers which are not restored yet
+		workspace.save(false, getMonitor());
+		workspace.save(true, getMonitor());
+	}
+
+	public void test3() throws CoreException {
+		// moving the file restores its markers first
+		IFile file = getFile(FILE);
+		IFile destination = getFile(FILE + ".moved");
+		file.move(destination.getFullPath(), true, getMonitor());
+		assertMarkers("1", destination, 2);
+		IMarker marker = destination.createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		workspace.save(true, getMonitor());
+	}
+
+	public void test4() throws CoreException {
+		// the first access is from a listener, while the workspace tree is locked
+		int[] found = new int[] {-1};
+		IResourceChangeListener listener = event -> {
+			try {
+				found[0] = getFile(FILE + ".moved").findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_ZERO).length;
+			} catch (CoreException e) {
+				found[0] = -2;
+			}
+		};
+		getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			getWorkspace().getRoot().getProject(PROJECT).getFolder(FOLDER + ".other").create(true, true, getMonitor());
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+		}
+		assertEquals("0", 3, found[0]);
+
+		IResource root = getWorkspace().getRoot();
+		assertEquals("1.0", IMarker.SEVERITY_ERROR, root.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE));
+		assertMarkers("2", getFile(FILE + ".moved"), 3);
+		assertMarkers("3", getFile(FILE), 0);
+	}
+
+	public void test5() throws Exception {
+		// the markers are restored in the background, without being accessed
+		MarkerManager markerManager = ((Workspace) getWorkspace()).getMarkerManager();
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		long deadline = System.currentTimeMillis() + 10000;
+		while (markerManager.isRestorePending(project) && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertFalse("1.0", markerManager.isRestorePending(project));
+		assertMarkers("2", getFile(FILE + ".moved"), 3);
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedResourceTests.PI_RESOURCES_TESTS, TestLazyMarkers.class);
+	}
+}
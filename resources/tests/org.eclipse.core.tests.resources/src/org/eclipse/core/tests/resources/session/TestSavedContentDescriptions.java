@@ -0,0 +1,75 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import junit.framework.Test;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.tests.resources.AutomatedResourceTests;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+
+/**
+ * Tests that the content descriptions of files which had to be read to be
+ * described are saved with the workspace, and are not read again in the next
+ * session.
+ */
+public class TestSavedContentDescriptions extends WorkspaceSerializationTest {
+	private static final String ISO_8859_1 = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><root/>";
+	private static final String US_ASCII = "<?xml version=\"1.0\" encoding=\"US-ASCII\"?><root/>";
+
+	private IFile getFile() {
+		return getWorkspace().getRoot().getProject(PROJECT).getFile(FILE + ".xml");
+	}
+
+	public void test1() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		project.create(getMonitor());
+		project.open(getMonitor());
+		IFile file = getFile();
+		file.create(new ByteArrayInputStream(ISO_8859_1.getBytes()), true, getMonitor());
+		assertEquals("1.0", "ISO-8859-1", file.getContentDescription().getCharset());
+		workspace.save(true, getMonitor());
+	}
+
+	public void test2() throws Exception {
+		IFile file = getFile();
+		// change the contents behind the back of the workspace, without it noticing
+		java.nio.file.Path location = file.getLocation().toFile().toPath();
+		FileTime lastModified = Files.getLastModifiedTime(location);
+		Files.write(location, US_ASCII.getBytes());
+		Files.setLastModifiedTime(location, lastModified);
+		assertTrue("1.0", file.isSynchronized(IResource.DEPTH_ZERO));
+		// the saved description is used rather than reading the contents
+		IContentDescription description = file.getContentDescription();
+		assertEquals("1.1", "ISO-8859-1", description.getCharset());
+		assertEquals("1.2", "ISO-8859-1", description.getProperty(IContentDescription.CHARSET));
+		assertFalse("1.3", description.isRequested(IContentDescription.CHARSET));
+		// but not once the contents are changed through the workspace
+		file.setContents(new ByteArrayInputStream(US_ASCII.getBytes()), true, false, getMonitor());
+		assertEquals("2.0", "US-ASCII", file.getContentDescription().getCharset());
+		workspace.save(true, getMonitor());
+	}
+
+	public void test3() throws CoreException {
+		assertEquals("1.0", "US-ASCII", getFile().getContentDescription().getCharset());
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedResourceTests.PI_RESOURCES_TESTS, TestSavedContentDescriptions.class);
+	}
+}
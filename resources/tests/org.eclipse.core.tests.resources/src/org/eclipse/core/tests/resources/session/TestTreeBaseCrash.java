@@ -0,0 +1,137 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.io.*;
+import java.util.Arrays;
+import junit.framework.Test;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.resources.AutomatedResourceTests;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+
+/**
+ * Tests crashing after a new tree base has been written, but before a save
+ * of the workspace tree as a delta on it. The workspace tree file still refers
+ * to the previous tree base, which must be kept and used for restoring.
+ */
+public class TestTreeBaseCrash extends WorkspaceSerializationTest {
+
+	private static final long TIMEOUT = 30000;
+
+	private static final int FOLDERS = 200;
+
+	private IFolder getFolder(int i) {
+		return getWorkspace().getRoot().getProject(PROJECT).getFolder(FOLDER + i);
+	}
+
+	private File getTreeLocation() {
+		return ResourcesPlugin.getPlugin().getStateLocation().append(".root").toFile();
+	}
+
+	private String[] listTreeBases() {
+		return getTreeLocation().list((dir, name) -> name.endsWith(".treebase"));
+	}
+
+	/**
+	 * Waits until the given number of tree base files have been written
+	 * completely.
+	 */
+	private void waitForTreeBases(String message, int count) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (System.currentTimeMillis() < end && (listTreeBases().length < count || getTreeLocation().list((dir, name) -> name.endsWith(".treebase.tmp")).length > 0))
+			Thread.sleep(100);
+		assertEquals(message, count, listTreeBases().length);
+	}
+
+	/**
+	 * Returns the name of the tree base the newest workspace tree file was
+	 * saved against.
+	 */
+	private String readUsedTreeBase() throws IOException {
+		File newest = null;
+		long newestNumber = -1;
+		for (File file : getTreeLocation().listFiles((dir, name) -> name.matches("\\d+\\.tree"))) {
+			long number = Long.parseLong(file.getName().substring(0, file.getName().length() - ".tree".length()));
+			if (number > newestNumber) {
+				newest = file;
+				newestNumber = number;
+			}
+		}
+		assertNotNull("no workspace tree file", newest);
+		try (DataInputStream input = new DataInputStream(new FileInputStream(newest))) {
+			assertEquals("not saved incrementally", 3, input.readInt());
+			return input.readUTF();
+		}
+	}
+
+	public void test1() throws Exception {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+		preferences.putBoolean("save.incremental", true);
+		preferences.flush();
+
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		project.create(getMonitor());
+		project.open(getMonitor());
+		getFolder(0).create(true, true, getMonitor());
+
+		// the first save is complete and schedules writing the first tree base
+		workspace.save(true, getMonitor());
+		waitForTreeBases("1.0", 1);
+		String firstBase = listTreeBases()[0];
+
+		// a delta larger than the tree base schedules writing the second one
+		for (int i = 1; i < FOLDERS; i++)
+			getFolder(i).create(true, true, getMonitor());
+		workspace.save(true, getMonitor());
+		assertEquals("2.0", firstBase, readUsedTreeBase());
+		waitForTreeBases("2.1", 2);
+
+		// changes after the second tree base are only in a snapshot
+		getFolder(FOLDERS).create(true, true, getMonitor());
+		workspace.save(false, getMonitor());
+
+		//exit without saving against the second tree base
+	}
+
+	public void test2() throws Exception {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		assertTrue("1.0", project.isOpen());
+		for (int i = 0; i <= FOLDERS; i++)
+			assertExistsInWorkspace("1.1." + i, getFolder(i));
+
+		// the tree base referred to by the workspace tree file is kept
+		String usedBase = readUsedTreeBase();
+		assertTrue("2.0", Arrays.asList(listTreeBases()).contains(usedBase));
+
+		IFile file = getFolder(FOLDERS).getFile(FILE);
+		file.create(new ByteArrayInputStream("Test bytes".getBytes()), true, getMonitor());
+		workspace.save(true, getMonitor());
+	}
+
+	public void test3() throws CoreException, IOException {
+		IProject project = getWorkspace().getRoot().getProject(PROJECT);
+		assertTrue("1.0", project.isOpen());
+		for (int i = 0; i <= FOLDERS; i++)
+			assertExistsInWorkspace("1.1." + i, getFolder(i));
+		assertExistsInWorkspace("1.2", getFolder(FOLDERS).getFile(FILE));
+		assertTrue("2.0", Arrays.asList(listTreeBases()).contains(readUsedTreeBase()));
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedResourceTests.PI_RESOURCES_TESTS, TestTreeBaseCrash.class);
+	}
+}
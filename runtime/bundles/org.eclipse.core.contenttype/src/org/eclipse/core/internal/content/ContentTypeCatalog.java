@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,11 @@ package org.eclipse.core.internal.content;
 import java.io.*;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.Pattern;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.content.*;
@@ -27,6 +32,18 @@ import org.eclipse.osgi.util.NLS;
 public final class ContentTypeCatalog {
 	private static final IContentType[] NO_CONTENT_TYPES = new IContentType[0];
 
+	/**
+	 * The maximum size of the contents that are read ahead, so content
+	 * describers can be run concurrently over them.
+	 */
+	private static final int MAX_READ_AHEAD = 0x10000;
+
+	/**
+	 * The maximum number of file names and of file extensions for which the
+	 * content types found are kept by the {@link NameIndex}.
+	 */
+	private static final int MAX_NAME_INDEX_SIZE = 1000;
+
 	/**
 	 * All fields are guarded by lock on "this"
 	 */
@@ -40,6 +57,75 @@ public final class ContentTypeCatalog {
 	private int generation;
 	private ContentTypeManager manager;
 
+	/**
+	 * The index of the content types found by file name in the default
+	 * context, or <code>null</code> if it has to be built first. Any change to
+	 * the catalog discards it.
+	 */
+	private volatile NameIndex nameIndex;
+
+	/**
+	 * An immutable index of the content types found by file name in the default
+	 * context. Most file names are only associated with content types through
+	 * their extension, so the content types found for those are kept by
+	 * extension. All file patterns are combined into a single pattern, so a
+	 * file name which matches none of them is recognized in one pass.
+	 */
+	private final class NameIndex {
+		private final Set<String> fileNameKeys = new HashSet<>();
+		private final boolean hasFilePatterns;
+		/** the combination of all file patterns, or <code>null</code> if they could not be combined */
+		private final Pattern anyFilePattern;
+		private final Map<String, IContentType[]> byFileName = new ConcurrentHashMap<>();
+		private final Map<String, IContentType[]> byFileExtension = new ConcurrentHashMap<>();
+
+		/**
+		 * Builds the index from the current associations. Must be called while
+		 * holding the lock on the catalog.
+		 */
+		NameIndex() {
+			for (Entry<String, Set<ContentType>> entry : fileNames.entrySet())
+				if (!entry.getValue().isEmpty())
+					fileNameKeys.add(entry.getKey());
+			StringJoiner combined = new StringJoiner("|"); //$NON-NLS-1$
+			for (Entry<Pattern, Set<ContentType>> entry : fileRegexps.entrySet())
+				if (!entry.getValue().isEmpty())
+					combined.add("(?:" + entry.getKey().pattern() + ')'); //$NON-NLS-1$
+			hasFilePatterns = combined.length() > 0;
+			Pattern any = null;
+			if (hasFilePatterns) {
+				try {
+					any = Pattern.compile(combined.toString());
+				} catch (IllegalArgumentException e) {
+					// check the patterns one by one
+				}
+			}
+			anyFilePattern = any;
+		}
+
+		IContentType[] find(ContentTypeMatcher matcher, String fileName) {
+			if (hasFilePatterns && (anyFilePattern == null || anyFilePattern.matcher(fileName).matches()))
+				// patterns may be case sensitive, so the result is specific to this very name
+				return concat(internalFindContentTypesFor(matcher, fileName, policyConstantGeneralIsBetter));
+			Map<String, IContentType[]> results;
+			String key = FileSpec.getMappingKeyFor(fileName);
+			if (fileNameKeys.contains(key)) {
+				results = byFileName;
+			} else {
+				// no association with the name, only the extension matters
+				results = byFileExtension;
+				key = FileSpec.getMappingKeyFor(ContentTypeManager.getFileExtension(fileName));
+			}
+			IContentType[] result = results.get(key);
+			if (result == null) {
+				result = concat(internalFindContentTypesFor(matcher, fileName, policyConstantGeneralIsBetter));
+				if (results.size() < MAX_NAME_INDEX_SIZE)
+					results.put(key, result);
+			}
+			return result;
+		}
+	}
+
 	/**
 	 * Return true if type1 is an ancestor of type2 or if type2 is an ancestor of
 	 * type1
@@ -168,6 +254,7 @@ public final class ContentTypeCatalog {
 
 	synchronized void addContentType(IContentType contentType) {
 		contentTypes.put(contentType.getId(), contentType);
+		nameIndex = null;
 	}
 
 	/**
@@ -232,9 +319,10 @@ public final class ContentTypeCatalog {
 			}
 			fileRegexps.get(compiledPattern).add(contentType);
 		}
+		nameIndex = null;
 	}
 
-	private int collectMatchingByContents(int valid, IContentType[] subset, List<ContentType> destination, ILazySource contents, Map<String, Object> properties) throws IOException {
+	private int collectMatchingByContents(int valid, IContentType[] subset, List<ContentType> destination, ILazySource contents, Map<String, Object> properties, Map<ContentType, Integer> described) throws IOException {
 		for (IContentType element : subset) {
 			ContentType current = (ContentType) element;
 			IContentDescriber describer = current.getDescriber();
@@ -243,7 +331,8 @@ public final class ContentTypeCatalog {
 				if (contents.isText() && !(describer instanceof ITextContentDescriber))
 					// for text streams we skip content types that do not provide text-based content describers
 					continue;
-				status = describe(current, contents, null, properties);
+				Integer describedStatus = described.get(current);
+				status = describedStatus != null ? describedStatus : describe(current, contents, null, properties);
 				if (status == IContentDescriber.INVALID)
 					continue;
 			}
@@ -255,6 +344,72 @@ public final class ContentTypeCatalog {
 		return valid;
 	}
 
+	/**
+	 * Runs the describers of the given content types concurrently, if the
+	 * contents are small enough to be read ahead into memory. The describers
+	 * of XML root elements are run in the calling thread instead, because they
+	 * share the result of parsing the contents through the given properties.
+	 *
+	 * @return the status of each content type described, which may be none
+	 */
+	private Map<ContentType, Integer> describeConcurrently(IContentType[][] subset, ILazySource contents, Map<String, Object> properties) throws IOException {
+		List<ContentType> concurrent = new ArrayList<>();
+		List<ContentType> sequential = new ArrayList<>();
+		for (IContentType[] types : subset) {
+			for (IContentType element : types) {
+				ContentType type = (ContentType) element;
+				IContentDescriber describer = type.getDescriber();
+				if (describer == null || (contents.isText() && !(describer instanceof ITextContentDescriber)))
+					continue;
+				if (describer instanceof XMLRootElementContentDescriber2 || describer instanceof XMLRootElementContentDescriber)
+					sequential.add(type);
+				else if (!concurrent.contains(type))
+					concurrent.add(type);
+			}
+		}
+		if (concurrent.size() < 2 || !(contents instanceof LazyInputStream || contents instanceof LazyReader))
+			return Collections.emptyMap();
+		ForkJoinPool pool = manager.getDescriberPool();
+		// a describer which looks up content types itself must not wait for the pool it runs in
+		if (ForkJoinTask.getPool() == pool)
+			return Collections.emptyMap();
+		try {
+			boolean complete = contents instanceof LazyReader ? ((LazyReader) contents).preload(MAX_READ_AHEAD) : ((LazyInputStream) contents).preload(MAX_READ_AHEAD);
+			if (!complete)
+				return Collections.emptyMap();
+		} catch (IOException e) {
+			// leave it to the describers whether they need the contents that can't be read
+			return Collections.emptyMap();
+		}
+		List<CompletableFuture<Integer>> futures = new ArrayList<>(concurrent.size());
+		for (ContentType type : concurrent) {
+			ILazySource shared = contents instanceof LazyReader ? ((LazyReader) contents).share() : ((LazyInputStream) contents).share();
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					return describe(type, shared, null, new HashMap<>());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, pool));
+		}
+		Map<ContentType, Integer> result = new HashMap<>();
+		for (ContentType type : sequential)
+			result.put(type, describe(type, contents, null, properties));
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				result.put(concurrent.get(i), futures.get(i).join());
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof UncheckedIOException)
+					throw ((UncheckedIOException) cause).getCause();
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw e;
+			}
+		}
+		return result;
+	}
+
 	@SuppressWarnings("deprecation")
 	int describe(ContentType type, ILazySource contents, ContentDescription description, Map<String, Object> properties) throws IOException {
 		IContentDescriber describer = type.getDescriber();
@@ -313,6 +468,7 @@ public final class ContentTypeCatalog {
 			Pattern pattern = compiledRegexps.get(text);
 			fileRegexps.get(pattern).remove(contentType);
 		}
+		nameIndex = null;
 	}
 
 	/**
@@ -368,12 +524,21 @@ public final class ContentTypeCatalog {
 		return selected;
 	}
 
+	/**
+	 * Returns the content types found by file name. The returned array must not
+	 * be modified.
+	 */
 	IContentType[] findContentTypesFor(ContentTypeMatcher matcher, final String fileName) {
-		IContentType[] selected = concat(internalFindContentTypesFor(matcher, fileName, policyConstantGeneralIsBetter));
+		IContentType[] selected;
+		if (matcher.getContext().equals(manager.getContext()))
+			selected = getNameIndex().find(matcher, fileName);
+		else
+			// file specs may be defined in the preferences of the context
+			selected = concat(internalFindContentTypesFor(matcher, fileName, policyConstantGeneralIsBetter));
 		// give the policy a chance to change the results
 		ISelectionPolicy policy = matcher.getPolicy();
 		if (policy != null)
-			selected = applyPolicy(policy, selected, true, false);
+			selected = applyPolicy(policy, selected.clone(), true, false);
 		return selected;
 	}
 
@@ -433,6 +598,18 @@ public final class ContentTypeCatalog {
 		return generation;
 	}
 
+	private NameIndex getNameIndex() {
+		NameIndex index = nameIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = nameIndex;
+				if (index == null)
+					nameIndex = index = new NameIndex();
+			}
+		}
+		return index;
+	}
+
 	public ContentTypeManager getManager() {
 		return manager;
 	}
@@ -464,12 +641,13 @@ public final class ContentTypeCatalog {
 
 	private IContentType[] internalFindContentTypesFor(ILazySource buffer, IContentType[][] subset, Comparator<IContentType> validPolicy, Comparator<IContentType> indeterminatePolicy) throws IOException {
 		Map<String, Object> properties = new HashMap<>();
+		Map<ContentType, Integer> described = manager.isConcurrentDescribers() ? describeConcurrently(subset, buffer, properties) : Collections.emptyMap();
 		final List<ContentType> appropriate = new ArrayList<>(5);
-		final int validFullName = collectMatchingByContents(0, subset[0], appropriate, buffer, properties);
+		final int validFullName = collectMatchingByContents(0, subset[0], appropriate, buffer, properties, described);
 		final int appropriateFullName = appropriate.size();
-		final int validExtension = collectMatchingByContents(validFullName, subset[1], appropriate, buffer, properties) - validFullName;
+		final int validExtension = collectMatchingByContents(validFullName, subset[1], appropriate, buffer, properties, described) - validFullName;
 		final int appropriateExtension = appropriate.size() - appropriateFullName;
-		final int validPattern = collectMatchingByContents(validExtension, subset[2], appropriate, buffer, properties)
+		final int validPattern = collectMatchingByContents(validExtension, subset[2], appropriate, buffer, properties, described)
 				- validExtension;
 		final int appropriatePattern = appropriate.size() - appropriateFullName - appropriateExtension;
 		IContentType[] result = appropriate.toArray(new IContentType[appropriate.size()]);
@@ -696,6 +874,7 @@ public final class ContentTypeCatalog {
 				if (!type.isValid())
 					ContentMessages.message("Invalid: " + type); //$NON-NLS-1$
 			}
+		nameIndex = null;
 	}
 
 	/**
@@ -739,6 +918,7 @@ public final class ContentTypeCatalog {
 			throw new IllegalArgumentException("Content type must be user-defined."); //$NON-NLS-1$
 		}
 		contentTypes.remove(contentType.getId());
+		nameIndex = null;
 	}
 
 }
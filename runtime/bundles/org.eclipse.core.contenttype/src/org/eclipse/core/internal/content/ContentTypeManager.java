@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2016 IBM Corporation and others.
+ *  Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@ package org.eclipse.core.internal.content;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.stream.Collectors;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.content.*;
@@ -46,8 +48,19 @@ public class ContentTypeManager extends ContentTypeMatcher implements IContentTy
 	public static final int BLOCK_SIZE = 0x400;
 	public static final String CONTENT_TYPE_PREF_NODE = IContentConstants.RUNTIME_NAME + IPath.SEPARATOR + "content-types"; //$NON-NLS-1$
 	private static final String OPTION_DEBUG_CONTENT_TYPES = "org.eclipse.core.contenttype/debug"; //$NON-NLS-1$
+	/**
+	 * System property which enables running the content describers of the
+	 * candidate content types concurrently.
+	 */
+	private static final String PROP_CONCURRENT_DESCRIBERS = "org.eclipse.core.contenttype.concurrentDescribers"; //$NON-NLS-1$
 	private ContentTypeCatalog catalog;
 	private int catalogGeneration;
+	private volatile boolean concurrentDescribers = Boolean.getBoolean(PROP_CONCURRENT_DESCRIBERS);
+	/**
+	 * The pool running content describers concurrently, or <code>null</code> if
+	 * it has not been needed yet. Guarded by this manager.
+	 */
+	private ForkJoinPool describerPool;
 
 	/**
 	 * The DebuggingHolder contains a single boolean with a
@@ -89,8 +102,10 @@ public class ContentTypeManager extends ContentTypeMatcher implements IContentTy
 	 * the content type manager will be closed for business.
 	 */
 	public static void shutdown() {
-		// there really is nothing left to do except null the instance.
+		ContentTypeManager manager = instance;
 		instance = null;
+		if (manager != null)
+			manager.shutdownDescriberPool();
 	}
 
 	public void removeRegistryChangeListener(IExtensionRegistry registry) {
@@ -194,6 +209,48 @@ public class ContentTypeManager extends ContentTypeMatcher implements IContentTy
 		return context.getNode(CONTENT_TYPE_PREF_NODE);
 	}
 
+	/**
+	 * Returns whether the content describers of the content types which are
+	 * candidates for some contents are run concurrently.
+	 */
+	public boolean isConcurrentDescribers() {
+		return concurrentDescribers;
+	}
+
+	/**
+	 * Sets whether the content describers of the content types which are
+	 * candidates for some contents are run concurrently. The content types
+	 * found are the same either way.
+	 */
+	public void setConcurrentDescribers(boolean concurrentDescribers) {
+		this.concurrentDescribers = concurrentDescribers;
+	}
+
+	/**
+	 * Returns the pool in which the content describers are run concurrently.
+	 * The pool is private to this manager and its parallelism is bounded, because
+	 * describers contributed by clients may block.
+	 */
+	synchronized ForkJoinPool getDescriberPool() {
+		if (describerPool == null) {
+			// Never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock.
+			// Also use a custom ForkJoinWorkerThreadFactory, to prevent issues with a
+			// potential SecurityManager, since the threads created by it get no permissions.
+			// See https://github.com/eclipse-platform/eclipse.platform/issues/294
+			describerPool = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism(), pool -> new ForkJoinWorkerThread(pool) {
+				// anonymous subclass to access protected constructor
+			}, null, false);
+		}
+		return describerPool;
+	}
+
+	private synchronized void shutdownDescriberPool() {
+		if (describerPool != null) {
+			describerPool.shutdown();
+			describerPool = null;
+		}
+	}
+
 	/**
 	 * Causes a new catalog to be built afresh next time an API call is made.
 	 */
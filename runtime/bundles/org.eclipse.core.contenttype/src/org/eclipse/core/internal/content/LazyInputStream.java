@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2008 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -99,10 +99,17 @@ public class LazyInputStream extends InputStream implements ILazySource {
 	}
 
 	private int loadBlock() throws IOException {
-		// read a block from the underlying stream
+		// read a block from the underlying stream, only the last block may be
+		// partially filled
 		byte[] newBlock = new byte[blockCapacity];
-		int readCount = in.read(newBlock);
-		if (readCount == -1)
+		int readCount = 0;
+		while (readCount < blockCapacity) {
+			int read = in.read(newBlock, readCount, blockCapacity - readCount);
+			if (read == -1)
+				break;
+			readCount += read;
+		}
+		if (readCount == 0)
 			return 0;
 		// expand blocks array
 		byte[][] tmpBlocks = new byte[blocks.length + 1][];
@@ -149,6 +156,38 @@ public class LazyInputStream extends InputStream implements ILazySource {
 		offset = mark;
 	}
 
+	/**
+	 * Reads the contents ahead into the buffer, up to at least the given number
+	 * of bytes. Returns whether all contents have been read.
+	 *
+	 * @throws IOException if the underlying stream could not be read, in
+	 * which case the bytes read so far are still available
+	 */
+	public boolean preload(int limit) throws IOException {
+		while (bufferSize == blocks.length * blockCapacity) {
+			if (bufferSize >= limit)
+				return false;
+			int loadedBlockSize = loadBlock();
+			if (loadedBlockSize == 0)
+				return true;
+			bufferSize += loadedBlockSize;
+		}
+		// the last block is partially filled, so the end has been reached
+		return true;
+	}
+
+	/**
+	 * Returns a new stream over the bytes read so far, which shares
+	 * the buffer of this one. The buffer must not be extended anymore once it
+	 * is shared.
+	 */
+	public LazyInputStream share() {
+		LazyInputStream shared = new LazyInputStream(InputStream.nullInputStream(), blockCapacity);
+		shared.blocks = blocks;
+		shared.bufferSize = bufferSize;
+		return shared;
+	}
+
 	@Override
 	public void rewind() {
 		mark = 0;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2012 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,8 @@ package org.eclipse.core.internal.jobs;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
+import java.util.*;
+import java.util.Map.Entry;
 import org.eclipse.core.internal.runtime.RuntimeLog;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.ILock;
@@ -23,15 +24,14 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 /**
  * Stores all the relationships between locks (rules are also considered locks),
- * and the threads that own them. All the relationships are stored in a 2D integer array.
- * The rows in the array are threads, while the columns are locks.
- * Two corresponding arrayLists store the actual threads and locks.
- * The index of a thread in the first arrayList is the index of the row in the graph.
- * The index of a lock in the second arrayList is the index of the column in the graph.
- * An entry greater than 0 in the graph is the number of times a thread in the entry's row
- * acquired the lock in the entry's column.
- * An entry of -1 means that the thread is waiting to acquire the lock.
- * An entry of 0 means that the thread and the lock have no relationship.
+ * and the threads that own them. The relationships are stored as a sparse graph:
+ * every thread in the graph maps the locks it is related to to the state of the
+ * relationship, and every lock in the graph maps to the threads related to it.
+ * A state greater than 0 is the number of times the thread acquired the lock.
+ * A state of -1 means that the thread is waiting to acquire the lock.
+ * A thread and a lock which have no relationship have no entry, so the size of
+ * the graph depends on the number of relationships, and not on the number of
+ * threads times the number of locks.
  *
  * The difference between rules and locks is that locks can be suspended, while
  * rules are implicit locks and as such cannot be suspended.
@@ -43,18 +43,22 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
  * Deadlock among rules only is impossible. Therefore, in any deadlock one can always
  * find a thread that owns at least one lock that can be suspended.
  *
+ * Deadlock can only be caused by a thread starting to wait for a lock. Therefore,
+ * only the owners of that lock, the locks they are waiting for, and so on, are
+ * searched for a cycle, and every thread is searched at most once.
+ *
  * The implementation of the graph assumes that a thread can only own 1 rule at
  * any one time. It can acquire that rule several times, but a thread cannot
  * acquire 2 non-conflicting rules at the same time.
  *
  * The implementation of the graph will sometimes also find and resolve bogus deadlocks.
- * 		graph:				assuming this rule hierarchy:
+ * 		states:				assuming this rule hierarchy:
  * 		   R2 R3 L1						R1
  * 		J1  1  0  0					   /  \
  * 		J2  0  1 -1					  R2  R3
  * 		J3 -1  0  1
  *
- * If in the above situation job4 decides to acquire rule1, then the graph will transform
+ * If in the above situation job4 decides to acquire rule1, then the states will transform
  * to the following:
  * 		   R2 R3 R1 L1
  * 		J1  1  0  1  0
@@ -72,18 +76,24 @@ public class DeadlockDetector {
 	private static int NO_STATE = 0;
 	//state variables in the graph
 	private static int WAITING_FOR_LOCK = -1;
-	//empty matrix
-	private static final int[][] EMPTY_MATRIX = new int[0][0];
-	//matrix of relationships between threads and locks
-	private int[][] graph = EMPTY_MATRIX;
-	//index is column in adjacency matrix for the lock
-	private final ArrayList<ISchedulingRule> locks = new ArrayList<>();
-	//index is row in adjacency matrix for the thread
-	private final ArrayList<Thread> lockThreads = new ArrayList<>();
-	//whether the graph needs to be resized
-	private boolean resize = false;
+	//the states of the relationships of each thread in the graph, in the order the threads were added
+	private final Map<Thread, Map<ISchedulingRule, Integer>> threadStates = new LinkedHashMap<>();
+	//the threads related to each lock in the graph, in the order the locks were added
+	private final Map<ISchedulingRule, Set<Thread>> lockThreads = new LinkedHashMap<>();
+	//the locks in the graph which are not related to any thread
+	private final Set<ISchedulingRule> unrelatedLocks = new HashSet<>();
 	private static volatile boolean noDeadlockReport;
 
+	/**
+	 * Adds the given lock to the graph, if it is not present yet.
+	 */
+	private void addLock(ISchedulingRule lock) {
+		if (!lockThreads.containsKey(lock)) {
+			lockThreads.put(lock, new HashSet<>(2));
+			unrelatedLocks.add(lock);
+		}
+	}
+
 	/**
 	 * Recursively check if any of the threads that prevent the current thread from running
 	 * are actually deadlocked with the current thread.
@@ -126,37 +136,40 @@ public class DeadlockDetector {
 	 * Check that the addition of a waiting thread did not produce deadlock.
 	 * If deadlock is detected return true, else return false.
 	 */
-	private boolean checkWaitCycles(int[] waitingThreads, int lockIndex) {
+	private boolean checkWaitCycles(ISchedulingRule lock, Set<Thread> waitingThreads, Set<Thread> visitedThreads) {
 		/**
-		 * find the lock that this thread is waiting for
+		 * find the threads that own the given lock and the locks they are waiting for
 		 * recursively check if this is a cycle (i.e. a thread waiting on itself)
 		 */
-		for (int i = 0; i < graph.length; i++) {
-			if (graph[i][lockIndex] > NO_STATE) {
-				if (waitingThreads[i] > NO_STATE) {
-					return true;
-				}
-				//keep track that we already visited this thread
-				waitingThreads[i]++;
-				for (int j = 0; j < graph[i].length; j++) {
-					if (graph[i][j] == WAITING_FOR_LOCK) {
-						if (checkWaitCycles(waitingThreads, j))
-							return true;
-					}
+		for (Thread owner : lockThreads.get(lock)) {
+			Map<ISchedulingRule, Integer> states = threadStates.get(owner);
+			if (getState(states, lock) <= NO_STATE)
+				continue;
+			if (waitingThreads.contains(owner))
+				return true;
+			//a thread that was already searched is not involved in a cycle
+			if (!visitedThreads.add(owner))
+				continue;
+			//keep track that we are visiting this thread
+			waitingThreads.add(owner);
+			for (Entry<ISchedulingRule, Integer> state : states.entrySet()) {
+				if (state.getValue().intValue() == WAITING_FOR_LOCK) {
+					if (checkWaitCycles(state.getKey(), waitingThreads, visitedThreads))
+						return true;
 				}
-				//this thread is not involved in a cycle yet, so remove the visited flag
-				waitingThreads[i]--;
 			}
+			//this thread is not involved in a cycle yet, so remove the visiting flag
+			waitingThreads.remove(owner);
 		}
 		return false;
 	}
 
 	/**
-	 * Returns true IFF the matrix contains a row for the given thread.
+	 * Returns true IFF the graph contains the given thread.
 	 * (meaning the given thread either owns locks or is waiting for locks)
 	 */
 	boolean contains(Thread t) {
-		return lockThreads.contains(t);
+		return threadStates.containsKey(t);
 	}
 
 	/**
@@ -164,25 +177,29 @@ public class DeadlockDetector {
 	 * Find a rule it conflicts with and update the new rule with the number of times
 	 * it was acquired implicitly when threads acquired conflicting rule.
 	 */
-	private void fillPresentEntries(ISchedulingRule newLock, int lockIndex) {
+	private void fillPresentEntries(ISchedulingRule newLock) {
+		List<ISchedulingRule> conflicting = new ArrayList<>();
+		for (ISchedulingRule lock : lockThreads.keySet()) {
+			if (!lock.equals(newLock) && newLock.isConflicting(lock))
+				conflicting.add(lock);
+		}
 		//fill in the entries for the new rule from rules it conflicts with
-		for (int j = 0; j < locks.size(); j++) {
-			if ((j != lockIndex) && (newLock.isConflicting(locks.get(j)))) {
-				for (int[] g : graph) {
-					if ((g[j] > NO_STATE) && (g[lockIndex] == NO_STATE)) {
-						g[lockIndex] = g[j];
-					}
-				}
+		for (ISchedulingRule lock : conflicting) {
+			for (Thread thread : lockThreads.get(lock)) {
+				Map<ISchedulingRule, Integer> states = threadStates.get(thread);
+				int state = getState(states, lock);
+				if ((state > NO_STATE) && (getState(states, newLock) == NO_STATE))
+					setState(thread, states, newLock, state);
 			}
 		}
 		//now back fill the entries for rules the current rule conflicts with
-		for (int j = 0; j < locks.size(); j++) {
-			if ((j != lockIndex) && (newLock.isConflicting(locks.get(j)))) {
-				for (int[] g : graph) {
-					if ((g[lockIndex] > NO_STATE) && (g[j] == NO_STATE)) {
-						g[j] = g[lockIndex];
-					}
-				}
+		Set<Thread> newLockThreads = lockThreads.get(newLock);
+		for (ISchedulingRule lock : conflicting) {
+			for (Thread thread : newLockThreads) {
+				Map<ISchedulingRule, Integer> states = threadStates.get(thread);
+				int state = getState(states, newLock);
+				if ((state > NO_STATE) && (getState(states, lock) == NO_STATE))
+					setState(thread, states, lock, state);
 			}
 		}
 	}
@@ -192,17 +209,37 @@ public class DeadlockDetector {
 	 */
 	private Object[] getOwnedLocks(Thread current) {
 		ArrayList<ISchedulingRule> ownedLocks = new ArrayList<>(1);
-		int index = indexOf(current, false);
-
-		for (int j = 0; j < graph[index].length; j++) {
-			if (graph[index][j] > NO_STATE)
-				ownedLocks.add(locks.get(j));
+		for (Entry<ISchedulingRule, Integer> state : threadStates.get(current).entrySet()) {
+			if (state.getValue().intValue() > NO_STATE)
+				ownedLocks.add(state.getKey());
 		}
 		if (ownedLocks.isEmpty())
 			Assert.isLegal(false, "A thread with no locks is part of a deadlock."); //$NON-NLS-1$
 		return ownedLocks.toArray();
 	}
 
+	/**
+	 * Returns the state of the relationship between a thread and the given lock.
+	 */
+	private static int getState(Map<ISchedulingRule, Integer> states, ISchedulingRule lock) {
+		Integer state = states.get(lock);
+		return state == null ? NO_STATE : state.intValue();
+	}
+
+	/**
+	 * Returns the states of the relationships of the given thread. If the thread
+	 * is not present in the graph, it is added if add is true, and
+	 * <code>null</code> is returned otherwise.
+	 */
+	private Map<ISchedulingRule, Integer> getStates(Thread owner, boolean add) {
+		Map<ISchedulingRule, Integer> states = threadStates.get(owner);
+		if ((states == null) && add) {
+			states = new LinkedHashMap<>(4);
+			threadStates.put(owner, states);
+		}
+		return states;
+	}
+
 	/**
 	 * Returns an array of threads that form the deadlock (usually 2).
 	 */
@@ -224,11 +261,11 @@ public class DeadlockDetector {
 	private Thread[] getThreadsOwningLock(ISchedulingRule rule) {
 		if (rule == null)
 			return new Thread[0];
-		int lockIndex = indexOf(rule, false);
 		ArrayList<Thread> blocking = new ArrayList<>(1);
-		for (int i = 0; i < graph.length; i++) {
-			if (graph[i][lockIndex] > NO_STATE)
-				blocking.add(lockThreads.get(i));
+		//look at the threads in the order they were added
+		for (Entry<Thread, Map<ISchedulingRule, Integer>> thread : threadStates.entrySet()) {
+			if (getState(thread.getValue(), rule) > NO_STATE)
+				blocking.add(thread.getKey());
 		}
 		if ((blocking.isEmpty()) && (JobManager.DEBUG_LOCKS))
 			System.out.println("Lock " + rule + " is involved in deadlock but is not owned by any thread."); //$NON-NLS-1$ //$NON-NLS-2$
@@ -241,80 +278,48 @@ public class DeadlockDetector {
 	 * Returns the lock the given thread is waiting for.
 	 */
 	private Object getWaitingLock(Thread current) {
-		int index = indexOf(current, false);
 		//find the lock that this thread is waiting for
-		for (int j = 0; j < graph[index].length; j++) {
-			if (graph[index][j] == WAITING_FOR_LOCK)
-				return locks.get(j);
+		for (Entry<ISchedulingRule, Integer> state : threadStates.get(current).entrySet()) {
+			if (state.getValue().intValue() == WAITING_FOR_LOCK)
+				return state.getKey();
 		}
 		//it can happen that a thread is not waiting for any lock (it is not really part of the deadlock)
 		return null;
 	}
 
 	/**
-	 * Returns the index of the given lock in the lock array. If the lock is
-	 * not present in the array, it is added to the end.
-	 */
-	private int indexOf(ISchedulingRule lock, boolean add) {
-		int index = locks.indexOf(lock);
-		if ((index < 0) && add) {
-			locks.add(lock);
-			resize = true;
-			index = locks.size() - 1;
-		}
-		return index;
-	}
-
-	/**
-	 * Returns the index of the given thread in the thread array. If the thread
-	 * is not present in the array, it is added to the end.
-	 */
-	private int indexOf(Thread owner, boolean add) {
-		int index = lockThreads.indexOf(owner);
-		if ((index < 0) && add) {
-			lockThreads.add(owner);
-			resize = true;
-			index = lockThreads.size() - 1;
-		}
-		return index;
-	}
-
-	/**
-	 * Returns true IFF the adjacency matrix is empty.
+	 * Returns true IFF the graph is empty.
 	 */
 	boolean isEmpty() {
-		return (locks.isEmpty()) && (lockThreads.isEmpty()) && (graph.length == 0);
+		return (lockThreads.isEmpty()) && (threadStates.isEmpty());
 	}
 
 	/**
 	 * The given lock was acquired by the given thread.
 	 */
 	void lockAcquired(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, true);
-		int threadIndex = indexOf(owner, true);
-		if (resize)
-			resizeGraph();
-		if (graph[threadIndex][lockIndex] == WAITING_FOR_LOCK)
-			graph[threadIndex][lockIndex] = NO_STATE;
+		addLock(lock);
+		Map<ISchedulingRule, Integer> states = getStates(owner, true);
+		if (getState(states, lock) == WAITING_FOR_LOCK)
+			setState(owner, states, lock, NO_STATE);
+		setState(owner, states, lock, getState(states, lock) + 1);
+		//a lock only conflicts with itself
+		if (lock instanceof OrderedLock)
+			return;
 		/**
 		 * acquire all locks that conflict with the given lock
 		 * or conflict with a lock the given lock will acquire implicitly
 		 * (locks are acquired implicitly when a conflicting lock is acquired)
 		 */
 		ArrayList<ISchedulingRule> conflicting = new ArrayList<>(1);
-		//only need two passes through all the locks to pick up all conflicting rules
-		int NUM_PASSES = 2;
 		conflicting.add(lock);
-		graph[threadIndex][lockIndex]++;
-		for (int i = 0; i < NUM_PASSES; i++) {
-			for (int k = 0; k < conflicting.size(); k++) {
-				ISchedulingRule current = conflicting.get(k);
-				for (int j = 0; j < locks.size(); j++) {
-					ISchedulingRule possible = locks.get(j);
-					if (current.isConflicting(possible) && !conflicting.contains(possible)) {
-						conflicting.add(possible);
-						graph[threadIndex][j]++;
-					}
+		//conflicting locks are checked as soon as they are found, so one pass picks up all conflicting rules
+		for (int k = 0; k < conflicting.size(); k++) {
+			ISchedulingRule current = conflicting.get(k);
+			for (ISchedulingRule possible : lockThreads.keySet()) {
+				if (current.isConflicting(possible) && !conflicting.contains(possible)) {
+					conflicting.add(possible);
+					setState(owner, states, possible, getState(states, possible) + 1);
 				}
 			}
 		}
@@ -324,39 +329,35 @@ public class DeadlockDetector {
 	 * The given lock was released by the given thread. Update the graph.
 	 */
 	void lockReleased(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, false);
-		int threadIndex = indexOf(owner, false);
+		Map<ISchedulingRule, Integer> states = getStates(owner, false);
 		//make sure the lock and thread exist in the graph
-		if (threadIndex < 0) {
+		if (states == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleased] Lock " + lock + " was already released by thread " + owner.getName()); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (lockIndex < 0) {
+		if (!lockThreads.containsKey(lock)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleased] Thread " + owner.getName() + " already released lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
 		//if this lock was suspended, set it to NO_STATE
-		if ((lock instanceof ILock) && (graph[threadIndex][lockIndex] == WAITING_FOR_LOCK)) {
-			graph[threadIndex][lockIndex] = NO_STATE;
+		if ((lock instanceof ILock) && (getState(states, lock) == WAITING_FOR_LOCK)) {
+			setState(owner, states, lock, NO_STATE);
 			return;
 		}
+		if ((getState(states, lock) == NO_STATE) && (JobManager.DEBUG_LOCKS))
+			System.out.println("[lockReleased] More releases than acquires for thread " + owner.getName() + " and lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
 		//release all locks that conflict with the given lock
 		//or release all rules that are owned by the given thread, if we are releasing a rule
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if ((lock.isConflicting(locks.get(j))) || (!(lock instanceof ILock) && !(locks.get(j) instanceof ILock) && (graph[threadIndex][j] > NO_STATE))) {
-				if (graph[threadIndex][j] == NO_STATE) {
-					if (JobManager.DEBUG_LOCKS)
-						System.out.println("[lockReleased] More releases than acquires for thread " + owner.getName() + " and lock " + lock); //$NON-NLS-1$ //$NON-NLS-2$
-				} else {
-					graph[threadIndex][j]--;
-				}
-			}
+		for (ISchedulingRule related : states.keySet().toArray(new ISchedulingRule[states.size()])) {
+			int state = getState(states, related);
+			if ((lock.isConflicting(related)) || (!(lock instanceof ILock) && !(related instanceof ILock) && (state > NO_STATE)))
+				setState(owner, states, related, state - 1);
 		}
 		//if this thread just released the given lock, try to simplify the graph
-		if (graph[threadIndex][lockIndex] == NO_STATE)
-			reduceGraph(threadIndex, lock);
+		if (getState(states, lock) == NO_STATE)
+			reduceGraph(owner, states, lock);
 	}
 
 	/**
@@ -364,15 +365,14 @@ public class DeadlockDetector {
 	 * Release this rule regardless of how many times it was acquired.
 	 */
 	void lockReleasedCompletely(Thread owner, ISchedulingRule rule) {
-		int ruleIndex = indexOf(rule, false);
-		int threadIndex = indexOf(owner, false);
+		Map<ISchedulingRule, Integer> states = getStates(owner, false);
 		//need to make sure that the given thread and rule were not already removed from the graph
-		if (threadIndex < 0) {
+		if (states == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleasedCompletely] Lock " + rule + " was already released by thread " + owner.getName()); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (ruleIndex < 0) {
+		if (!lockThreads.containsKey(rule)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("[lockReleasedCompletely] Thread " + owner.getName() + " already released lock " + rule); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
@@ -382,11 +382,11 @@ public class DeadlockDetector {
 		 * (not just rules that conflict with the rule we are releasing)
 		 * if we are releasing a lock, then only update the one entry for the lock
 		 */
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (!(locks.get(j) instanceof ILock) && (graph[threadIndex][j] > NO_STATE))
-				graph[threadIndex][j] = NO_STATE;
+		for (ISchedulingRule related : states.keySet().toArray(new ISchedulingRule[states.size()])) {
+			if (!(related instanceof ILock) && (getState(states, related) > NO_STATE))
+				setState(owner, states, related, NO_STATE);
 		}
-		reduceGraph(threadIndex, rule);
+		reduceGraph(owner, states, rule);
 	}
 
 	/**
@@ -395,10 +395,8 @@ public class DeadlockDetector {
 	 */
 	Deadlock lockWaitStart(Thread client, ISchedulingRule lock) {
 		setToWait(client, lock, false);
-		int lockIndex = indexOf(lock, false);
-		int[] temp = new int[lockThreads.size()];
 		//check if the addition of the waiting thread caused deadlock
-		if (!checkWaitCycles(temp, lockIndex))
+		if (!checkWaitCycles(lock, new HashSet<>(), new HashSet<>()))
 			return null;
 		//there is a deadlock in the graph
 		Thread[] threads = getThreadsInDeadlock(client);
@@ -423,36 +421,34 @@ public class DeadlockDetector {
 	 * If the lock has already been granted, then it isn't removed.
 	 */
 	void lockWaitStop(Thread owner, ISchedulingRule lock) {
-		int lockIndex = indexOf(lock, false);
-		int threadIndex = indexOf(owner, false);
+		Map<ISchedulingRule, Integer> states = getStates(owner, false);
 		//make sure the thread and lock exist in the graph
-		if (threadIndex < 0) {
+		if (states == null) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("Thread " + owner.getName() + " was already removed."); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (lockIndex < 0) {
+		if (!lockThreads.containsKey(lock)) {
 			if (JobManager.DEBUG_LOCKS)
 				System.out.println("Lock " + lock + " was already removed."); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		if (graph[threadIndex][lockIndex] != WAITING_FOR_LOCK) {
+		if (getState(states, lock) != WAITING_FOR_LOCK) {
 			// Lock has already been granted, nothing to do...
 			if (JobManager.DEBUG_LOCKS)
-				System.out.println("Lock " + lock + " already granted to depth: " + graph[threadIndex][lockIndex]); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("Lock " + lock + " already granted to depth: " + getState(states, lock)); //$NON-NLS-1$ //$NON-NLS-2$
 			return;
 		}
-		graph[threadIndex][lockIndex] = NO_STATE;
-		reduceGraph(threadIndex, lock);
+		setState(owner, states, lock, NO_STATE);
+		reduceGraph(owner, states, lock);
 	}
 
 	/**
 	 * Returns true IFF the given thread owns a single lock
 	 */
 	private boolean ownsLocks(Thread cause) {
-		int threadIndex = indexOf(cause, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE)
+		for (Integer state : threadStates.get(cause).values()) {
+			if (state.intValue() > NO_STATE)
 				return true;
 		}
 		return false;
@@ -463,10 +459,9 @@ public class DeadlockDetector {
 	 * A real lock is a lock that can be suspended.
 	 */
 	private boolean ownsRealLocks(Thread owner) {
-		int threadIndex = indexOf(owner, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE) {
-				Object lock = locks.get(j);
+		for (Entry<ISchedulingRule, Integer> state : threadStates.get(owner).entrySet()) {
+			if (state.getValue().intValue() > NO_STATE) {
+				Object lock = state.getKey();
 				if (lock instanceof ILock)
 					return true;
 			}
@@ -479,10 +474,9 @@ public class DeadlockDetector {
 	 * cannot be suspended)
 	 */
 	private boolean ownsRuleLocks(Thread owner) {
-		int threadIndex = indexOf(owner, false);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if (graph[threadIndex][j] > NO_STATE) {
-				Object lock = locks.get(j);
+		for (Entry<ISchedulingRule, Integer> state : threadStates.get(owner).entrySet()) {
+			if (state.getValue().intValue() > NO_STATE) {
+				Object lock = state.getKey();
 				if (!(lock instanceof ILock))
 					return true;
 			}
@@ -495,11 +489,10 @@ public class DeadlockDetector {
 	 * Real locks are locks that implement the ILock interface and can be suspended.
 	 */
 	private ISchedulingRule[] realLocksForThread(Thread owner) {
-		int threadIndex = indexOf(owner, false);
 		ArrayList<ISchedulingRule> ownedLocks = new ArrayList<>(1);
-		for (int j = 0; j < graph[threadIndex].length; j++) {
-			if ((graph[threadIndex][j] > NO_STATE) && (locks.get(j) instanceof ILock))
-				ownedLocks.add(locks.get(j));
+		for (Entry<ISchedulingRule, Integer> state : threadStates.get(owner).entrySet()) {
+			if ((state.getValue().intValue() > NO_STATE) && (state.getKey() instanceof ILock))
+				ownedLocks.add(state.getKey());
 		}
 		if (ownedLocks.isEmpty())
 			Assert.isLegal(false, "A thread with no real locks was chosen to resolve deadlock."); //$NON-NLS-1$
@@ -507,94 +500,24 @@ public class DeadlockDetector {
 	}
 
 	/**
-	 * The matrix has been simplified. Check if any unnecessary rows or columns
-	 * can be removed.
+	 * The graph has been simplified. Check if the given thread, or locks that
+	 * are no longer related to any thread, can be removed.
 	 */
-	private void reduceGraph(int row, ISchedulingRule lock) {
-		int numLocks = locks.size();
-		boolean[] emptyColumns = new boolean[numLocks];
-
-		/**
-		 * find all columns that could possibly be empty
-		 * (consist of locks which conflict with the given lock, or of locks which are rules)
-		 */
-		for (int j = 0; j < numLocks; j++) {
-			if ((lock.isConflicting(locks.get(j))) || !(locks.get(j) instanceof ILock))
-				emptyColumns[j] = true;
-		}
-
-		boolean rowEmpty = true;
-		int numEmpty = 0;
-		//check if the given row is empty
-		for (int j = 0; j < graph[row].length; j++) {
-			if (graph[row][j] != NO_STATE) {
-				rowEmpty = false;
-				break;
-			}
-		}
+	private void reduceGraph(Thread owner, Map<ISchedulingRule, Integer> states, ISchedulingRule lock) {
 		/**
-		 * Check if the possibly empty columns are actually empty.
-		 * If a column is actually empty, remove the corresponding lock from the list of locks
-		 * Start at the last column so that when locks are removed from the list,
-		 * the index of the remaining locks is unchanged. Store the number of empty columns.
+		 * remove the unrelated locks which conflict with the given lock, or which are rules
+		 * (locks that are still related to a thread are never removed)
 		 */
-		for (int j = emptyColumns.length - 1; j >= 0; j--) {
-			for (int[] element : graph) {
-				if (emptyColumns[j] && (element[j] != NO_STATE)) {
-					emptyColumns[j] = false;
-					break;
-				}
-			}
-			if (emptyColumns[j]) {
-				locks.remove(j);
-				numEmpty++;
-			}
-		}
-		//if no columns or rows are empty, return right away
-		if ((numEmpty == 0) && (!rowEmpty))
-			return;
-
-		if (rowEmpty)
-			lockThreads.remove(row);
-
-		//new graph (the list of locks and the list of threads are already updated)
-		final int numThreads = lockThreads.size();
-		numLocks = locks.size();
-		//optimize empty graph case
-		if (numThreads == 0 && numLocks == 0) {
-			graph = EMPTY_MATRIX;
-			return;
-		}
-		int[][] tempGraph = new int[numThreads][numLocks];
-
-		//the number of rows we need to skip to get the correct entry from the old graph
-		int numRowsSkipped = 0;
-		for (int i = 0; i < graph.length - numRowsSkipped; i++) {
-			if ((i == row) && rowEmpty) {
-				numRowsSkipped++;
-				//check if we need to skip the last row
-				if (i >= graph.length - numRowsSkipped)
-					break;
-			}
-			//the number of columns we need to skip to get the correct entry from the old graph
-			//needs to be reset for every new row
-			int numColsSkipped = 0;
-			for (int j = 0; j < graph[i].length - numColsSkipped; j++) {
-				while (emptyColumns[j + numColsSkipped]) {
-					numColsSkipped++;
-					//check if we need to skip the last column
-					if (j >= graph[i].length - numColsSkipped)
-						break;
-				}
-				//need to break out of the outer loop
-				if (j >= graph[i].length - numColsSkipped)
-					break;
-				tempGraph[i][j] = graph[i + numRowsSkipped][j + numColsSkipped];
+		for (Iterator<ISchedulingRule> it = unrelatedLocks.iterator(); it.hasNext();) {
+			ISchedulingRule unrelated = it.next();
+			if ((lock.isConflicting(unrelated)) || !(unrelated instanceof ILock)) {
+				it.remove();
+				lockThreads.remove(unrelated);
 			}
 		}
-		graph = tempGraph;
-		Assert.isTrue(numThreads == graph.length, "Rows and threads don't match."); //$NON-NLS-1$
-		Assert.isTrue(numLocks == ((graph.length > 0) ? graph[0].length : 0), "Columns and locks don't match."); //$NON-NLS-1$
+		//remove the given thread if it no longer owns or waits for any lock
+		if (states.isEmpty())
+			threadStates.remove(owner);
 	}
 
 	/**
@@ -647,28 +570,6 @@ public class DeadlockDetector {
 		RuntimeLog.log(main);
 	}
 
-	/**
-	 * The number of threads/locks in the graph has changed. Update the
-	 * underlying matrix.
-	 */
-	private void resizeGraph() {
-		// a new row and/or a new column was added to the graph.
-		// since new rows/columns are always added to the end, just transfer
-		// old entries to the new graph, with the same indices.
-		final int newRows = lockThreads.size();
-		final int newCols = locks.size();
-		//optimize 0x0 and 1x1 matrices
-		if (newRows == 0 && newCols == 0) {
-			graph = EMPTY_MATRIX;
-			return;
-		}
-		int[][] tempGraph = new int[newRows][newCols];
-		for (int i = 0; i < graph.length; i++)
-			System.arraycopy(graph[i], 0, tempGraph[i], 0, graph[i].length);
-		graph = tempGraph;
-		resize = false;
-	}
-
 	/**
 	 * Get the thread whose locks can be suspended. (i.e. all locks it owns are
 	 * actual locks and not rules). Return the first thread in the array by default.
@@ -689,6 +590,23 @@ public class DeadlockDetector {
 		return candidates[0];
 	}
 
+	/**
+	 * Sets the state of the relationship between the given thread, whose
+	 * states are given, and the given lock. Both must be present in the graph.
+	 */
+	private void setState(Thread owner, Map<ISchedulingRule, Integer> states, ISchedulingRule lock, int state) {
+		Set<Thread> threads = lockThreads.get(lock);
+		if (state == NO_STATE) {
+			states.remove(lock);
+			if (threads.remove(owner) && threads.isEmpty())
+				unrelatedLocks.add(lock);
+		} else {
+			states.put(lock, Integer.valueOf(state));
+			if (threads.add(owner) && (threads.size() == 1))
+				unrelatedLocks.remove(lock);
+		}
+	}
+
 	/**
 	 * The given thread is waiting for the given lock. Update the graph.
 	 */
@@ -701,32 +619,31 @@ public class DeadlockDetector {
 		 */
 		if (!suspend && !(lock instanceof ILock))
 			needTransfer = true;
-		int lockIndex = indexOf(lock, !suspend);
-		int threadIndex = indexOf(owner, !suspend);
-		if (resize)
-			resizeGraph();
+		if (!suspend)
+			addLock(lock);
+		Map<ISchedulingRule, Integer> states = getStates(owner, !suspend);
 
-		graph[threadIndex][lockIndex] = WAITING_FOR_LOCK;
+		setState(owner, states, lock, WAITING_FOR_LOCK);
 		if (needTransfer)
-			fillPresentEntries(lock, lockIndex);
+			fillPresentEntries(lock);
 	}
 
 	/**
-	 * Prints out the current matrix to standard output.
+	 * Prints out the current graph to standard output.
 	 * Only used for debugging.
 	 */
 	public String toDebugString() {
 		StringWriter sWriter = new StringWriter();
 		PrintWriter out = new PrintWriter(sWriter, true);
 		out.println(" :: "); //$NON-NLS-1$
-		for (ISchedulingRule lock : locks) {
+		for (ISchedulingRule lock : lockThreads.keySet()) {
 			out.print(" " + lock + ','); //$NON-NLS-1$
 		}
 		out.println();
-		for (int i = 0; i < graph.length; i++) {
-			out.print(" " + lockThreads.get(i).getName() + " : "); //$NON-NLS-1$ //$NON-NLS-2$
-			for (int j = 0; j < graph[i].length; j++) {
-				out.print(" " + graph[i][j] + ','); //$NON-NLS-1$
+		for (Entry<Thread, Map<ISchedulingRule, Integer>> thread : threadStates.entrySet()) {
+			out.print(" " + thread.getKey().getName() + " : "); //$NON-NLS-1$ //$NON-NLS-2$
+			for (Entry<ISchedulingRule, Integer> state : thread.getValue().entrySet()) {
+				out.print(" " + state.getKey() + '=' + state.getValue() + ','); //$NON-NLS-1$
 			}
 			out.println();
 		}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.eclipse.core.runtime.jobs.IDurationHistogram;
+
+/**
+ * An immutable histogram of durations. Bucket <code>i</code> counts the
+ * durations below 2^i microseconds, and the last bucket counts all longer
+ * durations.
+ */
+final class DurationHistogram implements IDurationHistogram {
+	/**
+	 * The number of buckets. The last bounded bucket ends at about 36 minutes.
+	 */
+	static final int BUCKET_COUNT = 33;
+
+	private static final long NANOS_IN_MICROSECOND = 1000;
+
+	/**
+	 * Records durations concurrently, without locking and without allocating.
+	 */
+	static final class Recorder {
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+		private final AtomicLong total = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		void record(long nanos) {
+			if (nanos < 0)
+				nanos = 0;
+			counts.incrementAndGet(bucketOf(nanos));
+			total.addAndGet(nanos);
+			max.accumulateAndGet(nanos, Math::max);
+		}
+
+		/**
+		 * Returns the durations recorded so far. Durations which are recorded
+		 * concurrently may be missing from some of the totals.
+		 */
+		DurationHistogram snapshot() {
+			long[] bucketCounts = new long[BUCKET_COUNT];
+			long count = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				bucketCounts[i] = counts.get(i);
+				count += bucketCounts[i];
+			}
+			return new DurationHistogram(bucketCounts, count, total.get(), max.get());
+		}
+	}
+
+	private final long[] bucketCounts;
+	private final long count;
+	private final long total;
+	private final long max;
+
+	private DurationHistogram(long[] bucketCounts, long count, long total, long max) {
+		this.bucketCounts = bucketCounts;
+		this.count = count;
+		this.total = total;
+		this.max = max;
+	}
+
+	static int bucketOf(long nanos) {
+		long micros = nanos / NANOS_IN_MICROSECOND;
+		// the number of bits needed for the microseconds
+		return Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+	}
+
+	@Override
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public long getTotal() {
+		return total;
+	}
+
+	@Override
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public long[] getBucketCounts() {
+		return bucketCounts.clone();
+	}
+
+	@Override
+	public long getBucketUpperBound(int bucket) {
+		if (bucket < 0 || bucket >= BUCKET_COUNT)
+			throw new IndexOutOfBoundsException(bucket);
+		if (bucket == BUCKET_COUNT - 1)
+			return Long.MAX_VALUE;
+		return (1L << bucket) * NANOS_IN_MICROSECOND;
+	}
+
+	@Override
+	public long getPercentile(double percentile) {
+		if (count == 0)
+			return 0;
+		// the number of durations up to the percentile, at least one
+		long rank = Math.max(1, (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += bucketCounts[i];
+			if (seen >= rank)
+				return Math.min(getBucketUpperBound(i), max);
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "count: " + count + ", total: " + total + "ns, max: " + max + "ns, buckets: " + Arrays.toString(bucketCounts); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2014 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -130,6 +130,14 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 	 */
 	private volatile long startTime;
 
+	/**
+	 * The time which orders this job in a queue. It is the start time, unless
+	 * the job is waiting and must not overtake a conflicting job which starts
+	 * later. The start time itself is never changed for this reason.
+	 * @GuardedBy("manager.lock")
+	 */
+	private long queueTime;
+
 	/**
 	 * Stamp added when a job is added to the wait queue. Used to ensure
 	 * jobs in the wait queue maintain their insertion order even if they are
@@ -138,6 +146,19 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 	 */
 	private long waitQueueStamp = T_NONE;
 
+	/**
+	 * The nano time when the job became ready to run, if job metrics are
+	 * recorded, or T_NONE. Set while holding the manager lock, and reset by
+	 * the thread which starts running the job.
+	 */
+	private long metricsQueueTime = T_NONE;
+
+	/**
+	 * The nano time when the job started running, if job metrics are recorded,
+	 * or T_NONE. Only accessed by the thread running the job.
+	 */
+	private long metricsRunTime = T_NONE;
+
 	/*
 	 * The thread that is currently running this job
 	 */
@@ -205,7 +226,7 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 
 	@Override
 	public final int compareTo(InternalJob otherJob) {
-		return otherJob.startTime >= startTime ? 1 : -1;
+		return otherJob.queueTime >= queueTime ? 1 : -1;
 	}
 
 	protected void done(IStatus endResult) {
@@ -260,6 +281,15 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 		return startTime;
 	}
 
+	/**
+	 * Returns the time which orders this job in a queue, which is not before
+	 * its start time.
+	 * @return time in milliseconds
+	 */
+	final long getQueueTime() {
+		return queueTime;
+	}
+
 	protected int getState() {
 		int state = flags & M_STATE;
 		switch (state) {
@@ -509,6 +539,17 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 	 */
 	final void setStartTime(long time) {
 		startTime = time;
+		queueTime = time;
+	}
+
+	/**
+	 * Sets the time which orders this job in a queue, without changing its
+	 * start time.
+	 * @param time a time in milliseconds
+	 * @GuardedBy("manager.lock")
+	 */
+	final void setQueueTime(long time) {
+		queueTime = time;
 	}
 
 	protected void setSystem(boolean value) {
@@ -574,4 +615,19 @@ public abstract class InternalJob extends PlatformObject implements Comparable<I
 		return waitQueueStamp;
 	}
 
+	long getMetricsQueueTime() {
+		return metricsQueueTime;
+	}
+
+	void setMetricsQueueTime(long metricsQueueTime) {
+		this.metricsQueueTime = metricsQueueTime;
+	}
+
+	long getMetricsRunTime() {
+		return metricsRunTime;
+	}
+
+	void setMetricsRunTime(long metricsRunTime) {
+		this.metricsRunTime = metricsRunTime;
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2022 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -149,6 +149,11 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 
 	private final LockManager lockManager = new LockManager();
 
+	/**
+	 * The metrics of the recorded job families.
+	 */
+	final JobMetricsRecorder metrics = new JobMetricsRecorder(lockManager);
+
 	/**
 	 * The pool of worker threads.
 	 */
@@ -164,6 +169,19 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 */
 	private final HashSet<InternalJob> running;
 
+	/**
+	 * The running jobs by their scheduling rules. Should only be modified from changeState
+	 * @GuardedBy("lock")
+	 */
+	private final RuleIndex runningRules = new RuleIndex();
+
+	/**
+	 * The jobs blocked by running jobs, by their scheduling rules. Should only
+	 * be modified from changeState
+	 * @GuardedBy("lock")
+	 */
+	private final RuleIndex blockedRules = new RuleIndex();
+
 	/**
 	 * Jobs that are currently yielding. Should only be modified from changeState
 	 * @GuardedBy("lock")
@@ -187,10 +205,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	private boolean suspended = false;
 
 	/**
-	 * jobs that are waiting to be run. Should only be modified from changeState
+	 * jobs that are waiting to be run, by priority. Should only be modified from changeState
 	 * @GuardedBy("lock")
 	 */
-	private final JobQueue waiting;
+	private final PriorityJobQueue waiting;
 
 	/**
 	 * ThreadJobs that are waiting to be run. Should only be modified from changeState
@@ -198,6 +216,12 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 */
 	final JobQueue waitingThreadJobs;
 
+	/**
+	 * The waiting ThreadJobs by their scheduling rules.
+	 * @GuardedBy("lock")
+	 */
+	private final RuleIndex waitingThreadRules = new RuleIndex();
+
 	/**
 	 * Counter to record wait queue insertion order.
 	 * @GuardedBy("lock")
@@ -291,7 +315,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		currentTimeInMs = new AtomicLong(lifeTimeInMs());
 		instance = this;
 		synchronized (lock) {
-			waiting = new JobQueue(false);
+			waiting = new PriorityJobQueue();
 			waitingThreadJobs = new JobQueue(false, false);
 			sleeping = new JobQueue(true);
 			running = new HashSet<>(10);
@@ -299,10 +323,14 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			pool = new WorkerPool(this);
 		}
 		pool.setDaemon(JobOSGiUtils.getDefault().useDaemonThreads());
+		if (JobOSGiUtils.getDefault().useVirtualThreads())
+			pool.setVirtualThreads(true);
 		internalWorker = new InternalWorker(this);
 		internalWorker.setDaemon(JobOSGiUtils.getDefault().useDaemonThreads());
 		internalWorker.start();
 		jobListeners.add(jobGroupUpdater);
+		if (JobOSGiUtils.getDefault().recordMetrics())
+			metrics.start(null);
 	}
 
 	@Override
@@ -407,6 +435,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			case InternalJob.BLOCKED:
 				// remove this job from the linked list of blocked jobs
 				job.remove();
+				blockedRules.remove(job);
 				break;
 			case Job.WAITING:
 				try {
@@ -425,6 +454,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			case Job.RUNNING:
 			case InternalJob.ABOUT_TO_RUN:
 				running.remove(job);
+				runningRules.remove(job);
 				// add any blocked jobs back to the wait queue
 				InternalJob blocked = job.previous();
 				job.remove();
@@ -444,10 +474,15 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				job.setStartTime(InternalJob.T_NONE);
 				job.setWaitQueueStamp(InternalJob.T_NONE);
 				job.setRunCanceled(false);
+				break;
 			case InternalJob.BLOCKED:
+				blockedRules.add(job);
 				break;
 			case Job.WAITING:
 				waiting.enqueue(job);
+				// unblocked jobs keep waiting since they were queued
+				if (oldState != InternalJob.BLOCKED)
+					metrics.jobQueued(job);
 				break;
 			case Job.SLEEPING:
 				try {
@@ -462,6 +497,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				job.setStartTime(InternalJob.T_NONE);
 				job.setWaitQueueStamp(InternalJob.T_NONE);
 				running.add(job);
+				runningRules.add(job);
 				break;
 			case InternalJob.YIELDING:
 				yielding.add(job);
@@ -551,6 +587,9 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		Thread current = Thread.currentThread();
 		if (current instanceof Worker)
 			return ((Worker) current).currentJob();
+		VirtualWorker virtualWorker = VirtualWorker.current();
+		if (virtualWorker != null)
+			return virtualWorker.currentJob();
 		synchronized (lock) {
 			for (InternalJob internalJob : running) {
 				Job job = (Job) internalJob;
@@ -709,10 +748,13 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		synchronized (lock) {
 			//discard reference to any jobs still running at this point
 			running.clear();
+			runningRules.clear();
+			blockedRules.clear();
 		}
 
 		pool.shutdown();
 		jobListeners.remove(jobGroupUpdater);
+		metrics.stopAll();
 	}
 
 	/**
@@ -777,6 +819,11 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		return members.toArray(new Job[members.size()]);
 	}
 
+	@Override
+	public IJobMetrics getMetrics(Object family) {
+		return metrics.getMetrics(family);
+	}
+
 	List<Job> find(InternalJobGroup jobGroup) {
 		Assert.isLegal(jobGroup != null, "jobGroup should not be null"); //$NON-NLS-1$
 		synchronized (lock) {
@@ -797,28 +844,12 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			if (running.isEmpty())
 				return null;
 			//check the running jobs
-			boolean hasBlockedJobs = false;
-			for (InternalJob job : running) {
-				if (waitingJob.isConflicting(job))
-					return job;
-				if (!hasBlockedJobs)
-					hasBlockedJobs = job.previous() != null;
-			}
-			//there are no blocked jobs, so we are done
-			if (!hasBlockedJobs)
-				return null;
+			InternalJob blocking = runningRules.findConflicting(waitingJob);
+			if (blocking != null)
+				return blocking;
 			//check all jobs blocked by running jobs
-			for (InternalJob job : running) {
-				while (true) {
-					job = job.previous();
-					if (job == null)
-						break;
-					if (waitingJob.isConflicting(job))
-						return job;
-				}
-			}
+			return blockedRules.findConflicting(waitingJob);
 		}
-		return null;
 	}
 
 	/**
@@ -828,6 +859,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 */
 	private InternalJob findBlockedJob(InternalJob job) {
 		synchronized (lock) {
+			//answer the common case that no thread waits for a conflicting rule from the index
+			if (waitingThreadRules.findConflicting(job) == null)
+				return null;
+			//otherwise find the first conflicting job in queue order
 			for (InternalJob waitingJob : waitingThreadJobs) {
 				if (waitingJob.isConflicting(job)) {
 					return waitingJob;
@@ -840,12 +875,16 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	void dequeue(JobQueue queue, InternalJob job) {
 		synchronized (lock) {
 			queue.remove(job);
+			if (queue == waitingThreadJobs)
+				waitingThreadRules.remove(job);
 		}
 	}
 
 	void enqueue(JobQueue queue, InternalJob job) {
 		synchronized (lock) {
 			queue.enqueue(job);
+			if (queue == waitingThreadJobs)
+				waitingThreadRules.add(job);
 		}
 	}
 
@@ -892,13 +931,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				previous = previous.previous();
 			}
 			// consider threads waiting on IJobManager#beginRule
-			for (InternalJob waitingThreadJob : waitingThreadJobs) {
-				ThreadJob waitingJob = (ThreadJob) waitingThreadJob;
-				if (runningJob.isConflicting(waitingJob) && waitingJob.shouldInterrupt())
-					return true;
-			}
-			// none found
-			return false;
+			return waitingThreadRules.findConflicting(runningJob, waitingJob -> ((ThreadJob) waitingJob).shouldInterrupt()) != null;
 		}
 	}
 
@@ -1212,12 +1245,11 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 			}
 			InternalJobGroup jobGroup = null;
 			// process the wait queue until we find a job whose rules are satisfied.
-			job = waiting.peek();
-			while (job != null) {
+			job = null;
+			for (Iterator<InternalJob> it = waiting.iterator(); it.hasNext();) {
+				job = it.next();
 				InternalJob blocker = findBlockingJob(job);
 				jobGroup = job.getJobGroup();
-				// previous() method returns the next job in the queue.
-				InternalJob nextWaitingJob = job.previous();
 				if (blocker != null) {
 					// queue this job after the job that's blocking it
 					changeState(job, InternalJob.BLOCKED);
@@ -1230,7 +1262,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				}
 				// skip this job as either this job is blocked on another job or
 				// the maximum number of jobs from the same group are already running.
-				job = nextWaitingJob == waiting.dummy ? null : nextWaitingJob;
+				job = null;
 			}
 			// the job to run must be in the running list before we exit
 			// the sync block, otherwise two jobs with conflicting rules could start at once
@@ -1370,12 +1402,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	}
 
 	protected void schedule(InternalJob job, long delay) {
-		withWriteLock(job, j -> {
-			if (scheduleInternal(job, delay, false)) {
-				pool.jobQueued();
-			}
-			return (Void) null;
-		});
+		boolean scheduled = withWriteLock(job, j -> scheduleInternal(job, delay, false));
+		//call the pool outside sync block to keep the lock order
+		if (scheduled)
+			pool.jobQueued();
 	}
 
 	protected boolean scheduleInternal(InternalJob job, long delay, boolean reschedule) {
@@ -1440,7 +1470,10 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				}
 			}
 			if ((stateMask & Job.WAITING) != 0) {
-				select(members, family, waiting.peek(), stateMask);
+				for (InternalJob internalJob : waiting) {
+					if ((family == null || internalJob.belongsTo(family)) && ((internalJob.getState() & stateMask) != 0))
+						members.add(internalJob);
+				}
 				for (InternalJob internalJob : yielding) {
 					select(members, family, internalJob, stateMask);
 				}
@@ -1737,7 +1770,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 	 * Returns the next job to be run, or null if no jobs are waiting to run.
 	 * The worker must call endJob when the job is finished running.
 	 */
-	protected Job startJob(Worker worker) {
+	protected Job startJob(Thread worker) {
 		Job job = null;
 		while (true) {
 			job = nextJob();
@@ -1774,6 +1807,7 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 				return false;
 			});
 			if (endJob == null) {
+				metrics.jobStarted(job);
 				break;
 			}
 			if (endJob.booleanValue()) {
@@ -1800,6 +1834,16 @@ public class JobManager implements IJobManager, DebugOptionsListener {
 		implicitJobs.suspend(rule, monitorFor(monitor));
 	}
 
+	@Override
+	public void startMetrics(Object family) {
+		metrics.start(family);
+	}
+
+	@Override
+	public void stopMetrics(Object family) {
+		metrics.stop(family);
+	}
+
 	@Override
 	public void transferRule(ISchedulingRule rule, Thread destinationThread) {
 		implicitJobs.transfer(rule, destinationThread);
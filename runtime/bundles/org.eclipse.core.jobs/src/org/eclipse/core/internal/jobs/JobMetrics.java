@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import org.eclipse.core.runtime.jobs.IDurationHistogram;
+import org.eclipse.core.runtime.jobs.IJobMetrics;
+
+/**
+ * An immutable snapshot of the metrics recorded for a job family.
+ */
+final class JobMetrics implements IJobMetrics {
+	private final Object family;
+	private final IDurationHistogram queueLatency;
+	private final IDurationHistogram runDuration;
+	private final IDurationHistogram blockedTime;
+
+	JobMetrics(Object family, IDurationHistogram queueLatency, IDurationHistogram runDuration, IDurationHistogram blockedTime) {
+		this.family = family;
+		this.queueLatency = queueLatency;
+		this.runDuration = runDuration;
+		this.blockedTime = blockedTime;
+	}
+
+	@Override
+	public Object getFamily() {
+		return family;
+	}
+
+	@Override
+	public IDurationHistogram getQueueLatency() {
+		return queueLatency;
+	}
+
+	@Override
+	public IDurationHistogram getRunDuration() {
+		return runDuration;
+	}
+
+	@Override
+	public IDurationHistogram getBlockedTime() {
+		return blockedTime;
+	}
+
+	@Override
+	public String toString() {
+		return "JobMetrics(" + family + ")\nqueue latency: " + queueLatency + "\nrun duration: " + runDuration + "\nblocked time: " + blockedTime; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
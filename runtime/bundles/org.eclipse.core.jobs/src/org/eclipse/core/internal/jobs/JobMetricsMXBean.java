@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import org.eclipse.core.runtime.jobs.IDurationHistogram;
+
+/**
+ * The management interface of the metrics recorded for a job family. Every
+ * attribute is a new snapshot of the metrics.
+ *
+ * @see org.eclipse.core.runtime.jobs.IJobMetrics
+ */
+public interface JobMetricsMXBean {
+	/**
+	 * Returns the string representation of the job family, or
+	 * <code>null</code> if all jobs are recorded.
+	 */
+	String getFamilyName();
+
+	IDurationHistogram getQueueLatency();
+
+	IDurationHistogram getRunDuration();
+
+	IDurationHistogram getBlockedTime();
+}
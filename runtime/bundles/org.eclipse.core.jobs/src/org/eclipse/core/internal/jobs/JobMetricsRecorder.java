@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.eclipse.core.runtime.jobs.IDurationHistogram;
+import org.eclipse.core.runtime.jobs.IJobMetrics;
+
+/**
+ * Records the metrics of the jobs of the job families for which recording was
+ * started. Durations are recorded without locking, so recording does not slow
+ * down the job manager. Nothing is recorded while no family is recorded.
+ * <p>
+ * The queue latency is measured from when a job enters the wait queue, other
+ * than by being unblocked, to when it starts running. The run duration and the
+ * time blocked on rules and locks are measured in the worker thread which runs
+ * the job.
+ * </p>
+ *
+ * @see LockManager#takeBlockedTime()
+ */
+final class JobMetricsRecorder {
+	private static final String MBEAN_NAME = "org.eclipse.core.jobs:type=JobMetrics"; //$NON-NLS-1$
+
+	/**
+	 * The metrics of a job family.
+	 */
+	private static final class Family implements JobMetricsMXBean {
+		final Object family;
+		final DurationHistogram.Recorder queueLatency = new DurationHistogram.Recorder();
+		final DurationHistogram.Recorder runDuration = new DurationHistogram.Recorder();
+		final DurationHistogram.Recorder blockedTime = new DurationHistogram.Recorder();
+		/**
+		 * The name of the registered MXBean, or <code>null</code> if none.
+		 */
+		ObjectName objectName;
+
+		Family(Object family) {
+			this.family = family;
+		}
+
+		/**
+		 * Returns whether the given job belongs to this family.
+		 */
+		boolean contains(InternalJob job) {
+			if (family == null)
+				return true;
+			try {
+				return job.belongsTo(family);
+			} catch (Exception | LinkageError e) {
+				// a failing client must not fail the job
+				return false;
+			}
+		}
+
+		@Override
+		public String getFamilyName() {
+			return family == null ? null : family.toString();
+		}
+
+		@Override
+		public IDurationHistogram getQueueLatency() {
+			return queueLatency.snapshot();
+		}
+
+		@Override
+		public IDurationHistogram getRunDuration() {
+			return runDuration.snapshot();
+		}
+
+		@Override
+		public IDurationHistogram getBlockedTime() {
+			return blockedTime.snapshot();
+		}
+
+		IJobMetrics snapshot() {
+			return new JobMetrics(family, queueLatency.snapshot(), runDuration.snapshot(), blockedTime.snapshot());
+		}
+	}
+
+	private final LockManager lockManager;
+
+	/**
+	 * The recorded families. Copied on write.
+	 */
+	private volatile Family[] families = new Family[0];
+
+	/**
+	 * The id of the MXBean of the next recorded family. Guarded by this.
+	 */
+	private long nextId;
+
+	JobMetricsRecorder(LockManager lockManager) {
+		this.lockManager = lockManager;
+	}
+
+	private Family find(Object family) {
+		for (Family recorded : families)
+			if (Objects.equals(recorded.family, family))
+				return recorded;
+		return null;
+	}
+
+	IJobMetrics getMetrics(Object family) {
+		Family recorded = find(family);
+		return recorded == null ? null : recorded.snapshot();
+	}
+
+	boolean isRecording() {
+		return families.length > 0;
+	}
+
+	/**
+	 * Notes that the given job, which is running in the current worker
+	 * thread, has finished running, and returns how long it ran in
+	 * nanoseconds, or T_NONE if it is not recorded. Must be called before the
+	 * job ends, so it cannot be running again. Does not allocate and does not
+	 * call third party code, so it can be called under OutOfMemoryError
+	 * conditions.
+	 *
+	 * @see #jobEnded(InternalJob, long, long)
+	 */
+	long jobEnding(InternalJob job) {
+		long runTime = job.getMetricsRunTime();
+		if (runTime == InternalJob.T_NONE)
+			return InternalJob.T_NONE;
+		job.setMetricsRunTime(InternalJob.T_NONE);
+		return System.nanoTime() - runTime;
+	}
+
+	/**
+	 * Returns the time in nanoseconds the current thread was blocked since the
+	 * job it runs was started. The blocked time was already taken when the job
+	 * started, so this does not allocate.
+	 */
+	long takeBlockedTime() {
+		return lockManager.takeBlockedTime();
+	}
+
+	/**
+	 * Records the durations of the given job, which has finished running.
+	 * Must be called before the job ends, so that the durations are recorded
+	 * once threads joining the job resume. Calls the <code>belongsTo</code>
+	 * method of the job, so the caller must end the job even if this fails.
+	 *
+	 * @see #jobEnding(InternalJob)
+	 */
+	void jobEnded(InternalJob job, long runDuration, long blockedTime) {
+		for (Family recorded : families) {
+			if (recorded.contains(job)) {
+				recorded.runDuration.record(runDuration);
+				recorded.blockedTime.record(blockedTime);
+			}
+		}
+	}
+
+	/**
+	 * Notes that the given job is ready to run. Called while holding the job
+	 * manager lock, so it must not call third party code.
+	 */
+	void jobQueued(InternalJob job) {
+		job.setMetricsQueueTime(isRecording() ? System.nanoTime() : InternalJob.T_NONE);
+	}
+
+	/**
+	 * Notes that the given job has started running in the current worker
+	 * thread.
+	 */
+	void jobStarted(InternalJob job) {
+		long queueTime = job.getMetricsQueueTime();
+		job.setMetricsQueueTime(InternalJob.T_NONE);
+		Family[] recorded = families;
+		if (recorded.length == 0)
+			return;
+		long now = System.nanoTime();
+		// forget the blocked time of any previous job of this thread
+		lockManager.takeBlockedTime();
+		job.setMetricsRunTime(now);
+		if (queueTime == InternalJob.T_NONE)
+			return;
+		for (Family family : recorded)
+			if (family.contains(job))
+				family.queueLatency.record(now - queueTime);
+	}
+
+	private void register(Family recorded) {
+		try {
+			String name = MBEAN_NAME;
+			// families with equal string representations are different families
+			if (recorded.family != null)
+				name += ",family=" + ObjectName.quote(recorded.family.toString()) + ",id=" + nextId++; //$NON-NLS-1$ //$NON-NLS-2$
+			ObjectName objectName = new ObjectName(name);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(recorded, objectName);
+			recorded.objectName = objectName;
+		} catch (JMException | RuntimeException | LinkageError e) {
+			if (JobManager.DEBUG)
+				JobManager.debug("Job metrics not published for " + recorded.family + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	synchronized void start(Object family) {
+		if (find(family) != null)
+			return;
+		Family recorded = new Family(family);
+		Family[] newFamilies = Arrays.copyOf(families, families.length + 1);
+		newFamilies[families.length] = recorded;
+		families = newFamilies;
+		lockManager.setRecordBlockedTime(true);
+		register(recorded);
+	}
+
+	synchronized void stop(Object family) {
+		Family recorded = find(family);
+		if (recorded == null)
+			return;
+		Family[] newFamilies = new Family[families.length - 1];
+		int i = 0;
+		for (Family f : families)
+			if (f != recorded)
+				newFamilies[i++] = f;
+		families = newFamilies;
+		lockManager.setRecordBlockedTime(newFamilies.length > 0);
+		unregister(recorded);
+	}
+
+	/**
+	 * Stops recording all families.
+	 */
+	synchronized void stopAll() {
+		Family[] recorded = families;
+		families = new Family[0];
+		lockManager.setRecordBlockedTime(false);
+		for (Family family : recorded)
+			unregister(family);
+	}
+
+	private static void unregister(Family recorded) {
+		if (recorded.objectName == null)
+			return;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(recorded.objectName);
+		} catch (JMException | RuntimeException | LinkageError e) {
+			if (JobManager.DEBUG)
+				JobManager.debug("Job metrics not unpublished for " + recorded.family + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		recorded.objectName = null;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -108,4 +108,28 @@ class JobOSGiUtils {
 			return false;
 		return "true".equalsIgnoreCase(value); //$NON-NLS-1$
 	}
+
+	/**
+	 * Calculates whether the job plugin should run jobs in virtual threads.
+	 * @return <code>true</code> if worker threads should be virtual threads,
+	 * and <code>false</code> otherwise.
+	 */
+	boolean useVirtualThreads() {
+		BundleContext context = JobActivator.getContext();
+		//if we are running stand-alone, consult the global system property
+		String value = context == null ? System.getProperty(IJobManager.PROP_USE_VIRTUAL_THREADS) : context.getProperty(IJobManager.PROP_USE_VIRTUAL_THREADS);
+		return "true".equalsIgnoreCase(value); //$NON-NLS-1$
+	}
+
+	/**
+	 * Calculates whether the job manager should record metrics of all jobs.
+	 * @return <code>true</code> if metrics should be recorded from the start,
+	 * and <code>false</code> otherwise.
+	 */
+	boolean recordMetrics() {
+		BundleContext context = JobActivator.getContext();
+		//if we are running stand-alone, consult the global system property
+		String value = context == null ? System.getProperty(IJobManager.PROP_RECORD_METRICS) : context.getProperty(IJobManager.PROP_RECORD_METRICS);
+		return "true".equalsIgnoreCase(value); //$NON-NLS-1$
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2003, 2014 IBM Corporation and others.
+ *  Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -65,8 +65,22 @@ public class LockManager {
 		}
 	}
 
+	/**
+	 * The time a thread was blocked waiting for locks or rules.
+	 */
+	private static class BlockedTime {
+		long total;
+		boolean waiting;
+		long waitStart;
+	}
+
 	//the lock listener for this lock manager
 	protected volatile LockListener lockListener;
+	/*
+	 * Whether the time threads are blocked is recorded for job metrics.
+	 */
+	private volatile boolean recordBlockedTime;
+	private final ThreadLocal<BlockedTime> blockedTimes = ThreadLocal.withInitial(BlockedTime::new);
 	/*
 	 * The internal data structure that stores all the relationships
 	 * between the locks (or rules) and the threads that own them.
@@ -116,6 +130,7 @@ public class LockManager {
 	 * This thread has just acquired a lock.  Update graph.
 	 */
 	void addLockThread(Thread thread, ISchedulingRule lock) {
+		waitStopped(thread);
 		DeadlockDetector tempLocks = locks;
 		if (tempLocks == null)
 			return;
@@ -136,6 +151,7 @@ public class LockManager {
 	 * This thread has just been refused a lock.  Update graph and check for deadlock.
 	 */
 	void addLockWaitThread(Thread thread, ISchedulingRule lock) {
+		waitStarted(thread);
 		DeadlockDetector tempLocks = locks;
 		if (tempLocks == null)
 			return;
@@ -220,7 +236,7 @@ public class LockManager {
 		//all job threads have to be treated as lock owners because UI thread
 		//may try to join a job
 		Thread current = Thread.currentThread();
-		if (current instanceof Worker)
+		if (current instanceof Worker || VirtualWorker.current() != null)
 			return true;
 		DeadlockDetector tempLocks = locks;
 		if (tempLocks == null)
@@ -283,6 +299,7 @@ public class LockManager {
 	 * for the lock) then the graph remains unchanged.
 	 */
 	void removeLockWaitThread(Thread thread, ISchedulingRule lock) {
+		waitStopped(thread);
 		DeadlockDetector tempLocks = locks;
 		if (tempLocks == null)
 			return;
@@ -316,6 +333,52 @@ public class LockManager {
 			element.resume();
 	}
 
+	/**
+	 * Sets whether the time threads are blocked waiting for locks or rules is
+	 * recorded.
+	 */
+	void setRecordBlockedTime(boolean value) {
+		recordBlockedTime = value;
+	}
+
+	/**
+	 * Returns the time in nanoseconds the current thread was blocked waiting
+	 * for locks or rules since the last call of this method, and starts
+	 * counting from zero again.
+	 */
+	long takeBlockedTime() {
+		BlockedTime blockedTime = blockedTimes.get();
+		long result = blockedTime.total;
+		blockedTime.total = 0;
+		return result;
+	}
+
+	/**
+	 * The given thread starts waiting for a lock or rule.
+	 */
+	private void waitStarted(Thread thread) {
+		if (!recordBlockedTime || thread != Thread.currentThread())
+			return;
+		BlockedTime blockedTime = blockedTimes.get();
+		if (!blockedTime.waiting) {
+			blockedTime.waiting = true;
+			blockedTime.waitStart = System.nanoTime();
+		}
+	}
+
+	/**
+	 * The given thread has acquired a lock or rule, or stopped waiting for it.
+	 */
+	private void waitStopped(Thread thread) {
+		if (!recordBlockedTime || thread != Thread.currentThread())
+			return;
+		BlockedTime blockedTime = blockedTimes.get();
+		if (blockedTime.waiting) {
+			blockedTime.waiting = false;
+			blockedTime.total += System.nanoTime() - blockedTime.waitStart;
+		}
+	}
+
 	public void setLockListener(LockListener listener) {
 		this.lockListener = listener;
 	}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.*;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * The queue of waiting jobs, which keeps one {@link JobQueue} per job
+ * priority. Jobs are ordered by their start time, like in a single queue that
+ * does not allow conflict overtaking, but enqueueing a job only walks the
+ * queue of its own priority, and the queues of other priorities only if the
+ * job has a scheduling rule. A burst of jobs of mixed priorities is therefore
+ * enqueued in constant time per job, instead of every job overtaking all the
+ * waiting jobs of lower priority one by one.
+ * <p>
+ * A job with a scheduling rule never overtakes a conflicting job which was
+ * enqueued before it. Such a job is ordered by the start time of the
+ * conflicting job instead, see {@link InternalJob#getQueueTime()}. Its own
+ * start time is kept, so the delay is computed again whenever the job is
+ * enqueued again.
+ * </p>
+ * <p>
+ * This class is not thread safe. The job manager only accesses it while
+ * holding its lock. It makes the walk over the queues cheaper, but does not
+ * reduce the contention on the lock itself.
+ * </p>
+ */
+final class PriorityJobQueue implements Iterable<InternalJob> {
+	private static final int[] PRIORITIES = {Job.INTERACTIVE, Job.SHORT, Job.LONG, Job.BUILD, Job.DECORATE};
+
+	/**
+	 * The queues by priority, in the order of {@link #PRIORITIES}.
+	 */
+	private final JobQueue[] queues = new JobQueue[PRIORITIES.length];
+
+	PriorityJobQueue() {
+		for (int i = 0; i < queues.length; i++)
+			queues[i] = new JobQueue(false);
+	}
+
+	/**
+	 * Returns whether the first job runs before the second one.
+	 */
+	private static boolean isBefore(InternalJob first, InternalJob second) {
+		if (first.getQueueTime() != second.getQueueTime())
+			return first.getQueueTime() < second.getQueueTime();
+		return first.getWaitQueueStamp() < second.getWaitQueueStamp();
+	}
+
+	/**
+	 * Removes all jobs.
+	 */
+	void clear() {
+		for (JobQueue queue : queues)
+			queue.clear();
+	}
+
+	/**
+	 * Adds a job to the queue of its priority.
+	 */
+	void enqueue(InternalJob job) {
+		JobQueue own = queueFor(job.getPriority());
+		// forget any delay behind a conflicting job which was queued before
+		job.setQueueTime(job.getStartTime());
+		if (job.getRule() != null) {
+			for (JobQueue queue : queues) {
+				if (queue != own)
+					delayForConflicts(queue, job);
+			}
+		}
+		own.enqueue(job);
+	}
+
+	/**
+	 * Orders the given job behind the latest job of the given queue which it
+	 * would otherwise overtake, but conflicts with. Only the queue time of the
+	 * job changes, its start time is kept.
+	 */
+	private static void delayForConflicts(JobQueue queue, InternalJob job) {
+		long stamp = job.getWaitQueueStamp();
+		// walk from the tail of the queue to the jobs which run before the given job
+		for (InternalJob entry = queue.dummy.next(); entry != queue.dummy && entry.getQueueTime() > job.getQueueTime(); entry = entry.next()) {
+			// a job that was already in the queue returns to its old position (bug 211799)
+			if (stamp > 0 && stamp < entry.getWaitQueueStamp())
+				continue;
+			if (job.isConflicting(entry)) {
+				job.setQueueTime(entry.getQueueTime());
+				return;
+			}
+		}
+	}
+
+	boolean isEmpty() {
+		for (JobQueue queue : queues)
+			if (!queue.isEmpty())
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the waiting jobs in the order in which they run.
+	 */
+	@Override
+	public Iterator<InternalJob> iterator() {
+		// the next job of each queue, or null if there is none
+		final InternalJob[] heads = new InternalJob[queues.length];
+		for (int i = 0; i < queues.length; i++)
+			heads[i] = queues[i].peek();
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				for (InternalJob head : heads)
+					if (head != null)
+						return true;
+				return false;
+			}
+
+			@Override
+			public InternalJob next() {
+				int next = -1;
+				for (int i = 0; i < heads.length; i++)
+					if (heads[i] != null && (next < 0 || isBefore(heads[i], heads[next])))
+						next = i;
+				if (next < 0)
+					throw new NoSuchElementException();
+				InternalJob result = heads[next];
+				// advance before the caller removes the job from its queue
+				InternalJob previous = result.previous();
+				heads[next] = previous == queues[next].dummy ? null : previous;
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Returns the job which runs first without removing it, or null if empty.
+	 */
+	InternalJob peek() {
+		InternalJob result = null;
+		for (JobQueue queue : queues) {
+			InternalJob head = queue.peek();
+			if (head != null && (result == null || isBefore(head, result)))
+				result = head;
+		}
+		return result;
+	}
+
+	private JobQueue queueFor(int priority) {
+		for (int i = 0; i < PRIORITIES.length; i++)
+			if (PRIORITIES[i] == priority)
+				return queues[i];
+		return queues[PRIORITIES.length - 1];
+	}
+
+	/**
+	 * Removes the given job from its queue.
+	 */
+	void remove(InternalJob job) {
+		job.remove();
+	}
+
+	/**
+	 * The given job has changed priority or start time. Moves it to its new
+	 * position.
+	 */
+	void resort(InternalJob job) {
+		remove(job);
+		enqueue(job);
+	}
+
+	/** for debugging only **/
+	@Override
+	public String toString() {
+		List<InternalJob> all = new ArrayList<>();
+		iterator().forEachRemaining(all::add);
+		return all.toString();
+	}
+}
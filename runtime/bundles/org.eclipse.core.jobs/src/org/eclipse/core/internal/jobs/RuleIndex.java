@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.jobs.*;
+
+/**
+ * An index of jobs by their scheduling rules. Jobs whose rules are
+ * hierarchical, or multi rules of hierarchical rules only, are indexed by the
+ * paths of their rules, so the jobs conflicting with such a rule are found
+ * without asking the rule of every indexed job. Jobs with other rules are
+ * always asked.
+ * <p>
+ * This class is not thread safe. The job manager only accesses it while
+ * holding its lock.
+ * </p>
+ *
+ * @see IHierarchicalRule
+ */
+final class RuleIndex {
+	/**
+	 * Orders paths segment by segment, so the descendants of a path directly
+	 * follow it.
+	 */
+	private static final Comparator<IPath> PATH_ORDER = (p1, p2) -> {
+		int count1 = p1.segmentCount();
+		int count2 = p2.segmentCount();
+		int count = Math.min(count1, count2);
+		for (int i = 0; i < count; i++) {
+			int result = p1.segment(i).compareTo(p2.segment(i));
+			if (result != 0)
+				return result;
+		}
+		return count1 - count2;
+	};
+
+	private static final Predicate<InternalJob> ANY_JOB = job -> true;
+
+	/**
+	 * The indexed jobs by the paths of their rules, by the domains of their rules.
+	 */
+	private final Map<Object, NavigableMap<IPath, List<InternalJob>>> jobsByPath = new HashMap<>();
+
+	/**
+	 * The rules by which each indexed job is indexed.
+	 */
+	private final Map<InternalJob, IHierarchicalRule[]> indexedJobs = new HashMap<>();
+
+	/**
+	 * Jobs whose rules are not hierarchical.
+	 */
+	private final Set<InternalJob> unindexedJobs = new HashSet<>();
+
+	/**
+	 * Returns the hierarchical rules the given rule consists of, or
+	 * <code>null</code> if it cannot be indexed.
+	 */
+	private static IHierarchicalRule[] getHierarchicalRules(ISchedulingRule rule) {
+		if (rule instanceof IHierarchicalRule)
+			return new IHierarchicalRule[] {(IHierarchicalRule) rule};
+		// subclasses of MultiRule may conflict differently
+		if (rule == null || rule.getClass() != MultiRule.class)
+			return null;
+		ISchedulingRule[] children = ((MultiRule) rule).getChildren();
+		if (children.length == 0)
+			return null;
+		IHierarchicalRule[] result = new IHierarchicalRule[children.length];
+		for (int i = 0; i < children.length; i++) {
+			if (!(children[i] instanceof IHierarchicalRule))
+				return null;
+			result[i] = (IHierarchicalRule) children[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether the given prefix is a prefix of the given path,
+	 * comparing segments only.
+	 */
+	private static boolean isPrefixOf(IPath prefix, IPath path) {
+		int count = prefix.segmentCount();
+		if (count > path.segmentCount())
+			return false;
+		for (int i = 0; i < count; i++)
+			if (!prefix.segment(i).equals(path.segment(i)))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Adds the given job, which must not be indexed already. Jobs without a
+	 * rule never conflict, so they are not indexed.
+	 */
+	void add(InternalJob job) {
+		ISchedulingRule rule = job.getRule();
+		if (rule == null)
+			return;
+		IHierarchicalRule[] rules = getHierarchicalRules(rule);
+		if (rules == null) {
+			unindexedJobs.add(job);
+			return;
+		}
+		indexedJobs.put(job, rules);
+		for (IHierarchicalRule hierarchicalRule : rules)
+			jobsByPath.computeIfAbsent(hierarchicalRule.getRuleDomain(), d -> new TreeMap<>(PATH_ORDER)).computeIfAbsent(hierarchicalRule.getRulePath(), p -> new ArrayList<>(1)).add(job);
+	}
+
+	void clear() {
+		jobsByPath.clear();
+		indexedJobs.clear();
+		unindexedJobs.clear();
+	}
+
+	/**
+	 * Returns an indexed job whose rule conflicts with the rule of the given
+	 * job, or <code>null</code> if there is none.
+	 */
+	InternalJob findConflicting(InternalJob job) {
+		return findConflicting(job, ANY_JOB);
+	}
+
+	/**
+	 * Returns an indexed job accepted by the given filter whose rule conflicts
+	 * with the rule of the given job, or <code>null</code> if there is none.
+	 */
+	InternalJob findConflicting(InternalJob job, Predicate<InternalJob> filter) {
+		ISchedulingRule rule = job.getRule();
+		if (rule == null || isEmpty())
+			return null;
+		for (InternalJob other : unindexedJobs)
+			if (job.isConflicting(other) && filter.test(other))
+				return other;
+		IHierarchicalRule[] rules = getHierarchicalRules(rule);
+		if (rules == null) {
+			// the rule may conflict with any rule
+			for (InternalJob other : indexedJobs.keySet())
+				if (job.isConflicting(other) && filter.test(other))
+					return other;
+			return null;
+		}
+		for (IHierarchicalRule hierarchicalRule : rules) {
+			NavigableMap<IPath, List<InternalJob>> paths = jobsByPath.get(hierarchicalRule.getRuleDomain());
+			if (paths == null)
+				continue;
+			IPath path = hierarchicalRule.getRulePath();
+			// jobs with rules on the path or above it
+			for (int i = 0, count = path.segmentCount(); i <= count; i++) {
+				InternalJob found = findConflicting(job, paths.get(path.uptoSegment(i)), filter);
+				if (found != null)
+					return found;
+			}
+			// jobs with rules below the path
+			for (Entry<IPath, List<InternalJob>> entry : paths.tailMap(path, false).entrySet()) {
+				if (!isPrefixOf(path, entry.getKey()))
+					break;
+				InternalJob found = findConflicting(job, entry.getValue(), filter);
+				if (found != null)
+					return found;
+			}
+		}
+		return null;
+	}
+
+	private static InternalJob findConflicting(InternalJob job, List<InternalJob> candidates, Predicate<InternalJob> filter) {
+		if (candidates == null)
+			return null;
+		for (InternalJob candidate : candidates)
+			if (job.isConflicting(candidate) && filter.test(candidate))
+				return candidate;
+		return null;
+	}
+
+	boolean isEmpty() {
+		return indexedJobs.isEmpty() && unindexedJobs.isEmpty();
+	}
+
+	/**
+	 * Removes the given job, if it is indexed.
+	 */
+	void remove(InternalJob job) {
+		IHierarchicalRule[] rules = indexedJobs.remove(job);
+		if (rules == null) {
+			unindexedJobs.remove(job);
+			return;
+		}
+		for (IHierarchicalRule rule : rules) {
+			Object domain = rule.getRuleDomain();
+			NavigableMap<IPath, List<InternalJob>> paths = jobsByPath.get(domain);
+			IPath path = rule.getRulePath();
+			List<InternalJob> jobs = paths.get(path);
+			jobs.remove(job);
+			if (jobs.isEmpty()) {
+				paths.remove(path);
+				if (paths.isEmpty())
+					jobsByPath.remove(domain);
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.jobs;
+
+import org.eclipse.core.internal.runtime.RuntimeLog;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Processes jobs supplied by the worker pool in a virtual thread, like a
+ * {@link Worker} does in a platform thread. Virtual threads cannot be
+ * subclassed, so the worker is found by a thread local instead.
+ */
+class VirtualWorker implements Runnable {
+	private static final ThreadLocal<VirtualWorker> CURRENT = new ThreadLocal<>();
+
+	// worker number used for debugging purposes only
+	private static int nextWorkerNumber = 0;
+	private volatile InternalJob currentJob;
+	private final WorkerPool pool;
+	private final String generalName;
+
+	VirtualWorker(WorkerPool pool) {
+		this.generalName = "VirtualWorker-" + nextWorkerNumber++; //$NON-NLS-1$
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the worker which runs in the current thread, or null if the
+	 * current thread is not a virtual worker thread.
+	 */
+	static VirtualWorker current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Returns the currently running job, or null if none.
+	 */
+	Job currentJob() {
+		return (Job) currentJob;
+	}
+
+	@Override
+	public void run() {
+		Thread thread = Thread.currentThread();
+		thread.setName(generalName);
+		// set the context loader to avoid leaking the current context loader
+		// for the thread that spawns this worker (bug 98376)
+		thread.setContextClassLoader(pool.defaultContextLoader);
+		CURRENT.set(this);
+		try {
+			while ((currentJob = pool.startJob(thread)) != null) {
+				try {
+					thread.setName(Worker.getJobName(generalName, currentJob));
+					Worker.runJob(pool, currentJob);
+				} finally {
+					currentJob = null;
+					thread.setName(generalName);
+				}
+			}
+		} catch (Throwable t) {
+			RuntimeLog.log(new Status(IStatus.ERROR, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, "Unhandled error", t)); //$NON-NLS-1$
+		} finally {
+			currentJob = null;
+			CURRENT.remove();
+			pool.endWorker(thread);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return generalName;
+	}
+}
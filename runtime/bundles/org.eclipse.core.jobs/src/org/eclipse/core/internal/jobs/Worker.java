@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2003, 2014 IBM Corporation and others.
+ *  Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -46,7 +46,7 @@ public class Worker extends Thread {
 		return (Job) currentJob;
 	}
 
-	private IStatus handleException(InternalJob job, Throwable t) {
+	private static IStatus handleException(InternalJob job, Throwable t) {
 		String message = NLS.bind(JobMessages.jobs_internalError, job.getName());
 		return new Status(IStatus.ERROR, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, message, t);
 	}
@@ -56,31 +56,10 @@ public class Worker extends Thread {
 		setNormPriority();
 		try {
 			while ((currentJob = pool.startJob(this)) != null) {
-				IStatus result = Status.OK_STATUS;
-				IProgressMonitor monitor = currentJob.getProgressMonitor();
 				try {
-					setName(getJobName());
-					result = currentJob.run(monitor);
-				} catch (OperationCanceledException e) {
-					result = Status.CANCEL_STATUS;
-				} catch (ThreadDeath e) {
-					// must not consume thread death
-					result = handleException(currentJob, e);
-					throw e;
-				} catch (Exception | Error e) {
-					result = handleException(currentJob, e);
+					setName(getJobName(generalName, currentJob));
+					runJob(pool, currentJob);
 				} finally {
-					if (result != Job.ASYNC_FINISH && monitor != null) {
-						monitor.done();
-					}
-					// clear interrupted state for this thread
-					Thread.interrupted();
-					// result must not be null
-					if (result == null) {
-						String message = NLS.bind(JobMessages.jobs_returnNoStatus, currentJob.getClass().getName());
-						result = handleException(currentJob, new NullPointerException(message));
-					}
-					pool.endJob(currentJob, result);
 					currentJob = null;
 					setName(generalName);
 					// reset thread priority in case job changed it
@@ -95,6 +74,38 @@ public class Worker extends Thread {
 		}
 	}
 
+	/**
+	 * Runs the given job in the current worker thread, and signals the end of
+	 * the job to the given pool.
+	 */
+	static void runJob(WorkerPool pool, InternalJob job) {
+		IStatus result = Status.OK_STATUS;
+		IProgressMonitor monitor = job.getProgressMonitor();
+		try {
+			result = job.run(monitor);
+		} catch (OperationCanceledException e) {
+			result = Status.CANCEL_STATUS;
+		} catch (ThreadDeath e) {
+			// must not consume thread death
+			result = handleException(job, e);
+			throw e;
+		} catch (Exception | Error e) {
+			result = handleException(job, e);
+		} finally {
+			if (result != Job.ASYNC_FINISH && monitor != null) {
+				monitor.done();
+			}
+			// clear interrupted state for this thread
+			Thread.interrupted();
+			// result must not be null
+			if (result == null) {
+				String message = NLS.bind(JobMessages.jobs_returnNoStatus, job.getClass().getName());
+				result = handleException(job, new NullPointerException(message));
+			}
+			pool.endJob(job, result);
+		}
+	}
+
 	private void setNormPriority() {
 		if (getPriority() != Thread.NORM_PRIORITY) {
 			// Setting priority on some platforms may cause high overhead
@@ -102,10 +113,14 @@ public class Worker extends Thread {
 		}
 	}
 
-	private String getJobName() {
-		String name = currentJob.getName();
+	/**
+	 * Returns the name of a worker thread with the given name while it runs the
+	 * given job.
+	 */
+	static String getJobName(String generalName, InternalJob job) {
+		String name = job.getName();
 		if (name == null || name.trim().isEmpty()) {
-			name = "<unnamed job: " + currentJob.getClass().getName() + ">"; //$NON-NLS-1$ //$NON-NLS-2$
+			name = "<unnamed job: " + job.getClass().getName() + ">"; //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		return generalName + ": " + name; //$NON-NLS-1$
 	}
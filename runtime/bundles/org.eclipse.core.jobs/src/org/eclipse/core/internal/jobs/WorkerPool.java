@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2003, 2012 IBM Corporation and others.
+ *  Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,12 @@
  *******************************************************************************/
 package org.eclipse.core.internal.jobs;
 
-import org.eclipse.core.runtime.Assert;
-import org.eclipse.core.runtime.IStatus;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.eclipse.core.internal.runtime.RuntimeLog;
+import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
 
 /**
@@ -27,6 +31,12 @@ import org.eclipse.core.runtime.jobs.Job;
  * by the instance's object monitor.  To avoid deadlock with third party code,
  * this lock is never held when calling methods outside this class that may in
  * turn use locks.
+ *
+ * Workers are platform threads by default. On Java 21 and later, they may be
+ * virtual threads instead, so that many jobs which block on I/O, sleep or wait
+ * for locks do not tie up a platform thread each. Idle workers therefore park
+ * rather than wait on the object monitor, since a virtual thread waiting on a
+ * monitor pins the platform thread carrying it.
  */
 class WorkerPool {
 	/**
@@ -70,10 +80,21 @@ class WorkerPool {
 	 * The number of threads that are currently sleeping
 	 */
 	private int sleepingThreads = 0;
+	/**
+	 * The sleeping threads which have not been woken yet, in the order they
+	 * went to sleep.
+	 */
+	private final ArrayDeque<Thread> sleepers = new ArrayDeque<>();
 	/**
 	 * The living set of workers in this pool.
 	 */
-	private Worker[] threads = new Worker[10];
+	private Thread[] threads = new Thread[10];
+
+	/**
+	 * Creates the threads of new workers if they are virtual threads, or
+	 * <code>null</code> if workers are platform threads.
+	 */
+	private volatile ThreadFactory virtualThreadFactory;
 
 	protected WorkerPool(JobManager manager) {
 		this.manager = manager;
@@ -83,10 +104,10 @@ class WorkerPool {
 	/**
 	 * Adds a worker to the list of workers.
 	 */
-	private synchronized void add(Worker worker) {
+	private synchronized void add(Thread worker) {
 		int size = threads.length;
 		if (numThreads + 1 > size) {
-			Worker[] newThreads = new Worker[2 * size];
+			Thread[] newThreads = new Thread[2 * size];
 			System.arraycopy(threads, 0, newThreads, 0, size);
 			threads = newThreads;
 		}
@@ -114,9 +135,17 @@ class WorkerPool {
 				//remove any locks this thread may be owning on that rule
 				manager.getLockManager().removeLockCompletely(Thread.currentThread(), job.getRule());
 			}
-			manager.endJob(job, result, true, false);
-			//ensure this thread no longer owns any scheduling rules
-			manager.implicitJobs.endJob(job);
+			//record the durations before the job ends, so that threads joining it see them
+			long runDuration = manager.metrics.jobEnding(job);
+			try {
+				if (runDuration != InternalJob.T_NONE)
+					manager.metrics.jobEnded(job, runDuration, manager.metrics.takeBlockedTime());
+			} finally {
+				//recording calls client code, which must not keep the job from ending
+				manager.endJob(job, result, true, false);
+				//ensure this thread no longer owns any scheduling rules
+				manager.implicitJobs.endJob(job);
+			}
 		} finally {
 			decrementBusyThreads();
 		}
@@ -126,7 +155,7 @@ class WorkerPool {
 	 * Signals the death of a worker thread.  Note that this method can be called under
 	 * OutOfMemoryError conditions and thus must be paranoid about allocating objects.
 	 */
-	protected synchronized void endWorker(Worker worker) {
+	protected synchronized void endWorker(Thread worker) {
 		if (remove(worker) && JobManager.DEBUG)
 			JobManager.debug("worker removed from pool: " + worker); //$NON-NLS-1$
 	}
@@ -147,13 +176,14 @@ class WorkerPool {
 	protected synchronized void jobQueued() {
 		//if there is a sleeping thread, wake it up
 		if (sleepingThreads > 0) {
-			notify();
+			Thread sleeper = sleepers.poll();
+			if (sleeper != null)
+				LockSupport.unpark(sleeper);
 			return;
 		}
 		//create a thread if all threads are busy
 		if (busyThreads >= numThreads) {
-			Worker worker = new Worker(this);
-			worker.setDaemon(isDaemon);
+			Thread worker = newWorker();
 			add(worker);
 			if (JobManager.DEBUG)
 				JobManager.debug("worker added to pool: " + worker); //$NON-NLS-1$
@@ -162,11 +192,40 @@ class WorkerPool {
 		}
 	}
 
+	/**
+	 * Returns a new worker thread, which is not started yet.
+	 */
+	private Thread newWorker() {
+		ThreadFactory factory = virtualThreadFactory;
+		if (factory != null)
+			return factory.newThread(new VirtualWorker(this));
+		Worker worker = new Worker(this);
+		worker.setDaemon(isDaemon);
+		return worker;
+	}
+
+	/**
+	 * Returns a factory of virtual threads, or <code>null</code> if the running
+	 * Java version does not support virtual threads.
+	 */
+	private static ThreadFactory newVirtualThreadFactory() {
+		if (Runtime.version().feature() < 21)
+			return null;
+		try {
+			// Thread.ofVirtual().factory(), which is not available in Java 17
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null); //$NON-NLS-1$
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			RuntimeLog.log(new Status(IStatus.WARNING, JobManager.PI_JOBS, JobManager.PLUGIN_ERROR, "Virtual threads are not available", e)); //$NON-NLS-1$
+			return null;
+		}
+	}
+
 	/**
 	 * Remove a worker thread from our list.
 	 * @return true if a worker was removed, and false otherwise.
 	 */
-	private synchronized boolean remove(Worker worker) {
+	private synchronized boolean remove(Thread worker) {
 		for (int i = 0; i < threads.length; i++) {
 			if (threads[i] == worker) {
 				System.arraycopy(threads, i + 1, threads, i, numThreads - i - 1);
@@ -184,33 +243,56 @@ class WorkerPool {
 		this.isDaemon = value;
 	}
 
+	/**
+	 * Sets whether threads created in the worker pool should be virtual
+	 * threads. Virtual threads are always daemon threads. Workers keep running
+	 * in platform threads if the running Java version does not support virtual
+	 * threads.
+	 */
+	void setVirtualThreads(boolean value) {
+		ThreadFactory factory = value ? newVirtualThreadFactory() : null;
+		virtualThreadFactory = factory;
+		if (JobManager.DEBUG)
+			JobManager.debug("worker pool uses virtual threads: " + (factory != null)); //$NON-NLS-1$
+	}
+
 	protected synchronized void shutdown() {
-		notifyAll();
+		for (Thread sleeper : sleepers)
+			LockSupport.unpark(sleeper);
+		sleepers.clear();
 	}
 
 	/**
 	 * Sleep for the given duration or until woken.
 	 */
-	private synchronized void sleep(long duration) {
-		sleepingThreads++;
-		busyThreads--;
+	private void sleep(long duration) {
+		Thread current = Thread.currentThread();
+		synchronized (this) {
+			sleepingThreads++;
+			busyThreads--;
+			sleepers.add(current);
+		}
 		if (JobManager.DEBUG)
 			JobManager.debug("worker sleeping for: " + duration + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
 		try {
-			wait(duration);
-		} catch (InterruptedException e) {
-			if (JobManager.DEBUG)
+			// a wake-up that comes before parking makes it return right away
+			LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(duration));
+			// clear the interrupt, otherwise the next sleep would not park at all
+			if (Thread.interrupted() && JobManager.DEBUG)
 				JobManager.debug("worker interrupted while waiting... :-|"); //$NON-NLS-1$
 		} finally {
-			sleepingThreads--;
-			busyThreads++;
+			synchronized (this) {
+				sleepers.remove(current);
+				sleepingThreads--;
+				busyThreads++;
+			}
 		}
 	}
 
 	/**
 	 * Returns a new job to run. Returns null if the thread should die.
 	 */
-	protected InternalJob startJob(Worker worker) {
+	protected InternalJob startJob(Thread worker) {
 		// must endWorker and decrementBusyThreads from the same synchronized block
 		boolean busy;
 		synchronized (this) {
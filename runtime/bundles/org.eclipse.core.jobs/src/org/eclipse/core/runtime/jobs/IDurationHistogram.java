@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.runtime.jobs;
+
+/**
+ * A histogram of durations recorded by the job manager. All durations are in
+ * nanoseconds. Recorded durations are counted in buckets of exponentially
+ * growing size: bucket <code>i</code> counts the durations below
+ * {@link #getBucketUpperBound(int) getBucketUpperBound(i)} which are not
+ * counted by a lower bucket. The buckets are fixed and the same for all
+ * histograms: there are 33 buckets, bucket <code>i</code> ends at
+ * 2<sup>i</sup> microseconds, and the last bucket is unbounded. A histogram
+ * never changes once it is returned by the job manager.
+ *
+ * @see IJobMetrics
+ * @since 3.15
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+public interface IDurationHistogram {
+	/**
+	 * Returns the number of the recorded durations.
+	 *
+	 * @return the number of durations
+	 */
+	long getCount();
+
+	/**
+	 * Returns the sum of the recorded durations.
+	 *
+	 * @return the total duration in nanoseconds
+	 */
+	long getTotal();
+
+	/**
+	 * Returns the longest recorded duration, or <code>0</code> if there is
+	 * none.
+	 *
+	 * @return the maximal duration in nanoseconds
+	 */
+	long getMax();
+
+	/**
+	 * Returns the number of recorded durations of each bucket.
+	 *
+	 * @return a new array of counts, indexed by bucket
+	 */
+	long[] getBucketCounts();
+
+	/**
+	 * Returns the exclusive upper bound of the durations counted by the given
+	 * bucket. The last bucket is unbounded, and returns
+	 * <code>Long.MAX_VALUE</code>.
+	 *
+	 * @param bucket the index of a bucket
+	 * @return the upper bound in nanoseconds
+	 */
+	long getBucketUpperBound(int bucket);
+
+	/**
+	 * Returns an estimate of the given percentile of the recorded durations.
+	 * The estimate is the upper bound of the bucket which contains the
+	 * percentile, so it is one of the fixed bucket bounds unless it is the
+	 * longest recorded duration, which it never exceeds. Returns <code>0</code>
+	 * if no durations are recorded.
+	 *
+	 * @param percentile the percentile, between <code>0</code> and
+	 *        <code>100</code>
+	 * @return the estimated duration in nanoseconds
+	 */
+	long getPercentile(double percentile);
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.runtime.jobs;
+
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * A scheduling rule which locks a node of a hierarchy, such as a resource in
+ * the workspace, together with all nodes below it. Such rules allow the job
+ * manager to look up conflicting jobs by path, rather than asking each rule of
+ * a running or waiting job whether it conflicts.
+ * <p>
+ * Two hierarchical rules with equal domains must conflict exactly when the
+ * path of one rule is a prefix of the path of the other rule, comparing path
+ * segments only. Hierarchical rules with different domains must never
+ * conflict. Conflicts with other rules are not restricted, but are checked
+ * with {@link #isConflicting(ISchedulingRule)} as usual. The domain and the
+ * path of a rule must never change.
+ * </p>
+ * <p>
+ * A {@link MultiRule} whose children are all hierarchical rules is looked up
+ * by the paths of its children.
+ * </p>
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ *
+ * @see ISchedulingRule#isConflicting(ISchedulingRule)
+ * @since 3.15
+ */
+public interface IHierarchicalRule extends ISchedulingRule {
+	/**
+	 * Returns the hierarchy of this rule. Only rules with equal domains may
+	 * conflict because of their paths.
+	 *
+	 * @return the domain of this rule, never <code>null</code>
+	 */
+	Object getRuleDomain();
+
+	/**
+	 * Returns the path of the node locked by this rule within its domain.
+	 *
+	 * @return the path of this rule, never <code>null</code>
+	 */
+	IPath getRulePath();
+}
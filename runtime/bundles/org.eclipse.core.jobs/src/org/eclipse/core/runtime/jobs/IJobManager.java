@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2012 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -49,6 +49,32 @@ public interface IJobManager {
 	 */
 	String PROP_USE_DAEMON_THREADS = "eclipse.jobs.daemon"; //$NON-NLS-1$
 
+	/**
+	 * A system property key indicating whether the job manager should run jobs
+	 * in virtual threads. Set to <code>true</code> to create worker threads as
+	 * virtual threads, which are always daemon threads. Virtual threads require
+	 * Java 21 or later; on older versions, worker threads are platform threads
+	 * regardless of this property. The default is to use platform threads.
+	 * <p>
+	 * Virtual threads suit jobs which spend most of their time blocked, for
+	 * example on I/O. Jobs which hold a monitor while blocking may pin the
+	 * platform thread which carries the virtual thread.
+	 * </p>
+	 * @since 3.15
+	 */
+	String PROP_USE_VIRTUAL_THREADS = "eclipse.jobs.virtualThreads"; //$NON-NLS-1$
+
+	/**
+	 * A system property key indicating whether the job manager should record
+	 * metrics of all jobs from its start. Set to <code>true</code> to start
+	 * recording as if by <code>startMetrics(null)</code>. The default is not to
+	 * record metrics.
+	 *
+	 * @see #startMetrics(Object)
+	 * @since 3.15
+	 */
+	String PROP_RECORD_METRICS = "eclipse.jobs.metrics"; //$NON-NLS-1$
+
 	/**
 	 * Registers a job listener with the job manager.
 	 * Has no effect if an identical listener is already registered.
@@ -195,6 +221,18 @@ public interface IJobManager {
 	 */
 	Job[] find(Object family);
 
+	/**
+	 * Returns a snapshot of the metrics recorded for the jobs belonging to the
+	 * given family, or <code>null</code> if metrics are not recorded for the
+	 * family.
+	 *
+	 * @param family the job family, or <code>null</code> for all jobs
+	 * @return the recorded metrics, or <code>null</code>
+	 * @see #startMetrics(Object)
+	 * @since 3.15
+	 */
+	IJobMetrics getMetrics(Object family);
+
 	/**
 	 * Returns whether the job manager is currently idle.  The job manager is
 	 * idle if no jobs are currently running or waiting to run.
@@ -396,6 +434,44 @@ public interface IJobManager {
 	 */
 	void sleep(Object family);
 
+	/**
+	 * Starts recording metrics for the jobs belonging to the given job family.
+	 * Recorded metrics are the time jobs wait before they run, the time they
+	 * run, and the time they are blocked on scheduling rules or locks while
+	 * running. Has no effect if metrics are already recorded for the family.
+	 * <p>
+	 * While metrics are recorded for a family, they are also published as an
+	 * MXBean named <code>org.eclipse.core.jobs:type=JobMetrics</code> in the
+	 * platform MBean server. Unless all jobs are recorded, the name has a
+	 * <code>family</code> key with the quoted string representation of the
+	 * family, and an <code>id</code> key which tells apart families with equal
+	 * string representations.
+	 * </p>
+	 * <p>
+	 * Recording is cheap, but {@link Job#belongsTo(Object)} is called for
+	 * every recorded family each time a job runs. Metrics should only be
+	 * recorded for a few families at a time.
+	 * </p>
+	 *
+	 * @param family the job family, or <code>null</code> for all jobs
+	 * @see #getMetrics(Object)
+	 * @see #stopMetrics(Object)
+	 * @see Job#belongsTo(Object)
+	 * @since 3.15
+	 */
+	void startMetrics(Object family);
+
+	/**
+	 * Stops recording metrics for the jobs belonging to the given job family,
+	 * and discards the metrics recorded so far. Has no effect if metrics are
+	 * not recorded for the family.
+	 *
+	 * @param family the job family, or <code>null</code> for all jobs
+	 * @see #startMetrics(Object)
+	 * @since 3.15
+	 */
+	void stopMetrics(Object family);
+
 	/**
 	 * Transfers ownership of a scheduling rule to another thread.  The identical
 	 * scheduling rule must currently be owned by the calling thread as a result of
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.runtime.jobs;
+
+/**
+ * A snapshot of the metrics the job manager records for the jobs of a job
+ * family. A sample is recorded each time a job of the family is run by the job
+ * manager. Jobs that are canceled before they run, and rules begun by threads
+ * other than job worker threads, are not recorded.
+ *
+ * @see IJobManager#startMetrics(Object)
+ * @see IJobManager#getMetrics(Object)
+ * @since 3.15
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+public interface IJobMetrics {
+	/**
+	 * Returns the job family whose jobs are recorded.
+	 *
+	 * @return the job family, or <code>null</code> if all jobs are recorded
+	 */
+	Object getFamily();
+
+	/**
+	 * Returns the histogram of the times from when jobs were ready to run,
+	 * that is when they were scheduled or woke up, to when they started
+	 * running. This includes the time jobs were blocked by running jobs with
+	 * conflicting scheduling rules.
+	 *
+	 * @return the histogram of queue latencies
+	 */
+	IDurationHistogram getQueueLatency();
+
+	/**
+	 * Returns the histogram of the times jobs spent in their
+	 * <code>run</code> method.
+	 *
+	 * @return the histogram of run durations
+	 */
+	IDurationHistogram getRunDuration();
+
+	/**
+	 * Returns the histogram of the times jobs spent blocked while running,
+	 * waiting for scheduling rules begun with
+	 * {@link IJobManager#beginRule(ISchedulingRule, org.eclipse.core.runtime.IProgressMonitor)}
+	 * or for locks created with {@link IJobManager#newLock()}. Each sample is
+	 * the total blocked time of one run of a job.
+	 *
+	 * @return the histogram of blocked times
+	 */
+	IDurationHistogram getBlockedTime();
+}
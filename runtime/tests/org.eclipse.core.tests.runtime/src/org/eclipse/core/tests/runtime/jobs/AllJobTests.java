@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2003, 2014 IBM Corporation and others.
+ *  Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -27,7 +27,7 @@ import org.junit.runners.Suite;
 		Bug_307282.class, Bug_307391.class, MultiRuleTest.class, Bug_311756.class, Bug_311863.class, Bug_316839.class,
 		Bug_320329.class, Bug_478634.class, Bug_550738.class, Bug_574883.class, Bug_412138.class,
 		Bug_574883Join.class, GithubBug_193.class,
-		WorkerPoolTest.class,
+		WorkerPoolTest.class, VirtualThreadsTest.class,
 		/*
 		 * Intentional the LAST TEST in the list to testNoTimeoutOccured() in the other
 		 * tests:
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.jobs;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.IHierarchicalRule;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+
+/**
+ * A hierarchical rule based on IPath, which the job manager can look up by
+ * path. A hierarchical path rule conflicts with another one of the same domain
+ * if either path is a prefix of the other.
+ */
+public class HierarchicalPathRule implements IHierarchicalRule {
+	private final Object domain;
+	private final IPath path;
+
+	public HierarchicalPathRule(Object domain, String pathString) {
+		this.domain = domain;
+		this.path = new Path(pathString);
+	}
+
+	@Override
+	public boolean contains(ISchedulingRule rule) {
+		if (this == rule)
+			return true;
+		if (!(rule instanceof HierarchicalPathRule))
+			return false;
+		HierarchicalPathRule other = (HierarchicalPathRule) rule;
+		return domain.equals(other.domain) && path.isPrefixOf(other.path);
+	}
+
+	@Override
+	public boolean isConflicting(ISchedulingRule rule) {
+		if (!(rule instanceof HierarchicalPathRule))
+			return false;
+		HierarchicalPathRule other = (HierarchicalPathRule) rule;
+		return domain.equals(other.domain) && (path.isPrefixOf(other.path) || other.path.isPrefixOf(path));
+	}
+
+	@Override
+	public Object getRuleDomain() {
+		return domain;
+	}
+
+	@Override
+	public IPath getRulePath() {
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		return "HierarchicalPathRule(" + domain + ", " + path + ")";
+	}
+}
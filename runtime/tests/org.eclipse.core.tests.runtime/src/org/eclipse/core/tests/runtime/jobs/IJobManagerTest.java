@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2018 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,12 +13,15 @@
  *******************************************************************************/
 package org.eclipse.core.tests.runtime.jobs;
 
+import java.lang.management.ManagementFactory;
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.stream.Stream;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import junit.framework.AssertionFailedError;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.*;
@@ -561,6 +564,55 @@ public class IJobManagerTest extends AbstractJobManagerTest {
 		}
 	}
 
+	/**
+	 * Tests that jobs with hierarchical rules, multi rules of them and other
+	 * rules never run at the same time as jobs with conflicting rules.
+	 */
+	public void testHierarchicalRules() throws InterruptedException {
+		final int JOB_COUNT = 200;
+		Object domain = "domain";
+		Object otherDomain = "otherDomain";
+		ISchedulingRule identity = new IdentityRule();
+		ISchedulingRule[] rules = new ISchedulingRule[] {new HierarchicalPathRule(domain, "/"),
+				new HierarchicalPathRule(domain, "/a"), new HierarchicalPathRule(domain, "/a/b"),
+				new HierarchicalPathRule(domain, "/a/b/c"), new HierarchicalPathRule(domain, "/a/bc"),
+				new HierarchicalPathRule(domain, "/b"), new HierarchicalPathRule(otherDomain, "/a/b"),
+				MultiRule.combine(new HierarchicalPathRule(domain, "/a/b/d"), new HierarchicalPathRule(domain, "/c")),
+				MultiRule.combine(new HierarchicalPathRule(domain, "/b/c"), identity), identity};
+		final String family = "testHierarchicalRules";
+		List<ISchedulingRule> runningRules = new ArrayList<>();
+		List<String> conflicts = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < JOB_COUNT; i++) {
+			ISchedulingRule rule = rules[i % rules.length];
+			Job job = new Job("testHierarchicalRules(" + i + ")") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					synchronized (runningRules) {
+						for (ISchedulingRule running : runningRules)
+							if (rule.isConflicting(running) || running.isConflicting(rule))
+								conflicts.add(rule + " ran with " + running);
+						runningRules.add(rule);
+					}
+					IJobManagerTest.this.sleep(1);
+					synchronized (runningRules) {
+						runningRules.remove(rule);
+					}
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public boolean belongsTo(Object jobFamily) {
+					return family == jobFamily;
+				}
+			};
+			job.setRule(rule);
+			job.schedule();
+		}
+		manager.join(family, null);
+		assertEquals("1.0", Collections.emptyList(), conflicts);
+		assertEquals("1.1", 0, manager.find(family).length);
+	}
+
 	public void testJobFamilyCancel() {
 		//test the cancellation of a family of jobs
 		final int NUM_JOBS = 20;
@@ -1692,6 +1744,97 @@ public class IJobManagerTest extends AbstractJobManagerTest {
 		}
 	}
 
+	public void testMetrics() throws InterruptedException {
+		final int JOB_COUNT = 5;
+		final String family = "testMetrics";
+		final String otherFamily = "testMetrics.other";
+		assertNull("1.0", manager.getMetrics(family));
+		manager.startMetrics(family);
+		try {
+			final ILock lock = manager.newLock();
+			final Semaphore started = new Semaphore(0);
+			lock.acquire();
+			try {
+				for (int i = 0; i < JOB_COUNT + 1; i++) {
+					final Object jobFamily = i < JOB_COUNT ? family : otherFamily;
+					Job job = new Job("testMetrics(" + i + ")") {
+						@Override
+						protected IStatus run(IProgressMonitor monitor) {
+							started.release();
+							lock.acquire();
+							lock.release();
+							return Status.OK_STATUS;
+						}
+
+						@Override
+						public boolean belongsTo(Object f) {
+							return jobFamily == f;
+						}
+					};
+					job.schedule();
+				}
+				// keep the first job blocked on the lock for a while
+				started.acquire();
+				Thread.sleep(20);
+			} finally {
+				lock.release();
+			}
+			manager.join(family, null);
+			manager.join(otherFamily, null);
+			IJobMetrics metrics = manager.getMetrics(family);
+			assertNotNull("2.0", metrics);
+			assertEquals("2.1", family, metrics.getFamily());
+			assertEquals("2.2", JOB_COUNT, metrics.getQueueLatency().getCount());
+			assertEquals("2.3", JOB_COUNT, metrics.getRunDuration().getCount());
+			assertEquals("2.4", JOB_COUNT, metrics.getBlockedTime().getCount());
+			IDurationHistogram blocked = metrics.getBlockedTime();
+			assertTrue("2.5", blocked.getMax() > 0);
+			assertTrue("2.6", metrics.getRunDuration().getTotal() >= blocked.getTotal());
+			assertEquals("2.7", JOB_COUNT, Arrays.stream(blocked.getBucketCounts()).sum());
+			assertEquals("2.8", blocked.getMax(), blocked.getPercentile(100));
+		} finally {
+			manager.stopMetrics(family);
+		}
+		assertNull("3.0", manager.getMetrics(family));
+	}
+
+	/**
+	 * Tests that families with equal string representations are recorded and
+	 * published separately.
+	 */
+	public void testMetricsFamiliesWithEqualNames() throws MalformedObjectNameException {
+		final Object family1 = new Object() {
+			@Override
+			public String toString() {
+				return "testMetricsFamiliesWithEqualNames";
+			}
+		};
+		final Object family2 = new Object() {
+			@Override
+			public String toString() {
+				return "testMetricsFamiliesWithEqualNames";
+			}
+		};
+		ObjectName pattern = new ObjectName("org.eclipse.core.jobs:type=JobMetrics,family=" + ObjectName.quote(family1.toString()) + ",*");
+		manager.startMetrics(family1);
+		try {
+			manager.startMetrics(family2);
+			try {
+				assertSame("1.0", family1, manager.getMetrics(family1).getFamily());
+				assertSame("1.1", family2, manager.getMetrics(family2).getFamily());
+				assertEquals("1.2", 2, ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).size());
+			} finally {
+				manager.stopMetrics(family2);
+			}
+			assertNotNull("2.0", manager.getMetrics(family1));
+			assertNull("2.1", manager.getMetrics(family2));
+			assertEquals("2.2", 1, ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).size());
+		} finally {
+			manager.stopMetrics(family1);
+		}
+		assertEquals("3.0", 0, ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).size());
+	}
+
 	public void testMutexRule() {
 		final int JOB_COUNT = 10;
 		TestJob[] jobs = new TestJob[JOB_COUNT];
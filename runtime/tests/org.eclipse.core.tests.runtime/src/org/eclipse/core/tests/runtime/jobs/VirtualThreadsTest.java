@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.jobs;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import junit.framework.*;
+import org.eclipse.core.internal.jobs.JobManager;
+import org.eclipse.core.internal.jobs.LockManager;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.*;
+import org.eclipse.core.tests.runtime.RuntimeTestsPlugin;
+import org.eclipse.core.tests.session.SessionTestSuite;
+import org.eclipse.core.tests.session.SetupManager.SetupException;
+
+/**
+ * Tests that jobs, rules and locks behave the same when the worker pool runs
+ * jobs in virtual threads. The tests run in a separate session with
+ * {@link IJobManager#PROP_USE_VIRTUAL_THREADS} set, and are skipped if the
+ * running Java version has no virtual threads.
+ */
+public class VirtualThreadsTest extends TestCase {
+	private static final long TIMEOUT = 30000;
+
+	/**
+	 * The code run by a test job.
+	 */
+	private interface JobBody {
+		void run(IProgressMonitor monitor) throws Exception;
+	}
+
+	public static Test suite() {
+		if (Runtime.version().feature() < 21)
+			// the workers would be platform threads, there is nothing to test
+			return new TestSuite(VirtualThreadsTest.class.getName());
+		try {
+			SessionTestSuite suite = new SessionTestSuite(RuntimeTestsPlugin.PI_RUNTIME_TESTS, VirtualThreadsTest.class);
+			suite.getSetup().setSystemProperty(IJobManager.PROP_USE_VIRTUAL_THREADS, "true");
+			return suite;
+		} catch (SetupException e) {
+			fail("Unable to setup virtual threads session");
+			return null;
+		}
+	}
+
+	public VirtualThreadsTest(String name) {
+		super(name);
+	}
+
+	/**
+	 * Returns whether the given thread is a virtual thread. Thread#isVirtual()
+	 * is not available in Java 17.
+	 */
+	private static boolean isVirtual(Thread thread) {
+		try {
+			return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+
+	private LockManager getLockManager() {
+		return ((JobManager) Job.getJobManager()).getLockManager();
+	}
+
+	/**
+	 * Returns a job with the given rule running the given code in a virtual
+	 * thread. Errors thrown by the code are kept in the given reference.
+	 */
+	private Job newJob(String name, ISchedulingRule rule, AtomicReference<Throwable> error, JobBody body) {
+		Job job = Job.create(name, monitor -> {
+			try {
+				assertTrue("Not a virtual thread: " + Thread.currentThread(), isVirtual(Thread.currentThread()));
+				body.run(monitor);
+			} catch (Throwable t) {
+				error.compareAndSet(null, t);
+			}
+		});
+		job.setRule(rule);
+		return job;
+	}
+
+	private void join(Job job, AtomicReference<Throwable> error) throws Exception {
+		assertTrue("Job did not finish: " + job, job.join(TIMEOUT, null));
+		Throwable t = error.get();
+		if (t instanceof Error)
+			throw (Error) t;
+		if (t instanceof Exception)
+			throw (Exception) t;
+	}
+
+	private void runInJob(ISchedulingRule rule, JobBody body) throws Exception {
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		Job job = newJob(getName(), rule, error, body);
+		job.schedule();
+		join(job, error);
+	}
+
+	public void testCurrentJob() throws Exception {
+		runInJob(null, monitor -> {
+			Job current = Job.getJobManager().currentJob();
+			assertNotNull("1.0", current);
+			assertEquals("1.1", getName(), current.getName());
+			assertSame("1.2", Thread.currentThread(), current.getThread());
+			// workers are always treated as lock owners
+			assertTrue("1.3", getLockManager().isLockOwner());
+		});
+		assertNull("2.0", Job.getJobManager().currentJob());
+	}
+
+	public void testBeginRuleInJob() throws Exception {
+		ISchedulingRule parent = new PathRule("/testBeginRuleInJob");
+		ISchedulingRule child = new PathRule("/testBeginRuleInJob/child");
+		runInJob(parent, monitor -> {
+			IJobManager manager = Job.getJobManager();
+			assertEquals("1.0", parent, manager.currentRule());
+			manager.beginRule(child, null);
+			try {
+				// the rule of the job contains the nested rule
+				assertEquals("2.0", parent, manager.currentRule());
+				assertTrue("2.1", getLockManager().isLockOwner());
+			} finally {
+				manager.endRule(child);
+			}
+			assertEquals("3.0", parent, manager.currentRule());
+			ISchedulingRule other = new PathRule("/testBeginRuleInJobOther");
+			try {
+				manager.beginRule(other, null);
+				manager.endRule(other);
+				fail("4.0");
+			} catch (IllegalArgumentException e) {
+				// expected, the rule is not contained in the rule of the job
+			}
+			assertEquals("4.1", parent, manager.currentRule());
+		});
+	}
+
+	/**
+	 * Tests that beginRule in a virtual worker waits for a job holding a
+	 * conflicting rule, as an implicit job. The jobs block instead of spinning,
+	 * so they don't keep the carrier threads busy.
+	 */
+	public void testBeginRuleBlocked() throws Exception {
+		ISchedulingRule rule = new PathRule("/testBeginRuleBlocked");
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch waiting = new CountDownLatch(1);
+		AtomicBoolean holderDone = new AtomicBoolean();
+		AtomicBoolean waiterDone = new AtomicBoolean();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		Job holder = newJob("holder", rule, error, monitor -> {
+			holding.countDown();
+			assertTrue("1.0", release.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			holderDone.set(true);
+		});
+		Job waiter = newJob("waiter", null, error, monitor -> {
+			waiting.countDown();
+			Job.getJobManager().beginRule(rule, null);
+			try {
+				assertTrue("2.0", holderDone.get());
+				assertEquals("2.1", rule, Job.getJobManager().currentRule());
+			} finally {
+				Job.getJobManager().endRule(rule);
+			}
+			waiterDone.set(true);
+		});
+		holder.schedule();
+		assertTrue("3.0", holding.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		waiter.schedule();
+		assertTrue("3.1", waiting.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		// give the waiter time to block on the rule
+		Thread.sleep(100);
+		assertFalse("3.2", waiterDone.get());
+		release.countDown();
+		join(holder, error);
+		join(waiter, error);
+		assertTrue("4.0", waiterDone.get());
+	}
+
+	public void testLock() throws Exception {
+		ILock lock = Job.getJobManager().newLock();
+		runInJob(null, monitor -> {
+			lock.acquire();
+			try {
+				assertEquals("1.0", 1, lock.getDepth());
+				assertTrue("1.1", getLockManager().isLockOwner());
+			} finally {
+				lock.release();
+			}
+			assertEquals("2.0", 0, lock.getDepth());
+		});
+	}
+
+	/**
+	 * Tests that a deadlock between a job holding a lock and waiting for a
+	 * rule, and a job holding the rule and waiting for the lock, is resolved.
+	 */
+	public void testRuleLockDeadlock() throws Exception {
+		ILock lock = Job.getJobManager().newLock();
+		ISchedulingRule rule = new IdentityRule();
+		CountDownLatch started = new CountDownLatch(2);
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		IJobManager manager = Job.getJobManager();
+		Job first = newJob("first", null, error, monitor -> {
+			lock.acquire();
+			started.countDown();
+			assertTrue("1.0", getLockManager().isLockOwner());
+			assertTrue("1.1", started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			manager.beginRule(rule, null);
+			assertTrue("1.2", getLockManager().isLockOwner());
+			manager.endRule(rule);
+			lock.release();
+		});
+		Job second = newJob("second", null, error, monitor -> {
+			manager.beginRule(rule, null);
+			started.countDown();
+			assertTrue("2.0", getLockManager().isLockOwner());
+			assertTrue("2.1", started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			lock.acquire();
+			assertTrue("2.2", getLockManager().isLockOwner());
+			lock.release();
+			manager.endRule(rule);
+		});
+		first.schedule();
+		second.schedule();
+		join(first, error);
+		join(second, error);
+		assertEquals("3.0", 0, lock.getDepth());
+		assertTrue("3.1", getLockManager().isEmpty());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2018 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.core.tests.runtime.perf;
 
 import junit.framework.*;
+import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.tests.runtime.RuntimeTestsPlugin;
 import org.eclipse.core.tests.session.*;
 import org.eclipse.core.tests.session.SetupManager.SetupException;
@@ -45,6 +46,17 @@ public class AllPerfTests extends TestCase {
 
 		suite.addTest(new UIPerformanceSessionTestSuite(RuntimeTestsPlugin.PI_RUNTIME_TESTS, 5, UIStartupTest.class));
 		suite.addTestSuite(BenchPath.class);
+		suite.addTestSuite(BenchJobManager.class);
+		// compare the job manager with virtual worker threads, which need Java 21
+		if (Runtime.version().feature() >= 21) {
+			try {
+				PerformanceSessionTestSuite virtualThreadsSuite = new PerformanceSessionTestSuite(RuntimeTestsPlugin.PI_RUNTIME_TESTS, 1, BenchJobManager.class);
+				virtualThreadsSuite.getSetup().setSystemProperty(IJobManager.PROP_USE_VIRTUAL_THREADS, "true");
+				suite.addTest(virtualThreadsSuite);
+			} catch (SetupException e) {
+				fail("Unable to setup virtual threads job manager performance test");
+			}
+		}
 		suite.addTest(ContentTypePerformanceTest.suite());
 		suite.addTestSuite(PreferencePerformanceTest.class);
 		return suite;
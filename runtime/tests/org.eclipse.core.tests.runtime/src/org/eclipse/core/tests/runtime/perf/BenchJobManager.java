@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.runtime.perf;
+
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.*;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.core.tests.runtime.RuntimeTest;
+import org.eclipse.core.tests.runtime.jobs.HierarchicalPathRule;
+
+public class BenchJobManager extends RuntimeTest {
+	public BenchJobManager() {
+		super();
+	}
+
+	public BenchJobManager(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Tests the performance of running a burst of many queued jobs with
+	 * hierarchical rules, while half of them are blocked by a running job.
+	 */
+	public void testManyQueuedJobsWithRules() {
+		final int JOB_COUNT = 10000;
+		final int FOLDER_COUNT = 100;
+		final String family = "testManyQueuedJobsWithRules";
+		final String blockedFamily = "testManyQueuedJobsWithRules.blocked";
+		final IJobManager manager = Job.getJobManager();
+		// a job holds the rules of every other folder while the others are scheduled
+		ISchedulingRule[] lockedRules = new ISchedulingRule[FOLDER_COUNT / 2];
+		for (int i = 0; i < lockedRules.length; i++)
+			lockedRules[i] = new HierarchicalPathRule(family, "/project/folder" + (2 * i));
+		final ISchedulingRule lockedRule = MultiRule.combine(lockedRules);
+		// like per file validation jobs
+		final ISchedulingRule[] rules = new ISchedulingRule[JOB_COUNT];
+		for (int i = 0; i < JOB_COUNT; i++)
+			rules[i] = new HierarchicalPathRule(family, "/project/folder" + (i % FOLDER_COUNT) + "/file" + i);
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				final CountDownLatch blocking = new CountDownLatch(1);
+				Job blockingJob = new Job(family) {
+					@Override
+					protected IStatus run(IProgressMonitor monitor) {
+						try {
+							blocking.await();
+						} catch (InterruptedException e) {
+							return Status.CANCEL_STATUS;
+						}
+						return Status.OK_STATUS;
+					}
+				};
+				blockingJob.setSystem(true);
+				blockingJob.setRule(lockedRule);
+				blockingJob.schedule();
+				while (blockingJob.getState() != Job.RUNNING)
+					Thread.yield();
+				manager.suspend();
+				try {
+					for (int i = 0; i < JOB_COUNT; i++) {
+						final boolean blocked = lockedRule.isConflicting(rules[i]);
+						Job job = new Job(family) {
+							@Override
+							protected IStatus run(IProgressMonitor monitor) {
+								return Status.OK_STATUS;
+							}
+
+							@Override
+							public boolean belongsTo(Object jobFamily) {
+								return (blocked ? blockedFamily : family) == jobFamily;
+							}
+						};
+						job.setSystem(true);
+						job.setRule(rules[i]);
+						job.schedule();
+					}
+				} finally {
+					manager.resume();
+				}
+				try {
+					// all jobs which are not blocked run while the others are queued
+					manager.join(family, null);
+					blocking.countDown();
+					manager.join(blockedFamily, null);
+				} catch (InterruptedException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 5, 1);
+	}
+
+	/**
+	 * Tests the throughput of running many jobs which spend most of their time
+	 * blocked, like jobs waiting for I/O. The suite runs this test with platform
+	 * worker threads and, on Java 21 or later, again with virtual worker threads, see
+	 * {@link IJobManager#PROP_USE_VIRTUAL_THREADS}.
+	 */
+	public void testManyBlockingJobs() {
+		final int JOB_COUNT = 1000;
+		final String family = "testManyBlockingJobs";
+		final IJobManager manager = Job.getJobManager();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < JOB_COUNT; i++) {
+					Job job = new Job(family) {
+						@Override
+						protected IStatus run(IProgressMonitor monitor) {
+							try {
+								Thread.sleep(20);
+							} catch (InterruptedException e) {
+								return Status.CANCEL_STATUS;
+							}
+							return Status.OK_STATUS;
+						}
+
+						@Override
+						public boolean belongsTo(Object jobFamily) {
+							return family == jobFamily;
+						}
+					};
+					job.setSystem(true);
+					job.schedule();
+				}
+				try {
+					manager.join(family, null);
+				} catch (InterruptedException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 5, 1);
+	}
+
+	/**
+	 * Tests the overhead of the deadlock detection of the job manager for
+	 * hundreds of threads which begin thousands of fine grained rules, and
+	 * compete for these rules and for a few locks while they hold them.
+	 */
+	public void testManyThreadsWithRulesAndLocks() {
+		final int THREAD_COUNT = 200;
+		final int RULES_PER_THREAD = 20;
+		final int FOLDER_COUNT = 20;
+		final String family = "testManyThreadsWithRulesAndLocks";
+		final IJobManager manager = Job.getJobManager();
+		final ILock[] locks = new ILock[4];
+		for (int i = 0; i < locks.length; i++)
+			locks[i] = manager.newLock();
+		// like the resource rules of files, and of the folders that contain them
+		final ISchedulingRule[] folderRules = new ISchedulingRule[FOLDER_COUNT];
+		for (int i = 0; i < FOLDER_COUNT; i++)
+			folderRules[i] = new HierarchicalPathRule(family, "/project/folder" + i);
+		final ISchedulingRule[][] fileRules = new ISchedulingRule[THREAD_COUNT][RULES_PER_THREAD];
+		for (int t = 0; t < THREAD_COUNT; t++)
+			for (int i = 0; i < RULES_PER_THREAD; i++)
+				fileRules[t][i] = new HierarchicalPathRule(family, "/project/folder" + (t % FOLDER_COUNT) + "/file" + t + "." + i);
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				final CountDownLatch start = new CountDownLatch(1);
+				Thread[] threads = new Thread[THREAD_COUNT];
+				for (int t = 0; t < THREAD_COUNT; t++) {
+					final int index = t;
+					threads[t] = new Thread(() -> {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						for (int i = 0; i < RULES_PER_THREAD; i++) {
+							// now and then a thread locks a whole folder
+							ISchedulingRule rule = i % 5 == 0 ? folderRules[index % FOLDER_COUNT] : fileRules[index][i];
+							manager.beginRule(rule, null);
+							try {
+								ILock lock = locks[(index + i) % locks.length];
+								lock.acquire();
+								lock.release();
+							} finally {
+								manager.endRule(rule);
+							}
+						}
+					}, family + t);
+					threads[t].start();
+				}
+				start.countDown();
+				try {
+					for (Thread thread : threads)
+						thread.join();
+				} catch (InterruptedException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 5, 1);
+	}
+
+	public void testScheduleFrom1Thread() {
+		runScheduleThroughput(1);
+	}
+
+	public void testScheduleFrom8Threads() {
+		runScheduleThroughput(8);
+	}
+
+	public void testScheduleFrom32Threads() {
+		runScheduleThroughput(32);
+	}
+
+	/**
+	 * Tests the throughput of the job manager for many tiny jobs of mixed
+	 * priorities, like the jobs of a full build, which are scheduled
+	 * concurrently by the given number of threads. Besides the measured time,
+	 * the throughput in jobs per second over all runs is printed.
+	 */
+	private void runScheduleThroughput(final int threadCount) {
+		final int JOB_COUNT = 20000;
+		final int RUNS = 5;
+		// the total nanoseconds from the start of scheduling until all jobs are done
+		final long[] elapsed = new long[1];
+		final int[] priorities = {Job.INTERACTIVE, Job.SHORT, Job.LONG, Job.BUILD};
+		final String family = "testScheduleThroughput";
+		final IJobManager manager = Job.getJobManager();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				final CountDownLatch start = new CountDownLatch(1);
+				Thread[] threads = new Thread[threadCount];
+				for (int t = 0; t < threadCount; t++) {
+					final int first = t;
+					threads[t] = new Thread(() -> {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						for (int i = first; i < JOB_COUNT; i += threadCount) {
+							Job job = new Job(family) {
+								@Override
+								protected IStatus run(IProgressMonitor monitor) {
+									return Status.OK_STATUS;
+								}
+
+								@Override
+								public boolean belongsTo(Object jobFamily) {
+									return family == jobFamily;
+								}
+							};
+							job.setSystem(true);
+							job.setPriority(priorities[i % priorities.length]);
+							job.schedule();
+						}
+					}, family + t);
+					threads[t].start();
+				}
+				long startTime = System.nanoTime();
+				start.countDown();
+				try {
+					for (Thread thread : threads)
+						thread.join();
+					manager.join(family, null);
+				} catch (InterruptedException e) {
+					fail("1.0", e);
+				}
+				elapsed[0] += System.nanoTime() - startTime;
+			}
+		}.run(this, RUNS, 1);
+		long jobsPerSecond = elapsed[0] == 0 ? 0 : (long) RUNS * JOB_COUNT * 1_000_000_000L / elapsed[0];
+		System.out.println(getName() + ": " + jobsPerSecond + " jobs/s");
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -141,6 +141,7 @@ public class ContentTypePerformanceTest extends RuntimeTest {
 		TestSuite singleRun = new PerformanceSessionTestSuite(PI_RUNTIME_TESTS, 1, "singleSessionTests");
 		singleRun.addTest(new ContentTypePerformanceTest("testContentMatching"));
 		singleRun.addTest(new ContentTypePerformanceTest("testNameMatching"));
+		singleRun.addTest(new ContentTypePerformanceTest("testManyNamesMatching"));
 		singleRun.addTest(new ContentTypePerformanceTest("testIsKindOf"));
 		suite.addTest(singleRun);
 
@@ -359,6 +360,27 @@ public class ContentTypePerformanceTest extends RuntimeTest {
 		assertEquals("missing content types", TOTAL_NUMBER_OF_ELEMENTS, countTestContentTypes(Platform.getContentTypeManager().getAllContentTypes()));
 	}
 
+	/** Tests the performance of content type matching by the names of many different files, as done by editors and decorators */
+	public void testManyNamesMatching() {
+		// warm up preference service
+		loadPreferences();
+		// warm up content type registry
+		final IContentTypeManager manager = loadContentTypeManager();
+		loadDescribers();
+		loadChildren();
+		final String[] extensions = {".txt", ".xml", ".java", ".unknown", ""};
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < 10000; i++) {
+					manager.findContentTypesFor("File" + i + extensions[i % extensions.length]);
+				}
+				IContentType[] associated = manager.findContentTypesFor(DEFAULT_NAME);
+				assertTrue("1.0", associated.length >= 1);
+			}
+		}.run(this, 10, 20);
+	}
+
 	/** Tests how much the size of the catalog affects the performance of content type matching by name */
 	public void testNameMatching() {
 		// warm up preference service